@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util.compression;
+
+import static java.util.zip.Deflater.BEST_SPEED;
+import static java.util.zip.Deflater.FILTERED;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class GZipCompressionTestCase extends AbstractMuleTestCase {
+
+  private static final int BUFFER_SIZE = 1024;
+
+  private final CountingByteBufferManager bufferManager = new CountingByteBufferManager();
+  private byte[] content;
+  private GZipCompression compression;
+
+  @Before
+  public void before() {
+    content = new byte[64 * 1024];
+    Random random = new Random(42);
+    for (int i = 0; i < content.length; ++i) {
+      // Compressible but not trivial content
+      content[i] = (byte) ('a' + random.nextInt(8));
+    }
+    compression = new GZipCompression(BEST_SPEED, FILTERED, bufferManager, BUFFER_SIZE);
+  }
+
+  @Test
+  public void streamingCompressionMatchesByteArrayCompression() throws IOException {
+    CursorStreamProvider compressed = compression.compressCursorStreamProvider(new ByteArrayCursorStreamProvider(content));
+
+    byte[] compressedContent;
+    try (CursorStream cursor = compressed.openCursor()) {
+      compressedContent = toByteArray(cursor);
+    }
+
+    assertThat(compression.isCompressed(compressedContent), is(true));
+    assertThat(compression.uncompressByteArray(compressedContent), equalTo(content));
+    assertThat(new GZipCompression().uncompressByteArray(compression.compressByteArray(content)), equalTo(content));
+    assertAllBuffersReleased();
+  }
+
+  @Test
+  public void roundTripThroughCursors() throws IOException {
+    CursorStreamProvider compressed = compression.compressCursorStreamProvider(new ByteArrayCursorStreamProvider(content));
+    CursorStreamProvider uncompressed = compression.uncompressCursorStreamProvider(compressed);
+
+    try (CursorStream cursor = uncompressed.openCursor()) {
+      assertThat(toByteArray(cursor), equalTo(content));
+    }
+    assertAllBuffersReleased();
+  }
+
+  @Test
+  public void cursorsAreRepeatable() throws IOException {
+    CursorStreamProvider uncompressed = compression
+        .uncompressCursorStreamProvider(new ByteArrayCursorStreamProvider(compression.compressByteArray(content)));
+
+    try (CursorStream first = uncompressed.openCursor(); CursorStream second = uncompressed.openCursor()) {
+      assertThat(toByteArray(first), equalTo(content));
+      assertThat(toByteArray(second), equalTo(content));
+    }
+    assertAllBuffersReleased();
+  }
+
+  @Test
+  public void seek() throws IOException {
+    CursorStreamProvider uncompressed = compression
+        .uncompressCursorStreamProvider(new ByteArrayCursorStreamProvider(compression.compressByteArray(content)));
+
+    try (CursorStream cursor = uncompressed.openCursor()) {
+      cursor.seek(1000);
+      assertThat(cursor.getPosition(), is(1000L));
+      assertThat(cursor.read(), is(content[1000] & 0xff));
+
+      cursor.seek(10);
+      assertThat(cursor.read(), is(content[10] & 0xff));
+
+      cursor.seek(content.length + 100);
+      assertThat(cursor.getPosition(), is((long) content.length));
+      assertThat(cursor.read(), is(-1));
+    }
+    assertAllBuffersReleased();
+  }
+
+  private void assertAllBuffersReleased() {
+    assertThat(bufferManager.released.get(), is(bufferManager.allocated.get()));
+  }
+
+  private static class CountingByteBufferManager implements ByteBufferManager {
+
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicInteger released = new AtomicInteger();
+
+    @Override
+    public ByteBuffer allocate(int capacity) {
+      return ByteBuffer.allocate(capacity);
+    }
+
+    @Override
+    public ManagedByteBufferWrapper allocateManaged(int capacity) {
+      allocated.incrementAndGet();
+      return new ManagedByteBufferWrapper(ByteBuffer.allocate(capacity), buffer -> released.incrementAndGet());
+    }
+
+    @Override
+    public void deallocate(ByteBuffer byteBuffer) {}
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.COALESCE;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.DROP_OLDEST;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.UNBOUNDED;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.Event1;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class AsyncNotificationQueueTestCase extends AbstractMuleTestCase {
+
+  private final List<Runnable> submittedTasks = new CopyOnWriteArrayList<>();
+  private final List<String> received = new CopyOnWriteArrayList<>();
+
+  private ExecutorService executor;
+  private NotificationListener listener;
+
+  @Before
+  public void before() {
+    executor = mock(ExecutorService.class);
+    doAnswer(invocation -> submittedTasks.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+    listener = notification -> received.add(((Event1) notification).getResourceIdentifier());
+  }
+
+  @Test
+  public void notificationsAreDeliveredInOrderInBatches() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 10, BLOCK, 2);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+    queue.offer(new Event1("3"));
+
+    assertThat(submittedTasks, hasSize(1));
+    assertThat(queue.getQueueDepth(), is(3));
+
+    runNextTask();
+    assertThat(received, contains("1", "2"));
+    assertThat(submittedTasks, hasSize(1));
+
+    runNextTask();
+    assertThat(received, contains("1", "2", "3"));
+    assertThat(submittedTasks, is(empty()));
+    assertThat(queue.getQueueDepth(), is(0));
+    assertThat(queue.getDispatchedCount(), is(3L));
+  }
+
+  @Test
+  public void dropOldestWhenFull() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 2, DROP_OLDEST, 10);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+    queue.offer(new Event1("3"));
+
+    assertThat(queue.getDroppedCount(), is(1L));
+    runNextTask();
+    assertThat(received, contains("2", "3"));
+  }
+
+  @Test
+  public void coalesceWhenFull() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 2, COALESCE, 10);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+    queue.offer(new Event1("1"));
+
+    assertThat(queue.getCoalescedCount(), is(1L));
+    assertThat(queue.getDroppedCount(), is(0L));
+
+    queue.offer(new Event1("3"));
+    assertThat(queue.getDroppedCount(), is(1L));
+
+    runNextTask();
+    assertThat(received, contains("2", "3"));
+  }
+
+  @Test
+  public void coalesceOnlyWithQueuedNotifications() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 2, COALESCE, 10);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+    queue.offer(new Event1("3"));
+    // "1" was dropped to make room for "3"
+    queue.offer(new Event1("1"));
+
+    assertThat(queue.getCoalescedCount(), is(0L));
+    assertThat(queue.getDroppedCount(), is(2L));
+
+    runNextTask();
+    assertThat(received, contains("3", "1"));
+  }
+
+  @Test
+  public void unboundedWhenFull() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 2, UNBOUNDED, 10);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+    queue.offer(new Event1("3"));
+
+    assertThat(queue.getDroppedCount(), is(0L));
+    assertThat(queue.getQueueDepth(), is(3));
+    runNextTask();
+    assertThat(received, contains("1", "2", "3"));
+  }
+
+  @Test
+  public void blockWhenFull() throws Exception {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 1, BLOCK, 10);
+    queue.offer(new Event1("1"));
+
+    Thread producer = new Thread(() -> queue.offer(new Event1("2")));
+    producer.start();
+    runNextTask();
+    producer.join(5000);
+
+    assertThat(producer.isAlive(), is(false));
+    if (!submittedTasks.isEmpty()) {
+      // The second notification may have been delivered by the first task already
+      runNextTask();
+    }
+    assertThat(received, contains("1", "2"));
+    assertThat(queue.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void blockWhenFullDropsOldestIfBlockingNotAllowed() {
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(listener, executor, 1, BLOCK, 10, () -> false);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+
+    assertThat(queue.getDroppedCount(), is(1L));
+    runNextTask();
+    assertThat(received, contains("2"));
+  }
+
+  @Test
+  public void failingListenerDoesNotStopDelivery() {
+    NotificationListener failingListener = notification -> {
+      received.add(((Event1) notification).getResourceIdentifier());
+      throw new IllegalStateException("expected");
+    };
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(failingListener, executor, 10, BLOCK, 10);
+    queue.offer(new Event1("1"));
+    queue.offer(new Event1("2"));
+
+    runNextTask();
+    assertThat(received, contains("1", "2"));
+    assertThat(queue.getDispatchedCount(), is(2L));
+  }
+
+  private void runNextTask() {
+    submittedTasks.remove(0).run();
+  }
+}
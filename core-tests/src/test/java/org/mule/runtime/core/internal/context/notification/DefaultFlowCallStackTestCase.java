@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.System.lineSeparator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.mule.runtime.core.api.context.notification.FlowStackElement;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class DefaultFlowCallStackTestCase extends AbstractMuleTestCase {
+
+  private DefaultFlowCallStack stack;
+
+  @Before
+  public void before() {
+    stack = new DefaultFlowCallStack();
+    stack.push(new FlowStackElement("flow", null));
+  }
+
+  @Test
+  public void currentProcessorIsReported() {
+    stack.pushCurrentProcessorPath("flow/processors/0");
+    stack.pushCurrentProcessorPath("flow/processors/1");
+
+    assertThat(stack.getElements(), hasSize(1));
+    assertThat(stack.peek().getProcessorPath(), is("flow/processors/1"));
+    assertThat(stack.toString(), is("at flow(flow/processors/1)"));
+  }
+
+  @Test
+  public void peekReturnsSameElementWhileProcessorDoesNotChange() {
+    stack.pushCurrentProcessorPath("flow/processors/0");
+    FlowStackElement element = stack.peek();
+
+    assertThat(stack.peek(), is(sameInstance(element)));
+    assertThat(stack.getElements().get(0), is(sameInstance(element)));
+  }
+
+  @Test
+  public void cloneIsIndependentFromParent() {
+    stack.pushCurrentProcessorPath("flow/processors/0");
+    FlowStackElement parentTop = stack.peek();
+
+    DefaultFlowCallStack child = stack.clone();
+    child.push(new FlowStackElement("subFlow", null));
+    child.pushCurrentProcessorPath("subFlow/processors/0");
+    stack.pushCurrentProcessorPath("flow/processors/1");
+
+    assertThat(child.toString(), is("at subFlow(subFlow/processors/0)" + lineSeparator() + "at flow(flow/processors/0)"));
+    assertThat(child.getElements().get(1), is(sameInstance(parentTop)));
+    assertThat(stack.toString(), is("at flow(flow/processors/1)"));
+  }
+
+  @Test
+  public void popRestoresCallerProcessor() {
+    stack.pushCurrentProcessorPath("flow/processors/0");
+    stack.push(new FlowStackElement("subFlow", null));
+    stack.pushCurrentProcessorPath("subFlow/processors/0");
+
+    assertThat(stack.pop().getProcessorPath(), is("subFlow/processors/0"));
+    assertThat(stack.peek().getProcessorPath(), is("flow/processors/0"));
+
+    stack.pop();
+    assertThat(stack.peek(), is(nullValue()));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void popEmptyStack() {
+    new DefaultFlowCallStack().pop();
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    stack.pushCurrentProcessorPath("flow/processors/0");
+    stack.push(new FlowStackElement("subFlow", null));
+    stack.pushCurrentProcessorPath("subFlow/processors/0");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(stack);
+    }
+    DefaultFlowCallStack deserialized;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      deserialized = (DefaultFlowCallStack) in.readObject();
+    }
+
+    assertThat(deserialized.toString(), is(stack.toString()));
+  }
+}
@@ -10,7 +10,10 @@ import static java.lang.Thread.State.TIMED_WAITING;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -27,8 +30,11 @@ import org.mule.tck.probe.PollingProber;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -43,6 +49,7 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
   public static final int THREAD_COUNT = 100;
   public static final int ITERATIONS_PER_THREAD = 100;
   private static final ExecutorService executor = newSingleThreadExecutor();
+  private static final ScheduledExecutorService timeoutScheduler = newSingleThreadScheduledExecutor();
   private Latch threadStartLatch = new Latch();
   private String sharedKeyA = "A";
   private String sharedKeyB = "B";
@@ -149,6 +156,173 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
     }
   }
 
+  @Test
+  public void tryLockAsyncWhenAvailable() throws Exception {
+    String testLockId = "TestLockId";
+    CompletableFuture<Boolean> lockFuture = instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler);
+
+    assertThat(lockFuture.get(5, SECONDS), is(true));
+    assertThat(instanceLockGroup.tryLock(testLockId), is(false));
+
+    instanceLockGroup.unlock(testLockId);
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void tryLockAsyncUnlockedFromAnotherThread() throws Exception {
+    String testLockId = "TestLockId";
+    assertThat(instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler).get(5, SECONDS), is(true));
+
+    executor.submit(() -> instanceLockGroup.unlock(testLockId)).get(5, SECONDS);
+
+    assertThat(instanceLockGroup.tryLock(testLockId, 5L, SECONDS), is(true));
+    instanceLockGroup.unlock(testLockId);
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void tryLockAsyncGrantedToNextRequestWhenUnlockedFromAnotherThread() throws Exception {
+    String testLockId = "TestLockId";
+    assertThat(instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler).get(5, SECONDS), is(true));
+
+    CompletableFuture<Boolean> next = instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler);
+    assertThat(next.isDone(), is(false));
+
+    executor.submit(() -> instanceLockGroup.unlock(testLockId)).get(5, SECONDS);
+    assertThat(next.get(5, SECONDS), is(true));
+
+    instanceLockGroup.unlock(testLockId);
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void tryLockAsyncGrantedWhenUnlocked() throws Exception {
+    String testLockId = "TestLockId";
+    Latch locked = new Latch();
+    Latch unlock = new Latch();
+    Future<?> holder = executor.submit(() -> {
+      instanceLockGroup.lock(testLockId);
+      locked.release();
+      try {
+        unlock.await();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      } finally {
+        instanceLockGroup.unlock(testLockId);
+      }
+    });
+    locked.await();
+
+    AtomicReference<Thread> grantedOn = new AtomicReference<>();
+    CompletableFuture<Void> lockFuture = instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler)
+        .thenAccept(acquired -> {
+          assertThat(acquired, is(true));
+          grantedOn.set(currentThread());
+          instanceLockGroup.unlock(testLockId);
+        });
+    assertThat(lockFuture.isDone(), is(false));
+
+    unlock.release();
+    holder.get(5, SECONDS);
+    lockFuture.get(5, SECONDS);
+
+    assertThat(grantedOn.get(), is(not(currentThread())));
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void tryLockAsyncTimesOut() throws Exception {
+    String testLockId = "TestLockId";
+    Latch locked = new Latch();
+    Latch unlock = new Latch();
+    executor.submit(() -> {
+      instanceLockGroup.lock(testLockId);
+      locked.release();
+      try {
+        unlock.await();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      } finally {
+        instanceLockGroup.unlock(testLockId);
+      }
+    });
+    locked.await();
+
+    try {
+      assertThat(instanceLockGroup.tryLockAsync(testLockId, 100, MILLISECONDS, timeoutScheduler).get(5, SECONDS), is(false));
+      assertThat(instanceLockGroup.size(), is(1));
+    } finally {
+      unlock.release();
+    }
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void asyncHeldLockUnlockedAfterDispose() throws Exception {
+    String testLockId = "TestLockId";
+    InstanceLockGroup instanceLockGroup = new InstanceLockGroup(lockProvider, 0);
+    assertThat(instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler).get(5, SECONDS), is(true));
+    CompletableFuture<Boolean> next = instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler);
+
+    instanceLockGroup.dispose();
+    instanceLockGroup.unlock(testLockId);
+
+    assertThat(next.get(5, SECONDS), is(false));
+    assertThat(instanceLockGroup.size(), is(0));
+  }
+
+  @Test
+  public void tryLockAsyncAfterDispose() throws Exception {
+    String testLockId = "TestLockId";
+    InstanceLockGroup instanceLockGroup = new InstanceLockGroup(lockProvider, 0);
+    Latch locked = new Latch();
+    Latch unlock = new Latch();
+    executor.submit(() -> {
+      instanceLockGroup.lock(testLockId);
+      locked.release();
+      try {
+        unlock.await();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      } finally {
+        instanceLockGroup.unlock(testLockId);
+      }
+    });
+    locked.await();
+    instanceLockGroup.dispose();
+
+    try {
+      assertThat(instanceLockGroup.tryLockAsync(testLockId, 5L, SECONDS, timeoutScheduler).get(5, SECONDS), is(false));
+    } finally {
+      unlock.release();
+    }
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.size() == 0));
+  }
+
+  @Test
+  public void manyDistinctKeysAreReleased() throws Exception {
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      final int threadIndex = i;
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < ITERATIONS_PER_THREAD; j++) {
+          String key = "key-" + threadIndex + "-" + j;
+          instanceLockGroup.lock(key);
+          instanceLockGroup.unlock(key);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(instanceLockGroup.size(), is(0));
+  }
+
   private void lockUnlockThenDestroy(int lockTimes) {
     mockLockProvider = Mockito.mock(LockProvider.class, Answers.RETURNS_DEEP_STUBS);
     InstanceLockGroup instanceLockGroup = new InstanceLockGroup(mockLockProvider);
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics.ComponentLatencySnapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultComponentLatencyStatisticsTestCase extends AbstractMuleTestCase {
+
+  private static final String LOCATION = "flow/processors/0";
+
+  private long now;
+  private DefaultComponentLatencyStatistics statistics;
+
+  @Before
+  public void before() {
+    now = SECONDS.toNanos(1000);
+    statistics = new DefaultComponentLatencyStatistics(() -> now, SECONDS.toNanos(10), 6);
+  }
+
+  @Test
+  public void nothingRecordedWhenDisabled() {
+    TestExecution event = new TestExecution();
+    statistics.start(LOCATION, event);
+    statistics.end(LOCATION, event, false);
+
+    assertThat(statistics.getSnapshots(), is(empty()));
+  }
+
+  @Test
+  public void executionsAreRecorded() {
+    statistics.enable();
+    for (int i = 1; i <= 100; ++i) {
+      TestExecution event = new TestExecution();
+      statistics.start(LOCATION, event);
+      now += MILLISECONDS.toNanos(i);
+      statistics.end(LOCATION, event, i % 10 == 0);
+    }
+    statistics.start(LOCATION, new TestExecution());
+
+    ComponentLatencySnapshot snapshot = singleSnapshot();
+    assertThat(snapshot.getInvocations(), is(100L));
+    assertThat(snapshot.getErrors(), is(10L));
+    assertThat(snapshot.getInFlight(), is(1L));
+    assertLatency(snapshot, 50, 50);
+    assertLatency(snapshot, 90, 90);
+    assertLatency(snapshot, 99, 99);
+  }
+
+  @Test
+  public void executionsStartedBeforeEnablingAreNotRecorded() {
+    TestExecution event = new TestExecution();
+    statistics.start(LOCATION, event);
+    statistics.enable();
+    statistics.end(LOCATION, event, false);
+
+    assertThat(statistics.getSnapshots(), is(empty()));
+  }
+
+  @Test
+  public void executionsInProgressAreForgottenWhenDisabling() {
+    TestExecution event = new TestExecution();
+    statistics.enable();
+    statistics.start(LOCATION, event);
+    statistics.disable();
+    statistics.end(LOCATION, event, false);
+
+    ComponentLatencySnapshot snapshot = singleSnapshot();
+    assertThat(snapshot.getInvocations(), is(0L));
+    assertThat(snapshot.getInFlight(), is(0L));
+  }
+
+  @Test
+  public void executionsWhichNeverEndAreForgottenWhenDisabling() {
+    statistics.enable();
+    statistics.start(LOCATION, new TestExecution());
+    assertThat(singleSnapshot().getInFlight(), is(1L));
+
+    statistics.disable();
+    assertThat(singleSnapshot().getInFlight(), is(0L));
+  }
+
+  @Test
+  public void nestedExecutionsOfTheSameEventAreRecordedApart() {
+    TestExecution event = new TestExecution();
+    statistics.enable();
+    for (int i = 0; i < 6; ++i) {
+      statistics.start(LOCATION + "/" + i, event);
+      now += MILLISECONDS.toNanos(10);
+    }
+    for (int i = 5; i >= 0; --i) {
+      statistics.end(LOCATION + "/" + i, event, false);
+    }
+
+    List<ComponentLatencySnapshot> snapshots = statistics.getSnapshots();
+    assertThat(snapshots, hasSize(6));
+    for (ComponentLatencySnapshot snapshot : snapshots) {
+      int nesting = Integer.parseInt(snapshot.getLocation().substring(LOCATION.length() + 1));
+      assertThat(snapshot.getInvocations(), is(1L));
+      assertThat(snapshot.getInFlight(), is(0L));
+      assertLatency(snapshot, 50, (6 - nesting) * 10);
+    }
+  }
+
+  @Test
+  public void executionsOfKeysWithoutStartTimesAreNotRecorded() {
+    statistics.enable();
+    statistics.start(LOCATION, "event");
+    statistics.end(LOCATION, "event", false);
+
+    ComponentLatencySnapshot snapshot = singleSnapshot();
+    assertThat(snapshot.getInvocations(), is(0L));
+    assertThat(snapshot.getInFlight(), is(0L));
+  }
+
+  @Test
+  public void recordedTimeIsBoundedByWindow() {
+    assertThat(statistics.getRecordedMillis(), is(0L));
+
+    statistics.enable();
+    now += SECONDS.toNanos(20);
+    assertThat(statistics.getRecordedMillis(), is(20000L));
+
+    now += SECONDS.toNanos(60);
+    assertThat(statistics.getRecordedMillis(), is(60000L));
+
+    statistics.disable();
+    now += SECONDS.toNanos(15);
+    assertThat(statistics.getRecordedMillis(), is(45000L));
+  }
+
+  @Test
+  public void oldExecutionsLeaveTheWindow() {
+    statistics.enable();
+    TestExecution old = new TestExecution();
+    statistics.start(LOCATION, old);
+    statistics.end(LOCATION, old, true);
+
+    now += SECONDS.toNanos(30);
+    TestExecution recent = new TestExecution();
+    statistics.start(LOCATION, recent);
+    statistics.end(LOCATION, recent, false);
+    assertThat(singleSnapshot().getInvocations(), is(2L));
+
+    now += SECONDS.toNanos(35);
+    ComponentLatencySnapshot snapshot = singleSnapshot();
+    assertThat(snapshot.getInvocations(), is(1L));
+    assertThat(snapshot.getErrors(), is(0L));
+
+    now += SECONDS.toNanos(60);
+    assertThat(singleSnapshot().getInvocations(), is(0L));
+    assertThat(singleSnapshot().getLatencyNanos(99), is(0L));
+  }
+
+  private ComponentLatencySnapshot singleSnapshot() {
+    List<ComponentLatencySnapshot> snapshots = statistics.getSnapshots();
+    assertThat(snapshots, hasSize(1));
+    return snapshots.get(0);
+  }
+
+  private void assertLatency(ComponentLatencySnapshot snapshot, double percentile, long expectedMillis) {
+    // Buckets are within 12.5% of the recorded values
+    assertThat(snapshot.getLatencyNanos(percentile), allOf(greaterThanOrEqualTo(MILLISECONDS.toNanos(expectedMillis)),
+                                                           lessThanOrEqualTo((long) (MILLISECONDS.toNanos(expectedMillis)
+                                                               * 1.125))));
+  }
+
+  private static final class TestExecution implements ComponentExecutionStartsAware {
+
+    private ComponentExecutionStarts starts;
+
+    @Override
+    public ComponentExecutionStarts getComponentExecutionStarts() {
+      return starts;
+    }
+
+    @Override
+    public ComponentExecutionStarts getOrCreateComponentExecutionStarts() {
+      if (starts == null) {
+        starts = new ComponentExecutionStarts();
+      }
+      return starts;
+    }
+  }
+}
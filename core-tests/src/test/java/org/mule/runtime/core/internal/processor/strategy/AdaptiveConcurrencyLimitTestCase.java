@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimit.NOT_ACQUIRED;
+import static org.mule.test.allure.AllureConstants.ExecutionEngineFeature.ExecutionEngineStory.BACKPRESSURE;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(BACKPRESSURE)
+public class AdaptiveConcurrencyLimitTestCase extends AbstractMuleTestCase {
+
+  private static final long WINDOW_GAP_NANOS = MILLISECONDS.toNanos(200);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void limitIsEnforced() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 2, 1, 10, clock::get);
+
+    assertThat(limit.tryAcquire(), is(0));
+    assertThat(limit.tryAcquire(), is(0));
+    assertThat(limit.tryAcquire(), is(NOT_ACQUIRED));
+
+    limit.cancel(0);
+    assertThat(limit.tryAcquire(), is(0));
+    assertThat(limit.getInFlight(), is(2));
+  }
+
+  @Test
+  public void slotsAcquiredBeforeResetAreNotFreedAfterIt() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 2, 1, 10, clock::get);
+
+    int oldGeneration = limit.tryAcquire();
+    limit.tryAcquire();
+    limit.reset();
+    int generation = limit.tryAcquire();
+    assertThat(generation, is(not(oldGeneration)));
+
+    limit.release(oldGeneration, limit.now());
+    limit.cancel(oldGeneration);
+    assertThat(limit.getInFlight(), is(1));
+
+    limit.tryAcquire();
+    assertThat(limit.tryAcquire(), is(NOT_ACQUIRED));
+    limit.release(generation, limit.now());
+    assertThat(limit.getInFlight(), is(1));
+  }
+
+  @Test
+  public void limitGrowsWhileSaturatedWithStableLatency() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 10, 1, 100, clock::get);
+
+    for (int i = 0; i < 20; ++i) {
+      runSaturatedWindow(limit, MILLISECONDS.toNanos(10));
+    }
+
+    assertThat(limit.getLimit(), greaterThan(10));
+    assertThat(limit.getLimit(), lessThanOrEqualTo(100));
+  }
+
+  @Test
+  public void limitDoesNotGrowWhenNotUsed() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 40, 1, 100, clock::get);
+
+    for (int i = 0; i < 20; ++i) {
+      runWindow(limit, 10, MILLISECONDS.toNanos(10));
+    }
+
+    assertThat(limit.getLimit(), is(40));
+  }
+
+  @Test
+  public void limitShrinksWhenLatencyRises() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 20, 1, 100, clock::get);
+
+    for (int i = 0; i < 10; ++i) {
+      runSaturatedWindow(limit, MILLISECONDS.toNanos(10));
+    }
+    int steadyLimit = limit.getLimit();
+
+    for (int i = 0; i < 10; ++i) {
+      runSaturatedWindow(limit, MILLISECONDS.toNanos(100));
+    }
+
+    assertThat(limit.getLimit(), lessThan(steadyLimit));
+  }
+
+  @Test
+  public void limitDoesNotGoBelowMinimum() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 20, 12, 100, clock::get);
+
+    runSaturatedWindow(limit, MILLISECONDS.toNanos(1));
+    for (int i = 0; i < 50; ++i) {
+      runSaturatedWindow(limit, MILLISECONDS.toNanos(1000));
+    }
+
+    assertThat(limit.getLimit(), greaterThanOrEqualTo(12));
+  }
+
+  private void runSaturatedWindow(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+    runWindow(limit, limit.getLimit(), latencyNanos);
+  }
+
+  private void runWindow(AdaptiveConcurrencyLimit limit, int events, long latencyNanos) {
+    final long start = limit.now();
+    int generation = NOT_ACQUIRED;
+    for (int i = 0; i < events; ++i) {
+      generation = limit.tryAcquire();
+      assertThat(generation, is(not(NOT_ACQUIRED)));
+    }
+
+    clock.addAndGet(latencyNanos);
+    for (int i = 0; i < events; ++i) {
+      limit.release(generation, start);
+    }
+    clock.addAndGet(WINDOW_GAP_NANOS);
+  }
+}
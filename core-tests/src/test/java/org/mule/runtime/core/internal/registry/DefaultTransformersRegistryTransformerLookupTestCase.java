@@ -8,26 +8,33 @@
 package org.mule.runtime.core.internal.registry;
 
 import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
 import static org.mule.test.allure.AllureConstants.RegistryFeature.REGISTRY;
 import static org.mule.test.allure.AllureConstants.RegistryFeature.TransfromersStory.TRANSFORMERS;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
+import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.transformer.DefaultTransformersRegistry;
 import org.mule.runtime.core.internal.transformer.builder.MockConverterBuilder;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
+import org.mule.tck.testmodels.fruit.Apple;
 import org.mule.tck.testmodels.fruit.Orange;
 
 import java.util.List;
@@ -48,10 +55,10 @@ public class DefaultTransformersRegistryTransformerLookupTestCase extends Abstra
   private final Converter stringToOrange = new MockConverterBuilder().from(STRING).to(ORANGE_DATA_TYPE).build();
   private final Converter orangeToString = new MockConverterBuilder().from(ORANGE_DATA_TYPE).to(STRING).build();
   private final DefaultTransformersRegistry transformersRegistry = spy(new DefaultTransformersRegistry());
+  private final TransformerResolver transformerResolver = mock(TransformerResolver.class);
 
   @Before
   public void setUp() throws Exception {
-    TransformerResolver transformerResolver = mock(TransformerResolver.class);
     when(transformerResolver.resolve(STRING, ORANGE_DATA_TYPE)).thenReturn(stringToOrange);
     when(transformerResolver.resolve(ORANGE_DATA_TYPE, STRING)).thenReturn(orangeToString);
 
@@ -76,4 +83,40 @@ public class DefaultTransformersRegistryTransformerLookupTestCase extends Abstra
     assertThat(transformers, hasSize(1));
     assertThat(transformers.get(0), sameInstance(stringToOrange));
   }
+
+  @Test
+  public void resolvesTransformerOncePerDataTypePair() throws Exception {
+    transformersRegistry.lookupTransformer(STRING, ORANGE_DATA_TYPE);
+    transformersRegistry.lookupTransformer(STRING, ORANGE_DATA_TYPE);
+
+    verify(transformerResolver, times(1)).resolve(STRING, ORANGE_DATA_TYPE);
+  }
+
+  @Test
+  public void resultMediaTypesShareResolution() throws Exception {
+    DataType jsonOrange = DataType.builder(ORANGE_DATA_TYPE).mediaType(APPLICATION_JSON).build();
+
+    assertThat(transformersRegistry.lookupTransformer(STRING, jsonOrange), sameInstance(stringToOrange));
+    assertThat(transformersRegistry.lookupTransformer(STRING, ORANGE_DATA_TYPE), sameInstance(stringToOrange));
+
+    verify(transformerResolver, times(1)).resolve(STRING, ORANGE_DATA_TYPE);
+  }
+
+  @Test
+  public void cachesMissingTransformer() throws Exception {
+    DataType appleDataType = DataType.fromType(Apple.class);
+
+    assertThat(lookupFailure(appleDataType), is(instanceOf(TransformerException.class)));
+    assertThat(lookupFailure(appleDataType), is(instanceOf(TransformerException.class)));
+    verify(transformerResolver, times(1)).resolve(STRING, appleDataType);
+  }
+
+  private Exception lookupFailure(DataType result) {
+    try {
+      transformersRegistry.lookupTransformer(STRING, result);
+      return null;
+    } catch (Exception e) {
+      return e;
+    }
+  }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.NOT_PERMITTED;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.HALF_OPEN;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.OPEN;
+import static org.mule.test.allure.AllureConstants.ReconnectionPolicyFeature.RECONNECTION_POLICIES;
+import static org.mule.test.allure.AllureConstants.ReconnectionPolicyFeature.CircuitBreakerStory.CIRCUIT_BREAKER;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(RECONNECTION_POLICIES)
+@Story(CIRCUIT_BREAKER)
+public class CircuitBreakerTestCase extends AbstractMuleTestCase {
+
+  private static final long OPEN_DURATION = 1000;
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void opensWhenThresholdIsReached() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(50, 4, 2, 1);
+
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getFailureRate(), is(-1f));
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    assertThat(circuitBreaker.getState(), is(OPEN));
+    assertThat(circuitBreaker.getOpenedCount(), is(1L));
+    assertThat(transitions, contains("CLOSED->OPEN"));
+  }
+
+  @Test
+  public void doesNotOpenBeforeMinimumCalls() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(50, 4, 3, 1);
+
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getState(), is(OPEN));
+  }
+
+  @Test
+  public void openBreakerRejectsCalls() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 1, 1, 1);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+    clock.set(OPEN_DURATION - 1);
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+    assertThat(circuitBreaker.getRejectedCalls(), is(2L));
+  }
+
+  @Test
+  public void halfOpenAfterOpenDuration() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 1, 1, 2);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    assertThat(circuitBreaker.tryAcquire(), not(NOT_PERMITTED));
+    assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+    assertThat(circuitBreaker.tryAcquire(), not(NOT_PERMITTED));
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+    assertThat(transitions, contains("CLOSED->OPEN", "OPEN->HALF_OPEN"));
+  }
+
+  @Test
+  public void closesWhenTrialCallsSucceed() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 2, 2, 2);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(circuitBreaker.getFailureRate(), is(-1f));
+    assertThat(transitions, contains("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"));
+  }
+
+  @Test
+  public void reopensWhenTrialCallFails() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 1, 1, 2);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    assertThat(circuitBreaker.getState(), is(OPEN));
+    assertThat(circuitBreaker.getOpenedCount(), is(2L));
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+
+    clock.set(2 * OPEN_DURATION);
+    assertThat(circuitBreaker.tryAcquire(), not(NOT_PERMITTED));
+  }
+
+  @Test
+  public void oldCallsLeaveTheWindow() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(50, 4, 4, 1);
+
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getFailureRate(), is(25f));
+
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getFailureRate(), is(0f));
+
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getFailureRate(), is(25f));
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    assertThat(circuitBreaker.getState(), is(OPEN));
+    assertThat(circuitBreaker.getSuccessfulCalls(), is(4L));
+    assertThat(circuitBreaker.getFailedCalls(), is(3L));
+  }
+
+  @Test
+  public void callsMadeBeforeHalfOpeningAreNotTrialCalls() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 2, 2, 1);
+    long closedPermit = circuitBreaker.tryAcquire();
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    long trialPermit = circuitBreaker.tryAcquire();
+    circuitBreaker.onSuccess(closedPermit);
+    assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+
+    circuitBreaker.onSuccess(trialPermit);
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(circuitBreaker.getSuccessfulCalls(), is(2L));
+  }
+
+  @Test
+  public void callsMadeBeforeOpeningDoNotCountOnceClosed() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 1, 1, 1);
+    long closedPermit = circuitBreaker.tryAcquire();
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+    circuitBreaker.onFailure(closedPermit);
+
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(circuitBreaker.getFailureRate(), is(-1f));
+  }
+
+  @Test
+  public void lostTrialCallsArePermittedAgain() {
+    CircuitBreaker circuitBreaker = createCircuitBreaker(100, 1, 1, 1);
+    circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+    clock.set(OPEN_DURATION);
+    long lostPermit = circuitBreaker.tryAcquire();
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+    clock.set(2 * OPEN_DURATION - 1);
+    assertThat(circuitBreaker.tryAcquire(), is(NOT_PERMITTED));
+
+    clock.set(2 * OPEN_DURATION);
+    long trialPermit = circuitBreaker.tryAcquire();
+    assertThat(trialPermit, not(NOT_PERMITTED));
+    circuitBreaker.onFailure(lostPermit);
+    assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+
+    circuitBreaker.onSuccess(trialPermit);
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(transitions, contains("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"));
+  }
+
+  private CircuitBreaker createCircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                                              int halfOpenCalls) {
+    return new CircuitBreaker("test", failureRateThreshold, slidingWindowSize, minimumCalls, OPEN_DURATION, halfOpenCalls,
+                              clock::get, (circuitBreaker, from, to) -> transitions.add(from + "->" + to));
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.internal.context.DefaultMuleContext.currentMuleContext;
+import static org.mule.test.allure.AllureConstants.SerializationFeature.SERIALIZATION;
+import static org.mule.test.allure.AllureConstants.SerializationFeature.SerializationStory.MESSAGE_SERIALIZATION;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.PrivilegedEvent;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(SERIALIZATION)
+@Story(MESSAGE_SERIALIZATION)
+public class CompactSerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  @Before
+  public void setUp() {
+    currentMuleContext.set(muleContext);
+  }
+
+  @After
+  public void teardown() {
+    currentMuleContext.set(null);
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    CompactSerializationProtocol protocol = new CompactSerializationProtocol();
+    protocol.setMuleContext(muleContext);
+    serializationProtocol = protocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notCompactFormat() throws Exception {
+    serializationProtocol.deserialize(new JavaExternalSerializerProtocol().serialize("Hello"));
+  }
+
+  @Test
+  public void jdkTypes() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("int", -42);
+    map.put("long", Long.MAX_VALUE);
+    map.put("double", 3.5d);
+    map.put("decimal", new BigDecimal("-12.345"));
+    map.put("uuid", UUID.randomUUID());
+    map.put("list", new ArrayList<>(asList("a", "b", null, true)));
+    map.put("bytes", "bytes".getBytes());
+
+    Map<String, Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(map));
+
+    assertThat(deserialized.keySet(), is(map.keySet()));
+    for (String key : map.keySet()) {
+      if (!key.equals("bytes")) {
+        assertThat(deserialized.get(key), is(map.get(key)));
+      }
+    }
+    assertThat(new String((byte[]) deserialized.get("bytes")), is("bytes"));
+  }
+
+  @Test
+  public void dataTypes() throws Exception {
+    DataType simple = DataType.builder().type(String.class).mediaType(APPLICATION_JSON).charset("UTF-16").build();
+    DataType collection = DataType.builder().collectionType(List.class).itemType(String.class).itemMediaType(APPLICATION_JSON)
+        .build();
+    DataType map = DataType.builder().mapType(Map.class).keyType(String.class).valueType(Integer.class).build();
+
+    assertThat(serializationProtocol.deserialize(serializationProtocol.serialize(simple)), is(simple));
+    assertThat(serializationProtocol.deserialize(serializationProtocol.serialize(collection)), is(collection));
+    assertThat(serializationProtocol.deserialize(serializationProtocol.serialize(map)), is(map));
+  }
+
+  @Test
+  public void repeatedDataTypeIsShared() throws Exception {
+    List<TypedValue<String>> values = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      values.add(new TypedValue<>("value" + i, STRING));
+    }
+
+    List<TypedValue<String>> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(values));
+
+    for (int i = 0; i < 10; ++i) {
+      assertThat(deserialized.get(i).getValue(), is("value" + i));
+      assertThat(deserialized.get(i).getDataType(), sameInstance(deserialized.get(0).getDataType()));
+    }
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = CoreEvent.builder(testEvent())
+        .message(Message.builder().value("payload").mediaType(APPLICATION_JSON).attributesValue("attributes").build())
+        .addVariable("var1", "value1")
+        .addVariable("var2", 2)
+        .build();
+
+    PrivilegedEvent deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(event));
+
+    assertThat(deserialized.getContext().getId(), is(event.getContext().getId()));
+    assertThat(deserialized.getMessage().getPayload().getValue(), is("payload"));
+    assertThat(deserialized.getMessage().getPayload().getDataType().getMediaType().matches(APPLICATION_JSON), is(true));
+    assertThat(deserialized.getMessage().getAttributes().getValue(), is("attributes"));
+    assertThat(deserialized.getVariables().get("var1").getValue(), is("value1"));
+    assertThat(deserialized.getVariables().get("VAR2").getValue(), is(2));
+    assertThat(deserialized.getSession(), instanceOf(((PrivilegedEvent) event).getSession().getClass()));
+  }
+
+  @Test
+  public void nestedEventIsInitialized() throws Exception {
+    List<CoreEvent> events = new ArrayList<>(asList(testEvent()));
+
+    List<CoreEvent> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(events));
+
+    // Fails if the context of the event was not initialized after being deserialized
+    ((BaseEventContext) deserialized.get(0).getContext()).onComplete((event, throwable) -> {
+    });
+  }
+
+  @Test
+  public void topLevelObjectIsInitializedOnce() throws Exception {
+    PostInitialisableValue deserialized = serializationProtocol.deserialize(serializationProtocol
+        .serialize(new PostInitialisableValue()));
+
+    assertThat(deserialized.initCount, is(1));
+  }
+
+  @Test
+  public void eventIsSmallerThanWithJavaSerialization() throws Exception {
+    CoreEvent event = CoreEvent.builder(testEvent())
+        .addVariable("var1", "value1")
+        .addVariable("var2", "value2")
+        .build();
+
+    JavaExternalSerializerProtocol javaProtocol = new JavaExternalSerializerProtocol();
+    javaProtocol.setMuleContext(muleContext);
+
+    assertThat(serializationProtocol.serialize(event).length, lessThan(javaProtocol.serialize(event).length));
+  }
+
+  private static class PostInitialisableValue implements Serializable, DeserializationPostInitialisable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient int initCount;
+
+    private void initAfterDeserialisation(MuleContext muleContext) {
+      initCount++;
+    }
+  }
+}
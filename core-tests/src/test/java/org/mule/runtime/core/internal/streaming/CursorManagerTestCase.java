@@ -131,4 +131,23 @@ public class CursorManagerTestCase extends AbstractMuleTestCase {
     assertThat(captured, hasSize(2));
     assertThat(captured.get(0), is(sameInstance(captured.get(1))));
   }
+
+  @Test
+  public void manageManyProvidersForTheSameEvent() {
+    final int providersCount = 10;
+    List<CursorProvider> managedProviders = new ArrayList<>(providersCount);
+    List<CursorProvider> rootProviders = new ArrayList<>(providersCount);
+
+    for (int i = 0; i < providersCount; i++) {
+      CursorProvider rootProvider = IdentifiableCursorProviderDecorator.of(mock(CursorStreamProvider.class));
+      rootProviders.add(rootProvider);
+      managedProviders.add(cursorManager.manage(rootProvider, ctx));
+    }
+
+    for (int i = 0; i < providersCount; i++) {
+      assertThat(cursorManager.manage(rootProviders.get(i), ctx), is(sameInstance(managedProviders.get(i))));
+    }
+
+    verify(ghostBuster, times(providersCount)).track(any());
+  }
 }
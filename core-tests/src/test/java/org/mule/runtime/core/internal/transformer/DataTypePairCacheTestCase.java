@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
+import static org.mule.runtime.api.metadata.DataType.INPUT_STREAM;
+import static org.mule.runtime.api.metadata.DataType.NUMBER;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class DataTypePairCacheTestCase extends AbstractMuleTestCase {
+
+  private final DataTypePairCache<String> cache = new DataTypePairCache<>(3);
+
+  @Test
+  public void valuesAreKeyedBySourceAndResult() {
+    cache.putIfAbsent(STRING, NUMBER, "stringToNumber", cache.getVersion());
+    cache.putIfAbsent(STRING, BYTE_ARRAY, "stringToBytes", cache.getVersion());
+
+    assertThat(cache.get(STRING, NUMBER), is("stringToNumber"));
+    assertThat(cache.get(STRING, BYTE_ARRAY), is("stringToBytes"));
+    assertThat(cache.get(NUMBER, STRING), is(nullValue()));
+  }
+
+  @Test
+  public void firstValueIsKept() {
+    assertThat(cache.putIfAbsent(STRING, NUMBER, "first", cache.getVersion()), is("first"));
+    assertThat(cache.putIfAbsent(STRING, NUMBER, "second", cache.getVersion()), is("first"));
+    assertThat(cache.size(), is(1));
+  }
+
+  @Test
+  public void valueResolvedBeforeClearIsNotCached() {
+    long version = cache.getVersion();
+    cache.clear();
+
+    assertThat(cache.putIfAbsent(STRING, NUMBER, "stale", version), is("stale"));
+    assertThat(cache.get(STRING, NUMBER), is(nullValue()));
+  }
+
+  @Test
+  public void oldestEntryIsEvictedWhenFull() {
+    cache.putIfAbsent(STRING, NUMBER, "1", cache.getVersion());
+    cache.putIfAbsent(STRING, BYTE_ARRAY, "2", cache.getVersion());
+    cache.putIfAbsent(NUMBER, STRING, "3", cache.getVersion());
+    cache.putIfAbsent(INPUT_STREAM, STRING, "4", cache.getVersion());
+
+    assertThat(cache.size(), is(3));
+    assertThat(cache.get(STRING, NUMBER), is(nullValue()));
+    assertThat(cache.get(STRING, BYTE_ARRAY), is("2"));
+    assertThat(cache.get(NUMBER, STRING), is("3"));
+    assertThat(cache.get(INPUT_STREAM, STRING), is("4"));
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import static java.util.Optional.empty;
+import static java.util.UUID.randomUUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SpillingEventQueueTestCase extends AbstractMuleTestCase {
+
+  private static final String SPILL_FILE = "spill";
+  private static final long MAX_SPILL_SIZE = 1024 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private MuleContext muleContext;
+
+  @Before
+  public void before() {
+    muleContext = mock(MuleContext.class);
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getId()).thenReturn("test");
+    when(muleContext.getUniqueIdString()).thenAnswer(inv -> randomUUID().toString());
+    addJavaSerializerToMockMuleContext(muleContext);
+  }
+
+  @Test
+  public void memoryOnly() {
+    SpillingEventQueue queue = new SpillingEventQueue();
+    CoreEvent first = event("first");
+    CoreEvent second = event("second");
+
+    queue.offer(first);
+    queue.offer(second);
+
+    assertThat(queue.peek(), is(sameInstance(first)));
+    queue.remove();
+    assertThat(queue.peek(), is(sameInstance(second)));
+    queue.remove();
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.peek(), is(nullValue()));
+    assertThat(queue.getSpilledCount(), is(0L));
+  }
+
+  @Test
+  public void spillsBeyondMaxInMemoryEventsAndDrainsInOrder() {
+    SpillingEventQueue queue = createQueue(2, MAX_SPILL_SIZE);
+    CoreEvent spilled = event("2");
+
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.offer(spilled);
+    queue.offer(event("3"));
+    assertThat(queue.getSpilledCount(), is(0L));
+
+    // Spilling is done by the consumer
+    queue.peek();
+    assertThat(queue.getSpilledCount(), is(2L));
+    assertThat(queue.getSpilledSize(), is(2));
+    // Only completed once processed
+    assertThat(((BaseEventContext) spilled.getContext()).isComplete(), is(false));
+
+    assertPayloads(queue, "0", "1", "2", "3");
+    assertThat(((BaseEventContext) spilled.getContext()).isComplete(), is(false));
+    assertThat(queue.getDrainedCount(), is(2L));
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void drainedEventsKeepVariablesAndContext() {
+    SpillingEventQueue queue = createQueue(1, MAX_SPILL_SIZE);
+    CoreEvent spilled = CoreEvent.builder(event("spilled")).addVariable("count", 3).build();
+
+    queue.offer(event("first"));
+    queue.offer(spilled);
+    queue.remove();
+
+    CoreEvent drained = queue.peek();
+    assertThat(drained.getMessage().getPayload().getValue(), is("spilled"));
+    assertThat(drained.getVariables().get("count").getValue(), is((Object) 3));
+    assertThat(drained.getCorrelationId(), is(spilled.getCorrelationId()));
+    assertThat(drained.getContext(), is(sameInstance(spilled.getContext())));
+  }
+
+  @Test
+  public void eventsRecoveredAfterRestartGetNewContext() {
+    SpillingEventQueue queue = createQueue(1, MAX_SPILL_SIZE);
+    CoreEvent spilled = event("spilled");
+    queue.offer(event("first"));
+    queue.offer(spilled);
+    queue.peek();
+    queue.close();
+    assertThat(((BaseEventContext) spilled.getContext()).isComplete(), is(true));
+
+    CoreEvent recovered = createQueue(1, MAX_SPILL_SIZE).peek();
+    assertThat(recovered.getMessage().getPayload().getValue(), is("spilled"));
+    assertThat(recovered.getCorrelationId(), is(spilled.getCorrelationId()));
+    assertThat(recovered.getContext().getId(), is(not(spilled.getContext().getId())));
+  }
+
+  @Test
+  public void keepsOrderWhenSpillFileIsFull() {
+    SpillingEventQueue queue = createQueue(2, 1);
+
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.offer(event("2"));
+    queue.offer(event("3"));
+
+    assertThat(queue.getSpilledCount(), is(0L));
+    assertPayloads(queue, "0", "1", "2", "3");
+  }
+
+  @Test
+  public void rejectsEventsBeyondMemoryWhenSpillFileIsFull() {
+    SpillingEventQueue queue = createQueue(1, 1);
+    CoreEvent rejected = event("2");
+
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.offer(rejected);
+
+    assertPayloads(queue, "0", "1");
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.getRejectedCount(), is(1L));
+    assertThat(((BaseEventContext) rejected.getContext()).isComplete(), is(true));
+  }
+
+  @Test
+  public void keepsNotSerializableEventsInMemory() {
+    SpillingEventQueue queue = createQueue(2, MAX_SPILL_SIZE);
+    CoreEvent stream = event(new ByteArrayInputStream(new byte[0]));
+
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.offer(stream);
+    queue.offer(event("3"));
+
+    assertThat(queue.getSpilledCount(), is(0L));
+    assertPayloads(queue, "0", "1");
+    assertThat(queue.peek(), is(sameInstance(stream)));
+    queue.remove();
+    assertPayloads(queue, "3");
+  }
+
+  @Test
+  public void recoversSpilledEventsAfterRestart() {
+    SpillingEventQueue queue = createQueue(1, MAX_SPILL_SIZE);
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.offer(event("2"));
+    queue.close();
+
+    SpillingEventQueue restarted = createQueue(1, MAX_SPILL_SIZE);
+    assertThat(restarted.getSpilledSize(), is(2));
+    assertPayloads(restarted, "1", "2");
+  }
+
+  @Test
+  public void discardSpilledEvents() {
+    SpillingEventQueue queue = createQueue(1, MAX_SPILL_SIZE);
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+    queue.close();
+
+    SpillingEventQueue restarted = createQueue(1, MAX_SPILL_SIZE);
+    assertThat(restarted.discardSpilled(), is(1));
+    assertThat(restarted.getDiscardedCount(), is(1L));
+    assertThat(restarted.isEmpty(), is(true));
+  }
+
+  @Test
+  public void spillFileIsTruncatedOnceDrained() {
+    SpillingEventQueue queue = createQueue(1, MAX_SPILL_SIZE);
+    queue.offer(event("0"));
+    queue.offer(event("1"));
+
+    assertPayloads(queue, "0", "1");
+    assertThat(temporaryFolder.getRoot().toPath().resolve(SPILL_FILE).toFile().length(), is(0L));
+  }
+
+  private void assertPayloads(SpillingEventQueue queue, String... payloads) {
+    for (String payload : payloads) {
+      assertThat(queue.peek().getMessage().getPayload().getValue(), is(payload));
+      queue.remove();
+    }
+  }
+
+  private SpillingEventQueue createQueue(int maxInMemoryEvents, long maxSpillSize) {
+    return new SpillingEventQueue(maxInMemoryEvents, maxSpillSize, new QueueFileProvider(temporaryFolder.getRoot(), SPILL_FILE),
+                                  muleContext, TEST_CONNECTOR_LOCATION);
+  }
+
+  private CoreEvent event(Object payload) {
+    return CoreEvent.builder(create(randomUUID().toString(), "test", TEST_CONNECTOR_LOCATION, null, empty()))
+        .message(of(payload))
+        .build();
+  }
+}
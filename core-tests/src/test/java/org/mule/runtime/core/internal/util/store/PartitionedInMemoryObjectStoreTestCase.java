@@ -6,19 +6,26 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.util.Collections.nCopies;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.internal.store.PartitionStatistics;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -120,4 +127,83 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     verify(os, times(1)).disposePartition(TEST_PARTITION);
   }
 
+  @Test
+  public void partitionStatisticsFollowStoresAndRemovals() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    PartitionStatistics oneEntry = store.getPartitionsStatistics().get(TEST_PARTITION);
+    assertThat(oneEntry.getEntries(), is(1L));
+    assertThat(oneEntry.getEstimatedBytes(), greaterThan((long) TEST_VALUE.length()));
+
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    PartitionStatistics twoEntries = store.getPartitionsStatistics().get(TEST_PARTITION);
+    assertThat(twoEntries.getEntries(), is(2L));
+    assertThat(twoEntries.getEstimatedBytes(), is(oneEntry.getEstimatedBytes() * 2));
+
+    store.remove(TEST_KEY2, TEST_PARTITION);
+    assertThat(store.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes(), is(oneEntry.getEstimatedBytes()));
+
+    store.clear(TEST_PARTITION);
+    assertThat(store.getPartitionsStatistics().get(TEST_PARTITION).getEntries(), is(0L));
+    assertThat(store.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes(), is(0L));
+  }
+
+  @Test
+  public void partitionStatisticsFollowExpiration() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    long oneEntryBytes = store.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes();
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(10, 2, TEST_PARTITION);
+    assertThat(store.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes(), is(oneEntryBytes * 2));
+
+    store.expire(1, 100, TEST_PARTITION);
+    PartitionStatistics statistics = store.getPartitionsStatistics().get(TEST_PARTITION);
+    assertThat(statistics.getEntries(), is(1L));
+    assertThat(statistics.getEstimatedBytes(), is(oneEntryBytes));
+
+    store.disposePartition(TEST_PARTITION);
+    assertThat(store.getPartitionsStatistics().containsKey(TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void entriesThatCannotBeEstimatedAreCountedApart() throws ObjectStoreException {
+    PartitionedInMemoryObjectStore<Serializable> objects = new PartitionedInMemoryObjectStore<>();
+    objects.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    long oneEntryBytes = objects.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes();
+
+    objects.store(TEST_KEY2, new Date(), TEST_PARTITION);
+    PartitionStatistics statistics = objects.getPartitionsStatistics().get(TEST_PARTITION);
+    assertThat(statistics.getEntries(), is(2L));
+    assertThat(statistics.getEstimatedBytes(), is(oneEntryBytes));
+    assertThat(statistics.getUnsizedEntries(), is(1L));
+
+    objects.remove(TEST_KEY2, TEST_PARTITION);
+    assertThat(objects.getPartitionsStatistics().get(TEST_PARTITION).getUnsizedEntries(), is(0L));
+  }
+
+  @Test
+  public void collectionsAreEstimatedByTheirElements() throws ObjectStoreException {
+    PartitionedInMemoryObjectStore<Serializable> objects = new PartitionedInMemoryObjectStore<>();
+    objects.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    long oneValueBytes = objects.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes();
+    objects.clear(TEST_PARTITION);
+
+    objects.store(TEST_KEY1, new ArrayList<>(nCopies(10, TEST_VALUE)), TEST_PARTITION);
+    assertThat(objects.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes(), greaterThan(oneValueBytes * 5));
+  }
+
+  @Test
+  public void removedEntryAccountsForItsSizeWhenStored() throws ObjectStoreException {
+    PartitionedInMemoryObjectStore<Serializable> objects = new PartitionedInMemoryObjectStore<>();
+    ArrayList<String> value = new ArrayList<>();
+    objects.store(TEST_KEY1, value, TEST_PARTITION);
+    value.addAll(nCopies(10, TEST_VALUE));
+
+    objects.remove(TEST_KEY1, TEST_PARTITION);
+    assertThat(objects.getPartitionsStatistics().get(TEST_PARTITION).getEstimatedBytes(), is(0L));
+  }
+
 }
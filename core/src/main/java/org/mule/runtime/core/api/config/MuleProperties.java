@@ -396,6 +396,14 @@ public class MuleProperties {
   public static final String MULE_LOGGING_INTERVAL_SCHEDULERS_LATENCY_REPORT =
       MuleSystemProperties.MULE_LOGGING_INTERVAL_SCHEDULERS_LATENCY_REPORT;
 
+  /**
+   * System property to select the protocol used by the default object serializer for internal serialization, either
+   * {@code java} (the default) or {@code compact}.
+   *
+   * @since 4.6
+   */
+  public static final String MULE_SERIALIZATION_INTERNAL_PROTOCOL = SYSTEM_PROPERTY_PREFIX + "serialization.internalProtocol";
+
   /**
    * @return Whether MEL is set as the default EL according to {@link #MULE_MEL_AS_DEFAULT}
    * @since 4.2.0
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.context.notification;
+
+import org.mule.api.annotation.NoImplement;
+import org.mule.runtime.api.notification.NotificationListener;
+
+/**
+ * Dispatch metrics of the asynchronous notifications delivered to a single {@link NotificationListener}.
+ *
+ * @since 4.6
+ */
+@NoImplement
+public interface AsyncNotificationStatistics {
+
+  /**
+   * @return the listener the notifications are delivered to
+   */
+  NotificationListener getListener();
+
+  /**
+   * @return the amount of notifications waiting to be delivered
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the amount of notifications delivered to the listener
+   */
+  long getDispatchedCount();
+
+  /**
+   * @return the amount of notifications discarded to make room for newer ones
+   */
+  long getDroppedCount();
+
+  /**
+   * @return the amount of notifications discarded because an equivalent one was already queued
+   */
+  long getCoalescedCount();
+
+  /**
+   * @return the longest time a notification waited in the queue before being delivered, in nanoseconds
+   */
+  long getMaxDispatchLagNanos();
+
+  /**
+   * @return the average time notifications waited in the queue before being delivered, in nanoseconds
+   */
+  long getAverageDispatchLagNanos();
+}
@@ -31,9 +31,19 @@ public final class FlowStackElement implements Serializable {
   }
 
   public FlowStackElement(String flowName, ComponentIdentifier chainIdentifier, String processorPath) {
+    this(flowName, chainIdentifier, processorPath, currentTimeMillis());
+  }
+
+  /**
+   * Creates an element which processor started executing at the given time.
+   *
+   * @param creationTime the time when the processor started executing, as given by {@link System#currentTimeMillis()}
+   * @since 4.6
+   */
+  public FlowStackElement(String flowName, ComponentIdentifier chainIdentifier, String processorPath, long creationTime) {
     this.flowName = flowName;
     this.processorPath = processorPath;
-    this.creationTime = currentTimeMillis();
+    this.creationTime = creationTime;
     this.chainIdentifier = chainIdentifier;
   }
 
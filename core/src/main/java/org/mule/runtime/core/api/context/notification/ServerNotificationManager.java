@@ -6,9 +6,16 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
+import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.MULE_NOTIFICATIONS_BATCH_SIZE;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.MULE_NOTIFICATIONS_OVERFLOW_POLICY;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.MULE_NOTIFICATIONS_QUEUE_CAPACITY;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.UNBOUNDED;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.api.annotation.NoExtend;
@@ -57,7 +64,9 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue;
 import org.mule.runtime.core.internal.context.notification.Configuration;
+import org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.internal.profiling.notification.ProfilingNotificationListener;
 import org.mule.runtime.core.internal.profiling.notification.ProfilingNotification;
@@ -66,6 +75,7 @@ import org.mule.runtime.core.privileged.context.notification.OptimisedNotificati
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -114,8 +124,24 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private LazyValue<String> serverId = new LazyValue<>(() -> muleContext.getId());
   private LazyValue<SchedulerService> schedulerService = new LazyValue<>(() -> muleContext.getSchedulerService());
 
+  private final Map<NotificationListener, AsyncNotificationQueue> asyncNotificationQueues = new ConcurrentHashMap<>();
+  private final int asyncQueueCapacity = getInteger(MULE_NOTIFICATIONS_QUEUE_CAPACITY, 4096);
+  private final NotificationOverflowPolicy asyncOverflowPolicy = resolveOverflowPolicy();
+  private final int asyncBatchSize = getInteger(MULE_NOTIFICATIONS_BATCH_SIZE, 64);
+
   public ServerNotificationManager() {}
 
+  private static NotificationOverflowPolicy resolveOverflowPolicy() {
+    String overflowPolicy = getProperty(MULE_NOTIFICATIONS_OVERFLOW_POLICY, UNBOUNDED.name());
+    try {
+      return NotificationOverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value '{}' for '{}', using '{}' instead", overflowPolicy, MULE_NOTIFICATIONS_OVERFLOW_POLICY,
+                  UNBOUNDED);
+      return UNBOUNDED;
+    }
+  }
+
   public ServerNotificationManager(LazyValue<SchedulerService> schedulerService, LazyValue<String> serverId) {
     this.schedulerService = schedulerService;
     this.serverId = serverId;
@@ -167,6 +193,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    asyncNotificationQueues.remove(listener);
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -207,13 +234,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
       } else {
-        notifyListeners(notification, (listener, nfn) -> {
-          if (listener.isBlocking()) {
-            notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
-          } else {
-            notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
-          }
-        });
+        notifyListeners(notification, (listener, nfn) -> asyncNotificationQueueFor(listener).offer(nfn));
       }
     } finally {
       if (0 == activeFires.decrementAndGet() && disposed.get()) {
@@ -222,6 +243,33 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  /**
+   * Asynchronous notifications are queued per listener and delivered in batches, in order, instead of submitting a task per
+   * notification and listener.
+   */
+  private AsyncNotificationQueue asyncNotificationQueueFor(NotificationListener listener) {
+    AsyncNotificationQueue queue = asyncNotificationQueues.get(listener);
+    if (queue == null) {
+      queue = asyncNotificationQueues.computeIfAbsent(listener, this::createAsyncNotificationQueue);
+    }
+    return queue;
+  }
+
+  private AsyncNotificationQueue createAsyncNotificationQueue(NotificationListener listener) {
+    return new AsyncNotificationQueue(listener, listener.isBlocking() ? notificationsIoScheduler : notificationsLiteScheduler,
+                                      asyncQueueCapacity, asyncOverflowPolicy, asyncBatchSize,
+                                      // cpu-light threads also drain the queues, so they must never wait for room in them
+                                      () -> !schedulerService.get().isCurrentThreadForCpuWork());
+  }
+
+  /**
+   * @return the dispatch metrics of the asynchronous notifications of each listener
+   * @since 4.6
+   */
+  public Collection<AsyncNotificationStatistics> getAsyncNotificationStatistics() {
+    return unmodifiableCollection(asyncNotificationQueues.values());
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -262,6 +310,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       notificationsIoScheduler.stop();
       notificationsIoScheduler = null;
     }
+    asyncNotificationQueues.clear();
 
     configuration = null;
   }
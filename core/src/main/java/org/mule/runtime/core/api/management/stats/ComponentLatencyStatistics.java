@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoImplement;
+
+import java.util.List;
+
+/**
+ * Keeps, for each component location of an artifact, the invocations, errors and latency of the recent executions of its
+ * processor, along with the amount of executions currently in progress.
+ * <p>
+ * Recording is disabled by default and can be enabled on demand, for instance to troubleshoot a slow flow in production.
+ *
+ * @since 4.6
+ */
+@NoImplement
+public interface ComponentLatencyStatistics {
+
+  public static final String REGISTRY_KEY = "_muleComponentLatencyStatistics";
+
+  /**
+   * Starts recording the executions of the processors of the artifact.
+   */
+  void enable();
+
+  /**
+   * Stops recording the executions of the processors of the artifact. Already recorded data is kept until it leaves the window,
+   * while executions in progress are no longer tracked.
+   */
+  void disable();
+
+  /**
+   * @return whether the executions of the processors of the artifact are being recorded.
+   */
+  boolean isEnabled();
+
+  /**
+   * @return the length in milliseconds of the rolling window the snapshots are computed over.
+   */
+  long getWindowMillis();
+
+  /**
+   * @return the length in milliseconds of the part of the rolling window during which recording was last enabled. Rates are to
+   *         be computed over it, since it is shorter than {@link #getWindowMillis()} right after recording is enabled.
+   */
+  long getRecordedMillis();
+
+  /**
+   * @return a snapshot of the statistics of each component which has been executed while recording was enabled.
+   */
+  List<ComponentLatencySnapshot> getSnapshots();
+
+  /**
+   * The statistics of a single component over the rolling window.
+   */
+  public interface ComponentLatencySnapshot {
+
+    /**
+     * @return the location of the component.
+     */
+    String getLocation();
+
+    /**
+     * @return the amount of executions of the component finished within the window, either successfully or with an error.
+     */
+    long getInvocations();
+
+    /**
+     * @return the amount of executions of the component finished with an error within the window.
+     */
+    long getErrors();
+
+    /**
+     * @return the amount of executions of the component currently in progress.
+     */
+    long getInFlight();
+
+    /**
+     * @param percentile a value between 0 and 100.
+     * @return the latency in nanoseconds under which the given percentile of the executions within the window finished, or
+     *         {@code 0} if there were no executions.
+     */
+    long getLatencyNanos(double percentile);
+  }
+}
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.util.compression;
 
 import org.mule.api.annotation.NoImplement;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -53,6 +54,30 @@ public interface CompressionStrategy {
    */
   InputStream uncompressInputStream(InputStream is) throws IOException;
 
+  /**
+   * Compresses the content of a {@link CursorStreamProvider} without loading it into memory.
+   * <p>
+   * The content is compressed lazily through {@link #compressInputStream(InputStream)} as the cursors of the returned provider
+   * are read, and each cursor compresses it again from the beginning of its own cursor on {@code provider}.
+   *
+   * @param provider The provider of the content to compress.
+   * @return A {@link CursorStreamProvider} of the compressed content.
+   * @since 4.6
+   */
+  CursorStreamProvider compressCursorStreamProvider(CursorStreamProvider provider);
+
+  /**
+   * Uncompresses the content of a {@link CursorStreamProvider} without loading it into memory.
+   * <p>
+   * The content is uncompressed lazily through {@link #uncompressInputStream(InputStream)} as the cursors of the returned
+   * provider are read, and each cursor uncompresses it again from the beginning of its own cursor on {@code provider}.
+   *
+   * @param provider The provider of the compressed content.
+   * @return A {@link CursorStreamProvider} of the uncompressed content.
+   * @since 4.6
+   */
+  CursorStreamProvider uncompressCursorStreamProvider(CursorStreamProvider provider);
+
   /**
    * Checks whether a byte array has been compressed or not.
    *
@@ -6,14 +6,25 @@
  */
 package org.mule.runtime.core.api.util.compression;
 
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+import static java.util.zip.Deflater.DEFAULT_STRATEGY;
 import static org.apache.commons.io.IOUtils.copy;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
 import org.mule.runtime.core.internal.transformer.compression.GZIPCompressorInputStream;
+import org.mule.runtime.core.internal.streaming.bytes.TransformingCursorStreamProvider;
+import org.mule.runtime.core.internal.transformer.compression.GZIPDecompressorInputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -23,6 +34,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * <code>GZipCompression</code> is a CompressionStrategy implementation using the GZip library included in the JDK java.util.zip.
+ * <p>
+ * The compression level and strategy may be configured. When a {@link ByteBufferManager} is given, the streams created by
+ * {@link #compressInputStream(InputStream)} and {@link #uncompressInputStream(InputStream)} read through buffers obtained from
+ * it, which are released when the streams are closed.
  */
 public final class GZipCompression implements CompressionStrategy {
 
@@ -33,6 +48,46 @@ public final class GZipCompression implements CompressionStrategy {
    */
   private static final Logger logger = LoggerFactory.getLogger(GZipCompression.class);
 
+  private final int level;
+  private final int strategy;
+  private final ByteBufferManager bufferManager;
+  private final int bufferSize;
+
+  /**
+   * Creates a {@link GZipCompression} with the default compression level and strategy.
+   */
+  public GZipCompression() {
+    this(DEFAULT_COMPRESSION, DEFAULT_STRATEGY);
+  }
+
+  /**
+   * @param level    the compression level, as in {@link Deflater#setLevel(int)}
+   * @param strategy the compression strategy, as in {@link Deflater#setStrategy(int)}
+   * @since 4.6
+   */
+  public GZipCompression(int level, int strategy) {
+    this(level, strategy, null, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param level         the compression level, as in {@link Deflater#setLevel(int)}
+   * @param strategy      the compression strategy, as in {@link Deflater#setStrategy(int)}
+   * @param bufferManager the manager to obtain the buffers of the compression streams from
+   * @param bufferSize    the size of the buffers of the compression streams
+   * @since 4.6
+   */
+  public GZipCompression(int level, int strategy, ByteBufferManager bufferManager, int bufferSize) {
+    checkArgument(level == DEFAULT_COMPRESSION || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+                  "Invalid compression level: " + level);
+    checkArgument(strategy == DEFAULT_STRATEGY || strategy == Deflater.FILTERED || strategy == Deflater.HUFFMAN_ONLY,
+                  "Invalid compression strategy: " + strategy);
+    checkArgument(bufferSize > 0, "bufferSize must be greater than zero");
+    this.level = level;
+    this.strategy = strategy;
+    this.bufferManager = bufferManager;
+    this.bufferSize = bufferSize;
+  }
+
   /**
    * Determines if a byte array is compressed. The java.util.zip GZip implementaiton does not expose the GZip header so it is
    * difficult to determine if a string is compressed.
@@ -76,7 +131,7 @@ public final class GZipCompression implements CompressionStrategy {
 
     try {
       baos = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
-      gzos = new GZIPOutputStream(baos);
+      gzos = new ConfigurableGZIPOutputStream(baos, level, strategy);
 
       gzos.write(bytes, 0, bytes.length);
       gzos.finish();
@@ -99,7 +154,12 @@ public final class GZipCompression implements CompressionStrategy {
   }
 
   public InputStream compressInputStream(InputStream is) throws IOException {
-    return new GZIPCompressorInputStream(is);
+    if (bufferManager == null) {
+      return new GZIPCompressorInputStream(is, level, strategy);
+    }
+
+    ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(bufferSize);
+    return new GZIPCompressorInputStream(is, level, strategy, arrayOf(buffer), buffer::release);
   }
 
   /**
@@ -154,7 +214,43 @@ public final class GZipCompression implements CompressionStrategy {
   }
 
   public InputStream uncompressInputStream(InputStream is) throws IOException {
-    return new GZIPInputStream(is);
+    if (bufferManager == null) {
+      return new GZIPInputStream(is);
+    }
+
+    ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(bufferSize);
+    try {
+      return new GZIPDecompressorInputStream(is, arrayOf(buffer), buffer::release);
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+  }
+
+  public CursorStreamProvider compressCursorStreamProvider(CursorStreamProvider provider) {
+    return new TransformingCursorStreamProvider(provider, this::compressInputStream);
+  }
+
+  public CursorStreamProvider uncompressCursorStreamProvider(CursorStreamProvider provider) {
+    return new TransformingCursorStreamProvider(provider, this::uncompressInputStream);
+  }
+
+  private byte[] arrayOf(ManagedByteBufferWrapper buffer) {
+    ByteBuffer delegate = buffer.getDelegate();
+    // Managed buffers are heap buffers, only fall back to a new array in case a manager provides a direct one
+    return delegate.hasArray() && delegate.arrayOffset() == 0 ? delegate.array() : new byte[bufferSize];
+  }
+
+  /**
+   * A {@link GZIPOutputStream} with a configurable compression level and strategy.
+   */
+  private static final class ConfigurableGZIPOutputStream extends GZIPOutputStream {
+
+    private ConfigurableGZIPOutputStream(OutputStream out, int level, int strategy) throws IOException {
+      super(out);
+      def.setLevel(level);
+      def.setStrategy(strategy);
+    }
   }
 
 }
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.AbstractServerNotification;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.Notification.Action;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.AsyncNotificationStatistics;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Queue of the asynchronous notifications pending to be delivered to a single {@link NotificationListener}.
+ * <p>
+ * Instead of submitting a task per notification, a single dispatch task is submitted to the {@code executor} when the queue goes
+ * from empty to non empty. That task delivers up to {@code batchSize} notifications and submits itself again if more are left,
+ * so that listeners sharing the executor are served fairly. Since at most one dispatch task of a queue is active at a time, the
+ * listener gets the notifications in the order they were fired, one at a time.
+ * <p>
+ * The queue holds approximately {@code capacity} notifications. What happens to notifications fired when it is full depends on
+ * the {@link NotificationOverflowPolicy}. Only {@link NotificationOverflowPolicy#UNBOUNDED}, the default, never loses any.
+ * Threads that must not block, such as the cpu-light ones that also run the dispatch tasks, never wait for room in the queue:
+ * {@link NotificationOverflowPolicy#BLOCK} drops the oldest notification for them.
+ *
+ * @since 4.6
+ */
+public final class AsyncNotificationQueue implements Runnable, AsyncNotificationStatistics {
+
+  /**
+   * The amount of asynchronous notifications each listener may have queued. 4096 by default.
+   */
+  public static final String MULE_NOTIFICATIONS_QUEUE_CAPACITY = SYSTEM_PROPERTY_PREFIX + "notifications.async.queueCapacity";
+
+  /**
+   * The {@link NotificationOverflowPolicy} to apply when the queue of a listener is full. {@code UNBOUNDED} by default.
+   */
+  public static final String MULE_NOTIFICATIONS_OVERFLOW_POLICY = SYSTEM_PROPERTY_PREFIX + "notifications.async.overflowPolicy";
+
+  /**
+   * The maximum amount of notifications delivered to a listener by each dispatch task. 64 by default.
+   */
+  public static final String MULE_NOTIFICATIONS_BATCH_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.async.batchSize";
+
+  private static final Logger LOGGER = getLogger(AsyncNotificationQueue.class);
+
+  private static final long OVERFLOW_PARK_NANOS = 100_000;
+
+  private final NotificationListener listener;
+  private final ExecutorService executor;
+  private final int capacity;
+  private final NotificationOverflowPolicy overflowPolicy;
+  private final int batchSize;
+  private final BooleanSupplier blockingAllowed;
+
+  private final Queue<QueuedNotification> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  // Amount of queued notifications of each kind, so that COALESCE does not go through the whole queue when it is full
+  private final ConcurrentMap<CoalescingKey, Integer> queuedKinds = new ConcurrentHashMap<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private volatile Thread dispatchingThread;
+
+  private final LongAdder dispatched = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder totalDispatchLagNanos = new LongAdder();
+  private final AtomicLong maxDispatchLagNanos = new AtomicLong();
+
+  public AsyncNotificationQueue(NotificationListener listener, ExecutorService executor, int capacity,
+                                NotificationOverflowPolicy overflowPolicy, int batchSize) {
+    this(listener, executor, capacity, overflowPolicy, batchSize, () -> true);
+  }
+
+  /**
+   * @param blockingAllowed whether the thread firing a notification may wait for room in the queue with
+   *                        {@link NotificationOverflowPolicy#BLOCK}
+   */
+  public AsyncNotificationQueue(NotificationListener listener, ExecutorService executor, int capacity,
+                                NotificationOverflowPolicy overflowPolicy, int batchSize, BooleanSupplier blockingAllowed) {
+    this.listener = listener;
+    this.executor = executor;
+    this.capacity = max(1, capacity);
+    this.overflowPolicy = overflowPolicy;
+    this.batchSize = max(1, batchSize);
+    this.blockingAllowed = blockingAllowed;
+  }
+
+  /**
+   * Queues the given notification to be delivered to the listener, applying the {@link NotificationOverflowPolicy} if the queue
+   * is full.
+   *
+   * @param notification the notification to deliver
+   */
+  public void offer(Notification notification) {
+    CoalescingKey key = overflowPolicy == NotificationOverflowPolicy.COALESCE ? new CoalescingKey(notification) : null;
+    if (size.get() >= capacity && !handleOverflow(notification, key)) {
+      return;
+    }
+
+    if (key != null) {
+      queuedKinds.merge(key, 1, Integer::sum);
+    }
+    queue.offer(new QueuedNotification(notification, key, nanoTime()));
+    size.incrementAndGet();
+    schedule();
+  }
+
+  private QueuedNotification poll() {
+    QueuedNotification queued = queue.poll();
+    if (queued != null) {
+      size.decrementAndGet();
+      if (queued.key != null) {
+        queuedKinds.computeIfPresent(queued.key, (key, count) -> count > 1 ? count - 1 : null);
+      }
+    }
+    return queued;
+  }
+
+  /**
+   * @return {@code true} if the notification has to be queued anyway.
+   */
+  private boolean handleOverflow(Notification notification, CoalescingKey key) {
+    switch (overflowPolicy) {
+      case UNBOUNDED:
+        return true;
+      case COALESCE:
+        if (queuedKinds.containsKey(key)) {
+          coalesced.increment();
+          return false;
+        }
+        dropOldest();
+        return true;
+      case DROP_OLDEST:
+        dropOldest();
+        return true;
+      default:
+        if (!blockingAllowed.getAsBoolean()) {
+          // Parking this thread could starve the very threads that drain the queue
+          dropOldest();
+          return true;
+        }
+        while (size.get() >= capacity) {
+          if (currentThread() == dispatchingThread) {
+            // The listener itself is firing notifications, waiting here would never end
+            return true;
+          }
+          if (executor.isShutdown()) {
+            dropped.increment();
+            return false;
+          }
+          schedule();
+          parkNanos(this, OVERFLOW_PARK_NANOS);
+        }
+        return true;
+    }
+  }
+
+  private void dropOldest() {
+    if (poll() != null) {
+      dropped.increment();
+    }
+  }
+
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Delivers the next batch of notifications to the listener.
+   */
+  @Override
+  public void run() {
+    dispatchingThread = currentThread();
+    try {
+      for (int i = 0; i < batchSize; ++i) {
+        QueuedNotification queued = poll();
+        if (queued == null) {
+          break;
+        }
+        recordDispatchLag(nanoTime() - queued.queuedAtNanos);
+
+        try {
+          listener.onNotification(queued.notification);
+        } catch (Throwable t) {
+          LOGGER.warn("Listener " + listener + " failed processing notification " + queued.notification, t);
+        }
+        dispatched.increment();
+      }
+    } finally {
+      dispatchingThread = null;
+      scheduled.set(false);
+    }
+
+    if (!queue.isEmpty()) {
+      schedule();
+    }
+  }
+
+  private void recordDispatchLag(long lagNanos) {
+    totalDispatchLagNanos.add(lagNanos);
+    long currentMax = maxDispatchLagNanos.get();
+    while (lagNanos > currentMax && !maxDispatchLagNanos.compareAndSet(currentMax, lagNanos)) {
+      currentMax = maxDispatchLagNanos.get();
+    }
+  }
+
+  /**
+   * @return the listener the notifications are delivered to
+   */
+  @Override
+  public NotificationListener getListener() {
+    return listener;
+  }
+
+  /**
+   * @return the amount of notifications waiting to be delivered
+   */
+  @Override
+  public int getQueueDepth() {
+    return size.get();
+  }
+
+  /**
+   * @return the amount of notifications delivered to the listener
+   */
+  @Override
+  public long getDispatchedCount() {
+    return dispatched.sum();
+  }
+
+  /**
+   * @return the amount of notifications discarded by {@link NotificationOverflowPolicy#DROP_OLDEST} or
+   *         {@link NotificationOverflowPolicy#COALESCE} to make room for newer ones
+   */
+  @Override
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the amount of notifications discarded by {@link NotificationOverflowPolicy#COALESCE} because an equivalent one was
+   *         already queued
+   */
+  @Override
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /**
+   * @return the longest time a notification waited in the queue before being delivered, in nanoseconds
+   */
+  @Override
+  public long getMaxDispatchLagNanos() {
+    return maxDispatchLagNanos.get();
+  }
+
+  /**
+   * @return the average time notifications waited in the queue before being delivered, in nanoseconds
+   */
+  @Override
+  public long getAverageDispatchLagNanos() {
+    long dispatchedCount = dispatched.sum();
+    return dispatchedCount == 0 ? 0 : totalDispatchLagNanos.sum() / dispatchedCount;
+  }
+
+  private static final class QueuedNotification {
+
+    private final Notification notification;
+    private final CoalescingKey key;
+    private final long queuedAtNanos;
+
+    private QueuedNotification(Notification notification, CoalescingKey key, long queuedAtNanos) {
+      this.notification = notification;
+      this.key = key;
+      this.queuedAtNanos = queuedAtNanos;
+    }
+  }
+
+  /**
+   * Notifications with the same type, action and resource are of the same kind for {@link NotificationOverflowPolicy#COALESCE}.
+   */
+  private static final class CoalescingKey {
+
+    private final Class<?> type;
+    private final String actionNamespace;
+    private final String actionIdentifier;
+    private final String resourceIdentifier;
+    private final int hashCode;
+
+    private CoalescingKey(Notification notification) {
+      Action action = notification.getAction();
+      this.type = notification.getClass();
+      this.actionNamespace = action != null ? action.getNamespace() : null;
+      this.actionIdentifier = action != null ? action.getIdentifier() : null;
+      this.resourceIdentifier = notification instanceof AbstractServerNotification
+          ? ((AbstractServerNotification) notification).getResourceIdentifier()
+          : null;
+      this.hashCode = Objects.hash(type, actionNamespace, actionIdentifier, resourceIdentifier);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CoalescingKey)) {
+        return false;
+      }
+      CoalescingKey other = (CoalescingKey) obj;
+      return type == other.type
+          && Objects.equals(actionNamespace, other.actionNamespace)
+          && Objects.equals(actionIdentifier, other.actionIdentifier)
+          && Objects.equals(resourceIdentifier, other.resourceIdentifier);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.context.notification;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_FLOW_STACK_MAX_DEPTH;
 
 import static java.lang.Integer.getInteger;
+import static java.lang.System.currentTimeMillis;
 import static java.lang.System.lineSeparator;
 
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
@@ -16,9 +17,14 @@ import org.mule.runtime.core.api.context.notification.FlowStackElement;
 import org.mule.runtime.core.internal.event.EventContextDeepNestingException;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
@@ -26,23 +32,31 @@ import java.util.function.Function;
 /**
  * Keeps context information about the executing flows and its callers in order to provide augmented troubleshooting information
  * for an application developer.
+ * <p>
+ * The stack is an immutable linked list of frames, so that {@link #clone() clones} for child contexts share the frames of their
+ * parent instead of copying them. The processor currently executed by the top-most flow is kept in mutable fields of this stack
+ * rather than in the top-most frame, so that {@link #pushCurrentProcessorPath(String)} doesn't allocate. The
+ * {@link FlowStackElement} for the top-most flow is only created when the stack is observed after its processor changed.
  */
 public class DefaultFlowCallStack implements FlowCallStack {
 
   private static final long serialVersionUID = -8683711977929802819L;
 
+  // Keep the serialized form of when the elements were kept in a Deque
+  private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("innerStack", Deque.class)};
+
   // BaseEventContext.class.getName() is here for backwards compatibility, since it was the equivalent property until 4.2.x
   private static final int MAX_DEPTH =
       getInteger(MULE_FLOW_STACK_MAX_DEPTH, getInteger(BaseEventContext.class.getName() + ".maxDepth", 45));
 
-  private final Deque<FlowStackElement> innerStack;
+  private transient volatile Frame top;
+  private transient volatile String currentProcessorPath;
+  private transient volatile long currentProcessorTime;
 
-  public DefaultFlowCallStack() {
-    this.innerStack = new ArrayDeque<>(4);
-  }
+  public DefaultFlowCallStack() {}
 
-  private DefaultFlowCallStack(final Deque<FlowStackElement> innerStack) {
-    this.innerStack = ((ArrayDeque) innerStack).clone();
+  private DefaultFlowCallStack(Frame top) {
+    setTop(top);
   }
 
   /**
@@ -51,7 +65,8 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @param flowStackElement the element to add
    */
   public void push(FlowStackElement flowStackElement) {
-    if (innerStack.size() >= MAX_DEPTH) {
+    Frame currentTop = top;
+    if (currentTop != null && currentTop.depth >= MAX_DEPTH) {
       StringBuilder messageBuilder = new StringBuilder();
 
       messageBuilder.append("Too many nested child contexts.")
@@ -61,8 +76,8 @@ public class DefaultFlowCallStack implements FlowCallStack {
       throw new EventContextDeepNestingException(messageBuilder.toString());
     }
 
-    synchronized (innerStack) {
-      innerStack.push(flowStackElement);
+    synchronized (this) {
+      setTop(new Frame(flowStackElement, updatedTop()));
     }
   }
 
@@ -72,11 +87,9 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @param processorPath the path to mark as invoked.
    */
   public void pushCurrentProcessorPath(String processorPath) {
-    if (!innerStack.isEmpty()) {
-      synchronized (innerStack) {
-        FlowStackElement stackElement = innerStack.pop();
-        innerStack.push(new FlowStackElement(stackElement.getFlowName(), stackElement.getChainIdentifier(), processorPath));
-      }
+    if (top != null) {
+      currentProcessorTime = currentTimeMillis();
+      currentProcessorPath = processorPath;
     }
   }
 
@@ -86,10 +99,14 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @return the top-most element of this stack.
    * @throws NoSuchElementException if this stack is empty.
    */
-  public FlowStackElement pop() {
-    synchronized (innerStack) {
-      return innerStack.pop();
+  public synchronized FlowStackElement pop() {
+    Frame currentTop = updatedTop();
+    if (currentTop == null) {
+      throw new NoSuchElementException();
     }
+
+    setTop(currentTop.parent);
+    return currentTop.element;
   }
 
   /**
@@ -97,24 +114,63 @@ public class DefaultFlowCallStack implements FlowCallStack {
    *
    * @return the top-most element of this stack, or null if this stack is empty.
    */
-  public FlowStackElement peek() {
-    synchronized (innerStack) {
-      return innerStack.peek();
-    }
+  public synchronized FlowStackElement peek() {
+    Frame currentTop = updatedTop();
+    return currentTop != null ? currentTop.element : null;
   }
 
   @Override
   public List<FlowStackElement> getElements() {
-    synchronized (innerStack) {
-      return new ArrayList<>(innerStack);
+    Frame currentTop;
+    synchronized (this) {
+      currentTop = updatedTop();
+    }
+
+    List<FlowStackElement> elements = new ArrayList<>(currentTop != null ? currentTop.depth : 0);
+    for (Frame frame = currentTop; frame != null; frame = frame.parent) {
+      elements.add(frame.element);
     }
+    return elements;
   }
 
   @Override
-  public DefaultFlowCallStack clone() {
-    synchronized (innerStack) {
-      return new DefaultFlowCallStack(innerStack);
+  public synchronized DefaultFlowCallStack clone() {
+    return new DefaultFlowCallStack(updatedTop());
+  }
+
+  /**
+   * Replaces the top-most frame with one for the current processor, if it changed since the frame was created.
+   * <p>
+   * Must be called holding the lock of this stack.
+   *
+   * @return the top-most frame
+   */
+  private Frame updatedTop() {
+    Frame currentTop = top;
+    if (currentTop == null) {
+      return null;
+    }
+
+    String processorPath = currentProcessorPath;
+    long processorTime = currentProcessorTime;
+    FlowStackElement element = currentTop.element;
+    if (element.getProcessorPath() == processorPath && element.getCreationTimeLong() == processorTime) {
+      return currentTop;
+    }
+
+    currentTop = new Frame(new FlowStackElement(element.getFlowName(), element.getChainIdentifier(), processorPath,
+                                                processorTime),
+                           currentTop.parent);
+    top = currentTop;
+    return currentTop;
+  }
+
+  private void setTop(Frame frame) {
+    if (frame != null) {
+      currentProcessorPath = frame.element.getProcessorPath();
+      currentProcessorTime = frame.element.getCreationTimeLong();
     }
+    top = frame;
   }
 
   @Override
@@ -129,15 +185,48 @@ public class DefaultFlowCallStack implements FlowCallStack {
   private String doToString(Function<FlowStackElement, String> toString) {
     StringBuilder stackString = new StringBuilder(256);
 
-    int i = 0;
-    synchronized (innerStack) {
-      for (FlowStackElement flowStackElement : innerStack) {
-        stackString.append("at ").append(toString.apply(flowStackElement));
-        if (++i != innerStack.size()) {
-          stackString.append(lineSeparator());
-        }
+    Iterator<FlowStackElement> elements = getElements().iterator();
+    while (elements.hasNext()) {
+      stackString.append("at ").append(toString.apply(elements.next()));
+      if (elements.hasNext()) {
+        stackString.append(lineSeparator());
       }
     }
     return stackString.toString();
   }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("innerStack", new ArrayDeque<>(getElements()));
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    Deque<FlowStackElement> innerStack = (Deque<FlowStackElement>) in.readFields().get("innerStack", null);
+
+    Frame frame = null;
+    if (innerStack != null) {
+      Iterator<FlowStackElement> bottomUp = innerStack.descendingIterator();
+      while (bottomUp.hasNext()) {
+        frame = new Frame(bottomUp.next(), frame);
+      }
+    }
+    setTop(frame);
+  }
+
+  /**
+   * An immutable entry of the stack, shared by all the stacks cloned after it was pushed.
+   */
+  private static final class Frame {
+
+    private final FlowStackElement element;
+    private final Frame parent;
+    private final int depth;
+
+    private Frame(FlowStackElement element, Frame parent) {
+      this.element = element;
+      this.parent = parent;
+      this.depth = parent != null ? parent.depth + 1 : 1;
+    }
+  }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+/**
+ * What an {@link AsyncNotificationQueue} does with a notification fired when it is full.
+ *
+ * @since 4.6
+ */
+public enum NotificationOverflowPolicy {
+
+  /**
+   * Queue the notification anyway, exceeding the capacity, so that no notification is lost and the firing thread never waits.
+   */
+  UNBOUNDED,
+
+  /**
+   * Discard the oldest queued notification to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Make the firing thread wait until the listener catches up, so that no notification is lost. Threads that must not block
+   * behave as with {@link #DROP_OLDEST} instead.
+   */
+  BLOCK,
+
+  /**
+   * Discard the new notification if one of the same type, action and resource is already queued, since the queued one already
+   * tells the listener about it. Otherwise, behave as {@link #DROP_OLDEST}.
+   */
+  COALESCE
+}
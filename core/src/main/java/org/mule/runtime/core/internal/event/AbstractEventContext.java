@@ -24,6 +24,8 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.exception.NullExceptionHandler;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.management.stats.ComponentExecutionStarts;
+import org.mule.runtime.core.internal.management.stats.ComponentExecutionStartsAware;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import java.util.ArrayList;
@@ -49,7 +51,7 @@ import reactor.core.publisher.MonoSink;
  *
  * @since 4.0
  */
-abstract class AbstractEventContext implements SpanContextAware, BaseEventContext {
+abstract class AbstractEventContext implements SpanContextAware, ComponentExecutionStartsAware, BaseEventContext {
 
   private static final byte STATE_READY = 0;
   private static final byte STATE_RESPONSE = 1;
@@ -70,6 +72,7 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
   private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
 
   private final ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  private transient volatile ComponentExecutionStarts componentExecutionStarts;
 
   private final int depthLevel;
 
@@ -416,6 +419,26 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     return depthLevel;
   }
 
+  @Override
+  public ComponentExecutionStarts getComponentExecutionStarts() {
+    return componentExecutionStarts;
+  }
+
+  @Override
+  public ComponentExecutionStarts getOrCreateComponentExecutionStarts() {
+    ComponentExecutionStarts starts = componentExecutionStarts;
+    if (starts == null) {
+      synchronized (this) {
+        starts = componentExecutionStarts;
+        if (starts == null) {
+          starts = new ComponentExecutionStarts();
+          componentExecutionStarts = starts;
+        }
+      }
+    }
+    return starts;
+  }
+
   public Lock getChildContextsReadLock() {
     return childContextsReadWriteLock.readLock();
   }
@@ -6,35 +6,86 @@
  */
 package org.mule.runtime.core.internal.lock;
 
+import static java.lang.Runtime.getRuntime;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.currentThread;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.HashMap;
-import java.util.Map;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 
 /**
  * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * Lock entries are kept in a {@link ConcurrentHashMap} and reference counted. Entries are created and released through atomic
+ * per-key operations on the map, so locking on different keys does not contend on a shared monitor.
+ * <p>
+ * Locks acquired through {@link #tryLockAsync(String, long, TimeUnit, ScheduledExecutorService)} are not owned by any caller
+ * thread. They are acquired and released on an owner thread of this group, which holds them on behalf of the requests, so that
+ * they may be released from any thread. Each key is always handled by the same owner thread, and the keys are spread among
+ * several of them so that async locks on different keys do not wait on each other. The owner threads are taken from the
+ * {@link SchedulerService} when one is given.
+ * <p>
+ * Once the group is disposed, async locks still held are released without their owner thread, and pending requests are
+ * completed with {@code false}.
  */
 public class InstanceLockGroup implements LockGroup {
 
   private static final long DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT = 5000L;
   private static final Logger LOGGER = getLogger(InstanceLockGroup.class);
 
-  private final Map<String, LockEntry> locks;
-  private final Object lockAccessMonitor = new Object();
+  private final ConcurrentMap<String, LockEntry> locks;
+  private final Object disposeMonitor = new Object();
   private final LockProvider lockProvider;
   private final long gracefulShutdownTimeoutMillis;
 
-  public InstanceLockGroup(LockProvider lockProvider, long shutdownTimeoutMillis) {
+  private final SchedulerService schedulerService;
+  private final SchedulerConfig schedulerConfig;
+  // Created on first use, since most groups are never used for async locks
+  private final AtomicReferenceArray<ExecutorService> asyncLockOwners =
+      new AtomicReferenceArray<>(getRuntime().availableProcessors());
+
+  private volatile boolean disposing = false;
+  private volatile boolean disposed = false;
+
+  /**
+   * @param lockProvider          the provider of the locks for each key
+   * @param shutdownTimeoutMillis the time to wait for the locks to be released when disposing
+   * @param schedulerService      the service to get the async lock owner threads from. May be {@code null}.
+   * @param schedulerConfig       the base configuration for the async lock owner schedulers. May be {@code null}.
+   */
+  public InstanceLockGroup(LockProvider lockProvider, long shutdownTimeoutMillis, SchedulerService schedulerService,
+                           SchedulerConfig schedulerConfig) {
     this.lockProvider = lockProvider;
-    this.locks = new HashMap<>();
+    this.locks = new ConcurrentHashMap<>();
     this.gracefulShutdownTimeoutMillis = shutdownTimeoutMillis;
+    this.schedulerService = schedulerService;
+    this.schedulerConfig = schedulerConfig != null ? schedulerConfig : SchedulerConfig.config();
+  }
+
+  public InstanceLockGroup(LockProvider lockProvider, long shutdownTimeoutMillis) {
+    this(lockProvider, shutdownTimeoutMillis, null, null);
   }
 
   public InstanceLockGroup(LockProvider lockProvider) {
@@ -49,14 +100,29 @@ public class InstanceLockGroup implements LockGroup {
 
   @Override
   public void unlock(String key) {
-    synchronized (lockAccessMonitor) {
-      LockEntry lockEntry = locks.get(key);
-      if (lockEntry != null) {
+    // The entry cannot be removed concurrently, since the caller holds the lock and so a reference to it
+    LockEntry lockEntry = locks.get(key);
+    if (lockEntry != null) {
+      if (lockEntry.isAsyncHeld()) {
+        // No thread can hold the lock while a request does, so this releases the request's hold regardless of the caller
+        executeOnOwner(key, () -> {
+          lockEntry.setAsyncHeld(false);
+          lockEntry.getLock().unlock();
+          releaseLockEntry(key, lockEntry);
+          grantOnOwnerThread(key, lockEntry);
+        }, () -> {
+          // The owner thread is gone, and so is its hold of the lock
+          lockEntry.setAsyncHeld(false);
+          releaseLockEntry(key, lockEntry);
+          rejectWaiters(key, lockEntry);
+        });
+      } else {
         lockEntry.getLock().unlock();
         releaseLockEntry(key, lockEntry);
-      } else {
-        LOGGER.warn("Trying to unlock a lock with id {} that wasn't previously locked", key);
+        grantToWaiters(key, lockEntry);
       }
+    } else {
+      LOGGER.warn("Trying to unlock a lock with id {} that wasn't previously locked", key);
     }
   }
 
@@ -85,6 +151,24 @@ public class InstanceLockGroup implements LockGroup {
     return lockAcquired;
   }
 
+  @Override
+  public CompletableFuture<Boolean> tryLockAsync(String lockId, long timeout, TimeUnit timeUnit,
+                                                 ScheduledExecutorService timeoutScheduler) {
+    LockEntry lockEntry = getOrCreateLockEntry(lockId);
+    AsyncLockRequest request = new AsyncLockRequest(() -> unlock(lockId), timeoutScheduler);
+    lockEntry.addWaiter(request);
+    request.setTimeoutTask(timeoutScheduler.schedule(() -> {
+      if (request.claim()) {
+        request.complete(false);
+        lockEntry.removeWaiter(request);
+        releaseLockEntry(lockId, lockEntry);
+      }
+    }, timeout, timeUnit));
+
+    grantToWaiters(lockId, lockEntry);
+    return request;
+  }
+
   @Override
   public void lockInterruptibly(String lockId) throws InterruptedException {
     LockEntry lockEntry = getOrCreateLockEntry(lockId);
@@ -104,6 +188,9 @@ public class InstanceLockGroup implements LockGroup {
 
     private final AtomicInteger lockCount = new AtomicInteger(0);
     private final Lock lock;
+    private final Queue<AsyncLockRequest> waiters = new ConcurrentLinkedQueue<>();
+    // Only changed from the async lock owner thread of the key, or once it is gone
+    private volatile boolean asyncHeld;
 
     public LockEntry(Lock lock) {
       this.lock = lock;
@@ -124,46 +211,229 @@ public class InstanceLockGroup implements LockGroup {
     public boolean hasPendingLocks() {
       return lockCount.get() > 0;
     }
+
+    void addWaiter(AsyncLockRequest request) {
+      waiters.add(request);
+    }
+
+    AsyncLockRequest pollWaiter() {
+      return waiters.poll();
+    }
+
+    void removeWaiter(AsyncLockRequest request) {
+      waiters.remove(request);
+    }
+
+    boolean hasWaiters() {
+      return !waiters.isEmpty();
+    }
+
+    boolean isAsyncHeld() {
+      return asyncHeld;
+    }
+
+    void setAsyncHeld(boolean asyncHeld) {
+      this.asyncHeld = asyncHeld;
+    }
+  }
+
+  /**
+   * A pending {@link #tryLockAsync(String, long, TimeUnit, ScheduledExecutorService)} invocation. It is claimed either by the
+   * async lock owner thread, once it acquires the lock on its behalf, or by its timeout. It is then completed on the executor
+   * given to the invocation, so that its dependent stages never run while the lock is being handed over.
+   */
+  static final class AsyncLockRequest extends CompletableFuture<Boolean> {
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final Runnable release;
+    private final Executor completionExecutor;
+    private volatile ScheduledFuture<?> timeoutTask;
+
+    AsyncLockRequest(Runnable release, Executor completionExecutor) {
+      this.release = release;
+      this.completionExecutor = completionExecutor;
+    }
+
+    void setTimeoutTask(ScheduledFuture<?> timeoutTask) {
+      this.timeoutTask = timeoutTask;
+      if (claimed.get()) {
+        timeoutTask.cancel(false);
+      }
+    }
+
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    void grant() {
+      completeOnExecutor(this::completeGranted);
+    }
+
+    /**
+     * Completes a claimed request with {@code false}, for when the lock cannot be acquired on its behalf anymore.
+     */
+    void reject() {
+      completeOnExecutor(() -> complete(false));
+    }
+
+    private void completeOnExecutor(Runnable completion) {
+      ScheduledFuture<?> task = timeoutTask;
+      if (task != null) {
+        task.cancel(false);
+      }
+
+      try {
+        completionExecutor.execute(completion);
+      } catch (RejectedExecutionException e) {
+        completion.run();
+      }
+    }
+
+    private void completeGranted() {
+      if (!complete(true)) {
+        // cancelled by the caller meanwhile, so nobody will release the lock
+        release.run();
+      }
+    }
   }
 
   @Override
   public void dispose() {
     waitForLocksToBeUnlocked();
+    disposed = true;
+    for (int i = 0; i < asyncLockOwners.length(); ++i) {
+      ExecutorService owner = asyncLockOwners.getAndSet(i, null);
+      if (owner instanceof Scheduler) {
+        ((Scheduler) owner).stop();
+      } else if (owner != null) {
+        owner.shutdown();
+      }
+    }
   }
 
   private LockEntry getOrCreateLockEntry(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
+    return locks.compute(lockId, (key, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(key));
       }
       lockEntry.incrementLockCount();
-    }
-    return lockEntry;
+      return lockEntry;
+    });
   }
 
   private void releaseLockEntry(String lockId, LockEntry lockEntry) {
-    synchronized (lockAccessMonitor) {
-      lockEntry.decrementLockCount();
-      if (!lockEntry.hasPendingLocks()) {
-        locks.remove(lockId);
-        if (locks.isEmpty()) {
-          lockAccessMonitor.notifyAll();
+    locks.computeIfPresent(lockId, (key, currentEntry) -> {
+      if (currentEntry != lockEntry) {
+        return currentEntry;
+      }
+      currentEntry.decrementLockCount();
+      return currentEntry.hasPendingLocks() ? currentEntry : null;
+    });
+
+    if (disposing && locks.isEmpty()) {
+      synchronized (disposeMonitor) {
+        disposeMonitor.notifyAll();
+      }
+    }
+  }
+
+  private void grantToWaiters(String key, LockEntry lockEntry) {
+    if (lockEntry.hasWaiters()) {
+      executeOnOwner(key, () -> grantOnOwnerThread(key, lockEntry), () -> rejectWaiters(key, lockEntry));
+    }
+  }
+
+  private void rejectWaiters(String key, LockEntry lockEntry) {
+    AsyncLockRequest request;
+    while ((request = lockEntry.pollWaiter()) != null) {
+      if (request.claim()) {
+        request.reject();
+        releaseLockEntry(key, lockEntry);
+      }
+    }
+  }
+
+  /**
+   * Runs the given task on the async lock owner thread of the key, or the fallback if the group is already disposed.
+   */
+  private void executeOnOwner(String key, Runnable task, Runnable fallback) {
+    ExecutorService owner = disposed ? null : getAsyncLockOwner(key);
+    if (owner == null) {
+      fallback.run();
+      return;
+    }
+
+    try {
+      owner.execute(() -> {
+        try {
+          task.run();
+        } catch (Throwable t) {
+          // The owner thread must survive, since it holds the locks of other requests
+          LOGGER.error("Error handing over async lock '{}'", key, t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      fallback.run();
+    }
+  }
+
+  private ExecutorService getAsyncLockOwner(String key) {
+    int index = (key.hashCode() & Integer.MAX_VALUE) % asyncLockOwners.length();
+    ExecutorService owner = asyncLockOwners.get(index);
+    if (owner == null) {
+      synchronized (asyncLockOwners) {
+        owner = asyncLockOwners.get(index);
+        if (owner == null && !disposed) {
+          owner = createAsyncLockOwner(index);
+          asyncLockOwners.set(index, owner);
         }
       }
     }
+    return owner;
+  }
+
+  private ExecutorService createAsyncLockOwner(int index) {
+    String name = "lock-group-async-owner-" + index;
+    if (schedulerService != null) {
+      // A single thread, so that the locks it acquires are released by the same thread
+      return schedulerService.customScheduler(schedulerConfig.withName(name).withMaxConcurrentTasks(1));
+    }
+    return newSingleThreadExecutor(new NamedThreadFactory(name));
+  }
+
+  /**
+   * Acquires the lock on behalf of the oldest pending asynchronous request, if any. Must be called from the async lock owner
+   * thread of the key, which then holds the lock until the request releases it.
+   */
+  private void grantOnOwnerThread(String key, LockEntry lockEntry) {
+    final Lock lock = lockEntry.getLock();
+    // The owner thread may already hold the lock for another request, and the lock may be reentrant
+    while (lockEntry.hasWaiters() && !lockEntry.isAsyncHeld()) {
+      if (!lock.tryLock()) {
+        // the current holder will grant the lock to the next request when releasing it
+        return;
+      }
+
+      AsyncLockRequest request = lockEntry.pollWaiter();
+      if (request != null && request.claim()) {
+        lockEntry.setAsyncHeld(true);
+        request.grant();
+        return;
+      }
+
+      // there was no request left or it timed out meanwhile, so give the lock back and check again
+      lock.unlock();
+    }
   }
 
   private void waitForLocksToBeUnlocked() {
+    disposing = true;
     long timeOutMillis = currentTimeMillis() + gracefulShutdownTimeoutMillis;
-    synchronized (lockAccessMonitor) {
+    synchronized (disposeMonitor) {
       try {
         long remainingMillis = timeOutMillis - currentTimeMillis();
         while (!locks.isEmpty() && remainingMillis > 0) {
-          lockAccessMonitor.wait(remainingMillis);
+          disposeMonitor.wait(remainingMillis);
           remainingMillis = timeOutMillis - currentTimeMillis();
         }
       } catch (InterruptedException e) {
@@ -11,6 +11,8 @@ import org.mule.runtime.api.scheduler.SchedulerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -64,6 +66,15 @@ public class LockAdapter implements Lock {
     return lockGroup.tryLock(lockId, timeout, timeUnit);
   }
 
+  /**
+   * Tries to acquire this lock without blocking the calling thread.
+   *
+   * @see LockGroup#tryLockAsync(String, long, TimeUnit, ScheduledExecutorService)
+   */
+  public CompletableFuture<Boolean> tryLockAsync(long timeout, TimeUnit timeUnit, ScheduledExecutorService timeoutScheduler) {
+    return lockGroup.tryLockAsync(lockId, timeout, timeUnit, timeoutScheduler);
+  }
+
   @Override
   public void unlock() {
     lockGroup.unlock(lockId);
@@ -9,6 +9,8 @@ package org.mule.runtime.core.internal.lock;
 import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.api.lock.LockFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,5 +41,21 @@ public interface LockGroup extends Disposable {
 
   boolean tryLock(String lockId);
 
+  /**
+   * Tries to acquire the lock without blocking the calling thread.
+   * <p>
+   * The returned future is completed with {@code true} once the lock is acquired on behalf of this request, or with {@code false}
+   * if that does not happen before the timeout elapses. A lock acquired this way is not owned by any thread, so it may be
+   * released through {@link #unlock(String)} from any thread.
+   *
+   * @param timeout          the time in timeUnit to wait until the lock is acquired
+   * @param timeUnit         the time unit of timeout
+   * @param timeoutScheduler the scheduler used to complete the future, either when the lock is acquired or the timeout elapses
+   * @return a future completed with whether the lock was acquired
+   * @since 4.6
+   */
+  CompletableFuture<Boolean> tryLockAsync(String lockId, long timeout, TimeUnit timeUnit,
+                                          ScheduledExecutorService timeoutScheduler);
+
   void lockInterruptibly(String lockId) throws InterruptedException;
 }
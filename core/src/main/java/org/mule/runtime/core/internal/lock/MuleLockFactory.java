@@ -69,6 +69,7 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
       return new InstanceLockGroup(lockProvider);
     }
 
-    return new InstanceLockGroup(lockProvider, muleConfiguration.getShutdownTimeout());
+    return new InstanceLockGroup(lockProvider, muleConfiguration.getShutdownTimeout(), schedulerService,
+                                 muleContext.getSchedulerBaseConfig());
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+
+/**
+ * The start time of the executions in progress of an event context, for each component executing it.
+ * <p>
+ * An event context is usually executed by a few nested components at a time, so the start times are kept in small arrays
+ * instead of a map, avoiding any allocation once they have grown to the nesting depth of the flow.
+ *
+ * @since 4.6
+ */
+public final class ComponentExecutionStarts {
+
+  /**
+   * Returned by {@link #remove(Object)} when the start of the execution wasn't recorded.
+   */
+  static final long NOT_STARTED = Long.MIN_VALUE;
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private Object[] components = new Object[INITIAL_CAPACITY];
+  private long[] startNanos = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Records the start of an execution, replacing any previous start for the same component.
+   *
+   * @param component identifies the component executing the event context.
+   * @param nanos     the start time of the execution.
+   * @return {@code true} if no start was recorded for the component.
+   */
+  synchronized boolean put(Object component, long nanos) {
+    int index = indexOf(component);
+    if (index >= 0) {
+      startNanos[index] = nanos;
+      return false;
+    }
+
+    if (size == components.length) {
+      components = copyOf(components, size * 2);
+      startNanos = copyOf(startNanos, size * 2);
+    }
+    components[size] = component;
+    startNanos[size] = nanos;
+    ++size;
+    return true;
+  }
+
+  /**
+   * Forgets the start of an execution.
+   *
+   * @param component identifies the component executing the event context, as given to {@link #put(Object, long)}.
+   * @return the start time of the execution, or {@link #NOT_STARTED} if it wasn't recorded.
+   */
+  synchronized long remove(Object component) {
+    int index = indexOf(component);
+    if (index < 0) {
+      return NOT_STARTED;
+    }
+
+    long removed = startNanos[index];
+    --size;
+    // Keep the components in the order they started
+    arraycopy(components, index + 1, components, index, size - index);
+    arraycopy(startNanos, index + 1, startNanos, index, size - index);
+    components[size] = null;
+    return removed;
+  }
+
+  private int indexOf(Object component) {
+    // The innermost components are the most likely to end first
+    for (int i = size - 1; i >= 0; --i) {
+      if (components[i] == component) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
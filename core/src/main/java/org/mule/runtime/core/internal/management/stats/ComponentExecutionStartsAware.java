@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+/**
+ * An execution key, typically an event context, which carries the start time of its executions in progress so that
+ * {@link ComponentLatencyRecorder} doesn't need to keep them.
+ *
+ * @since 4.6
+ */
+public interface ComponentExecutionStartsAware {
+
+  /**
+   * @return the start times of the executions in progress, or {@code null} if none was ever recorded.
+   */
+  ComponentExecutionStarts getComponentExecutionStarts();
+
+  /**
+   * @return the start times of the executions in progress, created if none was ever recorded.
+   */
+  ComponentExecutionStarts getOrCreateComponentExecutionStarts();
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static org.mule.runtime.core.internal.management.stats.ComponentExecutionStarts.NOT_STARTED;
+
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics.ComponentLatencySnapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the executions of the processor of a single component over a rolling window.
+ * <p>
+ * The window is split in slices, each with its own {@link LatencyHistogram}. A slice is cleared and reused once it falls out of
+ * the window, and snapshots merge the slices within the window. An execution recorded concurrently with the reuse of its slice
+ * may be lost, which is acceptable for troubleshooting purposes.
+ * <p>
+ * The start time of the executions in progress is carried by their key, see {@link ComponentExecutionStartsAware}, so that it is
+ * discarded along with the event context executing it. Executions which never end, such as the ones of events dropped by a
+ * processor, are counted as in progress until they are forgotten by {@link #clearInFlight()}.
+ *
+ * @since 4.6
+ */
+final class ComponentLatencyRecorder {
+
+  private final String location;
+  private final LongSupplier nanoClock;
+  private final long sliceNanos;
+  private final Slice[] slices;
+
+  // Count of the executions in progress, also identifying this recorder in their start times. Replaced when they are forgotten,
+  // so that the end of the executions started before is not recorded.
+  private volatile LongAdder inFlight = new LongAdder();
+
+  ComponentLatencyRecorder(String location, LongSupplier nanoClock, long sliceNanos, int sliceCount) {
+    this.location = location;
+    this.nanoClock = nanoClock;
+    this.sliceNanos = sliceNanos;
+    this.slices = new Slice[sliceCount];
+    for (int i = 0; i < sliceCount; ++i) {
+      slices[i] = new Slice();
+    }
+  }
+
+  /**
+   * Records the start of an execution. Does nothing if the key doesn't carry start times.
+   *
+   * @param executionKey identifies the execution, typically the event context executing it.
+   */
+  void start(Object executionKey) {
+    if (!(executionKey instanceof ComponentExecutionStartsAware)) {
+      return;
+    }
+    LongAdder currentInFlight = inFlight;
+    if (((ComponentExecutionStartsAware) executionKey).getOrCreateComponentExecutionStarts()
+        .put(currentInFlight, nanoClock.getAsLong())) {
+      currentInFlight.increment();
+    }
+  }
+
+  /**
+   * Records the end of an execution. Does nothing if its start wasn't recorded.
+   *
+   * @param executionKey identifies the execution, as given to {@link #start(Object)}.
+   * @param error        whether the execution finished with an error.
+   */
+  void end(Object executionKey, boolean error) {
+    if (!(executionKey instanceof ComponentExecutionStartsAware)) {
+      return;
+    }
+    ComponentExecutionStarts starts = ((ComponentExecutionStartsAware) executionKey).getComponentExecutionStarts();
+    if (starts == null) {
+      return;
+    }
+    LongAdder currentInFlight = inFlight;
+    long startNanos = starts.remove(currentInFlight);
+    if (startNanos == NOT_STARTED) {
+      return;
+    }
+    currentInFlight.decrement();
+
+    long now = nanoClock.getAsLong();
+    Slice slice = currentSlice(now);
+    slice.histogram.record(now - startNanos);
+    if (error) {
+      slice.errors.incrementAndGet();
+    }
+  }
+
+  /**
+   * Forgets the executions in progress, so that their end is not recorded.
+   */
+  void clearInFlight() {
+    inFlight = new LongAdder();
+  }
+
+  private Slice currentSlice(long now) {
+    long epoch = floorDiv(now, sliceNanos);
+    Slice slice = slices[(int) floorMod(epoch, (long) slices.length)];
+    if (slice.epoch != epoch) {
+      slice.reuse(epoch);
+    }
+    return slice;
+  }
+
+  ComponentLatencySnapshot snapshot() {
+    long currentEpoch = floorDiv(nanoClock.getAsLong(), sliceNanos);
+    long[] counts = new long[LatencyHistogram.BUCKETS];
+    long errors = 0;
+    for (Slice slice : slices) {
+      long epoch = slice.epoch;
+      if (epoch > currentEpoch - slices.length && epoch <= currentEpoch) {
+        slice.histogram.addTo(counts);
+        errors += slice.errors.get();
+      }
+    }
+
+    long invocations = 0;
+    for (long count : counts) {
+      invocations += count;
+    }
+    return new DefaultComponentLatencySnapshot(location, invocations, errors, inFlight.sum(), counts);
+  }
+
+  private static final class Slice {
+
+    private volatile long epoch = Long.MIN_VALUE;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    private synchronized void reuse(long newEpoch) {
+      if (epoch < newEpoch) {
+        histogram.clear();
+        errors.set(0);
+        epoch = newEpoch;
+      }
+    }
+  }
+
+  private static final class DefaultComponentLatencySnapshot implements ComponentLatencySnapshot {
+
+    private final String location;
+    private final long invocations;
+    private final long errors;
+    private final long inFlight;
+    private final long[] counts;
+
+    private DefaultComponentLatencySnapshot(String location, long invocations, long errors, long inFlight, long[] counts) {
+      this.location = location;
+      this.invocations = invocations;
+      this.errors = errors;
+      this.inFlight = inFlight;
+      this.counts = counts;
+    }
+
+    @Override
+    public String getLocation() {
+      return location;
+    }
+
+    @Override
+    public long getInvocations() {
+      return invocations;
+    }
+
+    @Override
+    public long getErrors() {
+      return errors;
+    }
+
+    @Override
+    public long getInFlight() {
+      return inFlight;
+    }
+
+    @Override
+    public long getLatencyNanos(double percentile) {
+      return LatencyHistogram.valueAtPercentile(counts, invocations, percentile);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Boolean.getBoolean;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Default implementation of {@link ComponentLatencyStatistics}, keeping a {@link ComponentLatencyRecorder} for each component
+ * location.
+ * <p>
+ * The rolling window is of one minute, in slices of 10 seconds. Recording may be enabled from startup through the
+ * {@value #COMPONENT_LATENCY_STATISTICS_ENABLED_PROPERTY} system property. Disabling the recording forgets all the executions in
+ * progress.
+ * <p>
+ * Only the executions of message processor chains are recorded. Domains have no chains of their own, so the executions of the
+ * components they share are recorded by the applications whose flows they dispatch to.
+ *
+ * @since 4.6
+ */
+public class DefaultComponentLatencyStatistics implements ComponentLatencyStatistics {
+
+  public static final String COMPONENT_LATENCY_STATISTICS_ENABLED_PROPERTY = "mule.componentLatencyStatistics.enabled";
+
+  private static final long DEFAULT_SLICE_NANOS = SECONDS.toNanos(10);
+  private static final int DEFAULT_SLICE_COUNT = 6;
+
+  private final ConcurrentMap<String, ComponentLatencyRecorder> recorders = new ConcurrentHashMap<>();
+  private final LongSupplier nanoClock;
+  private final long sliceNanos;
+  private final int sliceCount;
+
+  private volatile boolean enabled = getBoolean(COMPONENT_LATENCY_STATISTICS_ENABLED_PROPERTY);
+  // Bounds of the last period recording was enabled for
+  private volatile long enabledNanos;
+  private volatile long disabledNanos;
+
+  public DefaultComponentLatencyStatistics() {
+    this(System::nanoTime, DEFAULT_SLICE_NANOS, DEFAULT_SLICE_COUNT);
+  }
+
+  DefaultComponentLatencyStatistics(LongSupplier nanoClock, long sliceNanos, int sliceCount) {
+    this.nanoClock = nanoClock;
+    this.sliceNanos = sliceNanos;
+    this.sliceCount = sliceCount;
+    this.enabledNanos = nanoClock.getAsLong();
+    this.disabledNanos = enabledNanos;
+  }
+
+  @Override
+  public synchronized void enable() {
+    if (!enabled) {
+      enabledNanos = nanoClock.getAsLong();
+      enabled = true;
+    }
+  }
+
+  @Override
+  public synchronized void disable() {
+    if (enabled) {
+      enabled = false;
+      disabledNanos = nanoClock.getAsLong();
+      for (ComponentLatencyRecorder recorder : recorders.values()) {
+        recorder.clearInFlight();
+      }
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public long getWindowMillis() {
+    return NANOSECONDS.toMillis(sliceNanos * sliceCount);
+  }
+
+  @Override
+  public synchronized long getRecordedMillis() {
+    long now = nanoClock.getAsLong();
+    long windowStart = now - sliceNanos * sliceCount;
+    long recordingStart = enabledNanos - windowStart > 0 ? enabledNanos : windowStart;
+    long recorded = (enabled ? now : disabledNanos) - recordingStart;
+    return recorded > 0 ? NANOSECONDS.toMillis(recorded) : 0;
+  }
+
+  /**
+   * Records the start of an execution of the processor of a component, if recording is enabled.
+   *
+   * @param location     the location of the component
+   * @param executionKey identifies the execution, typically the event context executing it. Only keys which are
+   *                     {@link ComponentExecutionStartsAware} are recorded.
+   */
+  public void start(String location, Object executionKey) {
+    if (enabled) {
+      getRecorder(location).start(executionKey);
+    }
+  }
+
+  /**
+   * Records the end of an execution of the processor of a component, if its start was recorded.
+   *
+   * @param location     the location of the component
+   * @param executionKey identifies the execution, as given to {@link #start(String, Object)}
+   * @param error        whether the execution finished with an error
+   */
+  public void end(String location, Object executionKey, boolean error) {
+    if (recorders.isEmpty()) {
+      // Recording has never been enabled
+      return;
+    }
+    ComponentLatencyRecorder recorder = recorders.get(location);
+    if (recorder != null) {
+      recorder.end(executionKey, error);
+    }
+  }
+
+  /**
+   * @param location the location of a component
+   * @return the recorder for the component, created if it didn't exist
+   */
+  ComponentLatencyRecorder getRecorder(String location) {
+    ComponentLatencyRecorder recorder = recorders.get(location);
+    if (recorder == null) {
+      recorder = recorders.computeIfAbsent(location, l -> new ComponentLatencyRecorder(l, nanoClock, sliceNanos, sliceCount));
+    }
+    return recorder;
+  }
+
+  @Override
+  public List<ComponentLatencySnapshot> getSnapshots() {
+    List<ComponentLatencySnapshot> snapshots = new ArrayList<>(recorders.size());
+    for (ComponentLatencyRecorder recorder : recorders.values()) {
+      snapshots.add(recorder.snapshot());
+    }
+    return snapshots;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies with a fixed set of log-linear buckets, so that histograms can be merged by adding their
+ * counts.
+ * <p>
+ * Latencies are kept in microseconds. Each power of two is split in 8 buckets, so the reported values are within 12.5% of the
+ * recorded ones. Latencies over 2^40 microseconds (about 12 days) are kept in the last bucket.
+ *
+ * @since 4.6
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+  private static final int MAX_EXPONENT = 39;
+
+  static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  void record(long latencyNanos) {
+    counts.incrementAndGet(bucketOf(max(0, latencyNanos) / 1000));
+  }
+
+  /**
+   * Adds the counts of this histogram to the given array, which must have {@link #BUCKETS} elements.
+   */
+  void addTo(long[] target) {
+    for (int i = 0; i < BUCKETS; ++i) {
+      target[i] += counts.get(i);
+    }
+  }
+
+  void clear() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts.set(i, 0);
+    }
+  }
+
+  static int bucketOf(long micros) {
+    if (micros < LINEAR_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = min(63 - numberOfLeadingZeros(micros), MAX_EXPONENT);
+    int subBucket = (int) (min(micros >> (exponent - SUB_BUCKET_BITS), (1L << SUB_BUCKET_BITS + 1) - 1)) & (SUB_BUCKETS - 1);
+    return LINEAR_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * @return the highest latency, in microseconds, kept in the given bucket.
+   */
+  static long highestValueOf(int bucket) {
+    if (bucket < LINEAR_BUCKETS) {
+      return bucket;
+    }
+    int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+    int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+    long lowest = ((long) SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+  /**
+   * @param counts     the merged counts of one or more histograms
+   * @param total      the sum of {@code counts}
+   * @param percentile a value between 0 and 100
+   * @return the latency in nanoseconds under which the given percentile of the recorded values are, or {@code 0} if
+   *         {@code total} is {@code 0}
+   */
+  static long valueAtPercentile(long[] counts, long total, double percentile) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = max(1, (long) ceil(total * min(100, max(0, percentile)) / 100));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      accumulated += counts[i];
+      if (accumulated >= rank) {
+        return highestValueOf(i) * 1000;
+      }
+    }
+    return highestValueOf(BUCKETS - 1) * 1000;
+  }
+}
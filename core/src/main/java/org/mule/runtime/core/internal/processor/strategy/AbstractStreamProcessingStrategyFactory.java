@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.getInteger;
 import static java.lang.Integer.max;
@@ -56,8 +57,19 @@ public abstract class AbstractStreamProcessingStrategyFactory extends AbstractPr
   // required to achieve absolute minimum latency for the scenarios where this is important.
   protected static final int DEFAULT_SUBSCRIBER_COUNT =
       getInteger(SYSTEM_PROPERTY_PREFIX + "DEFAULT_SUBSCRIBER_COUNT", max(1, (CORES / 2)));
+
+  // Adaptive concurrency limit, see AdaptiveConcurrencyLimit. When enabled, maxConcurrency acts as the upper bound for the limit.
+  protected static final boolean ADAPTIVE_CONCURRENCY_LIMIT = getBoolean(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_CONCURRENCY_LIMIT");
+  protected static final int ADAPTIVE_CONCURRENCY_INITIAL_LIMIT =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_CONCURRENCY_INITIAL_LIMIT", CORES * 2);
+  protected static final int ADAPTIVE_CONCURRENCY_MIN_LIMIT =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_CONCURRENCY_MIN_LIMIT", 1);
+  protected static final int ADAPTIVE_CONCURRENCY_MAX_LIMIT =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "ADAPTIVE_CONCURRENCY_MAX_LIMIT", DEFAULT_BUFFER_SIZE);
+
   private int bufferSize = DEFAULT_BUFFER_SIZE;
   private int subscriberCount = DEFAULT_SUBSCRIBER_COUNT;
+  private boolean adaptiveConcurrencyLimit = ADAPTIVE_CONCURRENCY_LIMIT;
 
   /**
    * Configure the size of the ring-buffer size used to buffer and de-multiplexes events from multiple source threads. This value
@@ -84,6 +96,16 @@ public abstract class AbstractStreamProcessingStrategyFactory extends AbstractPr
     this.subscriberCount = subscriberCount;
   }
 
+  /**
+   * Configure whether the concurrency of the flow is limited by a value that adapts to the observed latency of its events,
+   * instead of only by the configured {@code maxConcurrency}.
+   *
+   * @param adaptiveConcurrencyLimit whether the adaptive concurrency limit is enabled.
+   */
+  public void setAdaptiveConcurrencyLimit(boolean adaptiveConcurrencyLimit) {
+    this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+  }
+
   protected int getBufferSize() {
     return bufferSize;
   }
@@ -103,6 +125,20 @@ public abstract class AbstractStreamProcessingStrategyFactory extends AbstractPr
             .withName(schedulersNamePrefix + "." + CPU_LITE.name()));
   }
 
+  /**
+   * @param name the name of the owner of the limit, for logging.
+   * @return the {@link AdaptiveConcurrencyLimit} for a new processing strategy, or {@code null} if it is not enabled.
+   */
+  AdaptiveConcurrencyLimit createAdaptiveConcurrencyLimit(String name) {
+    if (!adaptiveConcurrencyLimit) {
+      return null;
+    }
+
+    final int maxLimit = min(getMaxConcurrency(), ADAPTIVE_CONCURRENCY_MAX_LIMIT);
+    return new AdaptiveConcurrencyLimit(name, min(ADAPTIVE_CONCURRENCY_INITIAL_LIMIT, maxLimit), ADAPTIVE_CONCURRENCY_MIN_LIMIT,
+                                        maxLimit);
+  }
+
   /**
    * This method is only added for being able to change it in tests, it should be the same as using getSinksCount in
    * {@link ProactorStreamEmitterProcessingStrategy} (see MULE-19878).
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Concurrency limit for a flow that adapts to the latency observed for the events it processes, instead of being a fixed value.
+ * <p>
+ * The limit is adjusted with a gradient algorithm: the average latency of the last sampling window is compared against a long
+ * term average. While the recent latency stays close to the long term one the limit grows, allowing for some queueing. When it
+ * rises, meaning that events are waiting for resources instead of being processed, the limit is reduced proportionally. This way
+ * the flow applies back-pressure to its sources before the latency of the accepted events degrades.
+ * <p>
+ * The limit only grows while the flow is actually using most of it, so that it doesn't drift upwards during periods of low load.
+ * <p>
+ * Each slot belongs to the generation it was acquired in. {@link #reset()} starts a new generation, so that slots of the previous
+ * one freed afterwards don't free slots acquired after the reset.
+ *
+ * @since 4.6
+ */
+final class AdaptiveConcurrencyLimit {
+
+  private static final Logger LOGGER = getLogger(AdaptiveConcurrencyLimit.class);
+
+  private static final long SAMPLE_WINDOW_NANOS = MILLISECONDS.toNanos(100);
+  private static final int MIN_WINDOW_SAMPLES = 10;
+  private static final int LONG_RTT_WINDOWS = 60;
+  private static final double RTT_TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+
+  /**
+   * Returned by {@link #tryAcquire()} when the limit doesn't allow another event.
+   */
+  static final int NOT_ACQUIRED = -1;
+
+  private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final LongSupplier nanoClock;
+
+  // The generation in the upper 32 bits, and the amount of events in flight in the lower ones
+  private final AtomicLong inFlight = new AtomicLong();
+  private volatile int limit;
+
+  private final AtomicLong windowStart;
+  private final AtomicLong windowRttSum = new AtomicLong();
+  private final AtomicInteger windowSamples = new AtomicInteger();
+  private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+  private final AtomicBoolean updating = new AtomicBoolean();
+
+  // Only accessed by the thread that won the `updating` flag
+  private double estimatedLimit;
+  private double longRtt;
+
+  AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit) {
+    this(name, initialLimit, minLimit, maxLimit, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+    this.name = name;
+    this.minLimit = max(1, minLimit);
+    this.maxLimit = max(this.minLimit, maxLimit);
+    this.nanoClock = nanoClock;
+    this.estimatedLimit = min(this.maxLimit, max(this.minLimit, initialLimit));
+    this.limit = (int) estimatedLimit;
+    this.windowStart = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Reserves a slot for an event, if the current limit allows it.
+   *
+   * @return the generation of the slot if the event may be processed, in which case either {@link #release(int, long)} or
+   *         {@link #cancel(int)} must be called for it with that generation. {@link #NOT_ACQUIRED} otherwise.
+   */
+  int tryAcquire() {
+    long current;
+    do {
+      current = inFlight.get();
+      if (countOf(current) >= limit) {
+        return NOT_ACQUIRED;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return generationOf(current);
+  }
+
+  /**
+   * Frees the slot of an event that was not processed, without taking its latency into account.
+   *
+   * @param generation the generation returned by {@link #tryAcquire()} for the slot.
+   */
+  void cancel(int generation) {
+    free(generation);
+  }
+
+  /**
+   * Frees the slot of a processed event, and recalculates the limit if the current sampling window is complete.
+   *
+   * @param generation the generation returned by {@link #tryAcquire()} for the slot.
+   * @param startNanos the value of the clock when the slot for the event was acquired.
+   */
+  void release(int generation, long startNanos) {
+    final long now = nanoClock.getAsLong();
+    final int inFlightBefore = free(generation);
+    if (inFlightBefore < 0) {
+      // Acquired before a reset, its latency isn't representative either
+      return;
+    }
+    if (inFlightBefore > windowMaxInFlight.get()) {
+      windowMaxInFlight.accumulateAndGet(inFlightBefore, Math::max);
+    }
+
+    windowRttSum.addAndGet(now - startNanos);
+    final int samples = windowSamples.incrementAndGet();
+
+    if (samples >= MIN_WINDOW_SAMPLES && now - windowStart.get() >= SAMPLE_WINDOW_NANOS && updating.compareAndSet(false, true)) {
+      try {
+        updateLimit(now);
+      } finally {
+        updating.set(false);
+      }
+    }
+  }
+
+  private void updateLimit(long now) {
+    windowStart.set(now);
+    final int samples = windowSamples.getAndSet(0);
+    final long rttSum = windowRttSum.getAndSet(0);
+    final int maxInFlight = windowMaxInFlight.getAndSet(0);
+    if (samples == 0) {
+      return;
+    }
+
+    final double shortRtt = max(1, (double) rttSum / samples);
+    if (longRtt == 0) {
+      longRtt = shortRtt;
+    } else {
+      longRtt = longRtt + (shortRtt - longRtt) / LONG_RTT_WINDOWS;
+      // After a latency spike, go back to the steady state latency faster so that the limit can recover.
+      if (longRtt / shortRtt > 2) {
+        longRtt *= 0.95;
+      }
+    }
+
+    // Don't grow the limit if the flow isn't using it
+    if (maxInFlight < estimatedLimit / 2 && shortRtt <= longRtt * RTT_TOLERANCE) {
+      return;
+    }
+
+    final double gradient = max(0.5, min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+    final double queueSize = sqrt(estimatedLimit);
+    double newLimit = estimatedLimit * gradient + queueSize;
+    newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    newLimit = max(minLimit, min(maxLimit, newLimit));
+
+    final int previousLimit = limit;
+    estimatedLimit = newLimit;
+    limit = (int) newLimit;
+
+    if (LOGGER.isDebugEnabled() && previousLimit != limit) {
+      LOGGER.debug("Concurrency limit for '{}' changed from {} to {} (maxInFlight={}, latency={}ns, longTermLatency={}ns)",
+                   name, previousLimit, limit, maxInFlight, (long) shortRtt, (long) longRtt);
+    }
+  }
+
+  /**
+   * @return the amount of events in flight before freeing the slot, or {@code -1} if the slot is from a previous generation.
+   */
+  private int free(int generation) {
+    long current;
+    do {
+      current = inFlight.get();
+      if (generationOf(current) != generation) {
+        return -1;
+      }
+    } while (!inFlight.compareAndSet(current, current - 1));
+    return countOf(current);
+  }
+
+  /**
+   * Discards the events in flight, to be used when they will not be released because the owner processing strategy stopped.
+   * Slots acquired before the reset and freed afterwards are ignored.
+   */
+  void reset() {
+    inFlight.updateAndGet(current -> (long) ((generationOf(current) + 1) & Integer.MAX_VALUE) << 32);
+  }
+
+  private static int generationOf(long state) {
+    return (int) (state >>> 32);
+  }
+
+  private static int countOf(long state) {
+    return (int) (state & COUNT_MASK);
+  }
+
+  /**
+   * @return the current value of the nanoseconds clock, to be passed to {@link #release(int, long)}.
+   */
+  long now() {
+    return nanoClock.getAsLong();
+  }
+
+  /**
+   * @return the current concurrency limit.
+   */
+  int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the number of events currently in flight.
+   */
+  int getInFlight() {
+    return countOf(inFlight.get());
+  }
+}
@@ -46,22 +46,25 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
   @Override
   public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
     Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
-    return new ProactorStreamEmitterProcessingStrategy(getBufferSize(),
-                                                       getSubscriberCount(),
-                                                       cpuLightSchedulerSupplier,
-                                                       cpuLightSchedulerSupplier,
-                                                       () -> muleContext.getSchedulerService()
-                                                           .ioScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(
-                                                                         schedulersNamePrefix + "." + BLOCKING.name())),
-                                                       () -> muleContext.getSchedulerService()
-                                                           .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(schedulersNamePrefix + "."
-                                                                   + CPU_INTENSIVE.name())),
-                                                       resolveParallelism(),
-                                                       getMaxConcurrency(),
-                                                       isMaxConcurrencyEagerCheck(),
-                                                       () -> muleContext.getConfiguration().getShutdownTimeout());
+    ProactorStreamEmitterProcessingStrategy processingStrategy =
+        new ProactorStreamEmitterProcessingStrategy(getBufferSize(),
+                                                    getSubscriberCount(),
+                                                    cpuLightSchedulerSupplier,
+                                                    cpuLightSchedulerSupplier,
+                                                    () -> muleContext.getSchedulerService()
+                                                        .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                                            .withName(
+                                                                      schedulersNamePrefix + "." + BLOCKING.name())),
+                                                    () -> muleContext.getSchedulerService()
+                                                        .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                                            .withName(schedulersNamePrefix + "."
+                                                                + CPU_INTENSIVE.name())),
+                                                    resolveParallelism(),
+                                                    getMaxConcurrency(),
+                                                    isMaxConcurrencyEagerCheck(),
+                                                    () -> muleContext.getConfiguration().getShutdownTimeout());
+    processingStrategy.setAdaptiveConcurrencyLimit(createAdaptiveConcurrencyLimit(schedulersNamePrefix));
+    return processingStrategy;
   }
 
   @Override
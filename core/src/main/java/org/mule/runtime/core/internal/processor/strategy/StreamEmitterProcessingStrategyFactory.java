@@ -17,9 +17,11 @@ import static java.time.Duration.ofMillis;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_LIFECYCLE_FAIL_ON_FIRST_DISPOSE_ERROR;
+import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
 import static org.mule.runtime.core.api.construct.BackPressureReason.REQUIRED_SCHEDULER_BUSY;
 import static org.mule.runtime.core.api.construct.BackPressureReason.REQUIRED_SCHEDULER_BUSY_WITH_FULL_BUFFER;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimit.NOT_ACQUIRED;
 import static org.mule.runtime.core.internal.processor.strategy.reactor.builder.PipelineProcessingStrategyReactiveProcessorBuilder.pipelineProcessingStrategyReactiveProcessorFrom;
 import static org.mule.runtime.core.internal.processor.strategy.util.ProfilingUtils.getArtifactId;
 import static org.mule.runtime.core.internal.processor.strategy.util.ProfilingUtils.getArtifactType;
@@ -68,16 +70,19 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
 
   @Override
   public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
-    return new StreamEmitterProcessingStrategy(getBufferSize(),
-                                               getSubscriberCount(),
-                                               getFlowDispatchSchedulerSupplier(muleContext, schedulersNamePrefix),
-                                               getCpuLightSchedulerSupplier(
-                                                                            muleContext,
-                                                                            schedulersNamePrefix),
-                                               resolveParallelism(),
-                                               getMaxConcurrency(),
-                                               isMaxConcurrencyEagerCheck(),
-                                               () -> muleContext.getConfiguration().getShutdownTimeout());
+    StreamEmitterProcessingStrategy processingStrategy =
+        new StreamEmitterProcessingStrategy(getBufferSize(),
+                                            getSubscriberCount(),
+                                            getFlowDispatchSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                            getCpuLightSchedulerSupplier(
+                                                                         muleContext,
+                                                                         schedulersNamePrefix),
+                                            resolveParallelism(),
+                                            getMaxConcurrency(),
+                                            isMaxConcurrencyEagerCheck(),
+                                            () -> muleContext.getConfiguration().getShutdownTimeout());
+    processingStrategy.setAdaptiveConcurrencyLimit(createAdaptiveConcurrencyLimit(schedulersNamePrefix));
+    return processingStrategy;
   }
 
   @Override
@@ -124,6 +129,8 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
     private final int sinksCount;
     private final Supplier<Long> shutdownTimeoutSupplier;
 
+    private AdaptiveConcurrencyLimit adaptiveConcurrencyLimit;
+
     // This counter keeps track of how many sinks are created for fluxes that use this processing strategy.
     // Using it, an eager stop of the schedulers is implmented in `stopSchedulersIfNeeded`
     private final AtomicInteger activeSinksCount = new AtomicInteger(0);
@@ -143,6 +150,14 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       this.shutdownTimeoutSupplier = shutdownTimeoutSupplier;
     }
 
+    /**
+     * @param adaptiveConcurrencyLimit the limit to check before accepting an event, on top of the configured
+     *                                 {@code maxConcurrency}. May be {@code null}.
+     */
+    void setAdaptiveConcurrencyLimit(AdaptiveConcurrencyLimit adaptiveConcurrencyLimit) {
+      this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+    }
+
     @Override
     public void stop() {
       // Stop the schedulers as early as possible
@@ -150,6 +165,9 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
         stopSchedulersIfNeeded();
       }
       super.stop();
+      if (adaptiveConcurrencyLimit != null) {
+        adaptiveConcurrencyLimit.reset();
+      }
     }
 
     @Override
@@ -333,6 +351,27 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
 
     @Override
     protected BackPressureReason checkCapacity(CoreEvent event) {
+      if (adaptiveConcurrencyLimit == null) {
+        return doCheckCapacity(event);
+      }
+
+      final int generation = adaptiveConcurrencyLimit.tryAcquire();
+      if (generation == NOT_ACQUIRED) {
+        return MAX_CONCURRENCY_EXCEEDED;
+      }
+
+      final BackPressureReason reason = doCheckCapacity(event);
+      if (reason != null) {
+        adaptiveConcurrencyLimit.cancel(generation);
+      } else {
+        final long startNanos = adaptiveConcurrencyLimit.now();
+        ((BaseEventContext) event.getContext())
+            .onBeforeResponse((e, t) -> adaptiveConcurrencyLimit.release(generation, startNanos));
+      }
+      return reason;
+    }
+
+    private BackPressureReason doCheckCapacity(CoreEvent event) {
       if (lastRetryTimestamp.get() != MIN_VALUE) {
         if (lastRetryTimestamp.updateAndGet(lastRetryTimestampCheckOperator) != MIN_VALUE) {
           // If there is maxConcurrency value set, honor it and don't buffer here
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.HALF_OPEN;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.OPEN;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Stops calls to a failing resource for a while, so that they fail right away instead of going through a whole retry schedule
+ * which is certain to fail.
+ * <p>
+ * The breaker is {@link State#CLOSED} while the failure rate of the last {@code slidingWindowSize} calls stays under
+ * {@code failureRateThreshold} percent. When it's reached, with at least {@code minimumCalls} calls in the window, the breaker
+ * becomes {@link State#OPEN} and {@link #tryAcquire()} rejects every call for {@code openDurationNanos}. After that the breaker
+ * is {@link State#HALF_OPEN}: {@code halfOpenCalls} trial calls are permitted, which close the breaker if all of them succeed.
+ * Any failed trial call opens it again. If the trial calls do not report their outcome within {@code openDurationNanos}, they are
+ * considered lost and new trial calls are permitted.
+ * <p>
+ * Every permitted call gets a permit, which must be given back when reporting its outcome. The permit tells the state the call
+ * was made in, so that the outcome of a call made before the last state change does not count towards the current one. For
+ * instance, a call made while closed that completes once half-open is not taken as a trial call.
+ * <p>
+ * Checking a closed breaker takes two volatile reads. Recording the outcome of a call takes a short lock on the breaker.
+ *
+ * @since 4.6
+ */
+public final class CircuitBreaker {
+
+  private static final Logger LOGGER = getLogger(CircuitBreaker.class);
+
+  /**
+   * Returned by {@link #tryAcquire()} when the call is not permitted.
+   */
+  public static final long NOT_PERMITTED = -1;
+
+  /**
+   * The states of a {@link CircuitBreaker}.
+   */
+  public enum State {
+    /**
+     * Calls are permitted and their outcome is recorded.
+     */
+    CLOSED,
+    /**
+     * Calls are rejected.
+     */
+    OPEN,
+    /**
+     * A limited amount of trial calls is permitted to check whether the resource recovered.
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * Receives the state changes of a {@link CircuitBreaker}. Called outside of the lock of the breaker.
+   */
+  @FunctionalInterface
+  public interface StateChangeListener {
+
+    void onStateChange(CircuitBreaker circuitBreaker, State from, State to);
+  }
+
+  private final String name;
+  private final int failureRateThreshold;
+  private final int minimumCalls;
+  private final long openDurationNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier nanoClock;
+  private final StateChangeListener listener;
+
+  // Outcomes of the last calls while closed, true for the failed ones
+  private final boolean[] window;
+  private int windowPosition;
+  private int windowCalls;
+  private int windowFailures;
+
+  private volatile State state = CLOSED;
+  // Incremented on every state change, after updating the state. Permits from a previous generation are stale.
+  private volatile long generation;
+  private long openedAt;
+  private long halfOpenedAt;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  private final LongAdder successfulCalls = new LongAdder();
+  private final LongAdder failedCalls = new LongAdder();
+  private final LongAdder rejectedCalls = new LongAdder();
+  private final LongAdder openedCount = new LongAdder();
+
+  /**
+   * @param name                 the name of the breaker, used in logs and notifications
+   * @param failureRateThreshold the percentage of failed calls in the window which opens the breaker, between 1 and 100
+   * @param slidingWindowSize    the amount of most recent calls the failure rate is computed over
+   * @param minimumCalls         the amount of calls the window must have before the failure rate is considered
+   * @param openDurationNanos    how long the breaker stays open before permitting trial calls
+   * @param halfOpenCalls        the amount of trial calls permitted when half-open
+   * @param nanoClock            provides the current time, in nanoseconds
+   * @param listener             receives the state changes of the breaker
+   */
+  public CircuitBreaker(String name, int failureRateThreshold, int slidingWindowSize, int minimumCalls, long openDurationNanos,
+                        int halfOpenCalls, LongSupplier nanoClock, StateChangeListener listener) {
+    checkArgument(failureRateThreshold > 0 && failureRateThreshold <= 100, "failureRateThreshold must be between 1 and 100");
+    checkArgument(slidingWindowSize > 0, "slidingWindowSize must be greater than 0");
+    checkArgument(minimumCalls > 0 && minimumCalls <= slidingWindowSize,
+                  "minimumCalls must be greater than 0 and not greater than slidingWindowSize");
+    checkArgument(openDurationNanos >= 0, "openDuration cannot be negative");
+    checkArgument(halfOpenCalls > 0, "halfOpenCalls must be greater than 0");
+
+    this.name = name;
+    this.failureRateThreshold = failureRateThreshold;
+    this.window = new boolean[slidingWindowSize];
+    this.minimumCalls = minimumCalls;
+    this.openDurationNanos = openDurationNanos;
+    this.halfOpenCalls = halfOpenCalls;
+    this.nanoClock = nanoClock;
+    this.listener = listener;
+  }
+
+  /**
+   * Asks for permission to make a call. When permitted, the outcome of the call must be reported through
+   * {@link #onSuccess(long)} or {@link #onFailure(long)}, along with the returned permit.
+   *
+   * @return the permit of the call, or {@link #NOT_PERMITTED} if the call must not be made because the breaker is open, or
+   *         half-open with all its trial calls taken.
+   */
+  public long tryAcquire() {
+    // Reading the generation first, a closed state read afterwards cannot be older than it
+    long permit = generation;
+    if (state == CLOSED) {
+      return permit;
+    }
+
+    boolean halfOpened = false;
+    synchronized (this) {
+      long now = nanoClock.getAsLong();
+      if (state == OPEN && now - openedAt >= openDurationNanos) {
+        state = HALF_OPEN;
+        startTrial(now);
+        halfOpened = true;
+      } else if (state == HALF_OPEN && halfOpenPermits == 0 && now - halfOpenedAt >= openDurationNanos) {
+        LOGGER.debug("Circuit breaker '{}' trial calls did not complete in time, permitting new ones", name);
+        startTrial(now);
+      }
+
+      if (state == CLOSED) {
+        permit = generation;
+      } else if (state == HALF_OPEN && halfOpenPermits > 0) {
+        --halfOpenPermits;
+        permit = generation;
+      } else {
+        permit = NOT_PERMITTED;
+      }
+    }
+
+    if (halfOpened) {
+      stateChanged(OPEN, HALF_OPEN);
+    }
+    if (permit == NOT_PERMITTED) {
+      rejectedCalls.increment();
+    }
+    return permit;
+  }
+
+  private void startTrial(long now) {
+    halfOpenedAt = now;
+    halfOpenPermits = halfOpenCalls;
+    halfOpenSuccesses = 0;
+    ++generation;
+  }
+
+  /**
+   * Records a successful call.
+   *
+   * @param permit the permit returned by {@link #tryAcquire()} for the call
+   */
+  public void onSuccess(long permit) {
+    successfulCalls.increment();
+
+    boolean closed = false;
+    synchronized (this) {
+      // The call was made before the last state change, so it does not count towards the current state
+      if (permit != generation) {
+        return;
+      }
+
+      if (state == CLOSED) {
+        record(false);
+      } else if (state == HALF_OPEN && ++halfOpenSuccesses >= halfOpenCalls) {
+        resetWindow();
+        state = CLOSED;
+        ++generation;
+        closed = true;
+      }
+    }
+
+    if (closed) {
+      stateChanged(HALF_OPEN, CLOSED);
+    }
+  }
+
+  /**
+   * Records a failed call.
+   *
+   * @param permit the permit returned by {@link #tryAcquire()} for the call
+   */
+  public void onFailure(long permit) {
+    failedCalls.increment();
+
+    State from = null;
+    synchronized (this) {
+      // The call was made before the last state change, so it does not count towards the current state
+      if (permit != generation) {
+        return;
+      }
+
+      if (state == CLOSED) {
+        record(true);
+        if (windowCalls >= minimumCalls && windowFailures * 100L >= (long) failureRateThreshold * windowCalls) {
+          from = CLOSED;
+        }
+      } else if (state == HALF_OPEN) {
+        from = HALF_OPEN;
+      }
+
+      if (from != null) {
+        state = OPEN;
+        openedAt = nanoClock.getAsLong();
+        ++generation;
+      }
+    }
+
+    if (from != null) {
+      openedCount.increment();
+      stateChanged(from, OPEN);
+    }
+  }
+
+  private void record(boolean failed) {
+    if (windowCalls == window.length) {
+      if (window[windowPosition]) {
+        --windowFailures;
+      }
+    } else {
+      ++windowCalls;
+    }
+
+    window[windowPosition] = failed;
+    if (failed) {
+      ++windowFailures;
+    }
+    windowPosition = (windowPosition + 1) % window.length;
+  }
+
+  private void resetWindow() {
+    windowPosition = 0;
+    windowCalls = 0;
+    windowFailures = 0;
+  }
+
+  private void stateChanged(State from, State to) {
+    if (to == OPEN) {
+      LOGGER.warn("Circuit breaker '{}' changed from {} to {}", name, from, to);
+    } else {
+      LOGGER.info("Circuit breaker '{}' changed from {} to {}", name, from, to);
+    }
+    listener.onStateChange(this, from, to);
+  }
+
+  /**
+   * @return the name of the breaker
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the current state of the breaker
+   */
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * @return the percentage of failed calls in the window, or {@code -1} if the window has less than {@code minimumCalls} calls.
+   */
+  public synchronized float getFailureRate() {
+    return windowCalls < minimumCalls ? -1 : windowFailures * 100f / windowCalls;
+  }
+
+  /**
+   * @return the amount of calls reported as successful
+   */
+  public long getSuccessfulCalls() {
+    return successfulCalls.sum();
+  }
+
+  /**
+   * @return the amount of calls reported as failed
+   */
+  public long getFailedCalls() {
+    return failedCalls.sum();
+  }
+
+  /**
+   * @return the amount of calls not permitted by {@link #tryAcquire()}
+   */
+  public long getRejectedCalls() {
+    return rejectedCalls.sum();
+  }
+
+  /**
+   * @return the amount of times the breaker opened
+   */
+  public long getOpenedCount() {
+    return openedCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{name=" + name + ", state=" + state + "}";
+  }
+}
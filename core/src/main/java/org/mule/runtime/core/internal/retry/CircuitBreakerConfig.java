@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.mule.runtime.api.component.ComponentIdentifier.builder;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.internal.dsl.DslConstants.CORE_PREFIX;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.api.component.AbstractComponent;
+import org.mule.runtime.api.component.ComponentIdentifier;
+import org.mule.runtime.api.lifecycle.Initialisable;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.notification.NotificationDispatcher;
+import org.mule.runtime.core.internal.retry.CircuitBreaker.State;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+
+/**
+ * Global definition of a {@link CircuitBreaker}, which can be attached to {@code until-successful} scopes and to the operations
+ * of an extension configuration.
+ * <p>
+ * Every component using the same definition shares the same breaker, unless {@link #setPerOperation(boolean) perOperation} is
+ * set, in which case each operation of the guarded configuration gets its own breaker. State changes are dispatched as
+ * {@link CircuitBreakerNotification}s.
+ *
+ * @since 4.6
+ */
+public class CircuitBreakerConfig extends AbstractComponent implements Initialisable {
+
+  public static final ComponentIdentifier CIRCUIT_BREAKER_IDENTIFIER =
+      builder().namespace(CORE_PREFIX).name("circuit-breaker").build();
+
+  @Inject
+  private NotificationDispatcher notificationDispatcher;
+
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+  private String name;
+  private int failureRateThreshold = 50;
+  private int slidingWindowSize = 20;
+  private int minimumCalls = 10;
+  private long openDuration = 30000;
+  private int halfOpenCalls = 3;
+  private String configName;
+  private boolean perOperation = false;
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+      throw initialisationFailure("'failureRateThreshold' must be between 1 and 100");
+    }
+    if (slidingWindowSize < 1) {
+      throw initialisationFailure("'slidingWindowSize' must be greater than 0");
+    }
+    if (minimumCalls < 1 || minimumCalls > slidingWindowSize) {
+      throw initialisationFailure("'minimumCalls' must be greater than 0 and not greater than 'slidingWindowSize'");
+    }
+    if (openDuration < 0) {
+      throw initialisationFailure("'openDuration' cannot be negative");
+    }
+    if (halfOpenCalls < 1) {
+      throw initialisationFailure("'halfOpenCalls' must be greater than 0");
+    }
+  }
+
+  private InitialisationException initialisationFailure(String message) {
+    return new InitialisationException(createStaticMessage(format("Circuit breaker '%s': %s", getName(), message)), this);
+  }
+
+  /**
+   * @return the breaker shared by all the components using this definition.
+   */
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreakers.computeIfAbsent(getName(), this::createCircuitBreaker);
+  }
+
+  /**
+   * @param operationName the name of an operation of the guarded configuration
+   * @return the breaker for the given operation if {@code perOperation} is set, the shared one otherwise.
+   */
+  public CircuitBreaker getCircuitBreaker(String operationName) {
+    if (!perOperation) {
+      return getCircuitBreaker();
+    }
+    return circuitBreakers.computeIfAbsent(getName() + "/" + operationName, this::createCircuitBreaker);
+  }
+
+  /**
+   * @return the breakers created so far from this definition.
+   */
+  public Collection<CircuitBreaker> getCircuitBreakers() {
+    return unmodifiableCollection(circuitBreakers.values());
+  }
+
+  private CircuitBreaker createCircuitBreaker(String key) {
+    return new CircuitBreaker(key, failureRateThreshold, slidingWindowSize, minimumCalls, MILLISECONDS.toNanos(openDuration),
+                              halfOpenCalls, System::nanoTime, this::stateChanged);
+  }
+
+  private void stateChanged(CircuitBreaker circuitBreaker, State from, State to) {
+    if (notificationDispatcher != null) {
+      notificationDispatcher.dispatch(new CircuitBreakerNotification(circuitBreaker, from, to));
+    }
+  }
+
+  public String getName() {
+    if (name == null && getLocation() != null) {
+      return getLocation().getRootContainerName();
+    }
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param failureRateThreshold the percentage of failed executions which opens the breaker. 50 by default.
+   */
+  public void setFailureRateThreshold(int failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+  }
+
+  /**
+   * @param slidingWindowSize the amount of most recent executions the failure rate is computed over. 20 by default.
+   */
+  public void setSlidingWindowSize(int slidingWindowSize) {
+    this.slidingWindowSize = slidingWindowSize;
+  }
+
+  /**
+   * @param minimumCalls the amount of recorded executions needed before the breaker may open. 10 by default.
+   */
+  public void setMinimumCalls(int minimumCalls) {
+    this.minimumCalls = minimumCalls;
+  }
+
+  /**
+   * @param openDuration the milliseconds the breaker stays open before permitting trial executions. 30000 by default.
+   */
+  public void setOpenDuration(long openDuration) {
+    this.openDuration = openDuration;
+  }
+
+  /**
+   * @param halfOpenCalls the amount of trial executions permitted when half-open. 3 by default.
+   */
+  public void setHalfOpenCalls(int halfOpenCalls) {
+    this.halfOpenCalls = halfOpenCalls;
+  }
+
+  /**
+   * @return the name of the extension configuration whose operations are guarded by this breaker, if any.
+   */
+  public String getConfigName() {
+    return configName;
+  }
+
+  /**
+   * @param configName the name of the extension configuration whose operations are guarded by this breaker.
+   */
+  public void setConfigName(String configName) {
+    this.configName = configName;
+  }
+
+  /**
+   * @param perOperation whether each operation of the guarded configuration gets its own breaker. {@code false} by default.
+   */
+  public void setPerOperation(boolean perOperation) {
+    this.perOperation = perOperation;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static java.lang.String.format;
+
+import org.mule.runtime.api.notification.CustomNotification;
+import org.mule.runtime.core.internal.retry.CircuitBreaker.State;
+
+/**
+ * Custom notification that communicates the change of state of a {@link CircuitBreaker}
+ *
+ * @since 4.6
+ */
+public class CircuitBreakerNotification extends CustomNotification {
+
+  private static final int CIRCUIT_BREAKER_ACTION_BASE = (CUSTOM_EVENT_ACTION_START_RANGE + 5) * 5;
+  private static int ACTION_INDEX = 0;
+
+  public static final int CIRCUIT_BREAKER_OPENED = ++ACTION_INDEX + CIRCUIT_BREAKER_ACTION_BASE;
+  public static final int CIRCUIT_BREAKER_HALF_OPENED = ++ACTION_INDEX + CIRCUIT_BREAKER_ACTION_BASE;
+  public static final int CIRCUIT_BREAKER_CLOSED = ++ACTION_INDEX + CIRCUIT_BREAKER_ACTION_BASE;
+
+  static {
+    registerAction("Circuit breaker is open", CIRCUIT_BREAKER_OPENED);
+    registerAction("Circuit breaker is half-open", CIRCUIT_BREAKER_HALF_OPENED);
+    registerAction("Circuit breaker is closed", CIRCUIT_BREAKER_CLOSED);
+  }
+
+  private final String circuitBreakerName;
+  private final State previousState;
+  private final State state;
+
+  public CircuitBreakerNotification(CircuitBreaker circuitBreaker, State previousState, State state) {
+    super(circuitBreaker.getName(), actionFor(state));
+    this.circuitBreakerName = circuitBreaker.getName();
+    this.previousState = previousState;
+    this.state = state;
+  }
+
+  private static int actionFor(State state) {
+    switch (state) {
+      case OPEN:
+        return CIRCUIT_BREAKER_OPENED;
+      case HALF_OPEN:
+        return CIRCUIT_BREAKER_HALF_OPENED;
+      default:
+        return CIRCUIT_BREAKER_CLOSED;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return format("%s {action=%s, circuitBreaker=%s, previousState=%s, timestamp=%s}", getEventName(), getActionName(action),
+                  circuitBreakerName, previousState, timestamp);
+  }
+
+  public String getCircuitBreakerName() {
+    return circuitBreakerName;
+  }
+
+  public State getPreviousState() {
+    return previousState;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  @Override
+  public String getEventName() {
+    return "CircuitBreakerNotification";
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+import static java.lang.String.format;
+
+import org.mule.runtime.api.exception.MuleException;
+
+/**
+ * Thrown when an execution is not attempted because the {@link CircuitBreaker} guarding it is open.
+ *
+ * @since 4.6
+ */
+public final class CircuitBreakerOpenException extends MuleException {
+
+  private static final long serialVersionUID = 4906281325472418637L;
+
+  private final String circuitBreakerName;
+
+  public CircuitBreakerOpenException(CircuitBreaker circuitBreaker) {
+    super(createStaticMessage(format("Circuit breaker '%s' is %s, the execution was not attempted",
+                                     circuitBreaker.getName(), circuitBreaker.getState())));
+    this.circuitBreakerName = circuitBreaker.getName();
+  }
+
+  /**
+   * @return the name of the breaker which rejected the execution
+   */
+  public String getCircuitBreakerName() {
+    return circuitBreakerName;
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.FALLBACK_ID;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.NULL_ID;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.REFERENCE_ID;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.SerializationUtils;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads graphs written by {@link CompactDataOutput}.
+ * <p>
+ * Instances are not thread safe and are meant to be used for reading a single graph.
+ *
+ * @since 4.6
+ */
+final class CompactDataInput {
+
+  private final CompactTypeRegistry registry;
+  private final byte[] buffer;
+  private final ClassLoader classLoader;
+  private final MuleContext muleContext;
+
+  private int position = 0;
+
+  private List<String> symbols;
+  private List<Object> references;
+  private Map<String, Class<?>> classes;
+
+  CompactDataInput(CompactTypeRegistry registry, byte[] buffer, ClassLoader classLoader, MuleContext muleContext) {
+    this.registry = registry;
+    this.buffer = buffer;
+    this.classLoader = classLoader;
+    this.muleContext = muleContext;
+  }
+
+  /**
+   * Reads a value written through {@link CompactDataOutput#writeValue(Object)}.
+   *
+   * @return the read value. May be {@code null}
+   */
+  <T> T readValue() throws IOException, ClassNotFoundException {
+    final int id = readVarInt();
+    if (id == NULL_ID) {
+      return null;
+    } else if (id == REFERENCE_ID) {
+      return (T) references.get(readVarInt());
+    } else if (id == FALLBACK_ID) {
+      return (T) readFallback();
+    }
+
+    final CompactTypeRegistry.Entry entry = registry.entryFor(id);
+    if (entry == null) {
+      throw new StreamCorruptedException(format("Unknown type id %d at position %d", id, position));
+    }
+
+    final CompactTypeCodec codec = entry.getCodec();
+    if (codec.isShareable()) {
+      if (references == null) {
+        references = new ArrayList<>();
+      }
+      // reserve the slot before reading nested values, so indexes match the order in which they were written
+      int slot = references.size();
+      references.add(null);
+      Object value = codec.read(this);
+      references.set(slot, value);
+      return (T) value;
+    }
+
+    return (T) codec.read(this);
+  }
+
+  /**
+   * Initializes a value rebuilt by a {@link CompactTypeCodec} the same way Java serialization does for nested values.
+   *
+   * @param value the rebuilt value
+   * @return the given {@code value}
+   * @throws IOException if the value could not be initialized
+   */
+  <T> T postInitialize(T value) throws IOException {
+    if (value instanceof DeserializationPostInitialisable) {
+      try {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      } catch (Exception e) {
+        throw new IOException(format("Could not initialize instance of %s after deserialization", value.getClass().getName()),
+                              e);
+      }
+    }
+    return value;
+  }
+
+  private Object readFallback() throws IOException {
+    int length = readVarInt();
+    checkAvailable(length);
+    // SerializationUtils takes care of DeserializationPostInitialisable for nested objects
+    Object value = SerializationUtils.deserialize(new ByteArrayInputStream(buffer, position, length), classLoader, muleContext);
+    position += length;
+    return value;
+  }
+
+  String readSymbol() throws IOException {
+    int index = readVarInt();
+    if (index == 0) {
+      return null;
+    }
+
+    if (symbols == null) {
+      symbols = new ArrayList<>();
+    }
+    if (index == 1) {
+      String symbol = readString();
+      symbols.add(symbol);
+      return symbol;
+    }
+    return symbols.get(index - 2);
+  }
+
+  /**
+   * Reads a class name written as a symbol and loads it with the deserialization classloader.
+   */
+  Class<?> readClass() throws IOException, ClassNotFoundException {
+    String className = readSymbol();
+    if (className == null) {
+      return null;
+    }
+
+    if (classes == null) {
+      classes = new HashMap<>();
+    }
+    Class<?> clazz = classes.get(className);
+    if (clazz == null) {
+      clazz = Class.forName(className, false, classLoader);
+      classes.put(className, clazz);
+    }
+    return clazz;
+  }
+
+  String readString() throws IOException {
+    int length = readVarInt();
+    checkAvailable(length);
+    String value = new String(buffer, position, length, UTF_8);
+    position += length;
+    return value;
+  }
+
+  byte[] readBytes() throws IOException {
+    int length = readVarInt();
+    checkAvailable(length);
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, position, bytes, 0, length);
+    position += length;
+    return bytes;
+  }
+
+  boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+  byte readByte() throws IOException {
+    checkAvailable(1);
+    return buffer[position++];
+  }
+
+  int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length int at position " + position);
+  }
+
+  long readVarLong() throws IOException {
+    long zigZag = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      byte b = readByte();
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length long at position " + position);
+  }
+
+  double readDouble() throws IOException {
+    return Double.longBitsToDouble(readFixedLong());
+  }
+
+  long readFixedLong() throws IOException {
+    checkAvailable(8);
+    long value = 0;
+    for (int i = 0; i < 8; ++i) {
+      value = (value << 8) | (buffer[position++] & 0xFF);
+    }
+    return value;
+  }
+
+  private void checkAvailable(int length) throws EOFException {
+    if (length < 0 || position + length > buffer.length) {
+      throw new EOFException(format("Expected %d more bytes at position %d but only %d are available",
+                                    length, position, buffer.length - position));
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.lang.System.arraycopy;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.FALLBACK_ID;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.NULL_ID;
+import static org.mule.runtime.core.internal.serialization.CompactTypeRegistry.REFERENCE_ID;
+
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Growable in-memory output for the binary format of {@link CompactSerializationProtocol}.
+ * <p>
+ * Integers are written as (zig-zag) variable length quantities, strings that are likely to repeat within a graph (variable names,
+ * class names, media types) are written once and then referenced by index, and values handled by a shareable
+ * {@link CompactTypeCodec} are written once per graph.
+ * <p>
+ * Instances are not thread safe and are meant to be used for writing a single graph.
+ *
+ * @since 4.6
+ */
+final class CompactDataOutput {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final CompactTypeRegistry registry;
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int position = 0;
+
+  private Map<String, Integer> symbols;
+  private Map<Object, Integer> references;
+
+  CompactDataOutput(CompactTypeRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Writes the given value, using its registered {@link CompactTypeCodec} if available or falling back to Java serialization
+   * otherwise.
+   *
+   * @param value the value to write. May be {@code null}
+   * @throws IOException            if the value could not be written
+   * @throws SerializationException if the value has no registered codec and is not {@link Serializable}
+   */
+  void writeValue(Object value) throws IOException {
+    if (value == null) {
+      writeVarInt(NULL_ID);
+      return;
+    }
+
+    if (value instanceof CursorStreamProvider) {
+      // TODO: MULE-11939
+      try (CursorStream cursor = ((CursorStreamProvider) value).openCursor()) {
+        value = toByteArray(cursor);
+      }
+    }
+
+    final CompactTypeRegistry.Entry entry = registry.entryFor(value.getClass());
+    final CompactTypeCodec codec = entry != null ? entry.getCodec() : null;
+    if (codec == null || !codec.canWrite(value)) {
+      writeFallback(value);
+      return;
+    }
+
+    if (codec.isShareable()) {
+      if (references == null) {
+        references = new IdentityHashMap<>();
+      }
+      Integer reference = references.get(value);
+      if (reference != null) {
+        writeVarInt(REFERENCE_ID);
+        writeVarInt(reference);
+        return;
+      }
+      references.put(value, references.size());
+    }
+
+    writeVarInt(entry.getId());
+    codec.write(value, this);
+  }
+
+  private void writeFallback(Object value) {
+    if (!(value instanceof Serializable)) {
+      throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                              value.getClass().getName()));
+    }
+
+    writeVarInt(FALLBACK_ID);
+    writeBytes(org.apache.commons.lang3.SerializationUtils.serialize((Serializable) value));
+  }
+
+  /**
+   * Writes a string which is likely to appear more than once on the same graph. Only the first occurrence is written in full.
+   *
+   * @param symbol the string to write. May be {@code null}
+   */
+  void writeSymbol(String symbol) {
+    if (symbol == null) {
+      writeVarInt(0);
+      return;
+    }
+
+    if (symbols == null) {
+      symbols = new HashMap<>();
+    }
+    Integer index = symbols.get(symbol);
+    if (index != null) {
+      writeVarInt(index + 2);
+    } else {
+      symbols.put(symbol, symbols.size());
+      writeVarInt(1);
+      writeString(symbol);
+    }
+  }
+
+  /**
+   * Writes the name of the given class as a symbol.
+   *
+   * @param clazz the class to write. May be {@code null}
+   */
+  void writeClass(Class<?> clazz) {
+    writeSymbol(clazz != null ? clazz.getName() : null);
+  }
+
+  void writeString(String value) {
+    writeBytes(value.getBytes(UTF_8));
+  }
+
+  void writeBytes(byte[] bytes) {
+    writeVarInt(bytes.length);
+    ensureCapacity(bytes.length);
+    arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  void writeBoolean(boolean value) {
+    writeByte(value ? 1 : 0);
+  }
+
+  void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[position++] = (byte) value;
+  }
+
+  /**
+   * Writes a non negative int using between 1 and 5 bytes.
+   */
+  void writeVarInt(int value) {
+    ensureCapacity(5);
+    while ((value & ~0x7F) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  /**
+   * Writes a long using zig-zag encoding, so that small negative values are also written with few bytes.
+   */
+  void writeVarLong(long value) {
+    ensureCapacity(10);
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+      zigZag >>>= 7;
+    }
+    buffer[position++] = (byte) zigZag;
+  }
+
+  void writeDouble(double value) {
+    writeFixedLong(Double.doubleToRawLongBits(value));
+  }
+
+  void writeFixedLong(long value) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+  }
+
+  private void ensureCapacity(int extra) {
+    if (position + extra > buffer.length) {
+      buffer = copyOf(buffer, Math.max(buffer.length << 1, position + extra));
+    }
+  }
+
+  /**
+   * @return a copy of the bytes written so far
+   */
+  byte[] toBytes() {
+    return copyOf(buffer, position);
+  }
+}
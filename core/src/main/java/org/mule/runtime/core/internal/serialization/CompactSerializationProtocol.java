@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Implementation of {@link SerializationProtocol} that uses a compact binary format.
+ * <p>
+ * Events, messages, typed values, data types and the most common JDK types are written through hand-written codecs, identified
+ * by a numeric id instead of a class descriptor. Any other value is written through Java serialization, so the same objects as
+ * with {@link JavaExternalSerializerProtocol} are supported.
+ * <p>
+ * {@link DeserializationPostInitialisable} is honored both for the deserialized object and for the values nested in it that were
+ * written through Java serialization.
+ *
+ * @since 4.6
+ */
+public class CompactSerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final byte MAGIC = (byte) 0xC5;
+  private static final byte VERSION = 1;
+
+  private final CompactTypeRegistry registry = new CompactTypeRegistry();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    CompactDataOutput out = new CompactDataOutput(registry);
+    out.writeByte(MAGIC);
+    out.writeByte(VERSION);
+    out.writeValue(object);
+    return out.toBytes();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    CompactDataInput in = new CompactDataInput(registry, toByteArray(inputStream), classLoader, muleContext);
+
+    byte magic = in.readByte();
+    byte version = in.readByte();
+    if (magic != MAGIC || version != VERSION) {
+      throw new StreamCorruptedException(format("Unexpected header %02X%02X, the data was not written with %s",
+                                                magic, version, this.getClass().getSimpleName()));
+    }
+
+    return in.readValue();
+  }
+
+  @Override
+  protected <T> T postInitialize(T object) {
+    // does nothing since the codecs and SerializationUtils already do this while reading
+    return object;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import java.io.IOException;
+
+/**
+ * Hand-written codec used by {@link CompactSerializationProtocol} to write and read instances of a given type without going
+ * through Java serialization.
+ *
+ * @param <T> the type of the values handled by this codec
+ * @since 4.6
+ */
+interface CompactTypeCodec<T> {
+
+  /**
+   * Writes the state of the given {@code value}. Nested values are to be written through
+   * {@link CompactDataOutput#writeValue(Object)}.
+   *
+   * @param value the value to write. Never {@code null}
+   * @param out   the output to write to
+   * @throws IOException if the value could not be written
+   */
+  void write(T value, CompactDataOutput out) throws IOException;
+
+  /**
+   * Reads a value previously written by {@link #write(Object, CompactDataOutput)}.
+   *
+   * @param in the input to read from
+   * @return the read value
+   * @throws IOException            if the value could not be read
+   * @throws ClassNotFoundException if a class referenced by the value is not available on the deserialization classloader
+   */
+  T read(CompactDataInput in) throws IOException, ClassNotFoundException;
+
+  /**
+   * Allows a codec to reject a particular instance of its type, in which case that value is written through Java serialization
+   * instead.
+   *
+   * @param value the value about to be written
+   * @return whether this codec is able to fully write the state of {@code value}
+   */
+  default boolean canWrite(T value) {
+    return true;
+  }
+
+  /**
+   * @return whether values handled by this codec are immutable and usually repeated within the same graph, so that repeated
+   *         occurrences can be written as back-references to the first one.
+   */
+  default boolean isShareable() {
+    return false;
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Assigns a stable numeric id to each type which has a hand-written {@link CompactTypeCodec}, so that only that id needs to be
+ * written instead of the class name and descriptor Java serialization would write.
+ * <p>
+ * Ids are part of the binary format: once released, an id must never be reassigned to a different type. New types must be
+ * registered with new ids.
+ *
+ * @since 4.6
+ */
+final class CompactTypeRegistry {
+
+  static final int NULL_ID = 0;
+  static final int REFERENCE_ID = 1;
+  static final int FALLBACK_ID = 2;
+
+  private static final int MAX_ID = 64;
+
+  /**
+   * A registered type along with its codec.
+   */
+  static final class Entry {
+
+    private final int id;
+    private final CompactTypeCodec<?> codec;
+
+    private Entry(int id, CompactTypeCodec<?> codec) {
+      this.id = id;
+      this.codec = codec;
+    }
+
+    int getId() {
+      return id;
+    }
+
+    CompactTypeCodec getCodec() {
+      return codec;
+    }
+  }
+
+  private final Map<Class<?>, Entry> entriesByClass = new HashMap<>();
+  private final Entry[] entriesById = new Entry[MAX_ID];
+
+  CompactTypeRegistry() {
+    registerJdkTypes();
+    CoreTypeCodecs.register(this);
+  }
+
+  private void registerJdkTypes() {
+    register(8, String.class, new CompactTypeCodec<String>() {
+
+      @Override
+      public void write(String value, CompactDataOutput out) {
+        out.writeString(value);
+      }
+
+      @Override
+      public String read(CompactDataInput in) throws IOException {
+        return in.readString();
+      }
+    });
+    register(9, Boolean.class, new CompactTypeCodec<Boolean>() {
+
+      @Override
+      public void write(Boolean value, CompactDataOutput out) {
+        out.writeBoolean(value);
+      }
+
+      @Override
+      public Boolean read(CompactDataInput in) throws IOException {
+        return in.readBoolean();
+      }
+    });
+    register(10, Integer.class, new CompactTypeCodec<Integer>() {
+
+      @Override
+      public void write(Integer value, CompactDataOutput out) {
+        out.writeVarLong(value);
+      }
+
+      @Override
+      public Integer read(CompactDataInput in) throws IOException {
+        return (int) in.readVarLong();
+      }
+    });
+    register(11, Long.class, new CompactTypeCodec<Long>() {
+
+      @Override
+      public void write(Long value, CompactDataOutput out) {
+        out.writeVarLong(value);
+      }
+
+      @Override
+      public Long read(CompactDataInput in) throws IOException {
+        return in.readVarLong();
+      }
+    });
+    register(12, Short.class, new CompactTypeCodec<Short>() {
+
+      @Override
+      public void write(Short value, CompactDataOutput out) {
+        out.writeVarLong(value);
+      }
+
+      @Override
+      public Short read(CompactDataInput in) throws IOException {
+        return (short) in.readVarLong();
+      }
+    });
+    register(13, Byte.class, new CompactTypeCodec<Byte>() {
+
+      @Override
+      public void write(Byte value, CompactDataOutput out) {
+        out.writeByte(value);
+      }
+
+      @Override
+      public Byte read(CompactDataInput in) throws IOException {
+        return in.readByte();
+      }
+    });
+    register(14, Character.class, new CompactTypeCodec<Character>() {
+
+      @Override
+      public void write(Character value, CompactDataOutput out) {
+        out.writeVarInt(value);
+      }
+
+      @Override
+      public Character read(CompactDataInput in) throws IOException {
+        return (char) in.readVarInt();
+      }
+    });
+    register(15, Float.class, new CompactTypeCodec<Float>() {
+
+      @Override
+      public void write(Float value, CompactDataOutput out) {
+        out.writeVarInt(Float.floatToRawIntBits(value));
+      }
+
+      @Override
+      public Float read(CompactDataInput in) throws IOException {
+        return Float.intBitsToFloat(in.readVarInt());
+      }
+    });
+    register(16, Double.class, new CompactTypeCodec<Double>() {
+
+      @Override
+      public void write(Double value, CompactDataOutput out) {
+        out.writeDouble(value);
+      }
+
+      @Override
+      public Double read(CompactDataInput in) throws IOException {
+        return in.readDouble();
+      }
+    });
+    register(17, byte[].class, new CompactTypeCodec<byte[]>() {
+
+      @Override
+      public void write(byte[] value, CompactDataOutput out) {
+        out.writeBytes(value);
+      }
+
+      @Override
+      public byte[] read(CompactDataInput in) throws IOException {
+        return in.readBytes();
+      }
+    });
+    register(18, BigInteger.class, new CompactTypeCodec<BigInteger>() {
+
+      @Override
+      public void write(BigInteger value, CompactDataOutput out) {
+        out.writeBytes(value.toByteArray());
+      }
+
+      @Override
+      public BigInteger read(CompactDataInput in) throws IOException {
+        return new BigInteger(in.readBytes());
+      }
+    });
+    register(19, BigDecimal.class, new CompactTypeCodec<BigDecimal>() {
+
+      @Override
+      public void write(BigDecimal value, CompactDataOutput out) {
+        out.writeBytes(value.unscaledValue().toByteArray());
+        out.writeVarLong(value.scale());
+      }
+
+      @Override
+      public BigDecimal read(CompactDataInput in) throws IOException {
+        BigInteger unscaled = new BigInteger(in.readBytes());
+        return new BigDecimal(unscaled, (int) in.readVarLong());
+      }
+    });
+    register(20, Date.class, new CompactTypeCodec<Date>() {
+
+      @Override
+      public void write(Date value, CompactDataOutput out) {
+        out.writeVarLong(value.getTime());
+      }
+
+      @Override
+      public Date read(CompactDataInput in) throws IOException {
+        return new Date(in.readVarLong());
+      }
+    });
+    register(21, UUID.class, new CompactTypeCodec<UUID>() {
+
+      @Override
+      public void write(UUID value, CompactDataOutput out) {
+        out.writeFixedLong(value.getMostSignificantBits());
+        out.writeFixedLong(value.getLeastSignificantBits());
+      }
+
+      @Override
+      public UUID read(CompactDataInput in) throws IOException {
+        return new UUID(in.readFixedLong(), in.readFixedLong());
+      }
+    });
+
+    register(24, ArrayList.class, new CollectionCodec<ArrayList<Object>>(ArrayList::new));
+    register(25, LinkedList.class, new CollectionCodec<LinkedList<Object>>(size -> new LinkedList<>()));
+    register(26, HashSet.class, new CollectionCodec<HashSet<Object>>(size -> new HashSet<>(mapCapacity(size))));
+    register(27, LinkedHashSet.class,
+             new CollectionCodec<LinkedHashSet<Object>>(size -> new LinkedHashSet<>(mapCapacity(size))));
+    register(28, HashMap.class, new MapCodec<HashMap<Object, Object>>(size -> new HashMap<>(mapCapacity(size))));
+    register(29, LinkedHashMap.class,
+             new MapCodec<LinkedHashMap<Object, Object>>(size -> new LinkedHashMap<>(mapCapacity(size))));
+    register(30, CaseInsensitiveHashMap.class,
+             new MapCodec<CaseInsensitiveHashMap<Object, Object>>(size -> new CaseInsensitiveHashMap<>()));
+  }
+
+  private static int mapCapacity(int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  /**
+   * Registers a codec for the given type. Only instances of exactly that type will be handled by the codec.
+   *
+   * @param id    the id to write for instances of {@code type}
+   * @param type  the type handled by the codec
+   * @param codec the codec
+   */
+  void register(int id, Class<?> type, CompactTypeCodec<?> codec) {
+    checkArgument(id > FALLBACK_ID && id < MAX_ID, format("id must be between %d and %d", FALLBACK_ID + 1, MAX_ID - 1));
+    checkArgument(entriesById[id] == null, format("id %d is already in use", id));
+    checkArgument(!entriesByClass.containsKey(type), format("type '%s' is already registered", type.getName()));
+
+    Entry entry = new Entry(id, codec);
+    entriesById[id] = entry;
+    entriesByClass.put(type, entry);
+  }
+
+  /**
+   * @return the entry registered for exactly the given type, or {@code null} if it has to be handled through Java serialization
+   */
+  Entry entryFor(Class<?> type) {
+    return entriesByClass.get(type);
+  }
+
+  /**
+   * @return the entry registered with the given id, or {@code null} if there is none
+   */
+  Entry entryFor(int id) {
+    return id < MAX_ID ? entriesById[id] : null;
+  }
+
+  private static final class CollectionCodec<C extends Collection<Object>> implements CompactTypeCodec<C> {
+
+    private final IntFunction<C> factory;
+
+    private CollectionCodec(IntFunction<C> factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public void write(C value, CompactDataOutput out) throws IOException {
+      out.writeVarInt(value.size());
+      for (Object item : value) {
+        out.writeValue(item);
+      }
+    }
+
+    @Override
+    public C read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      int size = in.readVarInt();
+      C collection = factory.apply(size);
+      for (int i = 0; i < size; ++i) {
+        collection.add(in.readValue());
+      }
+      return collection;
+    }
+  }
+
+  private static final class MapCodec<M extends Map<Object, Object>> implements CompactTypeCodec<M> {
+
+    private final IntFunction<M> factory;
+
+    private MapCodec(IntFunction<M> factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public void write(M value, CompactDataOutput out) throws IOException {
+      out.writeVarInt(value.size());
+      for (Map.Entry<Object, Object> entry : value.entrySet()) {
+        out.writeValue(entry.getKey());
+        out.writeValue(entry.getValue());
+      }
+    }
+
+    @Override
+    public M read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      int size = in.readVarInt();
+      M map = factory.apply(size);
+      for (int i = 0; i < size; ++i) {
+        map.put(in.readValue(), in.readValue());
+      }
+      return map;
+    }
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.core.internal.message.DefaultMessageBuilder.getMessageImplementationClass;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.DataTypeBuilder.DataTypeCollectionTypeBuilder;
+import org.mule.runtime.api.metadata.DataTypeBuilder.DataTypeMapTypeBuilder;
+import org.mule.runtime.api.metadata.MapDataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.metadata.DefaultCollectionDataType;
+import org.mule.runtime.core.internal.metadata.DefaultMapDataType;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.MuleSession;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Hand-written {@link CompactTypeCodec}s for the core classes that make up the graph of a serialized event: {@link MediaType},
+ * {@link DataType}, {@link TypedValue}, {@link Message} and {@link InternalEventImplementation}.
+ * <p>
+ * Messages and events are rebuilt through their builders rather than by setting fields, so the same invariants as for any other
+ * instance apply to deserialized ones. The {@link BaseEventContext}, session, security context and error of an event are still
+ * written through Java serialization. Events are initialized as {@link DeserializationPostInitialisable} once rebuilt, wherever
+ * they are in the graph.
+ *
+ * @since 4.6
+ */
+final class CoreTypeCodecs {
+
+  private CoreTypeCodecs() {
+    // Nothing to do
+  }
+
+  static void register(CompactTypeRegistry registry) {
+    registry.register(40, MediaType.class, new MediaTypeCodec());
+    registry.register(41, SimpleDataType.class, new SimpleDataTypeCodec());
+    registry.register(42, DefaultCollectionDataType.class, new CollectionDataTypeCodec());
+    registry.register(43, DefaultMapDataType.class, new MapDataTypeCodec());
+    registry.register(44, TypedValue.class, new TypedValueCodec());
+    registry.register(45, getMessageImplementationClass(), new MessageCodec());
+    registry.register(46, InternalEventImplementation.class, new EventCodec());
+  }
+
+  private static final class MediaTypeCodec implements CompactTypeCodec<MediaType> {
+
+    @Override
+    public void write(MediaType value, CompactDataOutput out) {
+      out.writeSymbol(value.toRfcString());
+    }
+
+    @Override
+    public MediaType read(CompactDataInput in) throws IOException {
+      return MediaType.parse(in.readSymbol());
+    }
+
+    @Override
+    public boolean isShareable() {
+      return true;
+    }
+  }
+
+  private abstract static class AbstractDataTypeCodec<T extends DataType> implements CompactTypeCodec<T> {
+
+    @Override
+    public void write(T value, CompactDataOutput out) throws IOException {
+      out.writeClass(value.getType());
+      out.writeValue(value.getMediaType());
+      doWrite(value, out);
+    }
+
+    protected void doWrite(T value, CompactDataOutput out) throws IOException {
+      // Nothing to do by default
+    }
+
+    @Override
+    public T read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      Class<?> type = in.readClass();
+      MediaType mediaType = in.readValue();
+      return doRead(type, mediaType, in);
+    }
+
+    protected abstract T doRead(Class<?> type, MediaType mediaType, CompactDataInput in)
+        throws IOException, ClassNotFoundException;
+
+    @Override
+    public boolean isShareable() {
+      return true;
+    }
+  }
+
+  private static final class SimpleDataTypeCodec extends AbstractDataTypeCodec<DataType> {
+
+    @Override
+    protected DataType doRead(Class<?> type, MediaType mediaType, CompactDataInput in) {
+      return DataType.builder().type(type).mediaType(mediaType).build();
+    }
+  }
+
+  private static final class CollectionDataTypeCodec extends AbstractDataTypeCodec<CollectionDataType> {
+
+    @Override
+    protected void doWrite(CollectionDataType value, CompactDataOutput out) throws IOException {
+      out.writeValue(value.getItemDataType());
+    }
+
+    @Override
+    protected CollectionDataType doRead(Class<?> type, MediaType mediaType, CompactDataInput in)
+        throws IOException, ClassNotFoundException {
+      DataType itemDataType = in.readValue();
+
+      DataTypeCollectionTypeBuilder builder = Iterator.class.isAssignableFrom(type)
+          ? DataType.builder().streamType((Class<? extends Iterator>) type)
+          : DataType.builder().collectionType((Class<? extends Collection>) type);
+      if (itemDataType != null) {
+        builder.itemType(itemDataType.getType()).itemMediaType(itemDataType.getMediaType());
+      }
+      return (CollectionDataType) builder.mediaType(mediaType).build();
+    }
+  }
+
+  private static final class MapDataTypeCodec extends AbstractDataTypeCodec<MapDataType> {
+
+    @Override
+    protected void doWrite(MapDataType value, CompactDataOutput out) throws IOException {
+      out.writeValue(value.getKeyDataType());
+      out.writeValue(value.getValueDataType());
+    }
+
+    @Override
+    protected MapDataType doRead(Class<?> type, MediaType mediaType, CompactDataInput in)
+        throws IOException, ClassNotFoundException {
+      DataType keyDataType = in.readValue();
+      DataType valueDataType = in.readValue();
+
+      DataTypeMapTypeBuilder builder = DataType.builder().mapType((Class<? extends Map>) type);
+      if (keyDataType != null) {
+        builder.keyType(keyDataType.getType()).keyMediaType(keyDataType.getMediaType());
+      }
+      if (valueDataType != null) {
+        builder.valueType(valueDataType.getType()).valueMediaType(valueDataType.getMediaType());
+      }
+      return (MapDataType) builder.mediaType(mediaType).build();
+    }
+  }
+
+  private static final class TypedValueCodec implements CompactTypeCodec<TypedValue> {
+
+    @Override
+    public void write(TypedValue value, CompactDataOutput out) throws IOException {
+      out.writeValue(value.getValue());
+      out.writeValue(value.getDataType());
+    }
+
+    @Override
+    public TypedValue read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      Object value = in.readValue();
+      DataType dataType = in.readValue();
+      return new TypedValue<>(value, dataType);
+    }
+  }
+
+  private static final class MessageCodec implements CompactTypeCodec<InternalMessage> {
+
+    /**
+     * Messages with legacy properties or attachments, or with a payload which has to be transformed to be serialized, are left to
+     * Java serialization, which already knows how to handle them.
+     */
+    @Override
+    public boolean canWrite(InternalMessage value) {
+      return isWritable(value.getPayload()) && isWritable(value.getAttributes())
+          && value.getInboundPropertyNames().isEmpty() && value.getOutboundPropertyNames().isEmpty()
+          && value.getInboundAttachmentNames().isEmpty() && value.getOutboundAttachmentNames().isEmpty();
+    }
+
+    private boolean isWritable(TypedValue<?> typedValue) {
+      Object value = typedValue.getValue();
+      return value == null || value instanceof Serializable || value instanceof CursorStreamProvider;
+    }
+
+    @Override
+    public void write(InternalMessage value, CompactDataOutput out) throws IOException {
+      out.writeValue(value.getPayload());
+      out.writeValue(value.getAttributes());
+    }
+
+    @Override
+    public InternalMessage read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      TypedValue<?> payload = in.readValue();
+      TypedValue<?> attributes = in.readValue();
+      return InternalMessage.builder().payload(payload).attributes(attributes).build();
+    }
+  }
+
+  private static final class EventCodec implements CompactTypeCodec<InternalEventImplementation> {
+
+    @Override
+    public void write(InternalEventImplementation value, CompactDataOutput out) throws IOException {
+      out.writeValue(value.getContext());
+      out.writeValue(value.getMessage());
+      writeTypedValues(value.getVariables(), out);
+      writeTypedValues(value.getParameters(), out);
+
+      Optional<Map<String, String>> loggingVariables = value.getLoggingVariables();
+      if (loggingVariables.isPresent()) {
+        out.writeVarInt(loggingVariables.get().size() + 1);
+        for (Map.Entry<String, String> entry : loggingVariables.get().entrySet()) {
+          out.writeSymbol(entry.getKey());
+          out.writeString(entry.getValue());
+        }
+      } else {
+        out.writeVarInt(0);
+      }
+
+      out.writeValue(value.getSession());
+      out.writeValue(value.getSecurityContext());
+      out.writeValue(value.getError().orElse(null));
+      out.writeValue(value.getItemSequenceInfo().orElse(null));
+      out.writeValue(value.getLegacyCorrelationId());
+      out.writeBoolean(value.isNotificationsEnabled());
+    }
+
+    private void writeTypedValues(Map<String, TypedValue<?>> values, CompactDataOutput out) throws IOException {
+      out.writeVarInt(values.size());
+      for (Map.Entry<String, TypedValue<?>> entry : values.entrySet()) {
+        out.writeSymbol(entry.getKey());
+        out.writeValue(entry.getValue());
+      }
+    }
+
+    @Override
+    public InternalEventImplementation read(CompactDataInput in) throws IOException, ClassNotFoundException {
+      BaseEventContext context = in.readValue();
+      Message message = in.readValue();
+
+      DefaultEventBuilder builder = new DefaultEventBuilder(context);
+      builder.message(message);
+
+      int variablesCount = in.readVarInt();
+      if (variablesCount > 0) {
+        CaseInsensitiveHashMap<String, TypedValue<?>> variables = new CaseInsensitiveHashMap<>();
+        for (int i = 0; i < variablesCount; ++i) {
+          variables.put(in.readSymbol(), in.readValue());
+        }
+        builder.variablesTyped(variables);
+      }
+
+      int parametersCount = in.readVarInt();
+      if (parametersCount > 0) {
+        Map<String, TypedValue<?>> parameters = new HashMap<>();
+        for (int i = 0; i < parametersCount; ++i) {
+          parameters.put(in.readSymbol(), in.readValue());
+        }
+        builder.parameters(parameters);
+      }
+
+      int loggingVariablesCount = in.readVarInt() - 1;
+      for (int i = 0; i < loggingVariablesCount; ++i) {
+        builder.addLoggingVariable(in.readSymbol(), in.readString());
+      }
+
+      MuleSession session = in.readValue();
+      if (session != null) {
+        builder.session(session);
+      }
+      builder.securityContext((SecurityContext) in.readValue());
+
+      Error error = in.readValue();
+      if (error != null) {
+        builder.error(error);
+      }
+      builder.itemSequenceInfo(ofNullable((ItemSequenceInfo) in.readValue()));
+      builder.correlationId((String) in.readValue());
+
+      if (!in.readBoolean()) {
+        builder.disableNotifications();
+      }
+
+      // Initialized here, wherever the event is in the object graph, since the protocol does not initialize what it reads
+      return in.postInitialize((InternalEventImplementation) builder.build());
+    }
+  }
+}
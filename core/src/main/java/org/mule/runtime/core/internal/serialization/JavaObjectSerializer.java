@@ -7,21 +7,52 @@
 
 package org.mule.runtime.core.internal.serialization;
 
+import static java.lang.System.getProperty;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_SERIALIZATION_INTERNAL_PROTOCOL;
+
 import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
 import org.mule.runtime.core.api.context.MuleContextAware;
 
 /**
  * Serializes objects using the default Java serialization mechanism provided by writeObject and readObject methods.
+ * <p>
+ * The internal protocol may be switched to {@link CompactSerializationProtocol} by setting the
+ * {@link MuleProperties#MULE_SERIALIZATION_INTERNAL_PROTOCOL} system property to {@value #COMPACT_PROTOCOL}. The external
+ * protocol is always Java serialization.
  */
 public class JavaObjectSerializer implements ObjectSerializer, MuleContextAware {
 
+  public static final String JAVA_PROTOCOL = "java";
+  public static final String COMPACT_PROTOCOL = "compact";
+
   private volatile JavaExternalSerializerProtocol javaSerializerProtocol = new JavaExternalSerializerProtocol();
+  private volatile AbstractSerializationProtocol internalProtocol;
+
+  public JavaObjectSerializer() {
+    this(getProperty(MULE_SERIALIZATION_INTERNAL_PROTOCOL, JAVA_PROTOCOL));
+  }
+
+  /**
+   * @param internalProtocolName the name of the internal protocol to use, either {@value #JAVA_PROTOCOL} or
+   *                             {@value #COMPACT_PROTOCOL}
+   */
+  public JavaObjectSerializer(String internalProtocolName) {
+    if (COMPACT_PROTOCOL.equalsIgnoreCase(internalProtocolName)) {
+      internalProtocol = new CompactSerializationProtocol();
+    } else if (JAVA_PROTOCOL.equalsIgnoreCase(internalProtocolName)) {
+      internalProtocol = javaSerializerProtocol;
+    } else {
+      throw new IllegalArgumentException("Unknown serialization protocol '" + internalProtocolName + "'. Supported values are '"
+          + JAVA_PROTOCOL + "' and '" + COMPACT_PROTOCOL + "'");
+    }
+  }
 
   @Override
   public SerializationProtocol getInternalProtocol() {
-    return javaSerializerProtocol;
+    return internalProtocol;
   }
 
   @Override
@@ -32,5 +63,6 @@ public class JavaObjectSerializer implements ObjectSerializer, MuleContextAware
   @Override
   public void setMuleContext(MuleContext context) {
     javaSerializerProtocol.setMuleContext(context);
+    internalProtocol.setMuleContext(context);
   }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.reflect.Array.getLength;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimation of the heap retained by the entries of an in memory object store.
+ * <p>
+ * Strings, arrays of primitives, boxed primitives and big numbers are estimated by their type and length. Arrays, collections and
+ * maps are estimated by walking their elements, up to {@link #MAX_VISITED_VALUES} values per entry so that the estimation stays
+ * cheap enough to be done on every store. Any other value, or a container with more values than that, cannot be
+ * estimated and {@link #UNKNOWN} is returned for it, so that it is reported apart instead of skewing the estimated sizes.
+ *
+ * @since 4.6
+ */
+final class ObjectSizeEstimator {
+
+  /**
+   * Returned for entries whose size cannot be estimated.
+   */
+  static final long UNKNOWN = -1;
+
+  /**
+   * Estimated size of an object store entry besides its key and value: the map node and the expiry information.
+   */
+  static final long ENTRY_OVERHEAD = 64;
+
+  /**
+   * Maximum amount of values walked to estimate a single entry.
+   */
+  static final int MAX_VISITED_VALUES = 1024;
+
+  private static final long OBJECT_HEADER = 16;
+  private static final long ARRAY_HEADER = 16;
+  private static final long STRING_HEADER = 24;
+  private static final long REFERENCE_SIZE = 8;
+  private static final long MAP_ENTRY_SIZE = 32;
+
+  private ObjectSizeEstimator() {}
+
+  /**
+   * @return the estimated size of the entry, or {@link #UNKNOWN} if the size of the key or the value cannot be estimated
+   */
+  static long estimateEntry(Object key, Object value) {
+    Budget budget = new Budget();
+    try {
+      long keySize = estimate(key, budget);
+      long valueSize = keySize == UNKNOWN ? UNKNOWN : estimate(value, budget);
+      return valueSize == UNKNOWN ? UNKNOWN : ENTRY_OVERHEAD + keySize + valueSize;
+    } catch (RuntimeException e) {
+      // The value is being modified concurrently
+      return UNKNOWN;
+    }
+  }
+
+  private static long estimate(Object value, Budget budget) {
+    if (value == null) {
+      return 0;
+    } else if (!budget.visit()) {
+      return UNKNOWN;
+    } else if (value instanceof String) {
+      return STRING_HEADER + ARRAY_HEADER + ((String) value).length() * 2L;
+    } else if (value instanceof Boolean || value instanceof Byte || value instanceof Character || value instanceof Short
+        || value instanceof Integer || value instanceof Float) {
+      return OBJECT_HEADER;
+    } else if (value instanceof Long || value instanceof Double) {
+      return OBJECT_HEADER + 8;
+    } else if (value instanceof BigInteger) {
+      return STRING_HEADER + ARRAY_HEADER + ((BigInteger) value).bitLength() / 8 + 1;
+    } else if (value instanceof BigDecimal) {
+      return STRING_HEADER + estimate(((BigDecimal) value).unscaledValue(), budget);
+    } else if (value.getClass().isArray()) {
+      return estimateArray(value, budget);
+    } else if (value instanceof Collection) {
+      return estimateAll((Collection<?>) value, OBJECT_HEADER + ((Collection<?>) value).size() * REFERENCE_SIZE, budget);
+    } else if (value instanceof Map) {
+      long size = OBJECT_HEADER + ((Map<?, ?>) value).size() * MAP_ENTRY_SIZE;
+      size = estimateAll(((Map<?, ?>) value).keySet(), size, budget);
+      return size == UNKNOWN ? UNKNOWN : estimateAll(((Map<?, ?>) value).values(), size, budget);
+    } else {
+      return UNKNOWN;
+    }
+  }
+
+  private static long estimateArray(Object array, Budget budget) {
+    if (array instanceof byte[] || array instanceof boolean[]) {
+      return ARRAY_HEADER + getLength(array);
+    } else if (array instanceof char[] || array instanceof short[]) {
+      return ARRAY_HEADER + getLength(array) * 2L;
+    } else if (array instanceof int[] || array instanceof float[]) {
+      return ARRAY_HEADER + getLength(array) * 4L;
+    } else if (array instanceof long[] || array instanceof double[]) {
+      return ARRAY_HEADER + getLength(array) * 8L;
+    }
+
+    Object[] elements = (Object[]) array;
+    if (elements.length > budget.remaining()) {
+      return UNKNOWN;
+    }
+    long size = ARRAY_HEADER + elements.length * REFERENCE_SIZE;
+    for (Object element : elements) {
+      long elementSize = estimate(element, budget);
+      if (elementSize == UNKNOWN) {
+        return UNKNOWN;
+      }
+      size += elementSize;
+    }
+    return size;
+  }
+
+  private static long estimateAll(Collection<?> values, long size, Budget budget) {
+    if (size == UNKNOWN || values.size() > budget.remaining()) {
+      return UNKNOWN;
+    }
+    for (Object value : values) {
+      long valueSize = estimate(value, budget);
+      if (valueSize == UNKNOWN) {
+        return UNKNOWN;
+      }
+      size += valueSize;
+    }
+    return size;
+  }
+
+  /**
+   * Amount of values that can still be walked to estimate an entry.
+   */
+  private static final class Budget {
+
+    private int remaining = MAX_VISITED_VALUES;
+
+    private boolean visit() {
+      return remaining-- > 0;
+    }
+
+    private int remaining() {
+      return remaining;
+    }
+  }
+}
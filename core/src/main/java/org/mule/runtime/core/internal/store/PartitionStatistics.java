@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+/**
+ * The amount of entries of an object store partition and the heap they are estimated to retain. Entries whose size cannot be
+ * estimated are not part of the estimated bytes, and are counted apart.
+ *
+ * @since 4.6
+ */
+public final class PartitionStatistics {
+
+  private final long entries;
+  private final long estimatedBytes;
+  private final long unsizedEntries;
+
+  public PartitionStatistics(long entries, long estimatedBytes, long unsizedEntries) {
+    this.entries = entries;
+    this.estimatedBytes = estimatedBytes;
+    this.unsizedEntries = unsizedEntries;
+  }
+
+  public long getEntries() {
+    return entries;
+  }
+
+  public long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  /**
+   * @return the amount of entries whose size could not be estimated, which are not accounted in {@link #getEstimatedBytes()}
+   */
+  public long getUnsizedEntries() {
+    return unsizedEntries;
+  }
+}
@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.store;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.internal.store.ObjectSizeEstimator.UNKNOWN;
+import static org.mule.runtime.core.internal.store.ObjectSizeEstimator.estimateEntry;
 import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
@@ -23,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +37,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
   private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, PartitionSize> estimatedPartitionSizes = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -55,7 +59,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (oldValue != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+    long estimatedSize = estimateEntry(key, value);
+    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key, estimatedSize));
+    getEstimatedPartitionSize(partitionName).add(estimatedSize);
   }
 
   @Override
@@ -79,6 +85,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       ExpiryEntry entry = iterator.next();
       if (key.equals(entry.getKey())) {
         iterator.remove();
+        getEstimatedPartitionSize(partitionName).remove(entry.getEstimatedSize());
         break;
       }
     }
@@ -100,6 +107,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   public void clear(String partitionName) throws ObjectStoreException {
     getPartition(partitionName).clear();
     getExpiryInfoPartition(partitionName).clear();
+    getEstimatedPartitionSize(partitionName).reset();
   }
 
   @Override
@@ -131,6 +139,28 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
+  private PartitionSize getEstimatedPartitionSize(String partitionName) {
+    return estimatedPartitionSizes.computeIfAbsent(partitionName, name -> new PartitionSize());
+  }
+
+  /**
+   * Provides the amount of entries of each partition and the heap they are estimated to retain. The size of each entry is
+   * estimated once when stored, so calling this doesn't go through the stored values.
+   *
+   * @return the statistics of each partition, by partition name
+   * @since 4.6
+   */
+  public Map<String, PartitionStatistics> getPartitionsStatistics() {
+    Map<String, PartitionStatistics> statistics = new LinkedHashMap<>();
+    partitions.forEach((name, partition) -> {
+      PartitionSize estimatedSize = estimatedPartitionSizes.get(name);
+      statistics.put(name, estimatedSize != null
+          ? new PartitionStatistics(partition.size(), estimatedSize.bytes.sum(), estimatedSize.unsizedEntries.sum())
+          : new PartitionStatistics(partition.size(), 0, 0));
+    });
+    return statistics;
+  }
+
   @Override
   public void open(String partitionName) throws ObjectStoreException {
     // Nothing to do
@@ -153,8 +183,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     ExpiryEntry oldestEntry;
     ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
     ConcurrentMap<String, T> partition = getPartition(partitionName);
+    PartitionSize estimatedSize = getEstimatedPartitionSize(partitionName);
 
-    trimToMaxSize(store, maxEntries, partition);
+    trimToMaxSize(store, maxEntries, partition, estimatedSize);
 
     if (entryTTL == UNBOUNDED) {
       return;
@@ -163,7 +194,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     while ((oldestEntry = store.peek()) != null) {
       if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
         oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
+        removeExpired(oldestEntry, partition, estimatedSize);
         expiredEntries++;
       } else {
         break;
@@ -175,7 +206,8 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition,
+                             PartitionSize estimatedSize) {
     if (maxEntries <= UNBOUNDED) {
       return;
     }
@@ -185,7 +217,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (excess > 0) {
       while (currentSize > maxEntries) {
         ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
+        removeExpired(toRemove, partition, estimatedSize);
         currentSize--;
       }
 
@@ -195,6 +227,12 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
+  private void removeExpired(ExpiryEntry entry, ConcurrentMap<String, T> partition, PartitionSize estimatedSize) {
+    if (partition.remove(entry.getKey()) != null) {
+      estimatedSize.remove(entry.getEstimatedSize());
+    }
+  }
+
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
     Map partition = partitions.remove(partitionName);
@@ -206,6 +244,8 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (entries != null) {
       entries.clear();
     }
+
+    estimatedPartitionSizes.remove(partitionName);
   }
 
   protected long getCurrentNanoTime() {
@@ -221,10 +261,12 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
     private final long time;
     private final Serializable key;
+    private final long estimatedSize;
 
-    public ExpiryEntry(long time, Serializable key) {
+    public ExpiryEntry(long time, Serializable key, long estimatedSize) {
       this.time = time;
       this.key = key;
+      this.estimatedSize = estimatedSize;
     }
 
     public long getTime() {
@@ -234,5 +276,39 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     public Serializable getKey() {
       return key;
     }
+
+    public long getEstimatedSize() {
+      return estimatedSize;
+    }
+  }
+
+  /**
+   * The estimated bytes of the entries of a partition, and the amount of entries whose size could not be estimated.
+   */
+  private static class PartitionSize {
+
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder unsizedEntries = new LongAdder();
+
+    private void add(long estimatedSize) {
+      if (estimatedSize == UNKNOWN) {
+        unsizedEntries.increment();
+      } else {
+        bytes.add(estimatedSize);
+      }
+    }
+
+    private void remove(long estimatedSize) {
+      if (estimatedSize == UNKNOWN) {
+        unsizedEntries.decrement();
+      } else {
+        bytes.add(-estimatedSize);
+      }
+    }
+
+    private void reset() {
+      bytes.reset();
+      unsizedEntries.reset();
+    }
   }
 }
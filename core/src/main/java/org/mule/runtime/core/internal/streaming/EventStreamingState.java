@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.streaming;
 
 import static java.lang.System.identityHashCode;
+import static java.util.Arrays.copyOf;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.mule.runtime.core.internal.streaming.CursorManager.STREAMING_VERBOSE;
 import static org.mule.runtime.core.internal.streaming.CursorUtils.unwrap;
@@ -14,14 +15,15 @@ import static org.mule.runtime.core.internal.streaming.CursorUtils.unwrap;
 import java.lang.ref.WeakReference;
 import java.util.Optional;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.slf4j.Logger;
 
 /**
  * Tracks the active streaming resources owned by a particular event.
+ * <p>
+ * Most events own very few providers, so they are kept in a pair of small arrays that are only allocated when the first provider
+ * is added and only grown when needed, instead of a full blown cache per event.
  *
  * @since 4.3.0
  */
@@ -29,7 +31,11 @@ public class EventStreamingState {
 
   private final static Logger LOGGER = getLogger(EventStreamingState.class);
 
-  private final Cache<Integer, WeakReference<ManagedCursorProvider>> providers = Caffeine.newBuilder().build();
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] ids;
+  private WeakReference<ManagedCursorProvider>[] providers;
+  private int size = 0;
 
   /**
    * Registers the given {@code provider} as one associated to the owning event.
@@ -40,51 +46,100 @@ public class EventStreamingState {
    * @param ghostBuster the {@link StreamingGhostBuster} used to do early reclamation of the {@code provider}
    * @return the {@link ManagedCursorProvider} that must continue to be used
    */
-  public ManagedCursorProvider addProvider(ManagedCursorProvider provider, StreamingGhostBuster ghostBuster) {
+  public synchronized ManagedCursorProvider addProvider(ManagedCursorProvider provider, StreamingGhostBuster ghostBuster) {
     final int id = provider.getId();
-    ManagedCursorProvider managedProvider = getOrAddManagedProvider(id, provider, ghostBuster);
+    int index = indexOf(id);
+    if (index < 0) {
+      index = add(id, track(id, provider, ghostBuster));
+    }
+
+    ManagedCursorProvider managedProvider = providers[index].get();
 
     // This can happen when a foreach component splits a text document using a stream.
     // Iteration N might try to manage the same root provider that was already managed in iteration N-1, but the
     // managed decorator from that previous iteration has been collected, which causes the weak reference to yield
     // a null value. In which case we simply track it again.
     if (managedProvider == null) {
-      synchronized (unwrap(provider)) {
-        managedProvider = getOrAddManagedProvider(id, provider, ghostBuster);
-        if (managedProvider == null) {
-          providers.invalidate(id);
-          managedProvider = getOrAddManagedProvider(id, provider, ghostBuster);
-        }
-      }
+      providers[index] = track(id, provider, ghostBuster);
+      managedProvider = providers[index].get();
     }
 
     return managedProvider;
   }
 
-  private ManagedCursorProvider getOrAddManagedProvider(int id,
-                                                        ManagedCursorProvider provider,
-                                                        StreamingGhostBuster ghostBuster) {
-    return providers.get(id, k -> {
-      if (STREAMING_VERBOSE) {
-        CursorProvider innerDelegate = unwrap(provider);
-        Optional<ComponentLocation> originatingLocation = provider.getOriginatingLocation();
-        LOGGER.info("Added ManagedCursorProvider: {} for delegate: {} opened by: {}", k, identityHashCode(innerDelegate),
-                    originatingLocation.map(ComponentLocation::getLocation).orElse("unknown"));
+  private int indexOf(int id) {
+    for (int i = 0; i < size; ++i) {
+      if (ids[i] == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int add(int id, WeakReference<ManagedCursorProvider> reference) {
+    if (ids == null) {
+      ids = new int[INITIAL_CAPACITY];
+      providers = new WeakReference[INITIAL_CAPACITY];
+    } else if (size == ids.length) {
+      purgeCollected();
+      if (size == ids.length) {
+        ids = copyOf(ids, size << 1);
+        providers = copyOf(providers, size << 1);
       }
-      return ghostBuster.track(provider);
-    }).get();
+    }
+
+    ids[size] = id;
+    providers[size] = reference;
+    return size++;
+  }
+
+  /**
+   * Discards the entries for providers that were already collected. Their resources are released by the
+   * {@link StreamingGhostBuster}.
+   */
+  private void purgeCollected() {
+    int kept = 0;
+    for (int i = 0; i < size; ++i) {
+      if (providers[i].get() != null) {
+        ids[kept] = ids[i];
+        providers[kept] = providers[i];
+        kept++;
+      }
+    }
+    for (int i = kept; i < size; ++i) {
+      providers[i] = null;
+    }
+    size = kept;
+  }
+
+  private WeakReference<ManagedCursorProvider> track(int id, ManagedCursorProvider provider, StreamingGhostBuster ghostBuster) {
+    if (STREAMING_VERBOSE) {
+      CursorProvider innerDelegate = unwrap(provider);
+      Optional<ComponentLocation> originatingLocation = provider.getOriginatingLocation();
+      LOGGER.info("Added ManagedCursorProvider: {} for delegate: {} opened by: {}", id, identityHashCode(innerDelegate),
+                  originatingLocation.map(ComponentLocation::getLocation).orElse("unknown"));
+    }
+    return ghostBuster.track(provider);
   }
 
   /**
    * The owning event MUST invoke this method when the event is completed
    */
   public void dispose() {
-    providers.asMap().forEach((hash, weakReference) -> {
+    final WeakReference<ManagedCursorProvider>[] toRelease;
+    final int toReleaseCount;
+    synchronized (this) {
+      toRelease = providers;
+      toReleaseCount = size;
+    }
+
+    for (int i = 0; i < toReleaseCount; ++i) {
+      WeakReference<ManagedCursorProvider> weakReference = toRelease[i];
       ManagedCursorProvider provider = weakReference.get();
       if (provider != null) {
         weakReference.clear();
         provider.releaseResources();
       }
-    });
+    }
   }
 }
@@ -53,7 +53,10 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, InMemoryCursorStreamConfig.getDefault(), streamingManager);
   }
 
-  protected ByteBufferManager getBufferManager() {
+  /**
+   * @return the {@link ByteBufferManager} through which the buffers of the managed streams are obtained.
+   */
+  public ByteBufferManager getBufferManager() {
     return bufferManager;
   }
 }
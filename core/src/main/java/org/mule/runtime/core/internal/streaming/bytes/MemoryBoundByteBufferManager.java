@@ -112,6 +112,22 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
     streamingMemory.addAndGet(-byteBuffer.capacity());
   }
 
+  /**
+   * @return the amount of bytes currently held by buffers obtained through this manager, either in use or idle in a pool
+   * @since 4.6
+   */
+  public long getStreamingMemory() {
+    return streamingMemory.get();
+  }
+
+  /**
+   * @return the maximum amount of bytes which buffers obtained through this manager may hold
+   * @since 4.6
+   */
+  public long getMaxStreamingMemory() {
+    return maxStreamingMemory;
+  }
+
   private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
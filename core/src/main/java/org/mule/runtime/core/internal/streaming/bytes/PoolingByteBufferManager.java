@@ -21,6 +21,8 @@ import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -108,6 +110,19 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
     }
   }
 
+  /**
+   * Provides the occupancy of each of the pools currently held, the default capacity one first.
+   *
+   * @return a snapshot of each pool's occupancy
+   * @since 4.6
+   */
+  public List<BufferPoolOccupancy> getPoolsOccupancy() {
+    List<BufferPoolOccupancy> occupancy = new ArrayList<>();
+    occupancy.add(defaultSizePool.getOccupancy());
+    customSizePools.asMap().values().forEach(pool -> occupancy.add(pool.getOccupancy()));
+    return occupancy;
+  }
+
   @Override
   public void dispose() {
     try {
@@ -175,8 +190,60 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
       pool.restore(buffer);
     }
 
+    private BufferPoolOccupancy getOccupancy() {
+      return new BufferPoolOccupancy(bufferCapacity, pool.taken(), pool.remainingCreated(), pool.maxSize());
+    }
+
     private void close() {
       pool.close();
     }
   }
+
+  /**
+   * Snapshot of the occupancy of the pool of buffers of a given capacity.
+   *
+   * @since 4.6
+   */
+  public static final class BufferPoolOccupancy {
+
+    private final int bufferCapacity;
+    private final int taken;
+    private final int idle;
+    private final int maxSize;
+
+    public BufferPoolOccupancy(int bufferCapacity, int taken, int idle, int maxSize) {
+      this.bufferCapacity = bufferCapacity;
+      this.taken = taken;
+      this.idle = idle;
+      this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the capacity of each of the pooled buffers
+     */
+    public int getBufferCapacity() {
+      return bufferCapacity;
+    }
+
+    /**
+     * @return the amount of pooled buffers currently in use
+     */
+    public int getTaken() {
+      return taken;
+    }
+
+    /**
+     * @return the amount of pooled buffers created and available to be taken
+     */
+    public int getIdle() {
+      return idle;
+    }
+
+    /**
+     * @return the maximum amount of buffers the pool holds
+     */
+    public int getMaxSize() {
+      return maxSize;
+    }
+  }
 }
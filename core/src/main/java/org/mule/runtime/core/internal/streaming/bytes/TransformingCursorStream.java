@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.core.api.util.func.CheckedFunction;
+import org.mule.runtime.core.internal.util.message.stream.UnclosableCursorStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link CursorStream} over the content of a {@code source} cursor transformed by a streaming {@code transformation}.
+ * <p>
+ * Since the transformed content is not buffered, seeking forward reads and discards the transformed content up to the new
+ * position, and seeking backwards starts the transformation over from the beginning of the {@code source}.
+ *
+ * @since 4.6
+ */
+final class TransformingCursorStream extends CursorStream {
+
+  private final CursorProvider provider;
+  private final CursorStream source;
+  private final CheckedFunction<InputStream, InputStream> transformation;
+
+  private InputStream transformed;
+  private long position = 0;
+  private long mark = 0;
+  private boolean released = false;
+
+  TransformingCursorStream(CursorProvider provider, CursorStream source,
+                           CheckedFunction<InputStream, InputStream> transformation) {
+    this.provider = provider;
+    this.source = source;
+    this.transformation = transformation;
+  }
+
+  private InputStream transformed() throws IOException {
+    assertNotReleased();
+    if (transformed == null) {
+      try {
+        // The source is released along with this cursor, not when the transformed stream is closed
+        transformed = transformation.applyChecked(new UnclosableCursorStream(source));
+      } catch (IOException | RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IOException(t);
+      }
+    }
+    return transformed;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int read = transformed().read();
+    if (read != -1) {
+      position++;
+    }
+    return read;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int read = transformed().read(b, off, len);
+    if (read > 0) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long initialPosition = position;
+    seek(position + n);
+    return position - initialPosition;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return transformed().available();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If {@code position} is beyond the end of the transformed content, the cursor is left at its end.
+   */
+  @Override
+  public void seek(long position) throws IOException {
+    assertNotReleased();
+    if (position < this.position) {
+      closeTransformed();
+      source.seek(0);
+      this.position = 0;
+    }
+
+    while (this.position < position) {
+      long skipped = transformed().skip(position - this.position);
+      if (skipped <= 0) {
+        if (transformed().read() == -1) {
+          return;
+        }
+        skipped = 1;
+      }
+      this.position += skipped;
+    }
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    mark = position;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    seek(mark);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void release() {
+    if (!released) {
+      released = true;
+      closeTransformed();
+      source.release();
+    }
+  }
+
+  @Override
+  public boolean isReleased() {
+    return released;
+  }
+
+  @Override
+  public CursorProvider getProvider() {
+    return provider;
+  }
+
+  @Override
+  public void close() throws IOException {
+    release();
+  }
+
+  private void closeTransformed() {
+    if (transformed != null) {
+      closeQuietly(transformed);
+      transformed = null;
+    }
+  }
+
+  private void assertNotReleased() throws IOException {
+    if (released) {
+      throw new IOException("Stream is closed");
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.util.func.CheckedFunction;
+
+import java.io.InputStream;
+
+/**
+ * A {@link CursorStreamProvider} which provides the content of a {@code delegate} provider transformed by a streaming
+ * {@code transformation}, such as compression.
+ * <p>
+ * Nothing is buffered: each cursor opens its own cursor on the {@code delegate} and applies the {@code transformation} to it
+ * lazily as it is read, so that memory usage doesn't depend on the size of the content.
+ *
+ * @since 4.6
+ */
+public final class TransformingCursorStreamProvider implements CursorStreamProvider {
+
+  private final CursorStreamProvider delegate;
+  private final CheckedFunction<InputStream, InputStream> transformation;
+
+  /**
+   * @param delegate       the provider of the content to transform
+   * @param transformation creates a stream with the transformed content of the given one. Closing the created stream must
+   *                       release any resource it holds.
+   */
+  public TransformingCursorStreamProvider(CursorStreamProvider delegate,
+                                          CheckedFunction<InputStream, InputStream> transformation) {
+    this.delegate = delegate;
+    this.transformation = transformation;
+  }
+
+  @Override
+  public CursorStream openCursor() {
+    checkState(!isClosed(), "Cannot open a new cursor on a closed stream");
+    return new TransformingCursorStream(this, delegate.openCursor(), transformation);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public void releaseResources() {
+    delegate.releaseResources();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return delegate.isClosed();
+  }
+}
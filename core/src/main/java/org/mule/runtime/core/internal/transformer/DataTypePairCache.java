@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.runtime.api.metadata.DataType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Cache of values resolved for a pair of source and result {@link DataType}s.
+ * <p>
+ * Entries are keyed by the identity of the {@link DataType} instances, which are interned by
+ * {@link org.mule.runtime.core.internal.metadata.DefaultDataTypeBuilder}, so lookups neither compute hash codes of the data types
+ * nor allocate. The two levels of maps are never modified once published: additions copy them and publish the copies, so
+ * lookups don't need any lock. Since resolutions are expected to be done once per pair of types, the cost of copying is only
+ * paid during warm up.
+ * <p>
+ * The amount of entries is bounded. When the limit is reached, the oldest entry is evicted to make room for the new one.
+ *
+ * @param <V> the type of the cached values
+ * @since 4.6
+ */
+public final class DataTypePairCache<V> {
+
+  private final int maxEntries;
+
+  private volatile Map<DataType, Map<DataType, V>> entries = new IdentityHashMap<>();
+  private volatile long version;
+  // The cached pairs, oldest first. Guarded by this.
+  private final Deque<DataType[]> insertionOrder = new ArrayDeque<>();
+
+  /**
+   * @param maxEntries the maximum amount of pairs to keep
+   */
+  public DataTypePairCache(int maxEntries) {
+    checkArgument(maxEntries > 0, "maxEntries must be positive");
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * @param source the source type
+   * @param result the result type
+   * @return the value cached for the pair of types, or {@code null} if there is none
+   */
+  public V get(DataType source, DataType result) {
+    Map<DataType, V> byResult = entries.get(source);
+    return byResult == null ? null : byResult.get(result);
+  }
+
+  /**
+   * The version of the cache changes every time it is {@link #clear() cleared}. Callers must obtain it before resolving a value
+   * and pass it to {@link #putIfAbsent(DataType, DataType, Object, long)}, so that values resolved before the cache was cleared
+   * are not stored.
+   *
+   * @return the current version of the cache
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Caches the given value for the pair of types, unless there already is one or the cache was cleared since
+   * {@code expectedVersion} was obtained.
+   *
+   * @param source          the source type
+   * @param result          the result type
+   * @param value           the resolved value
+   * @param expectedVersion the {@link #getVersion() version} of the cache when the resolution started
+   * @return the value cached for the pair of types, or {@code value} if there was none
+   */
+  public synchronized V putIfAbsent(DataType source, DataType result, V value, long expectedVersion) {
+    V current = get(source, result);
+    if (current != null) {
+      return current;
+    }
+    if (expectedVersion != version) {
+      return value;
+    }
+
+    Map<DataType, Map<DataType, V>> newEntries = new IdentityHashMap<>(entries);
+    if (insertionOrder.size() >= maxEntries) {
+      DataType[] eldest = insertionOrder.poll();
+      Map<DataType, V> eldestByResult = new IdentityHashMap<>(newEntries.get(eldest[0]));
+      eldestByResult.remove(eldest[1]);
+      if (eldestByResult.isEmpty()) {
+        newEntries.remove(eldest[0]);
+      } else {
+        newEntries.put(eldest[0], eldestByResult);
+      }
+    }
+
+    Map<DataType, V> byResult = newEntries.get(source);
+    Map<DataType, V> newByResult = byResult == null ? new IdentityHashMap<>(4) : new IdentityHashMap<>(byResult);
+    newByResult.put(result, value);
+    newEntries.put(source, newByResult);
+
+    entries = newEntries;
+    insertionOrder.add(new DataType[] {source, result});
+    return value;
+  }
+
+  /**
+   * Discards all the entries and changes the {@link #getVersion() version} of the cache.
+   */
+  public synchronized void clear() {
+    entries = new IdentityHashMap<>();
+    insertionOrder.clear();
+    ++version;
+  }
+
+  /**
+   * @return the amount of cached pairs
+   */
+  public synchronized int size() {
+    return insertionOrder.size();
+  }
+}
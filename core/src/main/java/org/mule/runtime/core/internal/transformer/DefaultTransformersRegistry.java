@@ -14,6 +14,7 @@ import static org.mule.runtime.core.internal.registry.TransformerResolver.Regist
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.sort;
+import static java.util.Optional.ofNullable;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Disposable;
@@ -33,8 +34,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 
 import javax.inject.Inject;
 
@@ -48,11 +48,13 @@ public class DefaultTransformersRegistry implements TransformersRegistry, Initia
   @Inject
   private MuleContext muleContext;
 
+  private static final int MAX_CACHED_LOOKUPS = 1024;
+
   /**
-   * We cache transformer searches so that we only search once
+   * We cache transformer searches so that we only search once, including the ones for which no transformer is found.
    */
-  private final Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap<>(8);
-  private final Map<String, List<Transformer>> transformerListCache = new ConcurrentHashMap<>(8);
+  private final DataTypePairCache<Optional<Transformer>> exactTransformerCache = new DataTypePairCache<>(MAX_CACHED_LOOKUPS);
+  private final DataTypePairCache<List<Transformer>> transformerListCache = new DataTypePairCache<>(MAX_CACHED_LOOKUPS);
 
   /**
    * Transformer transformerResolvers are registered on context start, then they are not unregistered.
@@ -78,32 +80,32 @@ public class DefaultTransformersRegistry implements TransformersRegistry, Initia
 
   @Override
   public Transformer lookupTransformer(DataType source, DataType result) throws TransformerException {
-    // To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer
-    // and only find transformers with a targetType the same as or a super class of the expected one.
-    // The same could be done for the source but since if the source expected by the transformer is more generic that
-    // the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
-
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-    Transformer cachedTransformer = exactTransformerCache.get(dataTypePairHash);
-    if (cachedTransformer != null) {
-      return cachedTransformer;
+    // Keyed by the normalized type, so that results with different media types share the entry
+    result = anyMediaType(result);
+
+    Optional<Transformer> cachedTransformer = exactTransformerCache.get(source, result);
+    if (cachedTransformer == null) {
+      long cacheVersion = exactTransformerCache.getVersion();
+      Transformer trans = resolveTransformer(source, result);
+      cachedTransformer = exactTransformerCache.putIfAbsent(source, result, ofNullable(trans), cacheVersion);
     }
 
-    Transformer trans = resolveTransformer(source, result);
-
-    if (trans != null) {
-      Transformer concurrentlyAddedTransformer = exactTransformerCache.putIfAbsent(dataTypePairHash, trans);
-      if (concurrentlyAddedTransformer != null) {
-        return concurrentlyAddedTransformer;
-      } else {
-        return trans;
-      }
+    if (cachedTransformer.isPresent()) {
+      return cachedTransformer.get();
     } else {
       throw new TransformerException(noTransformerFoundForMessage(source, result));
     }
   }
 
+  /**
+   * To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer and only find
+   * transformers with a targetType the same as or a super class of the expected one. The same could be done for the source but
+   * since if the source expected by the transformer is more generic that the provided, it will be found.
+   */
+  private DataType anyMediaType(DataType result) {
+    return builder(result).mediaType(ANY).charset((Charset) null).build();
+  }
+
   private Transformer resolveTransformer(DataType source, DataType result) throws TransformerException {
     for (TransformerResolver resolver : transformerResolvers) {
       try {
@@ -121,19 +123,14 @@ public class DefaultTransformersRegistry implements TransformersRegistry, Initia
 
   @Override
   public List<Transformer> lookupTransformers(DataType source, DataType result) {
-    // To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer
-    // and only find transformers with a targetType the same as or a super class of the expected one.
-    // The same could be done for the source but since if the source expected by the transformer is more generic that
-    // the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
-
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
+    result = anyMediaType(result);
 
-    List<Transformer> results = transformerListCache.get(dataTypePairHash);
+    List<Transformer> results = transformerListCache.get(source, result);
     if (results != null) {
       return results;
     }
 
+    final long cacheVersion = transformerListCache.getVersion();
     results = new ArrayList<>(2);
 
     for (Transformer transformer : transformers) {
@@ -147,12 +144,7 @@ public class DefaultTransformersRegistry implements TransformersRegistry, Initia
       }
     }
 
-    List<Transformer> concurrentlyAddedTransformers = transformerListCache.putIfAbsent(dataTypePairHash, results);
-    if (concurrentlyAddedTransformers != null) {
-      return concurrentlyAddedTransformers;
-    }
-
-    return results;
+    return transformerListCache.putIfAbsent(source, result, results, cacheVersion);
   }
 
   @Override
@@ -178,10 +170,6 @@ public class DefaultTransformersRegistry implements TransformersRegistry, Initia
     }
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    return source.getClass().getName() + source.hashCode() + ":" + result.getClass().getName() + result.hashCode();
-  }
-
   private class TransformerResolverComparator implements Comparator<TransformerResolver> {
 
     @Override
@@ -34,6 +34,9 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
       0 // Operating system (OS)
   };
 
+  // Size of the buffer for reading uncompressed data when none is provided.
+  private final static int DEFAULT_INPUT_BUFFER_SIZE = 512;
+
   // Trailer length in bytes.
   private final static int TRAILER_LENGTH = 8;
 
@@ -72,18 +75,68 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
     }
   }
 
+  // Buffer the uncompressed data is read into before deflating it.
+  private final byte[] inputBuffer;
+
+  // Invoked once when this stream is closed.
+  private final Runnable onClose;
+  private boolean closed = false;
+
   /**
    * Creates a new {@link GZIPCompressorInputStream} from an uncompressed {@link InputStream}.
    *
    * @param in The uncompressed {@link InputStream}.
    */
   public GZIPCompressorInputStream(InputStream in) {
-    super(new CheckedInputStream(in, new CRC32()), new Deflater(Deflater.DEFAULT_COMPRESSION, true));
-    buffer = new Buffer();
+    this(in, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY);
+  }
+
+  /**
+   * Creates a new {@link GZIPCompressorInputStream} from an uncompressed {@link InputStream}.
+   *
+   * @param in       The uncompressed {@link InputStream}.
+   * @param level    The compression level, as in {@link Deflater#setLevel(int)}.
+   * @param strategy The compression strategy, as in {@link Deflater#setStrategy(int)}.
+   */
+  public GZIPCompressorInputStream(InputStream in, int level, int strategy) {
+    this(in, level, strategy, new byte[DEFAULT_INPUT_BUFFER_SIZE], () -> {
+    });
+  }
+
+  /**
+   * Creates a new {@link GZIPCompressorInputStream} from an uncompressed {@link InputStream}, reading it through the given
+   * {@code inputBuffer} instead of allocating one.
+   *
+   * @param in          The uncompressed {@link InputStream}.
+   * @param level       The compression level, as in {@link Deflater#setLevel(int)}.
+   * @param strategy    The compression strategy, as in {@link Deflater#setStrategy(int)}.
+   * @param inputBuffer The buffer to read the uncompressed data into. Must not be used by anyone else until this stream is
+   *                    closed.
+   * @param onClose     Invoked once when this stream is closed, so that the owner of {@code inputBuffer} can reclaim it.
+   */
+  public GZIPCompressorInputStream(InputStream in, int level, int strategy, byte[] inputBuffer, Runnable onClose) {
+    // The buffer of the superclass is not used, see #deflate
+    super(new CheckedInputStream(in, new CRC32()), createDeflater(level, strategy), 1);
+    this.inputBuffer = inputBuffer;
+    this.buffer = new Buffer();
+    this.onClose = onClose;
+  }
+
+  private static Deflater createDeflater(int level, int strategy) {
+    Deflater deflater = new Deflater(level, true);
+    deflater.setStrategy(strategy);
+    return deflater;
   }
 
   @Override
   public int read(byte b[], int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (len == 0) {
+      return 0;
+    }
+
     // Check if there are bytes left to be read from the internal buffer. This is used to provide the header
     // or trailer, and always takes precedence.
     int count;
@@ -98,7 +151,7 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
     }
 
     // Attempt to read compressed input data.
-    count = super.read(b, off, len);
+    count = deflate(b, off, len);
     if (count > 0) {
       return count;
     }
@@ -116,6 +169,41 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
     }
   }
 
+  /**
+   * Compresses data from the underlying stream into {@code b}. Equivalent to {@link DeflaterInputStream#read(byte[], int, int)},
+   * but reading the uncompressed data through {@link #inputBuffer}.
+   *
+   * @return The amount of compressed bytes written into {@code b}, or -1 if all the data has been compressed.
+   * @throws IOException If an I/O error is produced.
+   */
+  private int deflate(byte[] b, int off, int len) throws IOException {
+    while (true) {
+      int count = def.deflate(b, off, len);
+      if (count > 0) {
+        return count;
+      }
+      if (def.finished()) {
+        return -1;
+      }
+      if (def.needsInput()) {
+        int read = in.read(inputBuffer, 0, inputBuffer.length);
+        if (read < 0) {
+          def.finish();
+        } else {
+          def.setInput(inputBuffer, 0, read);
+        }
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    return trailerWritten && buffer.getByteCountRemainder() == 0 ? 0 : 1;
+  }
+
   /**
    * Writes GZIP member trailer to a byte array, starting at a given offset.
    *
@@ -162,8 +250,15 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
 
   @Override
   public void close() throws IOException {
-    super.close();
-    // Since the deflater is not the default one, it must be closed explicitly
-    def.end();
+    try {
+      super.close();
+      // Since the deflater is not the default one, it must be closed explicitly
+      def.end();
+    } finally {
+      if (!closed) {
+        closed = true;
+        onClose.run();
+      }
+    }
   }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A {@link GZIPInputStream} which reads the compressed data through a buffer provided by its owner instead of allocating one.
+ *
+ * @since 4.6
+ */
+public class GZIPDecompressorInputStream extends GZIPInputStream {
+
+  private final Runnable onClose;
+  private boolean closed = false;
+
+  /**
+   * Creates a new {@link GZIPDecompressorInputStream} from a compressed {@link InputStream}.
+   *
+   * @param in          The compressed {@link InputStream}.
+   * @param inputBuffer The buffer to read the compressed data into. Must not be used by anyone else until this stream is closed.
+   * @param onClose     Invoked once when this stream is closed, so that the owner of {@code inputBuffer} can reclaim it.
+   * @throws IOException If the GZIP header could not be read.
+   */
+  public GZIPDecompressorInputStream(InputStream in, byte[] inputBuffer, Runnable onClose) throws IOException {
+    super(in, 1);
+    this.buf = inputBuffer;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } finally {
+      if (!closed) {
+        closed = true;
+        onClose.run();
+      }
+    }
+  }
+}
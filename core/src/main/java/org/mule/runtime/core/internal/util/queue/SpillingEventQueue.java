@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.util.queue.RandomAccessFileQueueStore.CONTROL_DATA_SIZE;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Optional.empty;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.DefaultMuleSession;
+import org.mule.runtime.core.privileged.event.PrivilegedEvent;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * FIFO of {@link CoreEvent}s which keeps up to {@code maxInMemoryEvents} of them on the heap and spills the rest to a
+ * {@link RandomAccessFileQueueStore}. Spilled events are read back, in order, as the ones on the heap are consumed.
+ * <p>
+ * The message and the variables of a spilled event are written to the file, and the rest of the event, including its
+ * {@link BaseEventContext}, is kept in memory. When read back, the event gets its own context again, so that its flow call stack
+ * and tracing are kept and the context is only completed once the event is processed. Events spilled before a restart, whose
+ * context is gone, are read back with a new root context and their correlation id.
+ * <p>
+ * The spill file takes up to {@code maxSpillSize} bytes, and it is truncated once all its events have been read back. Events
+ * which do not fit in it, or which can't be serialized (streams, for instance), are kept on the heap behind the spilled ones, up
+ * to {@code maxInMemoryEvents} of them. Events beyond that are rejected, completing their context with an error.
+ * <p>
+ * Events may be {@link #offer(CoreEvent) offered} from any thread, which only adds them to a lock-free queue. All the other
+ * methods are meant to be called by a single consumer thread, which does all the serialization and disk I/O: the events offered
+ * are moved to the heap or spilled when the consumer {@link #peek() peeks}, so that the threads offering them never wait on
+ * the disk.
+ *
+ * @since 4.6
+ */
+public final class SpillingEventQueue {
+
+  private static final Logger LOGGER = getLogger(SpillingEventQueue.class);
+
+  private final int maxInMemoryEvents;
+  private final long maxSpillSize;
+  private final RandomAccessFileQueueStore spillStore;
+  private final MuleContext muleContext;
+  private final ComponentLocation location;
+
+  // Events offered and not yet moved to the heap or spilled by the consumer
+  private final Queue<CoreEvent> incoming = new ConcurrentLinkedQueue<>();
+  // Events in front of the spilled ones
+  private final Deque<CoreEvent> head = new ArrayDeque<>();
+  // Events behind the spilled ones, which could not be spilled
+  private final Deque<CoreEvent> tail = new ArrayDeque<>();
+  // The spilled events without their message and variables, in the same order as in the spill file
+  private final Deque<CoreEvent> spilledContexts = new ArrayDeque<>();
+  // The events at the front of the spill file, written before a restart, which have no context in memory
+  private int recoveredEvents;
+
+  private final LongAdder spilledEvents = new LongAdder();
+  private final LongAdder drainedEvents = new LongAdder();
+  private final LongAdder discardedEvents = new LongAdder();
+  private final LongAdder rejectedEvents = new LongAdder();
+
+  /**
+   * Creates a queue which keeps all of its events on the heap.
+   */
+  public SpillingEventQueue() {
+    this.maxInMemoryEvents = MAX_VALUE;
+    this.maxSpillSize = 0;
+    this.spillStore = null;
+    this.muleContext = null;
+    this.location = null;
+  }
+
+  /**
+   * Creates a queue which spills to the given file. Events already in the file, from before a restart, are read back before the
+   * ones added to this queue.
+   *
+   * @param maxInMemoryEvents the amount of events to keep on the heap before spilling
+   * @param maxSpillSize      the maximum size in bytes of the spill file
+   * @param spillFile         the file to spill the events to
+   * @param muleContext       the context of the artifact, to serialize the events and create their new contexts
+   * @param location          the location of the component the events read back are processed by
+   */
+  public SpillingEventQueue(int maxInMemoryEvents, long maxSpillSize, QueueFileProvider spillFile, MuleContext muleContext,
+                            ComponentLocation location) {
+    this.maxInMemoryEvents = maxInMemoryEvents;
+    this.maxSpillSize = maxSpillSize;
+    this.spillStore = new RandomAccessFileQueueStore(spillFile);
+    this.muleContext = muleContext;
+    this.location = location;
+    this.recoveredEvents = spillStore.getSize();
+  }
+
+  /**
+   * Adds an event at the end of the queue. It is spilled by the consumer if there are already {@code maxInMemoryEvents} on the
+   * heap by then. May be called from any thread, and never blocks.
+   *
+   * @param event the event to add
+   */
+  public void offer(CoreEvent event) {
+    incoming.offer(event);
+  }
+
+  private void moveIncoming() {
+    CoreEvent event;
+    while ((event = incoming.poll()) != null) {
+      if (spillStore == null || (tail.isEmpty() && spillStore.isEmpty() && head.size() < maxInMemoryEvents)) {
+        head.addLast(event);
+      } else if (!tail.isEmpty() || !spill(event)) {
+        if (tail.size() < maxInMemoryEvents) {
+          tail.addLast(event);
+        } else {
+          rejectedEvents.increment();
+          completeWithError(event, "Queue is full, the event can neither be spilled nor kept in memory");
+        }
+      }
+    }
+  }
+
+  private void completeWithError(CoreEvent event, String reason) {
+    LOGGER.warn("{}, discarding event '{}'", reason, event.getContext().getId());
+    ((BaseEventContext) event.getContext()).error(new MessagingException(createStaticMessage(reason), event));
+  }
+
+  private boolean spill(CoreEvent event) {
+    final byte[] record;
+    try {
+      record = getSerializer().serialize(new SpilledEvent(event));
+    } catch (Exception e) {
+      LOGGER.debug("Event '{}' can't be serialized, keeping it in memory", event.getContext().getId(), e);
+      return false;
+    }
+
+    if (spillStore.getLength() + CONTROL_DATA_SIZE + record.length > maxSpillSize) {
+      LOGGER.debug("Spill file '{}' is full, keeping event '{}' in memory", spillStore.getFile(), event.getContext().getId());
+      return false;
+    }
+
+    spillStore.addLast(record);
+    spilledEvents.increment();
+    spilledContexts.addLast(CoreEvent.builder(event).message(Message.builder().nullValue().build()).clearVariables().build());
+    return true;
+  }
+
+  /**
+   * @return the first event of the queue, without removing it, or {@code null} if the queue is empty.
+   */
+  public synchronized CoreEvent peek() {
+    moveIncoming();
+    if (head.isEmpty()) {
+      refill();
+    }
+    return head.peekFirst();
+  }
+
+  /**
+   * Removes the first event of the queue.
+   */
+  public synchronized void remove() {
+    head.pollFirst();
+  }
+
+  private void refill() {
+    if (spillStore != null) {
+      while (head.size() < maxInMemoryEvents && !spillStore.isEmpty()) {
+        final byte[] record;
+        try {
+          record = spillStore.removeFirst();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+
+        CoreEvent spilledContext = null;
+        if (recoveredEvents > 0) {
+          --recoveredEvents;
+        } else {
+          spilledContext = spilledContexts.pollFirst();
+        }
+
+        try {
+          head.addLast(readBack(record, spilledContext));
+          drainedEvents.increment();
+        } catch (Exception e) {
+          discardedEvents.increment();
+          LOGGER.warn("Could not read back an event spilled to '{}', discarding it", spillStore.getFile(), e);
+          if (spilledContext != null) {
+            ((BaseEventContext) spilledContext.getContext()).error(e);
+          }
+        }
+      }
+
+      if (spillStore.isEmpty() && spillStore.getLength() > 0) {
+        // Reclaim the disk space taken by the events already read back
+        spillStore.clear();
+      }
+    }
+
+    if ((spillStore == null || spillStore.isEmpty()) && !tail.isEmpty()) {
+      head.addAll(tail);
+      tail.clear();
+    }
+  }
+
+  private CoreEvent readBack(byte[] record, CoreEvent spilledContext) throws Exception {
+    SpilledEvent spilled = getSerializer().deserialize(record);
+    if (spilled.message instanceof DeserializationPostInitialisable) {
+      DeserializationPostInitialisable.Implementation.init(spilled.message, muleContext);
+    }
+
+    if (spilledContext != null) {
+      return PrivilegedEvent.builder(spilledContext)
+          .message(spilled.message)
+          .variablesTyped(spilled.variables)
+          .build();
+    }
+
+    return PrivilegedEvent
+        .builder(create(muleContext.getUniqueIdString(), muleContext.getId(), location, spilled.correlationId, empty()))
+        .message(spilled.message)
+        .variablesTyped(spilled.variables)
+        .session(new DefaultMuleSession())
+        .build();
+  }
+
+  /**
+   * @return {@code true} if there are no events in the queue, either on the heap or spilled.
+   */
+  public synchronized boolean isEmpty() {
+    return incoming.isEmpty() && head.isEmpty() && tail.isEmpty() && (spillStore == null || spillStore.isEmpty());
+  }
+
+  /**
+   * @return the amount of events spilled and not read back yet.
+   */
+  public int getSpilledSize() {
+    return spillStore == null ? 0 : spillStore.getSize();
+  }
+
+  /**
+   * Discards the events in the spill file.
+   *
+   * @return the amount of events discarded
+   */
+  public synchronized int discardSpilled() {
+    if (spillStore == null) {
+      return 0;
+    }
+    int discarded = spillStore.getSize();
+    spillStore.clear();
+    recoveredEvents = 0;
+    discardedEvents.add(discarded);
+    CoreEvent spilledContext;
+    while ((spilledContext = spilledContexts.pollFirst()) != null) {
+      completeWithError(spilledContext, "Spilled events discarded");
+    }
+    return discarded;
+  }
+
+  /**
+   * Discards the events on the heap and closes the spill file. The spilled events are kept to be read back after a restart, along
+   * with the events offered since the consumer last peeked, if they fit in the spill file. The contexts of the spilled events are
+   * completed, since they will be read back with new ones.
+   */
+  public synchronized void close() {
+    moveIncoming();
+    head.clear();
+    tail.clear();
+    CoreEvent spilledContext;
+    while ((spilledContext = spilledContexts.pollFirst()) != null) {
+      ((BaseEventContext) spilledContext.getContext()).success(spilledContext);
+    }
+    if (spillStore != null) {
+      spillStore.close();
+    }
+  }
+
+  /**
+   * @return the amount of events written to the spill file.
+   */
+  public long getSpilledCount() {
+    return spilledEvents.sum();
+  }
+
+  /**
+   * @return the amount of events read back from the spill file.
+   */
+  public long getDrainedCount() {
+    return drainedEvents.sum();
+  }
+
+  /**
+   * @return the amount of spilled events discarded, either on request or because they could not be read back.
+   */
+  public long getDiscardedCount() {
+    return discardedEvents.sum();
+  }
+
+  /**
+   * @return the amount of events rejected because they could neither be spilled nor kept in memory.
+   */
+  public long getRejectedCount() {
+    return rejectedEvents.sum();
+  }
+
+  private SerializationProtocol getSerializer() {
+    return muleContext.getObjectSerializer().getInternalProtocol();
+  }
+
+  /**
+   * What is kept of a spilled event.
+   */
+  private static final class SpilledEvent implements Serializable {
+
+    private static final long serialVersionUID = -2291576046218424418L;
+
+    private final String correlationId;
+    private final Message message;
+    private final HashMap<String, TypedValue<?>> variables;
+
+    SpilledEvent(CoreEvent event) {
+      this.correlationId = event.getCorrelationId();
+      this.message = event.getMessage();
+      this.variables = new HashMap<>(event.getVariables());
+    }
+  }
+}
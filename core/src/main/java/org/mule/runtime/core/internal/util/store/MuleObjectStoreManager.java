@@ -8,6 +8,7 @@
 package org.mule.runtime.core.internal.util.store;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -29,6 +30,7 @@ import org.mule.runtime.api.store.PartitionableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -36,6 +38,8 @@ import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 
 import org.mule.runtime.core.internal.store.AbstractPartitionableObjectStore;
+import org.mule.runtime.core.internal.store.PartitionStatistics;
+import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.slf4j.Logger;
 
 public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable, Disposable {
@@ -226,6 +230,22 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
     stores.clear();
   }
 
+  /**
+   * Provides the entries and estimated heap of each partition of the transient base store, if it is kept in memory by this
+   * runtime.
+   *
+   * @return the statistics of each partition by partition name, or an empty map if the transient base store is not an
+   *         {@link PartitionedInMemoryObjectStore}.
+   * @since 4.6
+   */
+  public Map<String, PartitionStatistics> getTransientPartitionsStatistics() {
+    ObjectStore<?> transientStore = baseTransientStore;
+    if (transientStore instanceof PartitionedInMemoryObjectStore) {
+      return ((PartitionedInMemoryObjectStore<?>) transientStore).getPartitionsStatistics();
+    }
+    return emptyMap();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -69,6 +69,7 @@ import org.mule.runtime.core.api.context.notification.ServerNotificationHandler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
@@ -86,6 +87,7 @@ import org.mule.runtime.core.internal.exception.GlobalErrorHandler;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.interception.InterceptorManager;
 import org.mule.runtime.core.internal.interception.ReactiveInterceptor;
+import org.mule.runtime.core.internal.management.stats.DefaultComponentLatencyStatistics;
 import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
 import org.mule.runtime.core.internal.processor.interceptor.ProcessorInterceptorFactoryAdapter;
 import org.mule.runtime.core.internal.processor.interceptor.ReactiveInterceptorAdapter;
@@ -190,6 +192,11 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   @Inject
   private InitialSpanInfoProvider initialSpanInfoProvider;
 
+  @Inject
+  private Optional<ComponentLatencyStatistics> componentLatencyStatistics;
+
+  private DefaultComponentLatencyStatistics latencyStatistics;
+
   private ProfilingDataProducer<org.mule.runtime.api.profiling.type.context.ComponentThreadingProfilingEventContext, CoreEvent> startingOperationExecutionDataProducer;
   private ProfilingDataProducer<org.mule.runtime.api.profiling.type.context.ComponentThreadingProfilingEventContext, CoreEvent> endOperationExecutionDataProducer;
 
@@ -451,6 +458,12 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   private void notifyError(Processor processor, BaseEventContext context, final MessagingException resolvedException,
                            BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
+    if (latencyStatistics != null) {
+      String processorPath = getProcessorPath(processor);
+      if (processorPath != null) {
+        latencyStatistics.end(processorPath, context, true);
+      }
+    }
     errorNotification(processor)
         .andThen(t -> errorBubbler.accept(context, t))
         .accept(resolvedException);
@@ -537,6 +550,9 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   private CoreEvent afterComponentProcessingStrategy(Processor processor, String processorPath, CoreEvent result) {
     try {
+      if (latencyStatistics != null && processorPath != null) {
+        latencyStatistics.end(processorPath, result.getContext(), false);
+      }
       postNotification(processor).accept(result);
       setCurrentEvent((PrivilegedEvent) result);
       muleEventTracer.endCurrentSpan(result);
@@ -564,6 +580,9 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     }
     if (processorPath != null) {
       MDC.put("processorPath", processorPath);
+      if (latencyStatistics != null) {
+        latencyStatistics.start(processorPath, event.getContext());
+      }
     }
     ComponentLocation componentLocation = getLocationIfComponent(processor);
 
@@ -766,6 +785,13 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
     muleEventTracer = profilingService.getCoreEventTracer();
 
+    if (componentLatencyStatistics != null) {
+      latencyStatistics = componentLatencyStatistics
+          .filter(DefaultComponentLatencyStatistics.class::isInstance)
+          .map(DefaultComponentLatencyStatistics.class::cast)
+          .orElse(null);
+    }
+
     if (chainInitialSpanInfo == null) {
       this.chainInitialSpanInfo = initialSpanInfoProvider.getInitialSpanInfo(this);
     }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.container.internal;
+
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.container.api.MuleModule;
+import org.mule.runtime.module.artifact.api.classloader.ExportedService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Persists the {@link MuleModule}s discovered on the container as a compact binary file, so they can be loaded on the next start
+ * instead of scanning the JRE and the container classpath again.
+ * <p>
+ * An index is only valid for the key it was written with, computed by {@link #computeKey(String, File)} from the JRE in use and
+ * the content of the container lib folder. Services backed by temporary files, as the ones created by
+ * {@link ClasspathModuleDiscoverer}, are stored by content and written again to a temporary file when the index is read.
+ *
+ * @since 4.6
+ */
+final class ContainerLayoutIndex {
+
+  private static final Logger LOGGER = getLogger(ContainerLayoutIndex.class);
+
+  private static final int MAGIC = 0x4D434C49;
+  private static final int VERSION = 1;
+
+  private static final byte URL_SERVICE = 0;
+  private static final byte CONTENT_SERVICE = 1;
+
+  private static final String FILE_PROTOCOL = "file";
+  private static final String TMP_FILE_SUFFIX = "tmp";
+
+  private ContainerLayoutIndex() {}
+
+  /**
+   * Computes the key of the index for the current JRE and the given container lib folder.
+   * <p>
+   * Jars are fingerprinted by relative path, size and last modification time rather than by their content, so computing the key
+   * doesn't require reading the whole container.
+   *
+   * @param discoverer         name of the discoverer whose modules are indexed. Non empty.
+   * @param containerLibFolder folder containing the container jars. Non null.
+   * @return the key to read and write the index with.
+   * @throws IOException if the container lib folder could not be traversed.
+   */
+  static String computeKey(String discoverer, File containerLibFolder) throws IOException {
+    MessageDigest digest = createDigest();
+    fingerprint(digest, containerLibFolder, "");
+
+    StringBuilder key = new StringBuilder(256)
+        .append(discoverer).append('|')
+        .append(getProperty("java.home")).append('|')
+        .append(getProperty("java.vendor")).append('|')
+        .append(getProperty("java.version")).append('|')
+        .append(containerLibFolder.getAbsolutePath()).append('|');
+    for (byte b : digest.digest()) {
+      key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return key.toString();
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void fingerprint(MessageDigest digest, File folder, String relativePath) throws IOException {
+    File[] content = folder.listFiles();
+    if (content == null) {
+      throw new IOException("Cannot list content of " + folder.getAbsolutePath());
+    }
+    Arrays.sort(content);
+
+    for (File entry : content) {
+      String entryPath = relativePath + "/" + entry.getName();
+      if (entry.isDirectory()) {
+        fingerprint(digest, entry, entryPath);
+      } else {
+        digest.update(entryPath.getBytes(UTF_8));
+        digest.update(toBytes(entry.length()));
+        digest.update(toBytes(entry.lastModified()));
+      }
+    }
+  }
+
+  private static byte[] toBytes(long value) {
+    byte[] bytes = new byte[8];
+    for (int i = 7; i >= 0; --i) {
+      bytes[i] = (byte) value;
+      value >>>= 8;
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads the modules from an index.
+   *
+   * @param indexFile          the file to read the index from. Non null.
+   * @param key                the key the index is expected to have been written with. Non empty.
+   * @param servicesTempFolder folder where to write the content of services backed by temporary files. Non null.
+   * @return the indexed modules, or empty if there is no index for the given {@code key} or it could not be read.
+   */
+  static Optional<List<MuleModule>> read(File indexFile, String key, File servicesTempFolder) {
+    if (!indexFile.isFile()) {
+      return empty();
+    }
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(key)) {
+        LOGGER.debug("Container layout index at '{}' is outdated", indexFile);
+        return empty();
+      }
+
+      int modulesCount = in.readInt();
+      List<MuleModule> modules = new ArrayList<>(modulesCount);
+      for (int i = 0; i < modulesCount; ++i) {
+        modules.add(new MuleModule(in.readUTF(), readStrings(in), readStrings(in), readStrings(in), readStrings(in),
+                                   readServices(in, servicesTempFolder)));
+      }
+      return of(modules);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not read container layout index at '{}', the container will be scanned instead: {}", indexFile,
+                  e.toString());
+      return empty();
+    }
+  }
+
+  private static Set<String> readStrings(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Set<String> strings = new HashSet<>(size * 4 / 3 + 1);
+    for (int i = 0; i < size; ++i) {
+      strings.add(in.readUTF());
+    }
+    return strings;
+  }
+
+  private static List<ExportedService> readServices(DataInputStream in, File servicesTempFolder) throws IOException {
+    int size = in.readInt();
+    List<ExportedService> services = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      String serviceInterface = in.readUTF();
+      if (in.readByte() == URL_SERVICE) {
+        services.add(new ExportedService(serviceInterface, new URL(in.readUTF())));
+      } else {
+        byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+
+        File serviceFile = createTempFile(servicesTempFolder.toPath(), serviceInterface, TMP_FILE_SUFFIX).toFile();
+        serviceFile.deleteOnExit();
+        write(serviceFile.toPath(), content);
+        services.add(new ExportedService(serviceInterface, serviceFile.toURI().toURL()));
+      }
+    }
+    return services;
+  }
+
+  /**
+   * Writes the given modules to an index. The index is first written to a temporary file and then moved in place, so a
+   * concurrent or interrupted write never leaves a partial index behind.
+   *
+   * @param indexFile the file to write the index to. Non null.
+   * @param key       the key of the index. Non empty.
+   * @param modules   the modules to index. Non null.
+   * @throws IOException if the index could not be written.
+   */
+  static void write(File indexFile, String key, List<MuleModule> modules) throws IOException {
+    File folder = indexFile.getAbsoluteFile().getParentFile();
+    if (!folder.exists() && !folder.mkdirs()) {
+      throw new IOException("Cannot create folder " + folder.getAbsolutePath());
+    }
+
+    Path tempFile = createTempFile(folder.toPath(), indexFile.getName(), TMP_FILE_SUFFIX);
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile.toFile())))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(key);
+
+        out.writeInt(modules.size());
+        for (MuleModule module : modules) {
+          out.writeUTF(module.getName());
+          writeStrings(out, module.getExportedPackages());
+          writeStrings(out, module.getExportedPaths());
+          writeStrings(out, module.getPrivilegedExportedPackages());
+          writeStrings(out, module.getPrivilegedArtifacts());
+          writeServices(out, module.getExportedServices());
+        }
+      }
+
+      try {
+        move(tempFile, indexFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        move(tempFile, indexFile.toPath(), REPLACE_EXISTING);
+      }
+    } finally {
+      tempFile.toFile().delete();
+    }
+  }
+
+  private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      out.writeUTF(string);
+    }
+  }
+
+  private static void writeServices(DataOutputStream out, List<ExportedService> services) throws IOException {
+    out.writeInt(services.size());
+    for (ExportedService service : services) {
+      URL resource = service.getResource();
+      out.writeUTF(service.getServiceInterface());
+      if (FILE_PROTOCOL.equals(resource.getProtocol())) {
+        byte[] content;
+        try {
+          content = readAllBytes(new File(resource.toURI()).toPath());
+        } catch (Exception e) {
+          throw new IOException("Cannot read service resource " + resource, e);
+        }
+        out.writeByte(CONTENT_SERVICE);
+        out.writeInt(content.length);
+        out.write(content);
+      } else {
+        out.writeByte(URL_SERVICE);
+        out.writeUTF(resource.toString());
+      }
+    }
+  }
+}
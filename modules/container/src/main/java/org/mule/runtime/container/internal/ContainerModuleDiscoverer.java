@@ -8,20 +8,45 @@
 package org.mule.runtime.container.internal;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getExecutionFolder;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getModulesTempFolder;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getMuleLibFolder;
+import static org.mule.runtime.core.internal.util.StandaloneServerUtils.getMuleHome;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.container.api.MuleModule;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
 
 /**
  * Discovers modules on the Mule container.
+ * <p>
+ * When running on a standalone container, the discovered modules are persisted in a {@link ContainerLayoutIndex} which is used on
+ * following starts for as long as neither the JRE nor the content of the container lib folder change. This can be disabled with
+ * the {@link #DISABLE_CONTAINER_LAYOUT_INDEX_PROPERTY} system property.
  *
  * @since 4.0
  */
 public class ContainerModuleDiscoverer implements ModuleDiscoverer {
 
-  private final CompositeModuleDiscoverer moduleDiscoverer;
+  private static final Logger LOGGER = getLogger(ContainerModuleDiscoverer.class);
+
+  public static final String DISABLE_CONTAINER_LAYOUT_INDEX_PROPERTY = "mule.container.layoutIndex.disable";
+
+  private static final String CONTAINER_LAYOUT_INDEX_FILE = "container-layout.idx";
+
+  private final List<ModuleDiscoverer> moduleDiscoverers;
 
   /**
    * Creates a new instance.
@@ -30,7 +55,8 @@ public class ContainerModuleDiscoverer implements ModuleDiscoverer {
    */
   public ContainerModuleDiscoverer(ClassLoader containerClassLoader) {
     checkArgument(containerClassLoader != null, "containerClassLoader cannot be null");
-    moduleDiscoverer = new CompositeModuleDiscoverer(getModuleDiscoverers(containerClassLoader).toArray(new ModuleDiscoverer[0]));
+    moduleDiscoverers = getModuleDiscoverers(containerClassLoader);
+    checkArgument(!moduleDiscoverers.isEmpty(), "moduleDiscoverers cannot be empty");
   }
 
   protected List<ModuleDiscoverer> getModuleDiscoverers(ClassLoader containerClassLoader) {
@@ -42,6 +68,57 @@ public class ContainerModuleDiscoverer implements ModuleDiscoverer {
 
   @Override
   public List<MuleModule> discover() {
-    return moduleDiscoverer.discover();
+    if (getBoolean(DISABLE_CONTAINER_LAYOUT_INDEX_PROPERTY) || !getMuleHome().isPresent()) {
+      return scan(false);
+    }
+
+    long startTime = nanoTime();
+    String key;
+    try {
+      key = ContainerLayoutIndex.computeKey(getClass().getName(), getMuleLibFolder());
+    } catch (IOException e) {
+      LOGGER.warn("Could not compute the container layout index key, the container will be scanned: {}", e.toString());
+      return scan(true);
+    }
+    long keyTime = nanoTime();
+
+    File indexFile = new File(getExecutionFolder(), CONTAINER_LAYOUT_INDEX_FILE);
+    Optional<List<MuleModule>> indexedModules = ContainerLayoutIndex.read(indexFile, key, getModulesTempFolder());
+    if (indexedModules.isPresent()) {
+      LOGGER.info("Loaded {} container modules from the layout index in {} ms (key: {} ms, read: {} ms)",
+                  indexedModules.get().size(), toMillis(nanoTime() - startTime), toMillis(keyTime - startTime),
+                  toMillis(nanoTime() - keyTime));
+      return indexedModules.get();
+    }
+
+    List<MuleModule> modules = scan(true);
+
+    long writeStartTime = nanoTime();
+    try {
+      ContainerLayoutIndex.write(indexFile, key, modules);
+      LOGGER.info("Container layout index written to '{}' in {} ms", indexFile, toMillis(nanoTime() - writeStartTime));
+    } catch (IOException e) {
+      LOGGER.warn("Could not write the container layout index to '{}': {}", indexFile, e.toString());
+    }
+    return modules;
+  }
+
+  private List<MuleModule> scan(boolean logTimings) {
+    final List<MuleModule> muleModules = new ArrayList<>();
+    for (ModuleDiscoverer discoverer : moduleDiscoverers) {
+      long startTime = nanoTime();
+      List<MuleModule> discovered = discoverer.discover();
+      muleModules.addAll(discovered);
+      if (logTimings) {
+        LOGGER.info("{} discovered {} container modules in {} ms", discoverer.getClass().getSimpleName(), discovered.size(),
+                    toMillis(nanoTime() - startTime));
+      }
+    }
+
+    return muleModules;
+  }
+
+  private static long toMillis(long nanos) {
+    return NANOSECONDS.toMillis(nanos);
   }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.container.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.mule.runtime.container.api.MuleModule;
+import org.mule.runtime.module.artifact.api.classloader.ExportedService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ContainerLayoutIndexTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File indexFile;
+  private File servicesFolder;
+
+  @Before
+  public void setUp() throws Exception {
+    indexFile = new File(temporaryFolder.getRoot(), "index/container-layout.idx");
+    servicesFolder = temporaryFolder.newFolder("services");
+  }
+
+  @Test
+  public void readsWrittenModules() throws Exception {
+    File serviceFile = temporaryFolder.newFile("service");
+    write(serviceFile.toPath(), "org.foo.FooImpl".getBytes(UTF_8));
+    URL jarService = new URL("jar:file:/lib/foo.jar!/META-INF/services/org.bar.Bar");
+
+    MuleModule module = new MuleModule("foo", new HashSet<>(Arrays.asList("org.foo", "org.bar")), singleton("foo.txt"),
+                                       singleton("org.foo.privileged"), singleton("org.mule:foo"),
+                                       Arrays.asList(new ExportedService("org.foo.Foo", serviceFile.toURI().toURL()),
+                                                     new ExportedService("org.bar.Bar", jarService)));
+    ContainerLayoutIndex.write(indexFile, KEY, Arrays.asList(module));
+
+    Optional<List<MuleModule>> read = ContainerLayoutIndex.read(indexFile, KEY, servicesFolder);
+
+    assertThat(read.isPresent(), is(true));
+    assertThat(read.get(), hasSize(1));
+    MuleModule readModule = read.get().get(0);
+    assertThat(readModule.getName(), equalTo("foo"));
+    assertThat(readModule.getExportedPackages(), containsInAnyOrder("org.foo", "org.bar"));
+    assertThat(readModule.getExportedPaths(), containsInAnyOrder("foo.txt"));
+    assertThat(readModule.getPrivilegedExportedPackages(), containsInAnyOrder("org.foo.privileged"));
+    assertThat(readModule.getPrivilegedArtifacts(), containsInAnyOrder("org.mule:foo"));
+
+    List<ExportedService> services = readModule.getExportedServices();
+    assertThat(services, hasSize(2));
+    assertThat(services.get(0).getServiceInterface(), equalTo("org.foo.Foo"));
+    assertThat(services.get(0).getResource(), not(equalTo(serviceFile.toURI().toURL())));
+    assertThat(new String(readAllBytes(new File(services.get(0).getResource().toURI()).toPath()), UTF_8),
+               equalTo("org.foo.FooImpl"));
+    assertThat(services.get(1).getServiceInterface(), equalTo("org.bar.Bar"));
+    assertThat(services.get(1).getResource(), equalTo(jarService));
+  }
+
+  @Test
+  public void differentKeyIsNotRead() throws Exception {
+    ContainerLayoutIndex.write(indexFile, KEY, Arrays.asList(simpleModule()));
+
+    assertThat(ContainerLayoutIndex.read(indexFile, "otherKey", servicesFolder).isPresent(), is(false));
+  }
+
+  @Test
+  public void missingIndexIsNotRead() {
+    assertThat(ContainerLayoutIndex.read(indexFile, KEY, servicesFolder).isPresent(), is(false));
+  }
+
+  @Test
+  public void corruptedIndexIsNotRead() throws Exception {
+    ContainerLayoutIndex.write(indexFile, KEY, Arrays.asList(simpleModule()));
+    byte[] content = readAllBytes(indexFile.toPath());
+    write(indexFile.toPath(), Arrays.copyOf(content, content.length - 4));
+
+    assertThat(ContainerLayoutIndex.read(indexFile, KEY, servicesFolder).isPresent(), is(false));
+  }
+
+  @Test
+  public void keyChangesWhenContainerLibChanges() throws Exception {
+    File libFolder = temporaryFolder.newFolder("lib");
+    File jar = new File(libFolder, "mule/foo.jar");
+    jar.getParentFile().mkdirs();
+    write(jar.toPath(), new byte[] {1, 2, 3});
+
+    String key = ContainerLayoutIndex.computeKey("discoverer", libFolder);
+    assertThat(ContainerLayoutIndex.computeKey("discoverer", libFolder), equalTo(key));
+    assertThat(ContainerLayoutIndex.computeKey("otherDiscoverer", libFolder), not(equalTo(key)));
+
+    write(new File(libFolder, "mule/bar.jar").toPath(), new byte[] {1});
+    assertThat(ContainerLayoutIndex.computeKey("discoverer", libFolder), not(equalTo(key)));
+  }
+
+  private MuleModule simpleModule() {
+    return new MuleModule("simple", singleton("org.simple"), emptySet(), emptySet(), emptySet(), emptyList());
+  }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.util.UUID.getUUID;
+import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
+import static org.mule.runtime.core.internal.util.rx.RxUtils.flatMap;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static java.util.Comparator.comparingInt;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.fromFuture;
+
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.el.ExpressionLanguageSession;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.privileged.processor.Scope;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+
+import javax.inject.Inject;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Scope which groups the events it receives by the value of an expression and executes its chain once per group, with the list
+ * of the payloads of the events in the group as payload.
+ * <p>
+ * A group is released when it has {@code maxSize} events or {@code timeout} milliseconds after its first event arrived, whichever
+ * happens first. By default, every event in the group continues with the message returned by the chain. If
+ * {@link #setSplitResult(boolean) splitResult} is set, the chain must return a list with one item per event, and each event gets
+ * the item in its position as payload; the events of a group for which the chain returns anything else fail. Variables set within
+ * the chain are not propagated. If the chain fails, every event in the group fails with the same error.
+ * <p>
+ * If an {@link ObjectStore} is configured, the payloads of the pending groups are kept in it, so that groups pending when the
+ * application stopped abruptly are processed, without the events that contributed to them, when it starts again. Each payload is
+ * kept in its own entry as it arrives, so adding an event to a group doesn't rewrite the ones already in it. Payloads are stored
+ * and removed on an IO thread, since the object store may write them to disk.
+ *
+ * @since 4.6
+ */
+public class AggregatorScope extends AbstractMuleObjectOwner implements Scope {
+
+  private static final Logger LOGGER = getLogger(AggregatorScope.class);
+
+  public static final String AGGREGATOR_INNER_CHAIN_SPAN_NAME_SUFFIX = ":aggregated-chain";
+
+  private static final String DEFAULT_GROUP = "";
+  private static final String STORE_KEY_SEPARATOR = "_";
+
+  @Inject
+  private InitialSpanInfoProvider initialSpanInfoProvider;
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  @Inject
+  private ExpressionManager expressionManager;
+
+  private List<Processor> processors;
+  private MessageProcessorChain nestedChain;
+
+  private String groupExpression;
+  private CompiledExpression compiledGroupExpression;
+  private int maxSize = 100;
+  private long timeout = 1000;
+  private boolean splitResult = false;
+  private ObjectStore<ArrayList<Serializable>> objectStore;
+
+  private Scheduler timer;
+  private Scheduler storeScheduler;
+  private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (processors == null) {
+      throw new InitialisationException(createStaticMessage("One message processor must be configured within 'aggregator'."),
+                                        this);
+    }
+    if (maxSize < 1) {
+      throw new InitialisationException(createStaticMessage("'maxSize' must be greater than 0 in 'aggregator'."), this);
+    }
+
+    nestedChain = buildNewChainWithListOfProcessors(getProcessingStrategy(locator, this), processors,
+                                                    initialSpanInfoProvider
+                                                        .getInitialSpanInfo(this, AGGREGATOR_INNER_CHAIN_SPAN_NAME_SUFFIX));
+    if (groupExpression != null) {
+      compiledGroupExpression = compile(groupExpression, expressionManager);
+    }
+
+    super.initialise();
+
+    timer = schedulerService.cpuLightScheduler();
+    if (objectStore != null) {
+      storeScheduler = schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig()
+          .withName(getLocation().getLocation() + ".aggregator.store"));
+    }
+  }
+
+  @Override
+  public void start() throws MuleException {
+    super.start();
+    if (objectStore != null) {
+      recoverPersistedGroups();
+    }
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    // Don't leave events waiting for a group that would never be released
+    List<CompletableFuture<Void>> released = new ArrayList<>();
+    for (String key : groups.keySet()) {
+      Group group = groups.remove(key);
+      if (group != null) {
+        released.add(release(group));
+      }
+    }
+
+    // The chain must not be stopped while processing the released groups
+    try {
+      allOf(released.toArray(new CompletableFuture[released.size()]))
+          .get(muleContext.getConfiguration().getShutdownTimeout(), MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      LOGGER.warn("Groups released by aggregator at {} did not complete before stopping", getLocation().getLocation());
+    }
+    super.stop();
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    if (timer != null) {
+      timer.stop();
+    }
+    if (storeScheduler != null) {
+      storeScheduler.stop();
+    }
+  }
+
+  @Override
+  public CoreEvent process(CoreEvent event) throws MuleException {
+    return processToApply(event, this);
+  }
+
+  @Override
+  public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return flatMap(publisher, this::processEvent, this);
+  }
+
+  private Mono<CoreEvent> processEvent(CoreEvent event) {
+    final String key;
+    try {
+      key = resolveGroupKey(event);
+    } catch (Exception e) {
+      return error(e);
+    }
+
+    Member member = new Member(event);
+    // A full group is removed from the map while adding its last member, so that following events start a new one
+    groups.compute(key, (k, current) -> {
+      Group group = current == null ? new Group(k) : current;
+      group.add(member);
+      return member.position < maxSize ? group : null;
+    });
+
+    Group group = member.group;
+    onStoreThread(() -> persist(member));
+    if (member.position == maxSize) {
+      release(group);
+    } else if (member.position == 1) {
+      group.timeoutTask = timer.schedule(() -> {
+        if (groups.remove(key, group)) {
+          release(group);
+        }
+      }, timeout, MILLISECONDS);
+    }
+
+    return fromFuture(member.result);
+  }
+
+  private CompletableFuture<Void> release(Group group) {
+    List<Member> members = group.members;
+    if (group.timeoutTask != null) {
+      group.timeoutTask.cancel(false);
+    }
+    group.released = true;
+    onStoreThread(() -> unpersist(group));
+
+    List<Object> payloads = new ArrayList<>(members.size());
+    for (Member member : members) {
+      payloads.add(member.event.getMessage().getPayload().getValue());
+    }
+
+    CompletableFuture<Void> processed = new CompletableFuture<>();
+    CoreEvent groupEvent = CoreEvent.builder(members.get(0).event).message(Message.of(payloads)).build();
+    Mono.from(processWithChildContext(groupEvent, nestedChain, ofNullable(getLocation())))
+        .subscribe(result -> {
+          processed.complete(null);
+          complete(members, result);
+        }, e -> {
+          processed.complete(null);
+          fail(members, e);
+        });
+    return processed;
+  }
+
+  private void complete(List<Member> members, CoreEvent result) {
+    Message resultMessage = result.getMessage();
+    Object resultPayload = resultMessage.getPayload().getValue();
+    if (splitResult && !(resultPayload instanceof List && ((List<?>) resultPayload).size() == members.size())) {
+      String message = format("The chain of aggregator at %s must return a list with one item per event to split its result, "
+          + "but returned %s for a group of %d events", getLocation().getLocation(), describe(resultPayload), members.size());
+      fail(members, new MuleRuntimeException(createStaticMessage(message)));
+      return;
+    }
+
+    for (int i = 0; i < members.size(); ++i) {
+      Member member = members.get(i);
+      Message message = splitResult
+          ? Message.builder(resultMessage).payload(TypedValue.of(((List<?>) resultPayload).get(i))).build()
+          : resultMessage;
+      CoreEvent memberResult = CoreEvent.builder(member.event).message(message).build();
+      dispatch(() -> member.result.complete(memberResult), i == members.size() - 1);
+    }
+  }
+
+  private void fail(List<Member> members, Throwable e) {
+    for (int i = 0; i < members.size(); ++i) {
+      Member member = members.get(i);
+      Throwable error = e;
+      if (e instanceof MessagingException) {
+        MessagingException original = (MessagingException) e;
+        CoreEvent failedEvent = original.getEvent().getError()
+            .map(err -> CoreEvent.builder(member.event).error(err).build())
+            .orElse(member.event);
+        error = new MessagingException(failedEvent, original);
+      }
+      Throwable memberError = error;
+      dispatch(() -> member.result.completeExceptionally(memberError), i == members.size() - 1);
+    }
+  }
+
+  private static String describe(Object payload) {
+    if (payload instanceof List) {
+      return "a list of " + ((List<?>) payload).size() + " items";
+    }
+    return payload == null ? "null" : "a " + payload.getClass().getName();
+  }
+
+  /**
+   * Each member continues its flow on the thread its result is completed on, so all of them but the last one are completed on
+   * the timer threads, instead of one after the other on the thread the chain finished on.
+   */
+  private void dispatch(Runnable completion, boolean last) {
+    if (!last) {
+      try {
+        timer.execute(completion);
+        return;
+      } catch (RejectedExecutionException e) {
+        // Already disposed, complete it in this thread
+      }
+    }
+    completion.run();
+  }
+
+  private void onStoreThread(Runnable task) {
+    if (objectStore == null) {
+      return;
+    }
+    try {
+      storeScheduler.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Already disposed, run it in this thread
+      task.run();
+    }
+  }
+
+  private String resolveGroupKey(CoreEvent event) {
+    if (compiledGroupExpression == null) {
+      return DEFAULT_GROUP;
+    }
+
+    try (ExpressionLanguageSession session = expressionManager.openSession(event.asBindingContext())) {
+      return (String) session.evaluate(compiledGroupExpression, STRING).getValue();
+    }
+  }
+
+  /**
+   * Called on the store thread after the member is added to its group, so it may run concurrently with the release of the
+   * group. Each check of {@link Group#released} after storing pairs with it being set before unpersisting, so that no entry is
+   * left behind.
+   */
+  private void persist(Member member) {
+    Group group = member.group;
+    if (objectStore == null || !group.persistable || group.released) {
+      return;
+    }
+
+    Object payload = member.event.getMessage().getPayload().getValue();
+    if (!(payload instanceof Serializable)) {
+      LOGGER.debug("Group '{}' of aggregator at {} has a payload which is not Serializable, not persisting it", group.key,
+                   getLocation().getLocation());
+      group.persistable = false;
+      unpersist(group);
+      return;
+    }
+
+    ArrayList<Serializable> payloads = new ArrayList<>(1);
+    payloads.add((Serializable) payload);
+    String memberKey = group.storeKey(member.position);
+    try {
+      objectStore.store(memberKey, payloads);
+      if (group.released || !group.persistable) {
+        remove(memberKey);
+      }
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not persist group '" + group.key + "' of aggregator at " + getLocation().getLocation(), e);
+    }
+  }
+
+  private void unpersist(Group group) {
+    if (objectStore == null) {
+      return;
+    }
+
+    try {
+      for (int position = 1; position <= group.size; ++position) {
+        remove(group.storeKey(position));
+      }
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not remove persisted group '" + group.key + "' of aggregator at " + getLocation().getLocation(), e);
+    }
+  }
+
+  private void remove(String key) throws ObjectStoreException {
+    try {
+      if (objectStore.contains(key)) {
+        objectStore.remove(key);
+      }
+    } catch (ObjectDoesNotExistException e) {
+      // Removed concurrently by the member or by the release of the group
+    }
+  }
+
+  private void recoverPersistedGroups() throws ObjectStoreException {
+    // Entries are keyed by the group and the position of the member within it
+    Map<String, List<String>> keysByGroup = new HashMap<>();
+    for (String key : objectStore.allKeys()) {
+      int separator = key.lastIndexOf(STORE_KEY_SEPARATOR);
+      keysByGroup.computeIfAbsent(separator < 0 ? key : key.substring(0, separator), k -> new ArrayList<>()).add(key);
+    }
+
+    for (List<String> keys : keysByGroup.values()) {
+      keys.sort(comparingInt(AggregatorScope::positionOf));
+      ArrayList<Serializable> payloads = new ArrayList<>();
+      for (String key : keys) {
+        payloads.addAll(objectStore.remove(key));
+      }
+      LOGGER.info("Processing {} payloads of a group recovered by aggregator at {}", payloads.size(),
+                  getLocation().getLocation());
+
+      CoreEvent groupEvent = CoreEvent.builder(create(muleContext.getUniqueIdString(), muleContext.getId(), getLocation(),
+                                                      NullExceptionHandler.getInstance()))
+          .message(Message.of(payloads))
+          .build();
+      Mono.from(processWithChildContext(groupEvent, nestedChain, ofNullable(getLocation())))
+          .subscribe(result -> {
+          }, e -> LOGGER.error("Error processing group recovered by aggregator at " + getLocation().getLocation(), e));
+    }
+  }
+
+  private static int positionOf(String key) {
+    int separator = key.lastIndexOf(STORE_KEY_SEPARATOR);
+    try {
+      return separator < 0 ? 0 : parseInt(key.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  public void setMessageProcessors(List<Processor> processors) {
+    this.processors = processors;
+  }
+
+  /**
+   * @param groupExpression the expression to evaluate on each event to get the group it belongs to. If not set, all the events
+   *                        belong to the same group.
+   */
+  public void setGroupExpression(String groupExpression) {
+    this.groupExpression = groupExpression;
+  }
+
+  /**
+   * @param maxSize the amount of events which causes a group to be released. Default value is 100.
+   */
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param timeout the milliseconds after which a group is released even if it is not full. Default value is 1000.
+   */
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  /**
+   * @param splitResult whether the chain returns a list with the result of each event of the group, in the order of the list of
+   *                    payloads, instead of a single result for all of them. Default value is false.
+   */
+  public void setSplitResult(boolean splitResult) {
+    this.splitResult = splitResult;
+  }
+
+  public void setObjectStore(ObjectStore<ArrayList<Serializable>> objectStore) {
+    this.objectStore = objectStore;
+  }
+
+  @Override
+  protected List<Object> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+
+  private static final class Member {
+
+    private final CoreEvent event;
+    private final CompletableFuture<CoreEvent> result = new CompletableFuture<>();
+    private Group group;
+    private int position;
+
+    private Member(CoreEvent event) {
+      this.event = event;
+    }
+  }
+
+  private final class Group {
+
+    private final String key;
+    // Each group has its own entry in the object store, so releasing a group doesn't remove the next one for the same key
+    private final String storeKey = getUUID();
+    private final List<Member> members = new ArrayList<>();
+    private volatile ScheduledFuture<?> timeoutTask;
+    // Amount of members, readable out of ConcurrentMap#compute
+    private volatile int size;
+    private volatile boolean released;
+    private volatile boolean persistable = true;
+
+    private Group(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Called within {@link ConcurrentMap#compute} for the key of this group, so members are never added concurrently nor after
+     * the group is removed from the map to be released.
+     */
+    private void add(Member member) {
+      members.add(member);
+      member.group = this;
+      member.position = members.size();
+      size = members.size();
+    }
+
+    private String storeKey(int position) {
+      return storeKey + STORE_KEY_SEPARATOR + position;
+    }
+  }
+}
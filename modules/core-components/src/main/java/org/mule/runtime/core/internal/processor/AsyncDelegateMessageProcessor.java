@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.processor;
 
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.notification.AsyncMessageNotification.PROCESS_ASYNC_COMPLETE;
 import static org.mule.runtime.api.notification.AsyncMessageNotification.PROCESS_ASYNC_SCHEDULED;
 import static org.mule.runtime.api.notification.EnrichedNotificationInfo.createInfo;
@@ -60,6 +61,8 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
 import org.mule.runtime.core.internal.construct.FromFlowRejectedExecutionException;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
+import org.mule.runtime.core.internal.util.queue.QueueFileProvider;
+import org.mule.runtime.core.internal.util.queue.SpillingEventQueue;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
 import org.mule.runtime.core.privileged.event.PrivilegedEvent;
@@ -68,10 +71,9 @@ import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChainBuilder;
 import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
 
+import java.io.File;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -93,6 +95,9 @@ import reactor.core.publisher.Flux;
 public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     implements Scope, Initialisable, Startable, Stoppable {
 
+  static final String SPILL_DIRECTORY = "async-spill";
+  static final long DEFAULT_MAX_SPILL_SIZE = 100 * 1024 * 1024;
+
   @Inject
   private MuleContext muleContext;
   @Inject
@@ -116,6 +121,9 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
   private Scheduler reactorScheduler;
   protected String name;
   private Integer maxConcurrency;
+  private Integer maxInMemoryEvents;
+  private long maxSpillSize = DEFAULT_MAX_SPILL_SIZE;
+  private boolean discardSpilledOnStart;
 
   public AsyncDelegateMessageProcessor(MessageProcessorChainBuilder delegate) {
     this.delegateBuilder = delegate;
@@ -157,13 +165,31 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
 
     initialiseIfNeeded(delegate, getMuleContext());
 
+    if (maxInMemoryEvents != null && maxInMemoryEvents < 1) {
+      throw new InitialisationException(createStaticMessage("'maxInMemoryEvents' must be greater than 0"), this);
+    }
+
+    final String location = name != null ? name : getLocation().getLocation();
     backpressureHandler = new QueueBackpressureHandler(schedulerService, () -> muleContext.getSchedulerBaseConfig(),
-                                                       this::dispatchEvent, name != null ? name : getLocation().getLocation());
+                                                       this::dispatchEvent, location, () -> createEventQueue(location),
+                                                       discardSpilledOnStart);
 
     initialiseIfNeeded(processingStrategy, muleContext);
     super.initialise();
   }
 
+  private SpillingEventQueue createEventQueue(String location) {
+    if (maxInMemoryEvents == null) {
+      return new SpillingEventQueue();
+    }
+
+    File spillDirectory = new File(muleContext.getConfiguration().getWorkingDirectory(), SPILL_DIRECTORY);
+    spillDirectory.mkdirs();
+    return new SpillingEventQueue(maxInMemoryEvents, maxSpillSize,
+                                  new QueueFileProvider(spillDirectory, location.replaceAll("[^\\w.-]", "_")),
+                                  muleContext, getLocation());
+  }
+
   /**
    * A fallback method for creating a {@link ProcessingStrategyFactory}.
    *
@@ -304,30 +330,123 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     this.maxConcurrency = maxConcurrency;
   }
 
+  /**
+   * Enables spilling the events that can't be dispatched right away to disk, keeping at most this amount of them in memory.
+   *
+   * @param maxInMemoryEvents the amount of events waiting to be dispatched to keep in memory
+   * @since 4.6
+   */
+  public void setMaxInMemoryEvents(Integer maxInMemoryEvents) {
+    this.maxInMemoryEvents = maxInMemoryEvents;
+  }
+
+  /**
+   * @param maxSpillSize the maximum size in bytes of the file the events are spilled to. Once reached, the events are kept in
+   *                     memory.
+   * @since 4.6
+   */
+  public void setMaxSpillSize(long maxSpillSize) {
+    this.maxSpillSize = maxSpillSize;
+  }
+
+  /**
+   * @param discardSpilledOnStart whether the events spilled before a restart are discarded instead of dispatched.
+   * @since 4.6
+   */
+  public void setDiscardSpilledOnStart(boolean discardSpilledOnStart) {
+    this.discardSpilledOnStart = discardSpilledOnStart;
+  }
+
+  /**
+   * @return the amount of events spilled to disk since this scope was started.
+   * @since 4.6
+   */
+  public long getSpilledEventsCount() {
+    return backpressureHandler == null ? 0 : backpressureHandler.getSpilledCount();
+  }
+
+  /**
+   * @return the amount of events read back from disk since this scope was started.
+   * @since 4.6
+   */
+  public long getDrainedEventsCount() {
+    return backpressureHandler == null ? 0 : backpressureHandler.getDrainedCount();
+  }
+
+  /**
+   * @return the amount of events currently spilled to disk.
+   * @since 4.6
+   */
+  public int getPendingSpilledEvents() {
+    return backpressureHandler == null ? 0 : backpressureHandler.getPendingSpilled();
+  }
+
   @Override
   protected List<Processor> getOwnedObjects() {
     // Lifecycle of inner objects is already handled by this class' lifecycle methods
     return emptyList();
   }
 
-  private static class QueueBackpressureHandler implements Stoppable {
+  private static class QueueBackpressureHandler implements Startable, Stoppable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueBackpressureHandler.class);
 
-    private final BlockingQueue<CoreEvent> asyncQueue;
+    private final SchedulerService schedulerService;
+    private final Supplier<SchedulerConfig> schedulerConfigSupplier;
+    private final Supplier<SpillingEventQueue> queueFactory;
+    private final boolean discardSpilledOnStart;
     private final Consumer<CoreEvent> eventDispatcher;
+    private final String location;
 
-    private final LazyValue<Scheduler> queueDispatcherScheduler;
+    // Recreated on each start, since stopping the scheduler makes it reject any further task
+    private volatile LazyValue<Scheduler> queueDispatcherScheduler;
     private final AtomicReference<Future> executing = new AtomicReference<>();
 
+    // Events queued while stopped are kept on the heap, and moved to the queue created on start
+    private volatile SpillingEventQueue asyncQueue = new SpillingEventQueue();
+    private volatile boolean started;
+
     public QueueBackpressureHandler(SchedulerService schedulerService, Supplier<SchedulerConfig> schedulerConfigSupplier,
-                                    Consumer<CoreEvent> eventDispatcher, String location) {
-      this.asyncQueue = new LinkedBlockingQueue<>();
+                                    Consumer<CoreEvent> eventDispatcher, String location,
+                                    Supplier<SpillingEventQueue> queueFactory, boolean discardSpilledOnStart) {
+      this.schedulerService = schedulerService;
+      this.schedulerConfigSupplier = schedulerConfigSupplier;
+      this.queueFactory = queueFactory;
+      this.discardSpilledOnStart = discardSpilledOnStart;
       this.eventDispatcher = eventDispatcher;
+      this.location = location;
+    }
 
-      this.queueDispatcherScheduler = new LazyValue(() -> {
+    @Override
+    public void start() {
+      queueDispatcherScheduler = new LazyValue<>(() -> {
         final SchedulerConfig schedulerConfig = schedulerConfigSupplier.get().withName(location + " - queue dispatcher")
             .withMaxConcurrentTasks(1);
         return schedulerService.customScheduler(schedulerConfig);
       });
+      SpillingEventQueue queuedWhileStopped = asyncQueue;
+      asyncQueue = queueFactory.get();
+
+      int spilled = asyncQueue.getSpilledSize();
+      if (spilled > 0) {
+        if (discardSpilledOnStart) {
+          asyncQueue.discardSpilled();
+          LOGGER.warn("Discarded {} events spilled by async '{}' before it was restarted", spilled, location);
+        } else {
+          LOGGER.info("Recovered {} events spilled by async '{}' before it was restarted", spilled, location);
+        }
+      }
+
+      CoreEvent queued;
+      while ((queued = queuedWhileStopped.peek()) != null) {
+        asyncQueue.offer(queued);
+        queuedWhileStopped.remove();
+      }
+
+      started = true;
+      if (!asyncQueue.isEmpty()) {
+        startDispatching();
+      }
     }
 
     private Future dispatchTask() {
@@ -337,10 +456,10 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
             final CoreEvent queuedEvent = asyncQueue.peek();
             if (queuedEvent != null) {
               eventDispatcher.accept(queuedEvent);
-              asyncQueue.remove(queuedEvent);
+              asyncQueue.remove();
             } else {
               synchronized (executing) {
-                if (asyncQueue.size() == 0) {
+                if (asyncQueue.isEmpty()) {
                   executing.set(null);
                   return;
                 }
@@ -356,7 +475,12 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
 
     public void handleBackpressure(CoreEvent event) {
       asyncQueue.offer(event);
+      if (started) {
+        startDispatching();
+      }
+    }
 
+    private void startDispatching() {
       synchronized (executing) {
         if (executing.get() == null) {
           executing.set(dispatchTask());
@@ -364,11 +488,32 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
       }
     }
 
+    long getSpilledCount() {
+      return asyncQueue.getSpilledCount();
+    }
+
+    long getDrainedCount() {
+      return asyncQueue.getDrainedCount();
+    }
+
+    int getPendingSpilled() {
+      return asyncQueue.getSpilledSize();
+    }
+
     @Override
     public void stop() {
-      queueDispatcherScheduler.ifComputed(Scheduler::stop);
+      started = false;
+      if (queueDispatcherScheduler != null) {
+        queueDispatcherScheduler.ifComputed(Scheduler::stop);
+      }
+      synchronized (executing) {
+        executing.set(null);
+      }
 
-      asyncQueue.clear();
+      // Spilled events are kept, to be dispatched when started again
+      SpillingEventQueue stopped = asyncQueue;
+      asyncQueue = new SpillingEventQueue();
+      stopped.close();
     }
   }
 
@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
+import static org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy.SECURE_HASH_EXPR_FORMAT;
+import static org.mule.runtime.core.internal.util.rx.RxUtils.flatMap;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.fromCallable;
+import static reactor.core.publisher.Mono.fromFuture;
+import static reactor.core.publisher.Mono.just;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.el.ExpressionLanguageSession;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.util.rx.ConditionalExecutorServiceDecorator;
+import org.mule.runtime.core.privileged.processor.Scope;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Scope which caches the message resulting from executing its chain, keyed by the value of an expression evaluated on the
+ * incoming event.
+ * <p>
+ * On a hit, the cached payload and attributes replace the ones of the incoming message and the chain is not executed. On a miss,
+ * only one execution of the chain per key is in flight at any time: events with the same key arriving while it runs wait for its
+ * result without blocking a thread, and are served from it once it completes. If that execution fails, the waiting events fail
+ * with the same error. If its result cannot be cached, each waiting event executes the chain on its own.
+ * <p>
+ * Events for which the key expression returns {@code null} bypass the cache. So do events with a non repeatable stream as
+ * payload when no key expression is set, since hashing the payload to build the default key would consume it.
+ * <p>
+ * Repeatable streams returned by the chain are consumed and stored as bytes or as a list, so they can be replayed on later hits.
+ * Results with a payload or attributes that cannot be stored (non repeatable streams or non {@link Serializable} values), or
+ * whose serialized form is bigger than {@link #setMaxEntrySize(Integer) maxEntrySize} bytes, are returned but not cached.
+ * Variables set within the chain are not cached. Results are consumed and stored on an IO thread, since the object store may
+ * write them to disk.
+ *
+ * @since 4.6
+ */
+public class CacheScope extends AbstractMuleObjectOwner implements Scope {
+
+  private static final Logger LOGGER = getLogger(CacheScope.class);
+
+  public static final String CACHE_SCOPE_INNER_CHAIN_SPAN_NAME_SUFFIX = ":cached-chain";
+
+  private static final String DEFAULT_KEY_EXPRESSION = format(SECURE_HASH_EXPR_FORMAT, "SHA-256");
+
+  private static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+  @Inject
+  private InitialSpanInfoProvider initialSpanInfoProvider;
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  private ExpressionManager expressionManager;
+  private ObjectStoreManager objectStoreManager;
+  private Scheduler ioScheduler;
+  private reactor.core.scheduler.Scheduler storeScheduler;
+
+  private List<Processor> processors;
+  private MessageProcessorChain nestedChain;
+
+  private String keyExpression;
+  private CompiledExpression compiledKeyExpression;
+  private ObjectStore<CachedResponse> objectStore;
+  private boolean ownedObjectStore;
+  private boolean persistent = false;
+  private Long entryTtl;
+  private TimeUnit entryTtlUnit = SECONDS;
+  private Integer maxEntries;
+  private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+  private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (processors == null) {
+      throw new InitialisationException(createStaticMessage("One message processor must be configured within 'cache'."), this);
+    }
+
+    nestedChain = buildNewChainWithListOfProcessors(getProcessingStrategy(locator, this), processors,
+                                                    initialSpanInfoProvider
+                                                        .getInitialSpanInfo(this, CACHE_SCOPE_INNER_CHAIN_SPAN_NAME_SUFFIX));
+    compiledKeyExpression = compile(keyExpression != null ? keyExpression : DEFAULT_KEY_EXPRESSION, expressionManager);
+
+    if (objectStore == null) {
+      ownedObjectStore = true;
+      objectStore = objectStoreManager.createObjectStore(getObjectStoreName(), createObjectStoreSettings());
+      initialiseIfNeeded(objectStore, true, muleContext);
+    }
+
+    super.initialise();
+
+    ioScheduler = schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig()
+        .withName(getLocation().getLocation() + ".cache.store"));
+    // Within a transaction the result is stored in the thread of the event, since the transaction is bound to it
+    storeScheduler = fromExecutorService(new ConditionalExecutorServiceDecorator(ioScheduler, s -> isTransactionActive()));
+  }
+
+  private ObjectStoreSettings createObjectStoreSettings() {
+    ObjectStoreSettings.Builder settings = ObjectStoreSettings.builder().persistent(persistent);
+    if (entryTtl != null) {
+      settings.entryTtl(entryTtlUnit.toMillis(entryTtl))
+          .expirationInterval(Math.max(1000L, entryTtlUnit.toMillis(entryTtl) / 10));
+    }
+    if (maxEntries != null) {
+      settings.maxEntries(maxEntries);
+      if (entryTtl == null) {
+        settings.expirationInterval(SECONDS.toMillis(10));
+      }
+    }
+    return settings.build();
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    if (ioScheduler != null) {
+      ioScheduler.stop();
+      ioScheduler = null;
+    }
+    if (ownedObjectStore && objectStore != null) {
+      try {
+        objectStoreManager.disposeStore(getObjectStoreName());
+      } catch (ObjectStoreException e) {
+        LOGGER.warn("Error disposing object store of cache scope at " + getLocation().getLocation(), e);
+      }
+      objectStore = null;
+    }
+  }
+
+  @Override
+  public CoreEvent process(CoreEvent event) throws MuleException {
+    return processToApply(event, this);
+  }
+
+  @Override
+  public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return flatMap(publisher, this::processEvent, this);
+  }
+
+  private Mono<CoreEvent> processEvent(CoreEvent event) {
+    if (keyExpression == null && isNonRepeatable(event.getMessage().getPayload().getValue())) {
+      return bypass(event);
+    }
+
+    final String key;
+    try {
+      key = resolveKey(event);
+    } catch (Exception e) {
+      return error(e);
+    }
+    if (key == null) {
+      return bypass(event);
+    }
+
+    CachedResponse cached = lookup(key);
+    if (cached != null) {
+      hits.increment();
+      return just(cached.toEvent(event));
+    }
+
+    CompletableFuture<CachedResponse> execution = new CompletableFuture<>();
+    CompletableFuture<CachedResponse> currentExecution = inFlight.putIfAbsent(key, execution);
+    if (currentExecution != null) {
+      coalesced.increment();
+      // A dependent future, so that cancelling this event doesn't cancel the execution the others are waiting for
+      return fromFuture(currentExecution.thenApply(response -> response))
+          .map(response -> response.toEvent(event))
+          .onErrorMap(e -> forEvent(e, event))
+          // The result cannot be cached or the execution was cancelled, so execute the chain for this event
+          .switchIfEmpty(defer(() -> bypass(event)));
+    }
+
+    misses.increment();
+    return execute(event)
+        .flatMap(result -> fromCallable(() -> {
+          completeExecution(key, execution, result);
+          return result;
+        }).subscribeOn(storeScheduler))
+        .doOnError(execution::completeExceptionally)
+        .doFinally(signal -> {
+          inFlight.remove(key, execution);
+          // Lets the waiting events execute the chain if this execution was cancelled
+          execution.complete(null);
+        });
+  }
+
+  private Mono<CoreEvent> bypass(CoreEvent event) {
+    misses.increment();
+    return execute(event);
+  }
+
+  private Mono<CoreEvent> execute(CoreEvent event) {
+    return Mono.from(processWithChildContext(event, nestedChain, ofNullable(getLocation())));
+  }
+
+  private static boolean isNonRepeatable(Object payload) {
+    return payload instanceof InputStream || payload instanceof Iterator;
+  }
+
+  /**
+   * @return the error of the execution a waiting event was coalesced into, with the waiting event as the failed one
+   */
+  private static Throwable forEvent(Throwable e, CoreEvent event) {
+    if (!(e instanceof MessagingException)) {
+      return e;
+    }
+
+    MessagingException original = (MessagingException) e;
+    CoreEvent failedEvent = original.getEvent().getError()
+        .map(err -> CoreEvent.builder(event).error(err).build())
+        .orElse(event);
+    return new MessagingException(failedEvent, original);
+  }
+
+  private void completeExecution(String key, CompletableFuture<CachedResponse> execution, CoreEvent result) {
+    CachedResponse response = CachedResponse.from(result.getMessage(), maxEntrySize);
+    if (response == null || exceedsMaxEntrySize(response)) {
+      execution.complete(null);
+      return;
+    }
+
+    try {
+      if (objectStore.contains(key)) {
+        objectStore.remove(key);
+      }
+      objectStore.store(key, response);
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not store result of cache scope at " + getLocation().getLocation(), e);
+    }
+    execution.complete(response);
+  }
+
+  private boolean exceedsMaxEntrySize(CachedResponse response) {
+    SizeLimitedOutputStream out = new SizeLimitedOutputStream(maxEntrySize);
+    try {
+      muleContext.getObjectSerializer().getInternalProtocol().serialize(response, out);
+      return false;
+    } catch (Exception e) {
+      if (!out.exceeded) {
+        LOGGER.debug("Could not serialize result of cache scope at " + getLocation().getLocation(), e);
+      }
+      return true;
+    }
+  }
+
+  private CachedResponse lookup(String key) {
+    try {
+      return objectStore.contains(key) ? objectStore.retrieve(key) : null;
+    } catch (ObjectDoesNotExistException e) {
+      // Expired between the check and the retrieval
+      return null;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not retrieve cached result of cache scope at " + getLocation().getLocation(), e);
+      return null;
+    }
+  }
+
+  private String resolveKey(CoreEvent event) {
+    try (ExpressionLanguageSession session = expressionManager.openSession(event.asBindingContext())) {
+      return (String) session.evaluate(compiledKeyExpression, STRING).getValue();
+    }
+  }
+
+  private String getObjectStoreName() {
+    return getLocation().getLocation().replace('/', '.') + ".cache";
+  }
+
+  /**
+   * @return the amount of events served from the cache
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the amount of events for which the chain was executed
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the amount of events which waited for an execution of the chain already in flight for the same key
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  public void setMessageProcessors(List<Processor> processors) {
+    this.processors = processors;
+  }
+
+  public void setKeyExpression(String keyExpression) {
+    this.keyExpression = keyExpression;
+  }
+
+  public void setObjectStore(ObjectStore<CachedResponse> objectStore) {
+    this.objectStore = objectStore;
+  }
+
+  public void setPersistent(boolean persistent) {
+    this.persistent = persistent;
+  }
+
+  public void setEntryTtl(Long entryTtl) {
+    this.entryTtl = entryTtl;
+  }
+
+  public void setEntryTtlUnit(TimeUnit entryTtlUnit) {
+    this.entryTtlUnit = entryTtlUnit;
+  }
+
+  public void setMaxEntries(Integer maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * @param maxEntrySize the maximum size in bytes of the serialized form of a cached result. Defaults to 1 MB.
+   */
+  public void setMaxEntrySize(Integer maxEntrySize) {
+    this.maxEntrySize = maxEntrySize;
+  }
+
+  @Inject
+  public void setExpressionManager(ExpressionManager expressionManager) {
+    this.expressionManager = expressionManager;
+  }
+
+  @Inject
+  @Named(OBJECT_STORE_MANAGER)
+  public void setObjectStoreManager(ObjectStoreManager objectStoreManager) {
+    this.objectStoreManager = objectStoreManager;
+  }
+
+  @Override
+  protected List<Object> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+
+  /**
+   * Discards what is written to it, failing once more than a given amount of bytes has been written.
+   */
+  private static final class SizeLimitedOutputStream extends OutputStream {
+
+    private final long maxSize;
+    private long size;
+    private boolean exceeded;
+
+    private SizeLimitedOutputStream(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      count(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      count(len);
+    }
+
+    private void count(int len) throws IOException {
+      size += len;
+      if (size > maxSize) {
+        exceeded = true;
+        throw new IOException("Cached result is bigger than " + maxSize + " bytes");
+      }
+    }
+  }
+
+  /**
+   * The payload and attributes of a message resulting from the chain of a {@link CacheScope}.
+   *
+   * @since 4.6
+   */
+  public static final class CachedResponse implements Serializable {
+
+    private static final long serialVersionUID = -2405843174466393640L;
+
+    private final Serializable payload;
+    private final DataType payloadDataType;
+    private final Serializable attributes;
+    private final DataType attributesDataType;
+
+    private CachedResponse(Serializable payload, DataType payloadDataType, Serializable attributes,
+                           DataType attributesDataType) {
+      this.payload = payload;
+      this.payloadDataType = payloadDataType;
+      this.attributes = attributes;
+      this.attributesDataType = attributesDataType;
+    }
+
+    /**
+     * Consumes repeatable streams in the message so that they can be stored.
+     *
+     * @param maxStreamSize the maximum amount of bytes to consume from a stream payload
+     * @return the response to cache, or {@code null} if the message has values that cannot be stored
+     */
+    static CachedResponse from(Message message, int maxStreamSize) {
+      TypedValue<Object> payload = message.getPayload();
+      DataType payloadDataType = payload.getDataType();
+      Object payloadValue = payload.getValue();
+
+      if (payloadValue instanceof CursorStreamProvider) {
+        payloadValue = toByteArray((CursorStreamProvider) payloadValue, maxStreamSize);
+        if (payloadValue == null) {
+          return null;
+        }
+        payloadDataType = DataType.builder(payloadDataType).type(byte[].class).build();
+      } else if (payloadValue instanceof CursorIteratorProvider) {
+        payloadValue = toList((CursorIteratorProvider) payloadValue);
+        if (payloadValue == null) {
+          return null;
+        }
+        payloadDataType = payloadDataType instanceof CollectionDataType
+            ? DataType.builder(payloadDataType).collectionType(ArrayList.class)
+                .itemType(((CollectionDataType) payloadDataType).getItemDataType().getType())
+                .itemMediaType(((CollectionDataType) payloadDataType).getItemDataType().getMediaType())
+                .build()
+            : DataType.builder(payloadDataType).type(ArrayList.class).build();
+      }
+
+      Object attributesValue = message.getAttributes().getValue();
+      if (!isStorable(payloadValue) || !isStorable(attributesValue)) {
+        return null;
+      }
+
+      return new CachedResponse((Serializable) payloadValue, payloadDataType, (Serializable) attributesValue,
+                                message.getAttributes().getDataType());
+    }
+
+    private static boolean isStorable(Object value) {
+      return value == null || value instanceof Serializable;
+    }
+
+    private static byte[] toByteArray(CursorStreamProvider provider, int maxSize) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8 * 1024];
+      try (InputStream cursor = provider.openCursor()) {
+        int read;
+        while ((read = cursor.read(buffer)) != -1) {
+          if (bytes.size() + read > maxSize) {
+            return null;
+          }
+          bytes.write(buffer, 0, read);
+        }
+      } catch (IOException e) {
+        return null;
+      }
+      return bytes.toByteArray();
+    }
+
+    private static ArrayList<Object> toList(CursorIteratorProvider provider) {
+      ArrayList<Object> items = new ArrayList<>();
+      try (CursorIterator<?> cursor = provider.openCursor()) {
+        while (cursor.hasNext()) {
+          Object item = cursor.next();
+          if (!isStorable(item)) {
+            return null;
+          }
+          items.add(item);
+        }
+      } catch (IOException e) {
+        return null;
+      }
+      return items;
+    }
+
+    /**
+     * @param event the event to replace the message of
+     * @return a copy of {@code event} with the cached payload and attributes
+     */
+    CoreEvent toEvent(CoreEvent event) {
+      return CoreEvent.builder(event)
+          .message(Message.builder()
+              .payload(new TypedValue<>(payload, payloadDataType))
+              .attributes(new TypedValue<>(attributes, attributesDataType))
+              .build())
+          .build();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free rate and concurrency limits for the events of a {@link ThrottleScope} with the same key.
+ * <p>
+ * The rate is limited with a token bucket, implemented as the time at which the bucket would be full again: reserving a permit
+ * moves that time forward one interval, and the caller has to wait for as long as that time is ahead of the current one by more
+ * than the burst allows. The concurrency is limited with a counter of permits in use plus a queue of {@link Waiter}s, which
+ * are handed the permits released by other events.
+ *
+ * @since 4.6
+ */
+final class ThrottleBucket {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final int maxConcurrency;
+
+  private final AtomicLong theoreticalArrival;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param maxRate        permits per second. {@code 0} for no rate limit.
+   * @param burst          the amount of permits that may be reserved at once without waiting
+   * @param maxConcurrency the amount of permits that may be in use at once. {@code 0} for no concurrency limit.
+   * @param now            the current value of {@link System#nanoTime()}
+   */
+  ThrottleBucket(int maxRate, int burst, int maxConcurrency, long now) {
+    this.intervalNanos = maxRate > 0 ? max(1, SECONDS.toNanos(1) / maxRate) : 0;
+    this.toleranceNanos = (max(1, burst) - 1) * intervalNanos;
+    this.maxConcurrency = maxConcurrency;
+    this.theoreticalArrival = new AtomicLong(now);
+  }
+
+  /**
+   * Reserves a permit from the rate limit.
+   *
+   * @param now          the current value of {@link System#nanoTime()}
+   * @param maxWaitNanos the maximum time the caller is willing to wait for the permit, or a negative value to wait indefinitely
+   * @return the nanoseconds the caller has to wait before using the permit, or {@code -1} if that is longer than
+   *         {@code maxWaitNanos}, in which case nothing is reserved
+   */
+  long reserve(long now, long maxWaitNanos) {
+    if (intervalNanos == 0) {
+      return 0;
+    }
+
+    while (true) {
+      long current = theoreticalArrival.get();
+      long start = current - now > 0 ? current : now;
+      long wait = max(0, start - now - toleranceNanos);
+      if (maxWaitNanos >= 0 && wait > maxWaitNanos) {
+        return -1;
+      }
+      if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+        return wait;
+      }
+    }
+  }
+
+  /**
+   * Gives back a permit {@link #reserve(long, long) reserved} by an event which was rejected afterwards.
+   */
+  void unreserve() {
+    if (intervalNanos > 0) {
+      theoreticalArrival.addAndGet(-intervalNanos);
+    }
+  }
+
+  /**
+   * Takes a concurrency permit if one is available, otherwise queues the given waiter to be {@link Waiter#grant() granted} one
+   * when released.
+   *
+   * @return {@code true} if the permit was taken right away
+   */
+  boolean acquireOrWait(Waiter waiter) {
+    if (tryAcquire()) {
+      return true;
+    }
+
+    waiters.add(waiter);
+    // A permit may have been released after the failed attempt and before the waiter was queued
+    if (tryAcquire()) {
+      handOverOrRelease();
+    }
+    return false;
+  }
+
+  /**
+   * Removes a waiter which {@link Waiter#claim() claimed} itself, so it is not granted a permit.
+   */
+  void cancel(Waiter waiter) {
+    waiters.remove(waiter);
+  }
+
+  /**
+   * Releases a concurrency permit, handing it to the oldest waiter if there is any.
+   */
+  void release() {
+    if (maxConcurrency <= 0) {
+      return;
+    }
+
+    if (!handOver()) {
+      inFlight.decrementAndGet();
+      // A waiter may have been queued after the hand over attempt and before the permit was released
+      if (!waiters.isEmpty() && tryAcquire()) {
+        handOverOrRelease();
+      }
+    }
+  }
+
+  private boolean tryAcquire() {
+    if (maxConcurrency <= 0) {
+      return true;
+    }
+
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxConcurrency) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private void handOverOrRelease() {
+    if (!handOver()) {
+      release();
+    }
+  }
+
+  private boolean handOver() {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.grant()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the amount of concurrency permits in use
+   */
+  int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * An event waiting for a concurrency permit. Either the {@link ThrottleBucket} {@link #grant() grants} it a permit or its
+   * timeout or cancellation {@link #claim() claims} it, whichever happens first.
+   */
+  static final class Waiter {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CLAIMED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final Runnable onPermit;
+
+    /**
+     * @param onPermit called when a permit is granted to this waiter. Must not block.
+     */
+    Waiter(Runnable onPermit) {
+      this.onPermit = onPermit;
+    }
+
+    /**
+     * @return {@code true} if this waiter was neither granted a permit nor claimed before
+     */
+    boolean claim() {
+      return state.compareAndSet(WAITING, CLAIMED);
+    }
+
+    /**
+     * @return {@code true} if this waiter was still waiting, in which case it now owns the permit
+     */
+    boolean grant() {
+      if (!state.compareAndSet(WAITING, GRANTED)) {
+        return false;
+      }
+      onPermit.run();
+      return true;
+    }
+
+    /**
+     * @return whether this waiter owns a permit it was granted
+     */
+    boolean isGranted() {
+      return state.get() == GRANTED;
+    }
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.component.ComponentIdentifier.buildFromStringRepresentation;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
+import static org.mule.runtime.core.internal.util.rx.RxUtils.flatMap;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static reactor.core.publisher.Mono.create;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.just;
+
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.el.ExpressionLanguageSession;
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.ErrorTypeRepository;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.TypedException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.util.rx.ConditionalExecutorServiceDecorator;
+import org.mule.runtime.core.privileged.processor.Scope;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Scope which limits the rate and the concurrency at which events execute its chain, separately for each value of a key
+ * expression.
+ * <p>
+ * The rate is limited with a token bucket of {@code maxRate} permits per second, of which up to {@code burst} may be taken at
+ * once. The concurrency is limited to {@code maxConcurrency} events executing the chain at the same time. An event for which
+ * there is no permit available is delayed on a {@link Scheduler} instead of blocking its thread. If it would have to wait longer
+ * than {@code maxWait} milliseconds, it fails with the configured rejection error type instead, which is {@code MULE:TIMEOUT} by
+ * default.
+ * <p>
+ * A bucket is kept for each distinct value of the key expression, so the expression must have a bounded set of values.
+ *
+ * @since 4.6
+ */
+public class ThrottleScope extends AbstractMuleObjectOwner implements Scope {
+
+  public static final String THROTTLE_INNER_CHAIN_SPAN_NAME_SUFFIX = ":throttled-chain";
+
+  private static final String DEFAULT_KEY = "";
+
+  @Inject
+  private InitialSpanInfoProvider initialSpanInfoProvider;
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  @Inject
+  private ExpressionManager expressionManager;
+
+  @Inject
+  private ErrorTypeRepository errorTypeRepository;
+
+  private List<Processor> processors;
+  private MessageProcessorChain nestedChain;
+
+  private String keyExpression;
+  private CompiledExpression compiledKeyExpression;
+  private int maxRate = 0;
+  private Integer burst;
+  private int maxConcurrency = 0;
+  private long maxWait = -1;
+  private String rejectionErrorType;
+  private ErrorType rejectionError;
+
+  private Scheduler timer;
+  private ScheduledExecutorService delayScheduler;
+  private final ConcurrentMap<String, ThrottleBucket> buckets = new ConcurrentHashMap<>();
+
+  private final LongAdder delayedEvents = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder rejectedEvents = new LongAdder();
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (processors == null) {
+      throw new InitialisationException(createStaticMessage("One message processor must be configured within 'throttle'."), this);
+    }
+    if (maxRate <= 0 && maxConcurrency <= 0) {
+      throw new InitialisationException(createStaticMessage("At least one of 'maxRate' or 'maxConcurrency' must be configured "
+          + "within 'throttle'."), this);
+    }
+
+    nestedChain = buildNewChainWithListOfProcessors(getProcessingStrategy(locator, this), processors,
+                                                    initialSpanInfoProvider
+                                                        .getInitialSpanInfo(this, THROTTLE_INNER_CHAIN_SPAN_NAME_SUFFIX));
+    if (keyExpression != null) {
+      compiledKeyExpression = compile(keyExpression, expressionManager);
+    }
+
+    if (rejectionErrorType != null) {
+      rejectionError = errorTypeRepository.lookupErrorType(buildFromStringRepresentation(rejectionErrorType))
+          .orElseThrow(() -> new InitialisationException(createStaticMessage(format("Could not find error '%s'.",
+                                                                                    rejectionErrorType)),
+                                                         this));
+    } else {
+      rejectionError = errorTypeRepository.getErrorType(TIMEOUT).get();
+    }
+
+    super.initialise();
+
+    timer = schedulerService.cpuLightScheduler();
+    delayScheduler = new ConditionalExecutorServiceDecorator(timer, s -> isTransactionActive());
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    if (timer != null) {
+      timer.stop();
+    }
+  }
+
+  @Override
+  public CoreEvent process(CoreEvent event) throws MuleException {
+    return processToApply(event, this);
+  }
+
+  @Override
+  public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return flatMap(publisher, this::processEvent, this);
+  }
+
+  private Mono<CoreEvent> processEvent(CoreEvent event) {
+    final ThrottleBucket bucket;
+    try {
+      bucket = getBucket(resolveKey(event));
+    } catch (Exception e) {
+      return error(e);
+    }
+
+    final long start = nanoTime();
+    final long maxWaitNanos = maxWait < 0 ? -1 : MILLISECONDS.toNanos(maxWait);
+    final long rateWait = bucket.reserve(start, maxWaitNanos);
+    if (rateWait < 0) {
+      return reject();
+    }
+
+    Mono<CoreEvent> permitted;
+    if (rateWait == 0) {
+      permitted = just(event);
+    } else {
+      delayedEvents.increment();
+      permitted = create(sink -> {
+        ScheduledFuture<?> delay = delayScheduler.schedule(() -> sink.success(event), rateWait, NANOSECONDS);
+        sink.onCancel(() -> {
+          if (delay.cancel(false)) {
+            // The rate permit taken by this event was not used
+            bucket.unreserve();
+          }
+        });
+      });
+    }
+
+    // The permit is released either when the chain finishes or when the event is cancelled while waiting for it
+    AtomicBoolean released = new AtomicBoolean();
+    Runnable release = () -> {
+      if (released.compareAndSet(false, true)) {
+        bucket.release();
+      }
+    };
+
+    if (maxConcurrency > 0) {
+      permitted = permitted.flatMap(e -> acquire(bucket, release, e, start, maxWaitNanos, rateWait > 0));
+    }
+
+    return permitted.flatMap(e -> {
+      if (rateWait > 0 || maxConcurrency > 0) {
+        waitNanos.add(nanoTime() - start);
+      }
+      return Mono.from(processWithChildContext(e, nestedChain, ofNullable(getLocation())))
+          .doFinally(signal -> release.run());
+    });
+  }
+
+  private Mono<CoreEvent> acquire(ThrottleBucket bucket, Runnable release, CoreEvent event, long start, long maxWaitNanos,
+                                  boolean delayed) {
+    return create(sink -> {
+      ThrottleBucket.Waiter waiter = new ThrottleBucket.Waiter(() -> delayScheduler.execute(() -> sink.success(event)));
+      if (bucket.acquireOrWait(waiter)) {
+        sink.success(event);
+        return;
+      }
+
+      sink.onCancel(() -> {
+        if (waiter.claim()) {
+          bucket.cancel(waiter);
+        } else if (waiter.isGranted()) {
+          // The granted permit may not reach the chain anymore, so it has to be given back here
+          release.run();
+        }
+      });
+
+      if (!delayed) {
+        delayedEvents.increment();
+      }
+      if (maxWaitNanos >= 0) {
+        timer.schedule(() -> {
+          if (waiter.claim()) {
+            bucket.cancel(waiter);
+            // The rate permit taken by this event was not used
+            bucket.unreserve();
+            rejectedEvents.increment();
+            sink.error(rejection());
+          }
+        }, max(0, maxWaitNanos - (nanoTime() - start)), NANOSECONDS);
+      }
+    });
+  }
+
+  private Mono<CoreEvent> reject() {
+    rejectedEvents.increment();
+    return error(rejection());
+  }
+
+  private TypedException rejection() {
+    String message = format("No permit available within %d ms in 'throttle' at %s", maxWait, getLocation().getLocation());
+    return new TypedException(new DefaultMuleException(createStaticMessage(message)), rejectionError);
+  }
+
+  private ThrottleBucket getBucket(String key) {
+    ThrottleBucket bucket = buckets.get(key);
+    if (bucket != null) {
+      return bucket;
+    }
+    // This pre-check is made in order to avoid the synchronized block in the implementation of ConcurrentHashMap
+    // (https://bugs.openjdk.java.net/browse/JDK-8161372)
+    return buckets.computeIfAbsent(key, k -> new ThrottleBucket(maxRate, burst != null ? burst : maxRate, maxConcurrency,
+                                                                nanoTime()));
+  }
+
+  private String resolveKey(CoreEvent event) {
+    if (compiledKeyExpression == null) {
+      return DEFAULT_KEY;
+    }
+
+    try (ExpressionLanguageSession session = expressionManager.openSession(event.asBindingContext())) {
+      return (String) session.evaluate(compiledKeyExpression, STRING).getValue();
+    }
+  }
+
+  /**
+   * @return the amount of events which had to wait for a permit
+   */
+  public long getDelayedCount() {
+    return delayedEvents.sum();
+  }
+
+  /**
+   * @return the total milliseconds events waited for a permit
+   */
+  public long getTotalWaitTime() {
+    return NANOSECONDS.toMillis(waitNanos.sum());
+  }
+
+  /**
+   * @return the amount of events rejected because no permit was available within {@code maxWait}
+   */
+  public long getRejectedCount() {
+    return rejectedEvents.sum();
+  }
+
+  public void setMessageProcessors(List<Processor> processors) {
+    this.processors = processors;
+  }
+
+  /**
+   * @param keyExpression the expression to evaluate on each event to get the bucket it takes permits from. If not set, all the
+   *                      events take permits from the same bucket.
+   */
+  public void setKeyExpression(String keyExpression) {
+    this.keyExpression = keyExpression;
+  }
+
+  /**
+   * @param maxRate permits per second for each bucket. {@code 0}, the default, for no rate limit.
+   */
+  public void setMaxRate(int maxRate) {
+    this.maxRate = maxRate;
+  }
+
+  /**
+   * @param burst the amount of permits that may be taken at once from a bucket without waiting. Defaults to {@code maxRate}.
+   */
+  public void setBurst(Integer burst) {
+    this.burst = burst;
+  }
+
+  /**
+   * @param maxConcurrency the amount of events of each bucket which may execute the chain at the same time. {@code 0}, the
+   *                       default, for no concurrency limit.
+   */
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * @param maxWait the maximum milliseconds an event may wait for a permit before being rejected. A negative value, the default,
+   *                to wait indefinitely.
+   */
+  public void setMaxWait(long maxWait) {
+    this.maxWait = maxWait;
+  }
+
+  /**
+   * @param rejectionErrorType the type of the error raised for rejected events. {@code MULE:TIMEOUT} by default.
+   */
+  public void setRejectionErrorType(String rejectionErrorType) {
+    this.rejectionErrorType = rejectionErrorType;
+  }
+
+  @Override
+  protected List<Object> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+}
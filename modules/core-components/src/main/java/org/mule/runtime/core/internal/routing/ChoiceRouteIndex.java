@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.regex.Pattern.compile;
+
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.ExpressionManagerSession;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the routes of a {@link ChoiceRouter} for the case where every route compares the same discriminator against a
+ * literal, as in {@code #[vars.type == 'X']}.
+ * <p>
+ * Instead of evaluating each route expression in order, the discriminator is evaluated once and the route is looked up by its
+ * value. Only plain selectors (like {@code vars.type} or {@code payload.kind}) compared against string or integer literals are
+ * considered, since for those a lookup by value is equivalent to the sequential evaluation. When the discriminator evaluates to
+ * anything other than a {@link String} or an integral number, the caller has to fall back to the sequential evaluation.
+ *
+ * @since 4.6
+ */
+final class ChoiceRouteIndex {
+
+  /**
+   * Returned by {@link #select(ExpressionManagerSession)} when the discriminator value cannot be looked up.
+   */
+  static final int NOT_INDEXED = -1;
+
+  private static final String SELECTOR = "[A-Za-z_$][\\w$]*(?:\\.[A-Za-z_$][\\w$]*)*";
+  // Backslashes and dollar signs are excluded since they start escapes and interpolations in DataWeave strings
+  private static final String LITERAL = "'([^'\\\\$]*)'|\"([^\"\\\\$]*)\"|(-?\\d{1,18})";
+
+  private static final Pattern SELECTOR_FIRST = compile("^\\s*(" + SELECTOR + ")\\s*==\\s*(?:" + LITERAL + ")\\s*$");
+  private static final Pattern LITERAL_FIRST = compile("^\\s*(?:" + LITERAL + ")\\s*==\\s*(" + SELECTOR + ")\\s*$");
+
+  private static final String EXPRESSION_PREFIX = "#[";
+  private static final String EXPRESSION_SUFFIX = "]";
+
+  private final String discriminatorExpression;
+  private final Map<Object, Integer> routeIndexByValue;
+  private final int defaultRouteIndex;
+
+  private ChoiceRouteIndex(String discriminatorExpression, Map<Object, Integer> routeIndexByValue, int defaultRouteIndex) {
+    this.discriminatorExpression = discriminatorExpression;
+    this.routeIndexByValue = routeIndexByValue;
+    this.defaultRouteIndex = defaultRouteIndex;
+  }
+
+  /**
+   * Builds an index for the given routes if all of them but the last one, which is the default route, are
+   * {@link ProcessorExpressionRoute}s comparing the same discriminator against a literal.
+   *
+   * @param routes the routes of the router, with the default one last
+   * @return the index, or an empty {@link Optional} if the routes expressions don't follow the supported form
+   */
+  static Optional<ChoiceRouteIndex> create(List<ProcessorRoute> routes) {
+    if (routes.size() < 2) {
+      return empty();
+    }
+
+    String discriminator = null;
+    Boolean wrapped = null;
+    Map<Object, Integer> routeIndexByValue = new HashMap<>();
+
+    for (int i = 0; i < routes.size() - 1; ++i) {
+      ProcessorRoute route = routes.get(i);
+      if (!(route instanceof ProcessorExpressionRoute)) {
+        return empty();
+      }
+
+      String expression = ((ProcessorExpressionRoute) route).getExpression().trim();
+      boolean routeWrapped = expression.startsWith(EXPRESSION_PREFIX) && expression.endsWith(EXPRESSION_SUFFIX);
+      if (routeWrapped) {
+        expression = expression.substring(EXPRESSION_PREFIX.length(), expression.length() - EXPRESSION_SUFFIX.length());
+      }
+
+      Matcher matcher = SELECTOR_FIRST.matcher(expression);
+      String routeDiscriminator;
+      Object value;
+      if (matcher.matches()) {
+        routeDiscriminator = matcher.group(1);
+        value = literalValue(matcher, 2);
+      } else {
+        matcher = LITERAL_FIRST.matcher(expression);
+        if (!matcher.matches()) {
+          return empty();
+        }
+        routeDiscriminator = matcher.group(4);
+        value = literalValue(matcher, 1);
+      }
+
+      if (discriminator == null) {
+        discriminator = routeDiscriminator;
+        wrapped = routeWrapped;
+      } else if (!discriminator.equals(routeDiscriminator) || wrapped != routeWrapped) {
+        return empty();
+      }
+
+      // As with sequential evaluation, the first route comparing against a given value wins
+      routeIndexByValue.putIfAbsent(value, i);
+    }
+
+    String discriminatorExpression = wrapped ? EXPRESSION_PREFIX + discriminator + EXPRESSION_SUFFIX : discriminator;
+    return of(new ChoiceRouteIndex(discriminatorExpression, routeIndexByValue, routes.size() - 1));
+  }
+
+  private static Object literalValue(Matcher matcher, int firstGroup) {
+    if (matcher.group(firstGroup) != null) {
+      return matcher.group(firstGroup);
+    } else if (matcher.group(firstGroup + 1) != null) {
+      return matcher.group(firstGroup + 1);
+    } else {
+      return Long.valueOf(matcher.group(firstGroup + 2));
+    }
+  }
+
+  /**
+   * Evaluates the discriminator and looks up the route for its value.
+   *
+   * @param session the session to evaluate the discriminator with
+   * @return the index of the route to execute, or {@link #NOT_INDEXED} if the value of the discriminator is not of a type that
+   *         can be looked up
+   */
+  int select(ExpressionManagerSession session) {
+    TypedValue<?> discriminatorValue = session.evaluate(discriminatorExpression);
+    Object key = lookupKey(discriminatorValue.getValue());
+    if (key == null) {
+      return NOT_INDEXED;
+    }
+
+    Integer routeIndex = routeIndexByValue.get(key);
+    return routeIndex != null ? routeIndex : defaultRouteIndex;
+  }
+
+  private static Object lookupKey(Object value) {
+    if (value instanceof String) {
+      return value;
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * @return the expression which value selects the route
+   */
+  String getDiscriminatorExpression() {
+    return discriminatorExpression;
+  }
+}
@@ -9,10 +9,13 @@ package org.mule.runtime.core.internal.routing;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.management.stats.RouterStatistics.TYPE_OUTBOUND;
+import static org.mule.runtime.core.internal.routing.ChoiceRouteIndex.NOT_INDEXED;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
 import static java.lang.String.format;
 
+import static org.slf4j.LoggerFactory.getLogger;
+
 import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -30,11 +33,13 @@ import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 
 import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
 
 import reactor.core.publisher.Flux;
 
@@ -44,9 +49,14 @@ import reactor.core.publisher.Flux;
  * <p>
  * If a default route has been configured and no match has been found, the default route will be used. Otherwise it continues the
  * execution through the next MP in the chain.
+ * <p>
+ * When all the routes compare the same discriminator against distinct literals, as in {@code #[vars.type == 'X']}, the
+ * discriminator is evaluated once per event and the route is looked up by its value through a {@link ChoiceRouteIndex}.
  */
 public class ChoiceRouter extends AbstractComponent implements Router, RouterStatisticsRecorder, Lifecycle, MuleContextAware {
 
+  private static final Logger LOGGER = getLogger(ChoiceRouter.class);
+
   public static final String ROUTE_SPAN_NAME_SUFFIX = ":route";
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final List<ProcessorRoute> routes = new ArrayList<>();
@@ -56,6 +66,7 @@ public class ChoiceRouter extends AbstractComponent implements Router, RouterSta
   private MuleContext muleContext;
   private ExpressionManager expressionManager;
   private InitialSpanInfoProvider initialSpanInfoProvider;
+  private Optional<ChoiceRouteIndex> routeIndex = Optional.empty();
 
   public ChoiceRouter(InitialSpanInfoProvider initialSpanInfoProvider) {
     routerStatistics = new RouterStatistics(TYPE_OUTBOUND);
@@ -83,6 +94,11 @@ public class ChoiceRouter extends AbstractComponent implements Router, RouterSta
       route.setInitialSpanInfo(initialSpanInfoProvider.getInitialSpanInfo(this, ROUTE_SPAN_NAME_SUFFIX));
       initialiseIfNeeded(route, muleContext);
     }
+
+    routeIndex = ChoiceRouteIndex.create(routes);
+    if (LOGGER.isDebugEnabled() && routeIndex.isPresent()) {
+      LOGGER.debug("Routes of {} will be selected by the value of '{}'", this, routeIndex.get().getDiscriminatorExpression());
+    }
   }
 
   @Override
@@ -128,6 +144,13 @@ public class ChoiceRouter extends AbstractComponent implements Router, RouterSta
     return Flux.merge(new SinkRouter(publisher, routes).collectPublishers());
   }
 
+  /**
+   * @return whether routes are selected by looking up the value of a discriminator instead of evaluating each route expression
+   */
+  boolean isIndexed() {
+    return routeIndex.isPresent();
+  }
+
   public void updateStatistics(Processor processor) {
     if (getRouterStatistics() != null && getRouterStatistics().isEnabled()) {
       getRouterStatistics().incrementRoutedMessage(processor);
@@ -164,7 +187,12 @@ public class ChoiceRouter extends AbstractComponent implements Router, RouterSta
     protected void route(CoreEvent event) {
       ExecutableRoute selectedRoute;
       try (ExpressionManagerSession session = expressionManager.openSession(getLocation(), event, NULL_BINDING_CONTEXT)) {
-        selectedRoute = getRoutes().stream().filter(route -> route.shouldExecute(session)).findFirst().get();
+        int routeIndex = ChoiceRouter.this.routeIndex.map(index -> index.select(session)).orElse(NOT_INDEXED);
+        if (routeIndex != NOT_INDEXED) {
+          selectedRoute = getRoutes().get(routeIndex);
+        } else {
+          selectedRoute = getRoutes().stream().filter(route -> route.shouldExecute(session)).findFirst().get();
+        }
       }
       selectedRoute.execute(event);
       updateStatistics(selectedRoute.getProcessor());
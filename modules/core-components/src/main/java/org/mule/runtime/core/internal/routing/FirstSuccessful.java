@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
@@ -13,6 +14,8 @@ import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -32,6 +35,9 @@ import org.reactivestreams.Publisher;
  * FirstSuccessful routes an event to the first target route that can accept it without throwing or returning an exception. If no
  * such route can be found, an exception is thrown. Note that this works more reliable with synchronous targets, but no such
  * restriction is imposed.
+ * <p>
+ * When a hedge delay is configured, a route which has not completed within it does not hold the event back: it is also sent to
+ * the next route, and the first successful result wins. See {@link HedgedFirstSuccessfulRouter}.
  */
 public class FirstSuccessful extends AbstractComponent implements Router, Lifecycle, MuleContextAware {
 
@@ -42,9 +48,30 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
   @Inject
   InitialSpanInfoProvider initialSpanInfoProvider;
 
+  @Inject
+  private SchedulerService schedulerService;
+
+  private Long hedgeDelay;
+  private Integer hedgeDelayPercentile;
+  private int hedgeBudget = 10;
+
+  private Scheduler timer;
+  private HedgedFirstSuccessfulRouter hedgedRouter;
 
   @Override
   public void initialise() throws InitialisationException {
+    if (hedgeDelay != null && hedgeDelay < 0) {
+      throw new InitialisationException(createStaticMessage("'hedgeDelay' cannot be negative in 'first-successful'."), this);
+    }
+    if (hedgeDelayPercentile != null && (hedgeDelayPercentile < 1 || hedgeDelayPercentile > 99)) {
+      throw new InitialisationException(createStaticMessage("'hedgeDelayPercentile' must be between 1 and 99 in "
+          + "'first-successful'."), this);
+    }
+    if (hedgeBudget < 0 || hedgeBudget > 100) {
+      throw new InitialisationException(createStaticMessage("'hedgeBudget' must be between 0 and 100 in 'first-successful'."),
+                                        this);
+    }
+
     Long routeNumber = 1L;
     for (ProcessorRoute route : routes) {
       route.setMessagingExceptionHandler(null);
@@ -53,6 +80,13 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
       initialiseIfNeeded(route, muleContext);
       routeNumber++;
     }
+
+    if (hedgeDelay != null || hedgeDelayPercentile != null) {
+      LatencyWindow latencies = hedgeDelayPercentile != null ? new LatencyWindow(hedgeDelayPercentile) : null;
+      timer = schedulerService.cpuLightScheduler();
+      hedgedRouter = new HedgedFirstSuccessfulRouter(this, routes, timer, hedgeDelay != null ? hedgeDelay : -1, latencies,
+                                                     hedgeBudget);
+    }
   }
 
   @Override
@@ -74,6 +108,9 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
     for (ProcessorRoute route : routes) {
       route.dispose();
     }
+    if (timer != null) {
+      timer.stop();
+    }
   }
 
   @Override
@@ -94,8 +131,62 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
     routes.forEach(this::addRoute);
   }
 
+  /**
+   * @param hedgeDelay the milliseconds to wait for a route before also sending the event to the next one. Not set by default,
+   *                   which disables hedging unless {@code hedgeDelayPercentile} is set.
+   */
+  public void setHedgeDelay(Long hedgeDelay) {
+    this.hedgeDelay = hedgeDelay;
+  }
+
+  /**
+   * @param hedgeDelayPercentile the percentile of the latencies of recent successful executions to use as the hedge delay. Until
+   *                             there are enough executions, {@code hedgeDelay} is used.
+   */
+  public void setHedgeDelayPercentile(Integer hedgeDelayPercentile) {
+    this.hedgeDelayPercentile = hedgeDelayPercentile;
+  }
+
+  /**
+   * @param hedgeBudget the percentage of routed events that may be hedged, to cap the extra load on the routes. 10 by default.
+   */
+  public void setHedgeBudget(int hedgeBudget) {
+    this.hedgeBudget = hedgeBudget;
+  }
+
+  /**
+   * @return the amount of times an event was sent to another route because the previous one was too slow.
+   */
+  public long getHedgeCount() {
+    return hedgedRouter != null ? hedgedRouter.getHedgeCount() : 0;
+  }
+
+  /**
+   * @return the amount of hedges whose result was the one emitted.
+   */
+  public long getHedgeWonCount() {
+    return hedgedRouter != null ? hedgedRouter.getHedgeWonCount() : 0;
+  }
+
+  /**
+   * @return the amount of hedges not sent because the hedge budget was exhausted.
+   */
+  public long getHedgeSkippedCount() {
+    return hedgedRouter != null ? hedgedRouter.getHedgeSkippedCount() : 0;
+  }
+
+  /**
+   * @return the milliseconds currently waited for a route before hedging, or a negative value if not hedging.
+   */
+  long getCurrentHedgeDelay() {
+    return hedgedRouter != null ? hedgedRouter.currentHedgeDelay() : -1;
+  }
+
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    if (hedgedRouter != null) {
+      return hedgedRouter.apply(publisher);
+    }
     return new FirstSuccessfulRouter(this, publisher, routes).getDownstreamPublisher();
   }
 
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.util.rx.RxUtils.flatMap;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Mono.create;
+import static reactor.core.publisher.Mono.deferContextual;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.context.ContextView;
+
+/**
+ * Router with the hedged {@link FirstSuccessful} routing logic.
+ * <p>
+ * Each event is sent to the first route. If it has not completed after the hedge delay, the event is also sent to the next route
+ * without waiting for the first one, and so on. The first successful result is the one emitted. Results arriving after it are
+ * discarded, and the child event contexts of those executions complete on their own. A failed execution moves on to the next
+ * route right away, as in the sequential mode.
+ * <p>
+ * Hedges are extra load on the routes, so they are limited by a budget: each routed event deposits {@code hedgeBudget} percent
+ * of a hedge, and a hedge is only sent if there is a whole one deposited. Hedging is disabled while a transaction is active,
+ * since the transaction is bound to the thread executing the first route.
+ * <p>
+ * All the routes executing at the same time get the same event. Hedging is also disabled for events with a non repeatable
+ * stream or iterator as payload, since only one of the routes could consume it. The routes must not mutate any other payload
+ * or variable value in place, since those changes would be seen by the other routes executing the event.
+ *
+ * @since 4.6
+ */
+class HedgedFirstSuccessfulRouter {
+
+  private static final Logger LOGGER = getLogger(HedgedFirstSuccessfulRouter.class);
+
+  // Hedges which may be accumulated in the budget while the routes are healthy, to absorb a burst of slow executions
+  private static final long MAX_BUDGET_BALANCE = 10 * 100L;
+
+  private final Component owner;
+  private final List<ProcessorRoute> routes;
+  private final ScheduledExecutorService timer;
+  private final long hedgeDelay;
+  private final LatencyWindow latencies;
+  private final int hedgeBudget;
+
+  private final AtomicLong budgetBalance;
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgesWon = new LongAdder();
+  private final LongAdder hedgesSkipped = new LongAdder();
+
+  /**
+   * @param owner       the {@link FirstSuccessful} this router belongs to
+   * @param routes      the routes to send the events to, in order
+   * @param timer       the scheduler for the hedge delays
+   * @param hedgeDelay  the milliseconds to wait for a route before hedging, or a negative value to only hedge once the
+   *                    {@code latencies} percentile is available
+   * @param latencies   the latencies of the successful executions, whose percentile is used as the hedge delay once available.
+   *                    May be {@code null}.
+   * @param hedgeBudget the percentage of routed events that may be hedged
+   */
+  HedgedFirstSuccessfulRouter(Component owner, List<ProcessorRoute> routes, ScheduledExecutorService timer, long hedgeDelay,
+                              LatencyWindow latencies, int hedgeBudget) {
+    this.owner = owner;
+    this.routes = routes;
+    this.timer = timer;
+    this.hedgeDelay = hedgeDelay;
+    this.latencies = latencies;
+    this.hedgeBudget = hedgeBudget;
+    this.budgetBalance = new AtomicLong(hedgeBudget > 0 ? MAX_BUDGET_BALANCE : 0);
+  }
+
+  Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return flatMap(publisher, this::route, owner);
+  }
+
+  private Mono<CoreEvent> route(CoreEvent event) {
+    return deferContextual(ctx -> create(sink -> new HedgedExecution(event, sink, ctx).start()));
+  }
+
+  long currentHedgeDelay() {
+    if (latencies != null) {
+      long percentile = latencies.getPercentile();
+      if (percentile >= 0) {
+        return percentile;
+      }
+    }
+    return hedgeDelay;
+  }
+
+  private void deposit() {
+    if (hedgeBudget > 0) {
+      budgetBalance.getAndUpdate(balance -> min(balance + hedgeBudget, MAX_BUDGET_BALANCE));
+    }
+  }
+
+  private boolean withdraw() {
+    long balance;
+    do {
+      balance = budgetBalance.get();
+      if (balance < 100) {
+        return false;
+      }
+    } while (!budgetBalance.compareAndSet(balance, balance - 100));
+    return true;
+  }
+
+  private static boolean isRepeatable(Object payload) {
+    // Repeatable streams are CursorProviders, which each route opens its own cursor from
+    return !(payload instanceof InputStream || payload instanceof Iterator);
+  }
+
+  long getHedgeCount() {
+    return hedges.sum();
+  }
+
+  long getHedgeWonCount() {
+    return hedgesWon.sum();
+  }
+
+  long getHedgeSkippedCount() {
+    return hedgesSkipped.sum();
+  }
+
+  /**
+   * The routing of a single event, which may have several routes executing at the same time.
+   */
+  private final class HedgedExecution {
+
+    private final CoreEvent event;
+    private final MonoSink<CoreEvent> sink;
+    private final ContextView context;
+    private final boolean hedgingAllowed;
+
+    // Guarded by this
+    private int nextRoute;
+    private int running;
+    private boolean done;
+    private ScheduledFuture<?> hedgeTimer;
+
+    HedgedExecution(CoreEvent event, MonoSink<CoreEvent> sink, ContextView context) {
+      this.event = event;
+      this.sink = sink;
+      this.context = context;
+      this.hedgingAllowed = !isTransactionActive() && isRepeatable(event.getMessage().getPayload().getValue());
+    }
+
+    void start() {
+      deposit();
+      sink.onCancel(this::cancel);
+      executeNext(false);
+    }
+
+    private void executeNext(boolean hedge) {
+      final int routeIndex;
+      synchronized (this) {
+        if (done || nextRoute == routes.size()) {
+          return;
+        }
+        routeIndex = nextRoute++;
+        ++running;
+        if (hedge) {
+          hedges.increment();
+        }
+        // Scheduled before executing the route, which may run in this thread until it completes
+        scheduleHedge();
+      }
+
+      final long start = nanoTime();
+      Mono.from(processWithChildContext(event, routes.get(routeIndex).getProcessor(), ofNullable(owner.getLocation())))
+          .contextWrite(context)
+          .subscribe(result -> onResult(result, hedge, start), this::onError);
+    }
+
+    private void scheduleHedge() {
+      cancelHedge();
+      if (!hedgingAllowed || nextRoute == routes.size()) {
+        return;
+      }
+
+      long delay = currentHedgeDelay();
+      if (delay >= 0) {
+        hedgeTimer = timer.schedule(this::hedge, delay, MILLISECONDS);
+      }
+    }
+
+    private void cancelHedge() {
+      if (hedgeTimer != null) {
+        hedgeTimer.cancel(false);
+        hedgeTimer = null;
+      }
+    }
+
+    private void hedge() {
+      synchronized (this) {
+        hedgeTimer = null;
+        if (done || nextRoute == routes.size()) {
+          return;
+        }
+        if (!withdraw()) {
+          hedgesSkipped.increment();
+          LOGGER.debug("Hedge budget exhausted, not sending event '{}' to route {}", event.getContext().getId(), nextRoute + 1);
+          return;
+        }
+      }
+      executeNext(true);
+    }
+
+    private void onResult(CoreEvent result, boolean hedge, long start) {
+      // If event finishes with error, then it must be treated as an error
+      if (result.getError().isPresent()
+          && !result.getError().get().equals(event.getError().orElse(null))) {
+        onError(result.getError().get().getCause());
+        return;
+      }
+
+      // Late results are recorded too, otherwise the slow executions that lost to a hedge would drag the percentile down
+      if (latencies != null) {
+        latencies.record(NANOSECONDS.toMillis(nanoTime() - start));
+      }
+
+      synchronized (this) {
+        --running;
+        if (done) {
+          LOGGER.debug("Discarding late result for event '{}'", event.getContext().getId());
+          return;
+        }
+        done = true;
+        cancelHedge();
+      }
+
+      if (hedge) {
+        hedgesWon.increment();
+      }
+      sink.success(result);
+    }
+
+    private void onError(Throwable error) {
+      boolean failed = false;
+      synchronized (this) {
+        --running;
+        if (done) {
+          return;
+        }
+        if (nextRoute == routes.size() && running == 0) {
+          done = true;
+          failed = true;
+          cancelHedge();
+        }
+      }
+
+      if (failed) {
+        sink.error(error);
+      } else {
+        // If there is another route to execute, use it. If there isn't, wait for the ones still executing
+        executeNext(false);
+      }
+    }
+
+    private synchronized void cancel() {
+      done = true;
+      cancelHedge();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+
+/**
+ * Keeps the latencies of the most recent executions and a percentile of them.
+ * <p>
+ * The percentile is recalculated every {@link #RECALCULATION_INTERVAL} recorded latencies instead of on every read, so that
+ * reading it costs a volatile read.
+ *
+ * @since 4.6
+ */
+final class LatencyWindow {
+
+  static final int DEFAULT_SIZE = 100;
+  static final int MIN_SAMPLES = 20;
+  static final int RECALCULATION_INTERVAL = 10;
+
+  private final int percentile;
+  private final int minSamples;
+  private final long[] samples;
+  private int position;
+  private int count;
+  private int sinceRecalculation;
+
+  private volatile long value = -1;
+
+  LatencyWindow(int percentile) {
+    this(percentile, DEFAULT_SIZE, MIN_SAMPLES);
+  }
+
+  LatencyWindow(int percentile, int size, int minSamples) {
+    this.percentile = percentile;
+    this.samples = new long[size];
+    this.minSamples = minSamples;
+  }
+
+  synchronized void record(long latency) {
+    samples[position] = latency;
+    position = (position + 1) % samples.length;
+    if (count < samples.length) {
+      ++count;
+    }
+
+    if (count >= minSamples && (value < 0 || ++sinceRecalculation >= RECALCULATION_INTERVAL)) {
+      sinceRecalculation = 0;
+      value = calculate();
+    }
+  }
+
+  private long calculate() {
+    long[] sorted = copyOf(samples, count);
+    sort(sorted);
+    int rank = (int) ceil(percentile / 100d * count);
+    return sorted[min(count - 1, max(0, rank - 1))];
+  }
+
+  /**
+   * @return the percentile of the recorded latencies, or {@code -1} if there are not enough of them yet.
+   */
+  long getPercentile() {
+    return value;
+  }
+}
@@ -30,6 +30,8 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.CircuitBreakerConfig;
 import org.mule.runtime.core.internal.routing.UntilSuccessfulRouter.RetryContextInitializationException;
 import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
 
@@ -74,6 +76,8 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   private Scheduler timer;
   private List<Processor> processors;
   private ProcessingStrategy processingStrategy;
+  private CircuitBreakerConfig circuitBreakerConfig;
+  private CircuitBreaker circuitBreaker;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -92,6 +96,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     timer = schedulerService.cpuLightScheduler();
     suppressErrors = featureFlaggingService.isEnabled(SUPPRESS_ERRORS);
     shouldRetry = event -> event.getError().isPresent();
+    if (circuitBreakerConfig != null) {
+      circuitBreaker = circuitBreakerConfig.getCircuitBreaker();
+    }
 
     final Optional<ProcessingStrategy> processingStrategyFromRootContainer = getProcessingStrategy(componentLocator, this);
 
@@ -125,7 +132,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
     return new UntilSuccessfulRouter(this, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, timer,
-                                     maxRetries, millisBetweenRetries, suppressErrors)
+                                     maxRetries, millisBetweenRetries, suppressErrors, circuitBreaker)
                                          .getDownstreamPublisher();
   }
 
@@ -159,6 +166,14 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.millisBetweenRetries = millisBetweenRetries;
   }
 
+  /**
+   * @param circuitBreakerConfig the circuit breaker every attempt has to be permitted by. When it is open, events fail right away
+   *                             with a {@code MULE:CIRCUIT_BREAKER_OPEN} error instead of going through the remaining retries.
+   */
+  public void setCircuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+    this.circuitBreakerConfig = circuitBreakerConfig;
+  }
+
   /**
    * Configure the nested {@link Processor}'s that error handling and transactional behaviour should be applied to.
    *
@@ -14,6 +14,7 @@ import static org.mule.runtime.api.metadata.DataType.NUMBER;
 import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
 import static org.mule.runtime.core.api.rx.Exceptions.propagateWrappingFatal;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.NOT_PERMITTED;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.applyWithChildContext;
 import static org.mule.runtime.internal.exception.SuppressedMuleException.suppressIfPresent;
 
@@ -37,6 +38,8 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.internal.event.EventInternalContextResolver;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.CircuitBreakerOpenException;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.internal.util.rx.ConditionalExecutorServiceDecorator;
 import org.mule.runtime.internal.exception.SuppressedMuleException;
@@ -78,6 +81,7 @@ class UntilSuccessfulRouter {
   private final boolean suppressErrors;
   private final Predicate<CoreEvent> shouldRetry;
   private final ConditionalExecutorServiceDecorator delayScheduler;
+  private final CircuitBreaker circuitBreaker;
 
   private final Flux<CoreEvent> upstreamFlux;
   private final Flux<CoreEvent> innerFlux;
@@ -102,11 +106,13 @@ class UntilSuccessfulRouter {
   UntilSuccessfulRouter(Component owner, Publisher<CoreEvent> publisher, Processor nestedChain,
                         ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
                         Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
-                        String maxRetries, String millisBetweenRetries, boolean suppressErrors) {
+                        String maxRetries, String millisBetweenRetries, boolean suppressErrors,
+                        CircuitBreaker circuitBreaker) {
     this.owner = owner;
     this.suppressErrors = suppressErrors;
     this.shouldRetry = shouldRetry;
     this.delayScheduler = new ConditionalExecutorServiceDecorator(delayScheduler, s -> isTransactionActive());
+    this.circuitBreaker = circuitBreaker;
     this.retryContextResolver = new EventInternalContextResolver<>(RETRY_CTX_INTERNAL_PARAM_KEY,
                                                                    HashMap::new);
     // Upstream side of until successful chain. Injects events into retrial chain.
@@ -115,6 +121,10 @@ class UntilSuccessfulRouter {
           // Inject event into retrial execution chain
           RetryContext ctx = new RetryContext(event, sessionSupplier, maxRetriesSupplier, delaySupplier);
           inflightEvents.getAndIncrement();
+          if (!acquireCircuitBreaker(ctx)) {
+            downstreamRecorder.next(left(circuitBreakerOpenError(event), CoreEvent.class));
+            return;
+          }
           innerRecorder.next(eventWithCurrentContext(event, ctx));
 
         })
@@ -133,6 +143,9 @@ class UntilSuccessfulRouter {
         .transform(innerPublisher -> applyWithChildContext(innerPublisher, nestedChain,
                                                            Optional.of(owner.getLocation())))
         .doOnNext(successfulEvent -> {
+          if (circuitBreaker != null) {
+            circuitBreaker.onSuccess(getRetryContextForEvent(successfulEvent).circuitBreakerPermit);
+          }
           // Scope execution was successful, pop current ctx
           downstreamRecorder.next(right(Throwable.class, eventWithCurrentContextDeleted(successfulEvent)));
           completeRouterIfNecessary();
@@ -186,13 +199,16 @@ class UntilSuccessfulRouter {
       int retriesLeft =
           ctx.retryCount.getAndDecrement();
 
+      if (circuitBreaker != null) {
+        circuitBreaker.onFailure(ctx.circuitBreakerPermit);
+      }
+
       if (retriesLeft > 0) {
         LOGGER.error("Retrying execution of event, attempt {} of {}.", ctx.getAttemptNumber(),
                      ctx.maxRetries != RETRY_COUNT_FOREVER ? ctx.maxRetries : "unlimited");
 
         // Schedule retry with delay
-        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> innerRecorder.next(eventWithCurrentContext(ctx.event, ctx)),
-                                                           ctx.delayInMillis, MILLISECONDS);
+        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> retry(messagingError, ctx), ctx.delayInMillis, MILLISECONDS);
       } else { // Retries exhausted
         // Current context already pooped. No need to re-insert it
         LOGGER.error("Retry attempts exhausted. Failing...");
@@ -205,6 +221,46 @@ class UntilSuccessfulRouter {
     };
   }
 
+  private void retry(MessagingException messagingError, RetryContext ctx) {
+    if (!acquireCircuitBreaker(ctx)) {
+      // No point in going through the remaining retries, fail right away
+      LOGGER.error("Circuit breaker '{}' is open. Failing...", circuitBreaker.getName());
+      eventWithCurrentContextDeleted(messagingError.getEvent());
+      downstreamRecorder.next(left(circuitBreakerOpenError(messagingError.getEvent()), CoreEvent.class));
+      completeRouterIfNecessary();
+      return;
+    }
+
+    try {
+      innerRecorder.next(eventWithCurrentContext(ctx.event, ctx));
+    } catch (Throwable t) {
+      // Running in the delay scheduler, nothing upstream would report the outcome of the permitted attempt or fail the event
+      if (circuitBreaker != null) {
+        circuitBreaker.onFailure(ctx.circuitBreakerPermit);
+      }
+      eventWithCurrentContextDeleted(messagingError.getEvent());
+      downstreamRecorder.next(left(new MessagingException(ctx.event, t, owner), CoreEvent.class));
+      completeRouterIfNecessary();
+    }
+  }
+
+  /**
+   * Asks the circuit breaker, if any, for permission to make an attempt, keeping the permit in the context.
+   *
+   * @return whether the attempt may be made
+   */
+  private boolean acquireCircuitBreaker(RetryContext ctx) {
+    if (circuitBreaker == null) {
+      return true;
+    }
+    ctx.circuitBreakerPermit = circuitBreaker.tryAcquire();
+    return ctx.circuitBreakerPermit != NOT_PERMITTED;
+  }
+
+  private Throwable circuitBreakerOpenError(CoreEvent event) {
+    return new MessagingException(event, new CircuitBreakerOpenException(circuitBreaker), owner);
+  }
+
   /**
    * If there are no events in-flight and the upstream publisher has received a completion signal, complete downstream publishers.
    */
@@ -332,6 +388,8 @@ class UntilSuccessfulRouter {
 
     Integer delayInMillis;
     Integer maxRetries;
+    // Permit of the current attempt, to report its outcome to the circuit breaker
+    volatile long circuitBreakerPermit;
 
     RetryContext(CoreEvent event,
                  Function<CoreEvent, ExpressionManagerSession> sessionSupplier,
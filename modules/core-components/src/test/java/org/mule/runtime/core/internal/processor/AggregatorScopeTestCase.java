@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.AggregatorStory.AGGREGATOR;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.store.SimpleMemoryObjectStore;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(SCOPE)
+@Story(AGGREGATOR)
+public class AggregatorScopeTestCase extends AbstractMuleContextTestCase {
+
+  private final List<List<?>> groups = new CopyOnWriteArrayList<>();
+  private final AggregatorScope aggregator = new AggregatorScope();
+  private ExecutorService executor;
+
+  @Before
+  public void setUpAggregator() throws MuleException {
+    muleContext.getInjector().inject(aggregator);
+    aggregator.setMuleContext(muleContext);
+    aggregator.setAnnotations(singletonMap(LOCATION_KEY, TEST_CONNECTOR_LOCATION));
+    aggregator.setMessageProcessors(singletonList(event -> {
+      List<?> group = (List<?>) event.getMessage().getPayload().getValue();
+      groups.add(group);
+      return CoreEvent.builder(event).message(of(group.stream().map(item -> item + ":done").collect(toList()))).build();
+    }));
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+    disposeIfNeeded(aggregator, getLogger(getClass()));
+  }
+
+  @Test
+  public void groupIsReleasedWhenFull() throws Exception {
+    aggregator.setSplitResult(true);
+    aggregator.setMaxSize(3);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    List<Future<CoreEvent>> results = processAll("a", "b", "c");
+
+    assertThat(payloadOf(results.get(0)), is("a:done"));
+    assertThat(payloadOf(results.get(1)), is("b:done"));
+    assertThat(payloadOf(results.get(2)), is("c:done"));
+    assertThat(groups.size(), is(1));
+    assertThat((List<Object>) groups.get(0), containsInAnyOrder("a", "b", "c"));
+  }
+
+  @Test
+  public void groupIsReleasedOnTimeout() throws Exception {
+    aggregator.setSplitResult(true);
+    aggregator.setMaxSize(100);
+    aggregator.setTimeout(100);
+    aggregator.initialise();
+
+    assertThat(aggregator.process(eventWithPayload("a")).getMessage().getPayload().getValue(), is("a:done"));
+    assertThat((List<Object>) groups.get(0), contains("a"));
+  }
+
+  @Test
+  public void eventsAreGroupedByExpression() throws Exception {
+    aggregator.setGroupExpression("#[payload]");
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    List<Future<CoreEvent>> results = processAll("a", "b", "a", "b");
+    for (Future<CoreEvent> result : results) {
+      result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    }
+
+    assertThat(groups.size(), is(2));
+    assertThat(groups, containsInAnyOrder(asList("a", "a"), asList("b", "b")));
+  }
+
+  @Test
+  public void resultWhichIsNotAListIsSharedByAllEvents() throws Exception {
+    aggregator.setMessageProcessors(singletonList(event -> CoreEvent.builder(event).message(of("batch")).build()));
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    List<Future<CoreEvent>> results = processAll("a", "b");
+
+    assertThat(payloadOf(results.get(0)), is("batch"));
+    assertThat(payloadOf(results.get(1)), is("batch"));
+  }
+
+  @Test
+  public void listResultIsSharedByAllEventsWhenNotSplit() throws Exception {
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    List<Future<CoreEvent>> results = processAll("a", "b");
+
+    assertThat((List<Object>) payloadOf(results.get(0)), containsInAnyOrder("a:done", "b:done"));
+    assertThat((List<Object>) payloadOf(results.get(1)), containsInAnyOrder("a:done", "b:done"));
+  }
+
+  @Test
+  public void splitResultWithoutAnItemPerEventFailsAllEvents() throws Exception {
+    aggregator.setMessageProcessors(singletonList(event -> CoreEvent.builder(event).message(of(asList("batch"))).build()));
+    aggregator.setSplitResult(true);
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    for (Future<CoreEvent> result : processAll("a", "b")) {
+      try {
+        result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+        fail("Expected the group to fail");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(MuleException.class)));
+        assertThat(e.getCause().getCause(), is(instanceOf(MuleRuntimeException.class)));
+      }
+    }
+  }
+
+  @Test
+  public void failureIsRaisedForAllEvents() throws Exception {
+    aggregator.setMessageProcessors(singletonList(event -> {
+      throw new DefaultMuleException("Expected");
+    }));
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    for (Future<CoreEvent> result : processAll("a", "b")) {
+      try {
+        result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+        fail("Expected the group to fail");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(MuleException.class)));
+      }
+    }
+  }
+
+  @Test
+  public void persistedGroupIsProcessedOnStart() throws Exception {
+    SimpleMemoryObjectStore<ArrayList<Serializable>> objectStore = new SimpleMemoryObjectStore<>();
+    objectStore.store("pending", new ArrayList<>(asList("a", "b")));
+    aggregator.setObjectStore(objectStore);
+    aggregator.initialise();
+    aggregator.start();
+
+    probe(() -> groups.size() == 1);
+    assertThat((List<Object>) groups.get(0), contains("a", "b"));
+    assertThat(objectStore.allKeys().isEmpty(), is(true));
+    aggregator.stop();
+  }
+
+  @Test
+  public void releasedGroupIsRemovedFromObjectStore() throws Exception {
+    SimpleMemoryObjectStore<ArrayList<Serializable>> objectStore = new SimpleMemoryObjectStore<>();
+    aggregator.setObjectStore(objectStore);
+    aggregator.setMaxSize(2);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    Future<CoreEvent> first = executor.submit(() -> aggregator.process(eventWithPayload("a")));
+    probe(() -> objectStore.allKeys().size() == 1);
+    Future<CoreEvent> second = executor.submit(() -> aggregator.process(eventWithPayload("b")));
+
+    first.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    second.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    probe(() -> objectStore.allKeys().isEmpty());
+  }
+
+  @Test
+  public void membersArePersistedAsTheyArrive() throws Exception {
+    SimpleMemoryObjectStore<ArrayList<Serializable>> objectStore = new SimpleMemoryObjectStore<>();
+    aggregator.setObjectStore(objectStore);
+    aggregator.setMaxSize(3);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+
+    List<Future<CoreEvent>> results = processAll("a", "b");
+    probe(() -> objectStore.allKeys().size() == 2);
+    results.addAll(processAll("c"));
+
+    for (Future<CoreEvent> result : results) {
+      result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    }
+    probe(() -> objectStore.allKeys().isEmpty());
+  }
+
+  @Test
+  public void persistedMembersAreRecoveredInTheirGroups() throws Exception {
+    SimpleMemoryObjectStore<ArrayList<Serializable>> objectStore = new SimpleMemoryObjectStore<>();
+    objectStore.store("first_2", new ArrayList<>(asList("b")));
+    objectStore.store("first_1", new ArrayList<>(asList("a")));
+    objectStore.store("second_1", new ArrayList<>(asList("c")));
+    aggregator.setObjectStore(objectStore);
+    aggregator.initialise();
+    aggregator.start();
+
+    probe(() -> groups.size() == 2);
+    assertThat(groups, containsInAnyOrder(asList("a", "b"), asList("c")));
+    assertThat(objectStore.allKeys().isEmpty(), is(true));
+    aggregator.stop();
+  }
+
+  @Test
+  public void stopWaitsForReleasedGroups() throws Exception {
+    SimpleMemoryObjectStore<ArrayList<Serializable>> objectStore = new SimpleMemoryObjectStore<>();
+    AtomicBoolean processed = new AtomicBoolean();
+    aggregator.setMessageProcessors(singletonList(event -> {
+      try {
+        Thread.sleep(500);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      processed.set(true);
+      return event;
+    }));
+    aggregator.setObjectStore(objectStore);
+    aggregator.setTimeout(RECEIVE_TIMEOUT * 10);
+    aggregator.initialise();
+    aggregator.start();
+
+    Future<CoreEvent> result = executor.submit(() -> aggregator.process(eventWithPayload("a")));
+    probe(() -> objectStore.allKeys().size() == 1);
+    aggregator.stop();
+
+    assertThat(processed.get(), is(true));
+    result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+  }
+
+  private List<Future<CoreEvent>> processAll(String... payloads) {
+    List<Future<CoreEvent>> results = new ArrayList<>();
+    for (String payload : payloads) {
+      results.add(executor.submit(() -> aggregator.process(eventWithPayload(payload))));
+    }
+    return results;
+  }
+
+  private Object payloadOf(Future<CoreEvent> result) throws Exception {
+    return result.get(RECEIVE_TIMEOUT, MILLISECONDS).getMessage().getPayload().getValue();
+  }
+
+  private CoreEvent eventWithPayload(String payload) throws MuleException {
+    return getEventBuilder().message(of(payload)).build();
+  }
+}
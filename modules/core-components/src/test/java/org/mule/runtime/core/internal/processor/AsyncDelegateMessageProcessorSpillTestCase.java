@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
+import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.test.allure.AllureConstants.ExecutionEngineFeature.ExecutionEngineStory.BACKPRESSURE;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.AsyncStory.ASYNC;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.construct.FromFlowRejectedExecutionException;
+import org.mule.runtime.core.internal.processor.strategy.StreamPerEventSink;
+import org.mule.runtime.core.privileged.processor.chain.DefaultMessageProcessorChainBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Stories;
+import io.qameta.allure.Story;
+
+@Feature(ROUTERS)
+@Stories({@Story(ASYNC), @Story(BACKPRESSURE)})
+public class AsyncDelegateMessageProcessorSpillTestCase extends AbstractAsyncDelegateMessageProcessorTestCase {
+
+  private BackPressureGeneratorProcessingStrategy strategy;
+
+  public AsyncDelegateMessageProcessorSpillTestCase(Mode mode) {
+    super(mode);
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    super.doSetUp();
+    strategy = new BackPressureGeneratorProcessingStrategy();
+    flow = createAndRegisterFlow(muleContext, APPLE_FLOW, componentLocator, (ctx, n) -> strategy);
+    asyncEntryLatch.countDown();
+  }
+
+  @Test
+  public void spillsWhileBackPressuredAndDrainsOnceAccepted() throws Exception {
+    async = createSpillingAsync(false);
+    async.start();
+    latch = new CountDownLatch(3);
+
+    spillTwoEvents();
+    strategy.setBackPressure(false);
+
+    assertThat(latch.await(LOCK_TIMEOUT, MILLISECONDS), is(true));
+    probe(() -> async.getDrainedEventsCount() == 2 && async.getPendingSpilledEvents() == 0);
+    assertThat(async.getSpilledEventsCount(), is(2L));
+  }
+
+  @Test
+  public void dispatchesSpilledEventsAfterRestart() throws Exception {
+    async = createSpillingAsync(false);
+    async.start();
+
+    spillTwoEvents();
+    async.stop();
+
+    // The event kept on the heap is lost on stop, only the spilled ones are recovered
+    latch = new CountDownLatch(2);
+    async.start();
+    strategy.setBackPressure(false);
+
+    assertThat(latch.await(LOCK_TIMEOUT, MILLISECONDS), is(true));
+    probe(() -> async.getDrainedEventsCount() == 2 && async.getPendingSpilledEvents() == 0);
+  }
+
+  @Test
+  public void discardsSpilledEventsOnStartWhenConfigured() throws Exception {
+    async = createSpillingAsync(true);
+    async.start();
+
+    spillTwoEvents();
+    async.stop();
+
+    latch = new CountDownLatch(1);
+    async.start();
+    assertThat(async.getPendingSpilledEvents(), is(0));
+    strategy.setBackPressure(false);
+
+    process(async, testEvent());
+    assertThat(latch.await(LOCK_TIMEOUT, MILLISECONDS), is(true));
+    assertThat(async.getSpilledEventsCount(), is(0L));
+    assertThat(async.getDrainedEventsCount(), is(0L));
+  }
+
+  @Test
+  public void eventsBackPressuredBeforeStartAreDispatchedOnStart() throws Exception {
+    async = createSpillingAsync(false);
+    latch = new CountDownLatch(1);
+
+    process(async, testEvent());
+    async.start();
+    strategy.setBackPressure(false);
+
+    assertThat(latch.await(LOCK_TIMEOUT, MILLISECONDS), is(true));
+  }
+
+  private void spillTwoEvents() throws Exception {
+    // The first event is kept on the heap, the others are spilled by the dispatcher
+    for (int i = 0; i < 3; ++i) {
+      process(async, testEvent());
+    }
+    probe(() -> async.getSpilledEventsCount() == 2 && async.getPendingSpilledEvents() == 2);
+  }
+
+  private AsyncDelegateMessageProcessor createSpillingAsync(boolean discardSpilledOnStart) throws Exception {
+    DefaultMessageProcessorChainBuilder delegateBuilder = new DefaultMessageProcessorChainBuilder();
+    delegateBuilder.setProcessingStrategy(flow.getProcessingStrategy());
+    delegateBuilder.chain(target);
+
+    // Each test spills to its own file, so that no events are recovered from a previous one
+    AsyncDelegateMessageProcessor mp = new AsyncDelegateMessageProcessor(delegateBuilder, "spill-" + randomUUID());
+    mp.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    mp.setMaxInMemoryEvents(1);
+    mp.setDiscardSpilledOnStart(discardSpilledOnStart);
+    initialiseIfNeeded(mp, true, muleContext);
+    return mp;
+  }
+
+  private class BackPressureGeneratorProcessingStrategy implements ProcessingStrategy {
+
+    private volatile boolean backPressure = true;
+
+    @Override
+    public boolean isSynchronous() {
+      return true;
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      return new StreamPerEventSink(pipeline, event -> {
+      });
+    }
+
+    @Override
+    public void checkBackpressureAccepting(CoreEvent event) throws RejectedExecutionException {
+      if (backPressure) {
+        throw new FromFlowRejectedExecutionException(null);
+      }
+    }
+
+    public void setBackPressure(boolean backPressure) {
+      this.backPressure = backPressure;
+    }
+  }
+}
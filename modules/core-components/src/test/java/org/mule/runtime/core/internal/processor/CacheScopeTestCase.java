@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.CacheStory.CACHE;
+
+import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.nCopies;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.SimpleMemoryObjectStore;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.util.IOUtils;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(SCOPE)
+@Story(CACHE)
+public class CacheScopeTestCase extends AbstractMuleContextTestCase {
+
+  private final AtomicInteger executions = new AtomicInteger();
+  private final ObjectStoreManager objectStoreManager = mock(ObjectStoreManager.class);
+  private final CacheScope cache = new CacheScope();
+
+  @Before
+  public void setUpCache() throws MuleException {
+    when(objectStoreManager.createObjectStore(any(), any())).thenReturn(new SimpleMemoryObjectStore<>());
+
+    muleContext.getInjector().inject(cache);
+    cache.setMuleContext(muleContext);
+    cache.setAnnotations(singletonMap(LOCATION_KEY, TEST_CONNECTOR_LOCATION));
+    cache.setObjectStoreManager(objectStoreManager);
+    cache.setKeyExpression("#[payload]");
+  }
+
+  @After
+  public void after() {
+    disposeIfNeeded(cache, getLogger(getClass()));
+  }
+
+  @Test
+  public void secondRequestIsServedFromCache() throws Exception {
+    cache.setMessageProcessors(singletonList(event -> countingResult(event)));
+    cache.initialise();
+
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("foo:1"));
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("foo:1"));
+
+    assertThat(executions.get(), is(1));
+    assertThat(cache.getMissCount(), is(1L));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void differentKeysAreCachedSeparately() throws Exception {
+    cache.setMessageProcessors(singletonList(event -> countingResult(event)));
+    cache.initialise();
+
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("foo:1"));
+    assertThat(cache.process(eventWithPayload("bar")).getMessage().getPayload().getValue(), is("bar:2"));
+    assertThat(cache.process(eventWithPayload("bar")).getMessage().getPayload().getValue(), is("bar:2"));
+
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void concurrentRequestsAreCoalesced() throws Exception {
+    CountDownLatch executing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    cache.setMessageProcessors(singletonList(event -> {
+      executing.countDown();
+      try {
+        release.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return countingResult(event);
+    }));
+    cache.initialise();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<CoreEvent> leader = executor.submit(() -> cache.process(eventWithPayload("foo")));
+      executing.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      Future<CoreEvent> follower = executor.submit(() -> cache.process(eventWithPayload("foo")));
+      probe(() -> cache.getCoalescedCount() == 1);
+      release.countDown();
+
+      assertThat(leader.get(RECEIVE_TIMEOUT, MILLISECONDS).getMessage().getPayload().getValue(), is("foo:1"));
+      assertThat(follower.get(RECEIVE_TIMEOUT, MILLISECONDS).getMessage().getPayload().getValue(), is("foo:1"));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(executions.get(), is(1));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void failureIsPropagatedToCoalescedRequests() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?>[] results = coalesce(release, event -> {
+      executions.incrementAndGet();
+      throw new DefaultMuleException("Expected");
+    });
+    release.countDown();
+
+    for (Future<?> result : results) {
+      try {
+        result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+        fail("Expected the request to fail");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(MuleException.class)));
+      }
+    }
+    assertThat(executions.get(), is(1));
+  }
+
+  @Test
+  public void coalescedRequestsExecuteOnTheirOwnWhenResultCannotBeCached() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?>[] results = coalesce(release, event -> {
+      executions.incrementAndGet();
+      return CoreEvent.builder(event).message(of(new Object())).build();
+    });
+    release.countDown();
+
+    for (Future<?> result : results) {
+      result.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    }
+    assertThat(executions.get(), is(2));
+    assertThat(cache.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void nullKeyBypassesCache() throws Exception {
+    cache.setKeyExpression("#[null]");
+    cache.setMessageProcessors(singletonList(event -> countingResult(event)));
+    cache.initialise();
+
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("foo:1"));
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("foo:2"));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void nonRepeatableStreamIsNotConsumedByDefaultKey() throws Exception {
+    cache.setKeyExpression(null);
+    cache.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      InputStream payload = (InputStream) event.getMessage().getPayload().getValue();
+      return CoreEvent.builder(event).message(of(IOUtils.toString(payload))).build();
+    }));
+    cache.initialise();
+
+    CoreEvent event = getEventBuilder().message(of(new ByteArrayInputStream("foo".getBytes(UTF_8)))).build();
+    assertThat(cache.process(event).getMessage().getPayload().getValue(), is("foo"));
+    assertThat(executions.get(), is(1));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void failureIsNotCached() throws Exception {
+    cache.setMessageProcessors(singletonList(event -> {
+      if (executions.getAndIncrement() == 0) {
+        throw new DefaultMuleException("Expected");
+      }
+      return CoreEvent.builder(event).message(of("recovered")).build();
+    }));
+    cache.initialise();
+
+    try {
+      cache.process(eventWithPayload("foo"));
+      fail("Expected the first execution to fail");
+    } catch (MuleException e) {
+      // Expected
+    }
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is("recovered"));
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test
+  public void notSerializableResultIsNotCached() throws Exception {
+    cache.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      return CoreEvent.builder(event).message(of(new Object())).build();
+    }));
+    cache.initialise();
+
+    cache.process(eventWithPayload("foo"));
+    cache.process(eventWithPayload("foo"));
+
+    assertThat(executions.get(), is(2));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void cursorStreamResultIsReplayedFromCache() throws Exception {
+    cache.setMessageProcessors(singletonList(event -> {
+      byte[] content = countingResult(event).getMessage().getPayload().getValue().toString().getBytes(UTF_8);
+      return CoreEvent.builder(event).message(of(new ByteArrayCursorStreamProvider(content))).build();
+    }));
+    cache.initialise();
+
+    cache.process(eventWithPayload("foo"));
+    Object cached = cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue();
+
+    assertThat(cached, is(instanceOf(byte[].class)));
+    assertThat(new String((byte[]) cached, UTF_8), is("foo:1"));
+    assertThat(executions.get(), is(1));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void resultBiggerThanMaxEntrySizeIsNotCached() throws Exception {
+    String bigPayload = join("", nCopies(1024, "a"));
+    cache.setMaxEntrySize(512);
+    cache.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      return CoreEvent.builder(event).message(of(bigPayload)).build();
+    }));
+    cache.initialise();
+
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is(bigPayload));
+    assertThat(cache.process(eventWithPayload("foo")).getMessage().getPayload().getValue(), is(bigPayload));
+
+    assertThat(executions.get(), is(2));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void cursorStreamBiggerThanMaxEntrySizeIsNotCached() throws Exception {
+    cache.setMaxEntrySize(512);
+    cache.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      return CoreEvent.builder(event).message(of(new ByteArrayCursorStreamProvider(new byte[1024]))).build();
+    }));
+    cache.initialise();
+
+    cache.process(eventWithPayload("foo"));
+    cache.process(eventWithPayload("foo"));
+
+    assertThat(executions.get(), is(2));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  /**
+   * Starts two requests with the same key, the second one waiting for the execution of the first one, which doesn't finish
+   * until {@code release} is counted down.
+   */
+  private Future<?>[] coalesce(CountDownLatch release, Processor processor) throws Exception {
+    CountDownLatch executing = new CountDownLatch(1);
+    cache.setMessageProcessors(singletonList(event -> {
+      if (executing.getCount() > 0) {
+        executing.countDown();
+        try {
+          release.await(RECEIVE_TIMEOUT, MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return processor.process(event);
+    }));
+    cache.initialise();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<CoreEvent> leader = executor.submit(() -> cache.process(eventWithPayload("foo")));
+      executing.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      Future<CoreEvent> follower = executor.submit(() -> cache.process(eventWithPayload("foo")));
+      probe(() -> cache.getCoalescedCount() == 1);
+      return new Future<?>[] {leader, follower};
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private CoreEvent countingResult(CoreEvent event) {
+    return CoreEvent.builder(event)
+        .message(of(event.getMessage().getPayload().getValue() + ":" + executions.incrementAndGet()))
+        .build();
+  }
+
+  private CoreEvent eventWithPayload(String payload) throws MuleException {
+    return getEventBuilder().message(of(payload)).build();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.ThrottleStory.THROTTLE;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(SCOPE)
+@Story(THROTTLE)
+public class ThrottleBucketTestCase extends AbstractMuleTestCase {
+
+  private static final long INTERVAL = MILLISECONDS.toNanos(100);
+
+  @Test
+  public void burstIsNotDelayed() {
+    ThrottleBucket bucket = new ThrottleBucket(10, 2, 0, 0);
+
+    assertThat(bucket.reserve(0, -1), is(0L));
+    assertThat(bucket.reserve(0, -1), is(0L));
+    assertThat(bucket.reserve(0, -1), is(INTERVAL));
+    assertThat(bucket.reserve(0, -1), is(2 * INTERVAL));
+  }
+
+  @Test
+  public void bucketRefillsOverTime() {
+    ThrottleBucket bucket = new ThrottleBucket(10, 1, 0, 0);
+
+    assertThat(bucket.reserve(0, -1), is(0L));
+    assertThat(bucket.reserve(INTERVAL / 2, -1), is(INTERVAL / 2));
+    assertThat(bucket.reserve(10 * INTERVAL, -1), is(0L));
+  }
+
+  @Test
+  public void reservationLongerThanMaxWaitIsNotTaken() {
+    ThrottleBucket bucket = new ThrottleBucket(10, 1, 0, 0);
+
+    assertThat(bucket.reserve(0, 0), is(0L));
+    assertThat(bucket.reserve(0, INTERVAL - 1), is(-1L));
+    assertThat(bucket.reserve(0, INTERVAL), is(INTERVAL));
+  }
+
+  @Test
+  public void unreservedPermitIsGivenBack() {
+    ThrottleBucket bucket = new ThrottleBucket(10, 1, 0, 0);
+
+    assertThat(bucket.reserve(0, -1), is(0L));
+    bucket.unreserve();
+    assertThat(bucket.reserve(0, -1), is(0L));
+    assertThat(bucket.reserve(0, -1), is(INTERVAL));
+  }
+
+  @Test
+  public void noRateLimit() {
+    ThrottleBucket bucket = new ThrottleBucket(0, 0, 1, 0);
+
+    assertThat(bucket.reserve(0, 0), is(0L));
+    assertThat(bucket.reserve(0, 0), is(0L));
+  }
+
+  @Test
+  public void releasedPermitIsHandedToWaiter() {
+    ThrottleBucket bucket = new ThrottleBucket(0, 0, 1, 0);
+    AtomicInteger granted = new AtomicInteger();
+
+    assertThat(bucket.acquireOrWait(new ThrottleBucket.Waiter(granted::incrementAndGet)), is(true));
+    assertThat(bucket.acquireOrWait(new ThrottleBucket.Waiter(granted::incrementAndGet)), is(false));
+    assertThat(granted.get(), is(0));
+
+    bucket.release();
+    assertThat(granted.get(), is(1));
+    assertThat(bucket.getInFlight(), is(1));
+
+    bucket.release();
+    assertThat(bucket.getInFlight(), is(0));
+  }
+
+  @Test
+  public void cancelledWaiterIsSkipped() {
+    ThrottleBucket bucket = new ThrottleBucket(0, 0, 1, 0);
+    AtomicInteger granted = new AtomicInteger();
+
+    bucket.acquireOrWait(new ThrottleBucket.Waiter(() -> {
+    }));
+    ThrottleBucket.Waiter cancelled = new ThrottleBucket.Waiter(granted::incrementAndGet);
+    bucket.acquireOrWait(cancelled);
+    assertThat(cancelled.claim(), is(true));
+    bucket.cancel(cancelled);
+
+    bucket.release();
+    assertThat(granted.get(), is(0));
+    assertThat(bucket.getInFlight(), is(0));
+  }
+
+  @Test
+  public void grantedWaiterCannotBeClaimed() {
+    ThrottleBucket bucket = new ThrottleBucket(0, 0, 1, 0);
+
+    bucket.acquireOrWait(new ThrottleBucket.Waiter(() -> {
+    }));
+    ThrottleBucket.Waiter waiter = new ThrottleBucket.Waiter(() -> {
+    });
+    bucket.acquireOrWait(waiter);
+    bucket.release();
+
+    assertThat(waiter.isGranted(), is(true));
+    assertThat(waiter.claim(), is(false));
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.ThrottleStory.THROTTLE;
+
+import static java.lang.System.nanoTime;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+@Feature(SCOPE)
+@Story(THROTTLE)
+public class ThrottleScopeTestCase extends AbstractMuleContextTestCase {
+
+  private final AtomicInteger executions = new AtomicInteger();
+  private final ThrottleScope throttle = new ThrottleScope();
+
+  @Before
+  public void setUpThrottle() throws MuleException {
+    muleContext.getInjector().inject(throttle);
+    throttle.setMuleContext(muleContext);
+    throttle.setAnnotations(singletonMap(LOCATION_KEY, TEST_CONNECTOR_LOCATION));
+    throttle.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      return event;
+    }));
+  }
+
+  @After
+  public void after() {
+    disposeIfNeeded(throttle, getLogger(getClass()));
+  }
+
+  @Test
+  public void rateLimitDelaysEvents() throws Exception {
+    throttle.setMaxRate(10);
+    throttle.setBurst(1);
+    throttle.initialise();
+
+    long start = nanoTime();
+    for (int i = 0; i < 3; ++i) {
+      throttle.process(testEvent());
+    }
+
+    assertThat(NANOSECONDS.toMillis(nanoTime() - start), greaterThanOrEqualTo(180L));
+    assertThat(executions.get(), is(3));
+    assertThat(throttle.getDelayedCount(), is(2L));
+    assertThat(throttle.getRejectedCount(), is(0L));
+  }
+
+  @Test
+  public void concurrencyLimitQueuesEvents() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    throttle.setMessageProcessors(singletonList(event -> {
+      executions.incrementAndGet();
+      try {
+        release.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return event;
+    }));
+    throttle.setMaxConcurrency(1);
+    throttle.initialise();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<CoreEvent> first = executor.submit(() -> throttle.process(testEvent()));
+      probe(() -> executions.get() == 1);
+      Future<CoreEvent> second = executor.submit(() -> throttle.process(testEvent()));
+      probe(() -> throttle.getDelayedCount() == 1);
+      assertThat(executions.get(), is(1));
+
+      release.countDown();
+      first.get(RECEIVE_TIMEOUT, MILLISECONDS);
+      second.get(RECEIVE_TIMEOUT, MILLISECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test
+  public void cancelledWaitingEventDoesNotKeepPermit() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    throttle.setMessageProcessors(singletonList(event -> {
+      if (executions.incrementAndGet() == 1) {
+        try {
+          release.await(RECEIVE_TIMEOUT, MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return event;
+    }));
+    throttle.setMaxConcurrency(1);
+    throttle.initialise();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<CoreEvent> first = executor.submit(() -> throttle.process(testEvent()));
+      probe(() -> executions.get() == 1);
+
+      Disposable waiting = Flux.from(throttle.apply(Flux.just(testEvent()))).subscribe();
+      probe(() -> throttle.getDelayedCount() == 1);
+      waiting.dispose();
+
+      release.countDown();
+      first.get(RECEIVE_TIMEOUT, MILLISECONDS);
+
+      // Would wait forever if the cancelled event kept the permit
+      executor.submit(() -> throttle.process(testEvent())).get(RECEIVE_TIMEOUT, MILLISECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test
+  public void cancelledDelayedEventReturnsRatePermit() throws Exception {
+    throttle.setMaxRate(1);
+    throttle.setBurst(1);
+    throttle.setMaxWait(1500);
+    throttle.initialise();
+
+    throttle.process(testEvent());
+    Disposable delayed = Flux.from(throttle.apply(Flux.just(testEvent()))).subscribe();
+    probe(() -> throttle.getDelayedCount() == 1);
+    delayed.dispose();
+
+    // Would have to wait for 2 seconds, more than maxWait, if the cancelled event kept its rate permit
+    throttle.process(testEvent());
+
+    assertThat(executions.get(), is(2));
+    assertThat(throttle.getRejectedCount(), is(0L));
+  }
+
+  @Test
+  public void eventIsRejectedWhenWaitIsTooLong() throws Exception {
+    throttle.setMaxRate(1);
+    throttle.setBurst(1);
+    throttle.setMaxWait(10);
+    throttle.initialise();
+
+    throttle.process(testEvent());
+    try {
+      throttle.process(testEvent());
+      fail("Expected the event to be rejected");
+    } catch (MuleException e) {
+      // Expected
+    }
+
+    assertThat(executions.get(), is(1));
+    assertThat(throttle.getRejectedCount(), is(1L));
+  }
+
+  @Test
+  public void eachKeyHasItsOwnBucket() throws Exception {
+    throttle.setKeyExpression("#[payload]");
+    throttle.setMaxRate(1);
+    throttle.setBurst(1);
+    throttle.setMaxWait(0);
+    throttle.initialise();
+
+    throttle.process(eventWithPayload("a"));
+    throttle.process(eventWithPayload("b"));
+    try {
+      throttle.process(eventWithPayload("a"));
+      fail("Expected the event to be rejected");
+    } catch (MuleException e) {
+      // Expected
+    }
+
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test(expected = InitialisationException.class)
+  public void limitIsRequired() throws Exception {
+    throttle.initialise();
+  }
+
+  @Test(expected = InitialisationException.class)
+  public void unknownRejectionErrorType() throws Exception {
+    throttle.setMaxRate(1);
+    throttle.setRejectionErrorType("APP:UNKNOWN");
+    throttle.initialise();
+  }
+
+  private CoreEvent eventWithPayload(String payload) throws MuleException {
+    return getEventBuilder().message(of(payload)).build();
+  }
+}
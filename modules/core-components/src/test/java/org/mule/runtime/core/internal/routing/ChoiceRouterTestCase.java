@@ -135,6 +135,60 @@ public class ChoiceRouterTestCase extends AbstractReactiveProcessorTestCase {
     assertThat((Map<String, Long>) routerStatistics.getRouted(), hasEntry(containsString(processor.toString()), is((long) 2)));
   }
 
+  @Test
+  public void indexedRoutes() throws Exception {
+    choiceRouter.addRoute(payloadZapExpression(), newChain(empty(), new TestMessageProcessor("bar")));
+    choiceRouter.addRoute("payload == 'foo'", newChain(empty(), new TestMessageProcessor("foo")));
+    choiceRouter.addRoute("'zap' == payload", newChain(empty(), new TestMessageProcessor("shadowed")));
+    choiceRouter.setDefaultRoute(newChain(empty(), new TestMessageProcessor("default")));
+    initialise();
+
+    assertThat(choiceRouter.isIndexed(), is(true));
+    assertThat(process(choiceRouter, zapEvent()).getMessage().getPayload().getValue(), is("zap:bar"));
+    assertThat(process(choiceRouter, fooEvent()).getMessage().getPayload().getValue(), is("foo:foo"));
+    assertThat(process(choiceRouter, eventBuilder(muleContext).message(of("baz")).build()).getMessage().getPayload().getValue(),
+               is("baz:default"));
+  }
+
+  @Test
+  public void indexedIntegerRoutes() throws Exception {
+    choiceRouter.addRoute("payload == 1", newChain(empty(), event -> CoreEvent.builder(event).message(of("one")).build()));
+    choiceRouter.addRoute("payload == 2", newChain(empty(), event -> CoreEvent.builder(event).message(of("two")).build()));
+    initialise();
+
+    assertThat(choiceRouter.isIndexed(), is(true));
+    assertThat(process(choiceRouter, eventBuilder(muleContext).message(of(2)).build()).getMessage().getPayload().getValue(),
+               is("two"));
+    assertThat(process(choiceRouter, eventBuilder(muleContext).message(of(3)).build()).getMessage().getPayload().getValue(),
+               is(3));
+  }
+
+  @Test
+  public void notIndexedWhenDiscriminatorsDiffer() throws Exception {
+    choiceRouter.addRoute(payloadZapExpression(), newChain(empty(), new TestMessageProcessor("bar")));
+    choiceRouter.addRoute("vars.type == 'foo'", newChain(empty(), new TestMessageProcessor("foo")));
+    initialise();
+
+    assertThat(choiceRouter.isIndexed(), is(false));
+    assertThat(process(choiceRouter, zapEvent()).getMessage().getPayload().getValue(), is("zap:bar"));
+  }
+
+  @Test
+  public void indexedRouteWithStatistics() throws Exception {
+    TestMessageProcessor processor = new TestMessageProcessor("bar");
+    choiceRouter.addRoute(payloadZapExpression(), newChain(empty(), processor));
+    choiceRouter.addRoute("payload == 'foo'", newChain(empty(), new TestMessageProcessor("foo")));
+    RouterStatistics routerStatistics = new RouterStatistics(TYPE_OUTBOUND);
+    routerStatistics.setEnabled(true);
+    choiceRouter.setRouterStatistics(routerStatistics);
+    initialise();
+
+    assertThat(choiceRouter.isIndexed(), is(true));
+    assertThat(process(choiceRouter, zapEvent()).getMessage().getPayload().getValue(), is("zap:bar"));
+    assertThat(process(choiceRouter, zapEvent()).getMessage().getPayload().getValue(), is("zap:bar"));
+    assertThat((Map<String, Long>) routerStatistics.getRouted(), hasEntry(containsString(processor.toString()), is((long) 2)));
+  }
+
   @Test
   @Issue("MULE-19512")
   public void failingExpression() throws Exception {
@@ -14,7 +14,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.internal.routing.LatencyWindow.MIN_SAMPLES;
 import static org.mule.tck.MuleTestUtils.createErrorMock;
+import static org.mule.tck.probe.PollingProber.probe;
 import static org.mule.tck.processor.ContextPropagationChecker.assertContextPropagation;
 import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
 import static org.mule.test.allure.AllureConstants.RoutersFeature.FirstSuccessfulStory.FIRST_SUCCESSFUL;
@@ -35,6 +37,9 @@ import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.tck.processor.ContextPropagationChecker;
 
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -72,6 +77,112 @@ public class FirstSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertThat(getPayload(fs, session, "ABCDEFGHI"), is(EXCEPTION_SEEN));
   }
 
+  @Test
+  public void failedRouteIsNotHedged() throws Exception {
+    MuleSession session = new DefaultMuleSession();
+
+    FirstSuccessful fs =
+        createFirstSuccessfulRouter(new TestProcessor("abc"), new TestProcessor("def"), new TestProcessor("ghi"));
+    fs.setHedgeDelay((long) RECEIVE_TIMEOUT);
+    fs.initialise();
+
+    assertThat(getPayload(fs, session, ""), is("No abc"));
+    assertThat(getPayload(fs, session, "abc"), is("No def"));
+    assertThat(getPayload(fs, session, "abcdef"), is("No ghi"));
+    assertThat(getPayload(fs, session, "abcdefghi"), is(EXCEPTION_SEEN));
+    assertThat(getPayload(fs, session, "ABC"), is("No def"));
+    assertThat(getPayload(fs, session, "ABCDEFGHI"), is(EXCEPTION_SEEN));
+    assertThat(fs.getHedgeCount(), is(0L));
+  }
+
+  @Test
+  public void slowRouteIsHedged() throws Exception {
+    final FirstSuccessful[] holder = new FirstSuccessful[1];
+    Processor slow = event -> {
+      probe(() -> holder[0].getHedgeWonCount() == 1);
+      return CoreEvent.builder(event).message(of("slow")).build();
+    };
+    Processor fast = event -> CoreEvent.builder(event).message(of("fast")).build();
+
+    FirstSuccessful fs = createFirstSuccessfulRouter(slow, fast);
+    holder[0] = fs;
+    fs.setHedgeDelay(10L);
+    fs.initialise();
+
+    assertThat(getPayload(fs, new DefaultMuleSession(), ""), is("fast"));
+    assertThat(fs.getHedgeCount(), is(1L));
+    assertThat(fs.getHedgeWonCount(), is(1L));
+  }
+
+  @Test
+  public void hedgeBudgetCapsHedges() throws Exception {
+    final FirstSuccessful[] holder = new FirstSuccessful[1];
+    Processor slow = event -> {
+      probe(() -> holder[0].getHedgeSkippedCount() == 1);
+      return CoreEvent.builder(event).message(of("slow")).build();
+    };
+    Processor fast = event -> CoreEvent.builder(event).message(of("fast")).build();
+
+    FirstSuccessful fs = createFirstSuccessfulRouter(slow, fast);
+    holder[0] = fs;
+    fs.setHedgeDelay(10L);
+    fs.setHedgeBudget(0);
+    fs.initialise();
+
+    assertThat(getPayload(fs, new DefaultMuleSession(), ""), is("slow"));
+    assertThat(fs.getHedgeCount(), is(0L));
+    assertThat(fs.getHedgeSkippedCount(), is(1L));
+  }
+
+  @Test
+  public void nonRepeatableStreamIsNotHedged() throws Exception {
+    Processor slow = event -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return CoreEvent.builder(event).message(of("slow")).build();
+    };
+    Processor fast = event -> CoreEvent.builder(event).message(of("fast")).build();
+
+    FirstSuccessful fs = createFirstSuccessfulRouter(slow, fast);
+    fs.setHedgeDelay(10L);
+    fs.initialise();
+
+    CoreEvent event = fs.process(this.<PrivilegedEvent.Builder>getEventBuilder()
+        .message(of(new ByteArrayInputStream("stream".getBytes()))).build());
+
+    assertThat(event.getMessage().getPayload().getValue(), is("slow"));
+    assertThat(fs.getHedgeCount(), is(0L));
+    assertThat(fs.getHedgeSkippedCount(), is(0L));
+  }
+
+  @Test
+  public void slowRoutesLosingToHedgesAreRecorded() throws Exception {
+    final FirstSuccessful[] holder = new FirstSuccessful[1];
+    final AtomicInteger slowCalls = new AtomicInteger();
+    Processor slow = event -> {
+      int call = slowCalls.incrementAndGet();
+      probe(() -> holder[0].getHedgeWonCount() >= call);
+      return CoreEvent.builder(event).message(of("slow")).build();
+    };
+    Processor fast = event -> CoreEvent.builder(event).message(of("fast")).build();
+
+    FirstSuccessful fs = createFirstSuccessfulRouter(slow, fast);
+    holder[0] = fs;
+    fs.setHedgeDelay(10L);
+    fs.setHedgeDelayPercentile(90);
+    fs.setHedgeBudget(100);
+    fs.initialise();
+
+    for (int i = 0; i < 2 * MIN_SAMPLES; ++i) {
+      assertThat(getPayload(fs, new DefaultMuleSession(), ""), is("fast"));
+    }
+    // Only the fast hedges win, the percentile would drop below the delay if the slow routes were not recorded
+    probe(() -> fs.getCurrentHedgeDelay() >= 10);
+  }
+
   @Test
   public void testRouteReturnsNullMessage() throws Exception {
     Processor nullEventMp = event -> CoreEvent.builder(event).message(c -> null).build();
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.core.internal.routing.LatencyWindow.RECALCULATION_INTERVAL;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.FirstSuccessfulStory.FIRST_SUCCESSFUL;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(ROUTERS)
+@Story(FIRST_SUCCESSFUL)
+public class LatencyWindowTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void noPercentileBeforeMinSamples() {
+    LatencyWindow window = new LatencyWindow(50, 10, 3);
+
+    window.record(10);
+    window.record(20);
+    assertThat(window.getPercentile(), is(-1L));
+
+    window.record(30);
+    assertThat(window.getPercentile(), is(20L));
+  }
+
+  @Test
+  public void percentileOfFullWindow() {
+    LatencyWindow window = new LatencyWindow(90, 10, 10);
+
+    for (int i = 1; i <= 10; ++i) {
+      window.record(i * 10);
+    }
+    assertThat(window.getPercentile(), is(90L));
+  }
+
+  @Test
+  public void oldLatenciesLeaveTheWindow() {
+    LatencyWindow window = new LatencyWindow(50, 10, 10);
+
+    for (int i = 0; i < 10; ++i) {
+      window.record(1000);
+    }
+    assertThat(window.getPercentile(), is(1000L));
+
+    for (int i = 0; i < RECALCULATION_INTERVAL; ++i) {
+      window.record(10);
+    }
+    assertThat(window.getPercentile(), is(10L));
+  }
+}
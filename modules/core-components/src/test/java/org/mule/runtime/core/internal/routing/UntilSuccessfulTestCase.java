@@ -9,6 +9,8 @@ package org.mule.runtime.core.internal.routing;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.getInstance;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.OPEN;
 import static org.mule.runtime.core.internal.routing.UntilSuccessfulRouter.RETRY_CTX_INTERNAL_PARAM_KEY;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
 import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
@@ -48,6 +50,9 @@ import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.api.transaction.Transaction;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.CircuitBreakerConfig;
+import org.mule.runtime.core.internal.retry.CircuitBreakerOpenException;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.privileged.processor.InternalProcessor;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
@@ -364,6 +369,66 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertNoRetryContextAfterScopeExecutions(4);
   }
 
+  @Test
+  public void openCircuitBreakerFailsFast() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.MAX_VALUE);
+    CircuitBreakerConfig circuitBreakerConfig = buildCircuitBreakerConfig(60000);
+    untilSuccessful.setCircuitBreaker(circuitBreakerConfig);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    // The second failed attempt opens the breaker, so the last retry is not attempted
+    assertCircuitBreakerOpenError(untilSuccessful);
+    assertThat(targetMessageProcessor.getEventCount(), is(2));
+
+    // Further events are not attempted at all
+    assertCircuitBreakerOpenError(untilSuccessful);
+    assertThat(targetMessageProcessor.getEventCount(), is(2));
+
+    CircuitBreaker circuitBreaker = circuitBreakerConfig.getCircuitBreaker();
+    assertThat(circuitBreaker.getState(), is(OPEN));
+    assertThat(circuitBreaker.getRejectedCalls(), is(2L));
+  }
+
+  @Test
+  public void circuitBreakerClosesWhenTrialSucceeds() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(2);
+    CircuitBreakerConfig circuitBreakerConfig = buildCircuitBreakerConfig(0);
+    untilSuccessful.setCircuitBreaker(circuitBreakerConfig);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    final CoreEvent testEvent = eventBuilder(muleContext).message(of("ERROR")).build();
+    assertSame(testEvent.getMessage(), untilSuccessful.process(testEvent).getMessage());
+    assertThat(targetMessageProcessor.getEventCount(), is(3));
+
+    CircuitBreaker circuitBreaker = circuitBreakerConfig.getCircuitBreaker();
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(circuitBreaker.getOpenedCount(), is(1L));
+  }
+
+  private CircuitBreakerConfig buildCircuitBreakerConfig(long openDuration) throws Exception {
+    CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    circuitBreakerConfig.setName("backend");
+    circuitBreakerConfig.setSlidingWindowSize(2);
+    circuitBreakerConfig.setMinimumCalls(2);
+    circuitBreakerConfig.setFailureRateThreshold(100);
+    circuitBreakerConfig.setHalfOpenCalls(1);
+    circuitBreakerConfig.setOpenDuration(openDuration);
+    muleContext.getInjector().inject(circuitBreakerConfig);
+    circuitBreakerConfig.initialise();
+    return circuitBreakerConfig;
+  }
+
+  private void assertCircuitBreakerOpenError(UntilSuccessful untilSuccessful) throws MuleException {
+    try {
+      untilSuccessful.process(eventBuilder(muleContext).message(of("ERROR")).build());
+      fail("A circuit breaker error was expected from an until successful scope");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), instanceOf(CircuitBreakerOpenException.class));
+    }
+  }
+
   @Test
   public void subscriberContextPropagation() throws MuleException {
     final ContextPropagationChecker contextPropagationChecker = new ContextPropagationChecker();
@@ -395,7 +460,7 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
 
     final UntilSuccessfulRouter router = new UntilSuccessfulRouter(flow, emitter.flux(), e -> e, ps,
                                                                    muleContext.getExpressionManager(), null, null,
-                                                                   "1", MILLIS_BETWEEN_RETRIES, true);
+                                                                   "1", MILLIS_BETWEEN_RETRIES, true, null);
     // Assert that the inner flux was registered in the ps.
     verify(ps).configureInternalPublisher(any());
 
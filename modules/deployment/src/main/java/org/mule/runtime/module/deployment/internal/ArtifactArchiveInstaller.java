@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.deployment.internal;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static org.apache.commons.io.FileUtils.deleteDirectory;
 import static org.apache.commons.io.FileUtils.deleteQuietly;
@@ -13,11 +14,13 @@ import static org.apache.commons.io.FileUtils.toFile;
 import static org.apache.commons.io.FileUtils.writeStringToFile;
 import static org.apache.commons.io.FilenameUtils.getBaseName;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getExecutionFolder;
 import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
 import static org.mule.runtime.module.deployment.internal.DefaultArchiveDeployer.JAR_FILE_SUFFIX;
 import static org.mule.runtime.module.deployment.internal.MuleDeploymentService.ARTIFACT_ANCHOR_SUFFIX;
+import static org.mule.runtime.module.deployment.internal.SharedArtifactStore.SHARED_ARTIFACT_STORE_FOLDER;
+import static org.mule.runtime.module.deployment.internal.SharedArtifactStore.SHARED_ARTIFACT_STORE_PROPERTY;
 
-import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.deployment.model.api.DeploymentException;
 import org.mule.runtime.deployment.model.api.DeploymentInitException;
 
@@ -25,6 +28,7 @@ import java.beans.Introspector;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +44,24 @@ public class ArtifactArchiveInstaller {
   private static final Logger logger = LoggerFactory.getLogger(ArtifactArchiveInstaller.class);
 
   private final File artifactParentDir;
+  private final SharedArtifactStore sharedArtifactStore;
+  private final ParallelArchiveExtractor extractor;
 
   public ArtifactArchiveInstaller(File artifactParentDir) {
+    this(artifactParentDir, getBoolean(SHARED_ARTIFACT_STORE_PROPERTY)
+        ? new SharedArtifactStore(new File(getExecutionFolder(), SHARED_ARTIFACT_STORE_FOLDER))
+        : null);
+  }
+
+  /**
+   * @param artifactParentDir   the folder to install the artifacts in.
+   * @param sharedArtifactStore the store to keep the jars of the artifacts in. If {@code null}, the jars are extracted to the
+   *                            folder of each artifact.
+   */
+  ArtifactArchiveInstaller(File artifactParentDir, SharedArtifactStore sharedArtifactStore) {
     this.artifactParentDir = artifactParentDir;
+    this.sharedArtifactStore = sharedArtifactStore;
+    this.extractor = new ParallelArchiveExtractor(sharedArtifactStore);
   }
 
   /**
@@ -86,7 +105,10 @@ public class ArtifactArchiveInstaller {
       // normalize the full path + protocol to make unzip happy
       final File source = artifactFile;
 
-      FileUtils.unzip(source, artifactDir);
+      Set<String> sharedJars = extractor.extract(source, artifactDir);
+      if (sharedArtifactStore != null) {
+        sharedArtifactStore.setReferences(artifactParentDir.getName(), artifactName, sharedJars);
+      }
       if ("file".equals(artifactUri.getScheme())
           && toFile(artifactUri.toURL()).getAbsolutePath().startsWith(artifactParentDir.getAbsolutePath())) {
         deleteQuietly(source);
@@ -121,6 +143,9 @@ public class ArtifactArchiveInstaller {
       // remove a marker, harmless, but a tidy artifact dir is always better :)
       File marker = getArtifactAnchorFile(artifactName);
       marker.delete();
+      if (sharedArtifactStore != null) {
+        sharedArtifactStore.release(artifactParentDir.getName(), artifactName);
+      }
       Introspector.flushCaches();
     } catch (Throwable t) {
       if (t instanceof DeploymentException) {
@@ -9,7 +9,6 @@ package org.mule.runtime.module.deployment.internal;
 
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
-import static org.mule.runtime.core.api.util.FileUtils.unzip;
 import static org.mule.runtime.module.deployment.internal.DefaultArchiveDeployer.JAR_FILE_SUFFIX;
 import static org.mule.runtime.module.deployment.internal.DefaultArchiveDeployer.ZIP_FILE_SUFFIX;
 
@@ -20,7 +19,6 @@ import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.io.FilenameUtils.getBaseName;
 import static org.apache.commons.lang3.StringUtils.removeEndIgnoreCase;
 
-import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.deployment.model.api.DeploymentException;
 import org.mule.runtime.deployment.model.api.application.Application;
 import org.mule.runtime.deployment.model.api.application.ApplicationStatus;
@@ -58,6 +56,8 @@ public class DomainBundleArchiveDeployer {
   private final DeploymentListener domainDeploymentListener;
   private final CompositeDeploymentListener applicationDeploymentListener;
   private final DeploymentService deploymentService;
+  // Jars are not kept in the shared store here, the domain deployer does it when installing the extracted domain
+  private final ParallelArchiveExtractor extractor = new ParallelArchiveExtractor(null);
 
   /**
    * Creates a new deployer
@@ -215,7 +215,7 @@ public class DomainBundleArchiveDeployer {
     Domain domain = findDomain(domainName);
     if (domain != null) {
       domainDeployer.undeployArtifact(domainName);
-      unzip(domainFile, domain.getLocation());
+      extractor.extract(domainFile, domain.getLocation());
     }
 
     domainDeployer.deployPackagedArtifact(domainFile.toURI(), empty());
@@ -239,7 +239,7 @@ public class DomainBundleArchiveDeployer {
     File tempFolder = createTempDirectory(bundleFile.getName()).toFile();
     tempFolder.delete();
     tempFolder.mkdirs();
-    FileUtils.unzip(bundleFile, tempFolder);
+    extractor.extract(bundleFile, tempFolder);
     bundleFile.delete();
     return tempFolder;
   }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.FileUtils.newFile;
+import static org.mule.runtime.core.api.util.FileUtils.verifyZipFilePaths;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.nio.file.Files.copy;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts the artifact archives, writing their entries from several threads.
+ * <p>
+ * If a {@link SharedArtifactStore} is given, the jars in the {@code repository} folder of the archive are kept in it and linked
+ * from the extracted folder instead of being written there.
+ * <p>
+ * The entries are written by a pool of threads shared by all the extractions, so that deploying many artifacts at once does
+ * not start a pool for each of them. Its threads are released once idle.
+ *
+ * @since 4.6
+ */
+class ParallelArchiveExtractor {
+
+  public static final String EXTRACTION_THREADS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "deployment.extractionThreads";
+
+  private static final String REPOSITORY_FOLDER = "repository/";
+  private static final String JAR_SUFFIX = ".jar";
+
+  private static final int DEFAULT_THREADS = getInteger(EXTRACTION_THREADS_PROPERTY, min(getRuntime().availableProcessors(), 4));
+
+  private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+  private final SharedArtifactStore store;
+  private final int threads;
+
+  ParallelArchiveExtractor(SharedArtifactStore store) {
+    this(store, DEFAULT_THREADS);
+  }
+
+  ParallelArchiveExtractor(SharedArtifactStore store, int threads) {
+    this.store = store;
+    this.threads = threads;
+  }
+
+  /**
+   * Extracts the given archive, after verifying the paths of all its entries.
+   *
+   * @param archive   the archive to extract.
+   * @param directory the directory to extract it to.
+   * @return the SHA-256 of the jars kept in the {@link SharedArtifactStore}. Empty if there is no store.
+   * @throws IOException if the archive could not be read or extracted.
+   */
+  Set<String> extract(File archive, File directory) throws IOException {
+    if (directory.exists()) {
+      if (!directory.isDirectory()) {
+        throw new IOException("Directory is not a directory: " + directory);
+      }
+    } else if (!directory.mkdirs()) {
+      throw new IOException("Could not create directory: " + directory);
+    }
+
+    Set<String> hashes = ConcurrentHashMap.newKeySet();
+    try {
+      extract(archive, directory, hashes);
+    } catch (IOException | RuntimeException e) {
+      // The jars stored so far will not be referenced by the artifact
+      if (store != null) {
+        store.unpin(hashes);
+      }
+      throw e;
+    }
+    return hashes;
+  }
+
+  private void extract(File archive, File directory, Set<String> hashes) throws IOException {
+    try (ZipFile zip = new ZipFile(archive)) {
+      verifyZipFilePaths(zip);
+
+      // Folders are created up front, so that the entries can be written in any order
+      List<ZipEntry> files = new ArrayList<>();
+      for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+        ZipEntry entry = entries.nextElement();
+        File file = newFile(directory, entry.getName());
+        File folder = entry.isDirectory() ? file : file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+          throw new IOException("Could not create directory: " + folder);
+        }
+        if (!entry.isDirectory()) {
+          files.add(entry);
+        }
+      }
+
+      if (threads <= 1 || files.size() <= 1) {
+        for (ZipEntry entry : files) {
+          extractEntry(zip, entry, directory, hashes);
+        }
+      } else {
+        extractInParallel(zip, files, directory, hashes);
+      }
+    }
+  }
+
+  private void extractInParallel(ZipFile zip, List<ZipEntry> files, File directory, Set<String> hashes) throws IOException {
+    // Each worker takes entries until there are none left, so that an archive does not take more than its share of the pool
+    Queue<ZipEntry> pending = new ConcurrentLinkedQueue<>(files);
+    List<Future<?>> workers = new ArrayList<>();
+    try {
+      for (int i = 0; i < min(threads, files.size()); ++i) {
+        workers.add(EXECUTOR.submit(() -> {
+          ZipEntry entry;
+          while ((entry = pending.poll()) != null) {
+            extractEntry(zip, entry, directory, hashes);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Could not extract archive: " + zip.getName(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while extracting archive: " + zip.getName());
+    } finally {
+      // The zip file is closed once this returns, so the other workers must not keep reading from it
+      pending.clear();
+      for (Future<?> worker : workers) {
+        worker.cancel(true);
+      }
+    }
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    NamedThreadFactory threadFactory = new NamedThreadFactory("artifact-extractor") {
+
+      @Override
+      protected void doConfigureThread(Thread t) {
+        super.doConfigureThread(t);
+        // So that an idle pool does not hold back the shutdown of the container
+        t.setDaemon(true);
+      }
+    };
+    int poolSize = max(DEFAULT_THREADS, 1);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(poolSize, poolSize, 30, SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private void extractEntry(ZipFile zip, ZipEntry entry, File directory, Set<String> hashes) throws IOException {
+    File file = newFile(directory, entry.getName());
+    try (InputStream is = zip.getInputStream(entry)) {
+      if (store != null && entry.getName().startsWith(REPOSITORY_FOLDER) && entry.getName().endsWith(JAR_SUFFIX)) {
+        String hash = store.store(is, file);
+        if (!hashes.add(hash)) {
+          // Already pinned for this archive by another entry with the same contents
+          store.unpin(singleton(hash));
+        }
+      } else {
+        copy(is, file.toPath(), REPLACE_EXISTING);
+      }
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.copy;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createLink;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.readAllLines;
+import static java.nio.file.Files.write;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import static org.apache.commons.io.FileUtils.listFiles;
+import static org.apache.commons.io.IOUtils.copyLarge;
+import static org.apache.commons.io.filefilter.TrueFileFilter.TRUE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+
+/**
+ * Content-addressed store for the jars of the deployed artifacts, so that a jar used by many artifacts is kept once on disk and
+ * in the OS page cache.
+ * <p>
+ * Each jar is kept under its SHA-256 and hard linked from the folder of every artifact that contains it. If the file system does
+ * not support hard links, the jar is copied instead. The jars each artifact links to are recorded in a references file, and
+ * stored jars no longer referenced by any artifact are deleted once an artifact is undeployed or redeployed. A stored jar being
+ * deleted does not affect the artifacts linking to it, since each hard link keeps the contents.
+ * <p>
+ * A stored jar is pinned from the moment it is linked until the artifact linking to it records its references, so that it is not
+ * deleted meanwhile by the undeployment of another artifact.
+ *
+ * @since 4.6
+ */
+public class SharedArtifactStore {
+
+  private static final Logger LOGGER = getLogger(SharedArtifactStore.class);
+
+  public static final String SHARED_ARTIFACT_STORE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "deployment.sharedArtifactStore";
+  public static final String SHARED_ARTIFACT_STORE_FOLDER = "artifact-store";
+
+  private static final String BLOBS_FOLDER = "blobs";
+  private static final String REFERENCES_FOLDER = "references";
+  private static final String TEMP_FOLDER = "tmp";
+  private static final String BLOB_SUFFIX = ".jar";
+
+  // Shared by the stores of all the deployers, so that the garbage collection of one does not run while another is linking
+  private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+  // The amount of artifacts being installed that linked each stored jar and have not recorded their references yet
+  private static final ConcurrentMap<File, Integer> PINS = new ConcurrentHashMap<>();
+
+  private final File blobsFolder;
+  private final File referencesFolder;
+  private final File tempFolder;
+
+  /**
+   * @param storeFolder the folder to keep the jars and the references in.
+   */
+  public SharedArtifactStore(File storeFolder) {
+    this.blobsFolder = new File(storeFolder, BLOBS_FOLDER);
+    this.referencesFolder = new File(storeFolder, REFERENCES_FOLDER);
+    this.tempFolder = new File(storeFolder, TEMP_FOLDER);
+  }
+
+  /**
+   * Stores the given contents, if not stored yet, and links the target file to them.
+   * <p>
+   * The stored contents are pinned until {@link #setReferences(String, String, Set)} or {@link #unpin(Set)} is called with their
+   * hash.
+   *
+   * @param content the contents to store. Not closed by this method.
+   * @param target  the file to link to the stored contents.
+   * @return the SHA-256 of the contents.
+   * @throws IOException if the contents could not be stored or linked.
+   */
+  public String store(InputStream content, File target) throws IOException {
+    createDirectories(tempFolder.toPath());
+    Path temp = createTempFile(tempFolder.toPath(), "blob", null);
+    try {
+      MessageDigest digest = newDigest();
+      try (OutputStream os = new DigestOutputStream(newOutputStream(temp), digest)) {
+        copyLarge(content, os);
+      }
+      String hash = toHex(digest.digest());
+
+      LOCK.readLock().lock();
+      try {
+        File blobFile = getBlob(hash);
+        Path blob = blobFile.toPath();
+        // Pinned before the lock is released, since the references are recorded once the whole artifact is extracted
+        PINS.merge(blobFile, 1, Integer::sum);
+        try {
+          if (!exists(blob)) {
+            createDirectories(blob.getParent());
+            try {
+              move(temp, blob, ATOMIC_MOVE);
+            } catch (IOException e) {
+              // Stored concurrently by another artifact
+              if (!exists(blob)) {
+                throw e;
+              }
+            }
+          }
+          link(blob, target.toPath());
+        } catch (IOException | RuntimeException e) {
+          unpin(blobFile);
+          throw e;
+        }
+      } finally {
+        LOCK.readLock().unlock();
+      }
+      return hash;
+    } finally {
+      deleteIfExists(temp);
+    }
+  }
+
+  private void link(Path blob, Path target) throws IOException {
+    deleteIfExists(target);
+    try {
+      createLink(target, blob);
+    } catch (UnsupportedOperationException | IOException e) {
+      LOGGER.debug("Could not link '{}' to '{}', copying it instead", target, blob, e);
+      copy(blob, target, REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Records the stored contents an artifact links to, replacing the ones recorded for a previous deployment of it, unpins them
+   * and deletes the stored contents no longer referenced.
+   *
+   * @param group        the group of the artifact, to tell apart artifacts of different kinds with the same name.
+   * @param artifactName the name of the artifact.
+   * @param hashes       the SHA-256 of the contents the artifact links to.
+   * @throws IOException if the references could not be written.
+   */
+  public void setReferences(String group, String artifactName, Set<String> hashes) throws IOException {
+    LOCK.writeLock().lock();
+    try {
+      try {
+        Path references = getReferences(group, artifactName).toPath();
+        createDirectories(references.getParent());
+        Path temp = createTempFile(references.getParent(), artifactName, null);
+        write(temp, hashes, UTF_8);
+        move(temp, references, REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        // Also if the references could not be recorded, since then the installation of the artifact fails
+        unpin(hashes);
+      }
+      collectGarbage();
+    } finally {
+      LOCK.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Unpins stored contents that will not be referenced, because the installation of the artifact linking to them failed. They
+   * are deleted by a later garbage collection.
+   *
+   * @param hashes the SHA-256 of the contents returned by {@link #store(InputStream, File)}.
+   */
+  public void unpin(Set<String> hashes) {
+    hashes.forEach(hash -> unpin(getBlob(hash)));
+  }
+
+  private void unpin(File blob) {
+    PINS.computeIfPresent(blob, (file, pins) -> pins > 1 ? pins - 1 : null);
+  }
+
+  /**
+   * Removes the references of an undeployed artifact and deletes the stored contents no longer referenced.
+   *
+   * @param group        the group of the artifact.
+   * @param artifactName the name of the artifact.
+   */
+  public void release(String group, String artifactName) {
+    LOCK.writeLock().lock();
+    try {
+      deleteIfExists(getReferences(group, artifactName).toPath());
+      collectGarbage();
+    } catch (IOException e) {
+      LOGGER.warn("Could not release the shared jars of artifact '{}'", artifactName, e);
+    } finally {
+      LOCK.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param hash the SHA-256 of some stored contents.
+   * @return the amount of artifacts linking to the contents.
+   * @throws IOException if the references could not be read.
+   */
+  public int getReferenceCount(String hash) throws IOException {
+    LOCK.readLock().lock();
+    try {
+      int count = 0;
+      for (File references : listReferences()) {
+        if (readAllLines(references.toPath(), UTF_8).contains(hash)) {
+          ++count;
+        }
+      }
+      return count;
+    } finally {
+      LOCK.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param hash the SHA-256 of some contents.
+   * @return the file the contents are stored in. It may not exist.
+   */
+  public File getBlob(String hash) {
+    return new File(new File(blobsFolder, hash.substring(0, 2)), hash + BLOB_SUFFIX);
+  }
+
+  private File getReferences(String group, String artifactName) {
+    return new File(new File(referencesFolder, group), artifactName);
+  }
+
+  private void collectGarbage() throws IOException {
+    if (!blobsFolder.exists()) {
+      return;
+    }
+
+    Set<String> referenced = new HashSet<>();
+    for (File references : listReferences()) {
+      referenced.addAll(readAllLines(references.toPath(), UTF_8));
+    }
+
+    for (File blob : listFiles(blobsFolder, TRUE, TRUE)) {
+      String hash = blob.getName().substring(0, blob.getName().length() - BLOB_SUFFIX.length());
+      if (!referenced.contains(hash) && !PINS.containsKey(blob)) {
+        LOGGER.debug("Deleting shared jar '{}', no longer referenced", blob);
+        deleteIfExists(blob.toPath());
+      }
+    }
+  }
+
+  private Iterable<File> listReferences() {
+    if (!referencesFolder.exists()) {
+      return new HashSet<>();
+    }
+    return listFiles(referencesFolder, TRUE, TRUE);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every JVM is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.readAllBytes;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SharedArtifactStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String APPS = "apps";
+  private static final String SHARED_JAR = "repository/org/test/shared/1.0/shared-1.0.jar";
+  private static final String CONFIG = "mule-config.xml";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private SharedArtifactStore store;
+  private File appsFolder;
+
+  @Before
+  public void before() throws IOException {
+    store = new SharedArtifactStore(temporaryFolder.newFolder("store"));
+    appsFolder = temporaryFolder.newFolder(APPS);
+  }
+
+  @Test
+  public void sameContentsAreStoredOnce() throws IOException {
+    File first = new File(temporaryFolder.getRoot(), "first.jar");
+    File second = new File(temporaryFolder.getRoot(), "second.jar");
+
+    String hash = store.store(contents("jar"), first);
+
+    assertThat(store.store(contents("jar"), second), is(hash));
+    assertThat(store.getBlob(hash).exists(), is(true));
+    assertThat(new String(readAllBytes(first.toPath()), UTF_8), is("jar"));
+    assertThat(new String(readAllBytes(second.toPath()), UTF_8), is("jar"));
+  }
+
+  @Test
+  public void installedArtifactsLinkToStoredJars() throws Exception {
+    ArtifactArchiveInstaller installer = new ArtifactArchiveInstaller(appsFolder, store);
+
+    File firstApp = installer.installArtifact(createArchive("first-app").toURI());
+    File secondApp = installer.installArtifact(createArchive("second-app").toURI());
+
+    assertThat(new String(readAllBytes(new File(firstApp, SHARED_JAR).toPath()), UTF_8), is(SHARED_JAR));
+    assertThat(new String(readAllBytes(new File(secondApp, CONFIG).toPath()), UTF_8), is(CONFIG));
+    assertThat(store.getReferenceCount(hash(SHARED_JAR)), is(2));
+  }
+
+  @Test
+  public void storedJarsAreDeletedOnceNoLongerReferenced() throws Exception {
+    ArtifactArchiveInstaller installer = new ArtifactArchiveInstaller(appsFolder, store);
+    installer.installArtifact(createArchive("first-app").toURI());
+    File secondApp = installer.installArtifact(createArchive("second-app").toURI());
+    String hash = hash(SHARED_JAR);
+    File blob = store.getBlob(hash);
+
+    installer.uninstallArtifact("first-app");
+    assertThat(store.getReferenceCount(hash), is(1));
+    assertThat(blob.exists(), is(true));
+
+    installer.uninstallArtifact("second-app");
+    assertThat(store.getReferenceCount(hash), is(0));
+    assertThat(blob.exists(), is(false));
+    assertThat(secondApp.exists(), is(false));
+  }
+
+  @Test
+  public void linkedJarsSurviveDeletingStoredJar() throws Exception {
+    File target = new File(temporaryFolder.getRoot(), "linked.jar");
+    String hash = store.store(contents("jar"), target);
+    store.unpin(singleton(hash));
+
+    store.setReferences(APPS, "app", emptySet());
+
+    assertThat(store.getBlob(hash).exists(), is(false));
+    assertThat(new String(readAllBytes(target.toPath()), UTF_8), is("jar"));
+  }
+
+  @Test
+  public void linkedJarsAreKeptUntilReferenced() throws Exception {
+    File target = new File(temporaryFolder.getRoot(), "linked.jar");
+    String hash = store.store(contents("jar"), target);
+
+    // The undeployment of another artifact while this one is still being installed
+    store.release(APPS, "other-app");
+    assertThat(store.getBlob(hash).exists(), is(true));
+
+    store.setReferences(APPS, "app", singleton(hash));
+    store.release(APPS, "other-app");
+    assertThat(store.getBlob(hash).exists(), is(true));
+
+    store.release(APPS, "app");
+    assertThat(store.getBlob(hash).exists(), is(false));
+  }
+
+  @Test
+  public void failedExtractionUnpinsStoredJars() throws Exception {
+    String hash = hash(SHARED_JAR);
+    File archive = createArchive("app");
+    File folder = temporaryFolder.newFolder("extracted");
+    // A non empty folder where a file of the archive goes, so that it cannot be written
+    new File(new File(folder, CONFIG), "content").mkdirs();
+
+    try {
+      new ParallelArchiveExtractor(store, 1).extract(archive, folder);
+      fail("Extraction should fail");
+    } catch (IOException e) {
+      // expected
+    }
+
+    store.release(APPS, "other-app");
+    assertThat(store.getBlob(hash).exists(), is(false));
+  }
+
+  @Test
+  public void extractsWithoutStore() throws Exception {
+    File folder = temporaryFolder.newFolder("extracted");
+
+    Set<String> hashes = new ParallelArchiveExtractor(null, 4).extract(createArchive("app"), folder);
+
+    assertThat(hashes, is(empty()));
+    assertThat(new String(readAllBytes(new File(folder, SHARED_JAR).toPath()), UTF_8), is(SHARED_JAR));
+    assertThat(new String(readAllBytes(new File(folder, CONFIG).toPath()), UTF_8), is(CONFIG));
+  }
+
+  @Test
+  public void extractsWithStore() throws Exception {
+    File folder = temporaryFolder.newFolder("extracted");
+
+    Set<String> hashes = new ParallelArchiveExtractor(store, 4).extract(createArchive("app"), folder);
+
+    assertThat(hashes, hasSize(1));
+    assertThat(store.getBlob(hash(SHARED_JAR)).exists(), is(true));
+  }
+
+  private String hash(String content) throws IOException {
+    File scratch = temporaryFolder.newFile();
+    String hash = store.store(contents(content), scratch);
+    store.unpin(singleton(hash));
+    return hash;
+  }
+
+  private File createArchive(String name) throws IOException {
+    File archive = new File(temporaryFolder.getRoot(), name + ".jar");
+    try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+      zip.putNextEntry(new ZipEntry("repository/"));
+      zip.closeEntry();
+      addEntry(zip, SHARED_JAR);
+      addEntry(zip, CONFIG);
+    }
+    return archive;
+  }
+
+  private void addEntry(ZipOutputStream zip, String name) throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(name.getBytes(UTF_8));
+    zip.closeEntry();
+  }
+
+  private ByteArrayInputStream contents(String content) {
+    return new ByteArrayInputStream(content.getBytes(UTF_8));
+  }
+}
@@ -14,7 +14,6 @@ import static org.mule.runtime.api.util.Preconditions.checkState;
 import static org.mule.runtime.core.api.extension.provider.MuleExtensionModelProvider.getMuleVersion;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.module.extension.api.util.MuleExtensionUtils.getInitialiserEvent;
-import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBuilderUtils.createInstance;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveCursorAsUnclosable;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveValue;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.typedValueAsUnclosable;
@@ -35,7 +34,10 @@ import org.mule.runtime.module.extension.internal.util.FieldSetter;
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -51,11 +53,12 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
   private MuleContext muleContext;
 
   protected final Class<T> prototypeClass;
-  protected final Map<FieldSetter, ValueResolver<Object>> resolvers = new HashMap<>();
+  protected final Map<FieldSetter, ValueResolver<Object>> resolvers = new LinkedHashMap<>();
   protected final Map<String, ValueResolver<? extends Object>> resolverByFieldName = new HashMap<>();
   protected ReflectionCache reflectionCache;
   private String name = null;
   private String encoding = null;
+  private volatile InjectionPlan<T> injectionPlan;
 
   /**
    * Creates a new instance that will build instances of {@code prototypeClass}.
@@ -101,6 +104,7 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
     resolverByFieldName.put(field.getName(), resolver);
 
     resolvers.put(new FieldSetter<>(field), (ValueResolver<Object>) resolver);
+    injectionPlan = null;
     return this;
   }
 
@@ -114,21 +118,40 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
 
   @Override
   public T build(ValueResolvingContext context) throws MuleException {
-    T object = createInstance(prototypeClass);
+    InjectionPlan<T> plan = getInjectionPlan();
+    T object = plan.injector.newInstance();
 
-    for (Map.Entry<FieldSetter, ValueResolver<Object>> entry : resolvers.entrySet()) {
-      final Object resolvedValue = resolveValue(entry.getValue(), context);
+    final ValueResolver<Object>[] fieldResolvers = plan.resolvers;
+    final Object[] values = new Object[fieldResolvers.length];
+    for (int i = 0; i < fieldResolvers.length; ++i) {
+      final Object resolvedValue = resolveValue(fieldResolvers[i], context);
 
-      entry.getKey().set(object,
-                         context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
-                             : typedValueAsUnclosable(resolvedValue));
+      values[i] = context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
+          : typedValueAsUnclosable(resolvedValue);
     }
+    plan.injector.inject(object, values);
 
     injectFields(object, name, encoding, getMuleVersion(), reflectionCache);
 
     return object;
   }
 
+  private InjectionPlan<T> getInjectionPlan() {
+    InjectionPlan<T> plan = injectionPlan;
+    if (plan == null) {
+      List<Field> fields = new ArrayList<>(resolvers.size());
+      ValueResolver<Object>[] fieldResolvers = new ValueResolver[resolvers.size()];
+      for (Map.Entry<FieldSetter, ValueResolver<Object>> entry : resolvers.entrySet()) {
+        fieldResolvers[fields.size()] = entry.getValue();
+        fields.add(entry.getKey().getField());
+      }
+
+      plan = new InjectionPlan<>(reflectionCache.getObjectInjector(prototypeClass, fields), fieldResolvers);
+      injectionPlan = plan;
+    }
+    return plan;
+  }
+
   public void setName(String name) {
     this.name = name;
   }
@@ -160,4 +183,18 @@ public class DefaultObjectBuilder<T> implements ObjectBuilder<T>, Initialisable,
   public Map<String, ValueResolver<? extends Object>> getParameters() {
     return unmodifiableMap(resolverByFieldName);
   }
+
+  /**
+   * The {@link ObjectInjector} for the fields which have a resolver, along with the resolver of each of those fields.
+   */
+  private static final class InjectionPlan<T> {
+
+    private final ObjectInjector<T> injector;
+    private final ValueResolver<Object>[] resolvers;
+
+    private InjectionPlan(ObjectInjector<T> injector, ValueResolver<Object>[] resolvers) {
+      this.injector = injector;
+      this.resolvers = resolvers;
+    }
+  }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+/**
+ * Contract of the classes generated by {@link ObjectInjectorGenerator}, which instantiate a given type and write its fields
+ * without reflection.
+ * <p>
+ * Must be public so that generated classes, which are defined in a different class loader, can implement it.
+ *
+ * @since 4.6
+ */
+public interface GeneratedObjectInjector {
+
+  /**
+   * @return a new instance created through the default constructor of the target type, or {@code null} if the constructor is
+   *         not accessible from the generated class.
+   */
+  Object newInstance();
+
+  /**
+   * Writes the fields accessible from the generated class. Each field is assigned the value at its index in {@code values}.
+   *
+   * @param target the object which fields are to be written
+   * @param values the values of all the fields of the injector, including the ones not written by this method
+   */
+  void inject(Object target, Object[] values);
+}
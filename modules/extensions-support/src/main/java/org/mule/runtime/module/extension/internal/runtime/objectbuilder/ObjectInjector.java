@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBuilderUtils.createInstance;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Creates instances of a given type and writes a fixed list of its fields.
+ * <p>
+ * The constructor call and the writes to fields accessible from a {@link GeneratedObjectInjector} are done by generated bytecode.
+ * Other fields, such as private or primitive ones, are written through {@link MethodHandle setters}. An inaccessible constructor
+ * is called through reflection.
+ *
+ * @param <T> the generic type of the instances
+ * @since 4.6
+ */
+public final class ObjectInjector<T> {
+
+  private final Class<T> type;
+  private final List<Field> fields;
+  private final GeneratedObjectInjector generated;
+  private final boolean generatedInstantiation;
+  private final MethodHandle[] setters;
+
+  /**
+   * @param type                   the type of the instances
+   * @param fields                 the fields to write, in the order of the values to be given to
+   *                               {@link #inject(Object, Object[])}
+   * @param generated              the generated injector, or {@code null} if none could be generated
+   * @param generatedInstantiation whether {@code generated} can create instances
+   * @param setters                for each field, a setter taking the target and the value as {@link Object}s, or {@code null} if
+   *                               it is written by {@code generated}
+   */
+  ObjectInjector(Class<T> type, List<Field> fields, GeneratedObjectInjector generated, boolean generatedInstantiation,
+                 MethodHandle[] setters) {
+    this.type = type;
+    this.fields = fields;
+    this.generated = generated;
+    this.generatedInstantiation = generatedInstantiation;
+    this.setters = setters;
+  }
+
+  /**
+   * @return a new instance created through the default constructor
+   */
+  public T newInstance() {
+    if (!generatedInstantiation) {
+      return createInstance(type);
+    }
+
+    try {
+      return (T) generated.newInstance();
+    } catch (Exception e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create instance of " + type), e);
+    }
+  }
+
+  /**
+   * Writes the given values into the fields of {@code target}.
+   *
+   * @param target the object which fields are to be written
+   * @param values the value for each field, in the order of {@link #getFields()}
+   */
+  public void inject(T target, Object[] values) {
+    if (generated != null) {
+      generated.inject(target, values);
+    }
+    for (int i = 0; i < setters.length; ++i) {
+      if (setters[i] != null) {
+        set(setters[i], target, values[i]);
+      }
+    }
+  }
+
+  private void set(MethodHandle setter, Object target, Object value) {
+    try {
+      setter.invokeExact(target, value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException("Unexpected exception writing field of " + type.getName(), t);
+    }
+  }
+
+  /**
+   * @return the fields written by {@link #inject(Object, Object[])}
+   */
+  public List<Field> getFields() {
+    return fields;
+  }
+
+  /**
+   * @return whether any of the members is accessed through generated bytecode
+   */
+  public boolean isGenerated() {
+    return generated != null;
+  }
+}
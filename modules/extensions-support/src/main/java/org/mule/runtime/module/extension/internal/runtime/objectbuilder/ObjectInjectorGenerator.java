@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+import static org.mule.runtime.core.internal.util.CompositeClassLoader.from;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isAbstract;
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
+
+import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.Default.INJECTION;
+import static net.bytebuddy.implementation.bytecode.member.FieldAccess.forField;
+import static net.bytebuddy.implementation.bytecode.member.MethodReturn.VOID;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.module.extension.internal.util.FieldSetter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeDescription.ForLoadedType;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.assign.TypeCasting;
+import net.bytebuddy.implementation.bytecode.collection.ArrayAccess;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+
+/**
+ * Uses bytecode manipulation to generate {@link GeneratedObjectInjector} classes that call the default constructor of a type and
+ * write a fixed list of its fields directly.
+ * <p>
+ * As with {@link org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutorGenerator}, generated
+ * classes are defined in a class loader composed of the one of the type and the one of this class, so only public members of
+ * public types can be accessed directly. Any other field, as well as fields of primitive types, is written through a
+ * {@link MethodHandle} setter, which unboxes and widens the given values the same way reflection does. Fields that can't be
+ * written through a {@link MethodHandle}, such as final ones, are written through a {@link FieldSetter}. If the class cannot be
+ * generated, all the fields are written through setters.
+ *
+ * @since 4.6
+ */
+public class ObjectInjectorGenerator {
+
+  private static final Logger LOGGER = getLogger(ObjectInjectorGenerator.class);
+
+  private static final AtomicInteger GENERATED_CLASSES_COUNT = new AtomicInteger();
+
+  private static final MethodType SETTER_TYPE = methodType(void.class, Object.class, Object.class);
+  private static final MethodHandle FIELD_SETTER_SET;
+
+  static {
+    try {
+      FIELD_SETTER_SET = lookup().findVirtual(FieldSetter.class, "set", SETTER_TYPE);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Creates an {@link ObjectInjector} for the given {@code type} and {@code fields}.
+   *
+   * @param type   the type of the instances
+   * @param fields the fields to write, in the order their values will be given
+   * @return a new {@link ObjectInjector}
+   */
+  public <T> ObjectInjector<T> generate(Class<T> type, List<Field> fields) {
+    boolean directInstantiation = isDirectlyInstantiable(type);
+    List<Integer> directFields = new ArrayList<>(fields.size());
+    MethodHandle[] setters = new MethodHandle[fields.size()];
+
+    for (int i = 0; i < fields.size(); ++i) {
+      if (isDirectlyWritable(fields.get(i))) {
+        directFields.add(i);
+      } else {
+        setters[i] = setterFor(fields.get(i));
+      }
+    }
+
+    GeneratedObjectInjector generated = null;
+    if (directInstantiation || !directFields.isEmpty()) {
+      try {
+        generated = generateInjectorClass(type, fields, directFields, directInstantiation).newInstance();
+      } catch (Exception | LinkageError e) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Could not generate an injector for " + type.getName() + ", falling back to reflection", e);
+        }
+        directInstantiation = false;
+        for (Integer index : directFields) {
+          setters[index] = setterFor(fields.get(index));
+        }
+      }
+    }
+
+    return new ObjectInjector<>(type, fields, generated, directInstantiation, setters);
+  }
+
+  private static MethodHandle setterFor(Field field) {
+    field.setAccessible(true);
+    try {
+      return lookup().unreflectSetter(field).asType(SETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      return FIELD_SETTER_SET.bindTo(new FieldSetter<>(field));
+    }
+  }
+
+  private Class<? extends GeneratedObjectInjector> generateInjectorClass(Class<?> type, List<Field> fields,
+                                                                        List<Integer> directFields,
+                                                                        boolean directInstantiation)
+      throws NoSuchMethodException {
+    String injectorName = type.getName() + "$ObjectInjector$" + GENERATED_CLASSES_COUNT.incrementAndGet();
+    Implementation newInstance = directInstantiation ? MethodCall.construct(type.getConstructor()) : FixedValue.nullValue();
+
+    return new ByteBuddy()
+        .subclass(Object.class)
+        .implement(GeneratedObjectInjector.class)
+        .name(injectorName)
+        .method(named("newInstance")).intercept(newInstance)
+        .method(named("inject")).intercept(new Implementation.Simple(injectAppender(fields, directFields)))
+        .make()
+        .load(from(type.getClassLoader(), getClass().getClassLoader()), INJECTION)
+        .getLoaded()
+        .asSubclass(GeneratedObjectInjector.class);
+  }
+
+  /**
+   * For each directly writable field, casts the target to the declaring type of the field, reads the value at the field's index
+   * from the values array, casts it to the type of the field and writes it.
+   */
+  private ByteCodeAppender injectAppender(List<Field> fields, List<Integer> directFields) {
+    return (methodVisitor, implementationContext, instrumentedMethod) -> {
+      List<StackManipulation> stackManipulationItems = new ArrayList<>();
+
+      for (Integer index : directFields) {
+        Field field = fields.get(index);
+
+        stackManipulationItems.add(MethodVariableAccess.REFERENCE.loadFrom(1));
+        stackManipulationItems.add(TypeCasting.to(new ForLoadedType(field.getDeclaringClass())));
+        stackManipulationItems.add(MethodVariableAccess.REFERENCE.loadFrom(2));
+        stackManipulationItems.add(IntegerConstant.forValue(index));
+        stackManipulationItems.add(ArrayAccess.REFERENCE.load());
+        stackManipulationItems.add(Assigner.DEFAULT.assign(TypeDescription.Generic.OBJECT,
+                                                           new ForLoadedType(field.getType()).asGenericType(),
+                                                           Assigner.Typing.DYNAMIC));
+        stackManipulationItems.add(forField(new FieldDescription.ForLoadedField(field)).write());
+      }
+
+      stackManipulationItems.add(VOID);
+
+      StackManipulation.Size size = new StackManipulation.Compound(stackManipulationItems)
+          .apply(methodVisitor, implementationContext);
+      return new ByteCodeAppender.Size(size.getMaximalSize(), instrumentedMethod.getStackSize());
+    };
+  }
+
+  private static boolean isDirectlyInstantiable(Class<?> type) {
+    if (!isPubliclyAccessible(type) || isAbstract(type.getModifiers()) || type.isInterface()) {
+      return false;
+    }
+
+    try {
+      Constructor<?> constructor = type.getConstructor();
+      return isPublic(constructor.getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isDirectlyWritable(Field field) {
+    int modifiers = field.getModifiers();
+    return isPublic(modifiers) && !isStatic(modifiers) && !isFinal(modifiers)
+        && !field.getType().isPrimitive()
+        && isPubliclyAccessible(field.getDeclaringClass())
+        && isPubliclyAccessible(field.getType());
+  }
+
+  private static boolean isPubliclyAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+      if (!isPublic(current.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
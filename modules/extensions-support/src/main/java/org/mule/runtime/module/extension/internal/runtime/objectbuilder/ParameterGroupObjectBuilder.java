@@ -26,8 +26,11 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.StaticValueRe
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext;
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -41,6 +44,18 @@ public class ParameterGroupObjectBuilder<T> {
   private final Class<T> prototypeClass;
   private final ExpressionManager expressionManager;
   private final List<FieldElement> groupDescriptorFields;
+  private final ReflectionCache reflectionCache;
+
+  /**
+   * The {@link Field} of each of the {@link #groupDescriptorFields}, or {@code null} if any of them isn't backed by a
+   * {@link Field} or there are more than 64 of them.
+   */
+  private final Field[] fields;
+
+  /**
+   * Injectors for each combination of present parameters, keyed by a bit mask of the indexes of their {@link #fields}.
+   */
+  private final Map<Long, ObjectInjector<T>> injectorsByPresentFields = new ConcurrentHashMap<>();
 
   /**
    * Create a new instance
@@ -55,6 +70,24 @@ public class ParameterGroupObjectBuilder<T> {
     checkInstantiable(prototypeClass, reflectionCache);
     this.expressionManager = expressionManager;
     this.groupDescriptorFields = reflectionCache.fieldElementsFor(groupDescriptor);
+    this.reflectionCache = reflectionCache;
+    this.fields = resolveFields(groupDescriptorFields);
+  }
+
+  private static Field[] resolveFields(List<FieldElement> groupDescriptorFields) {
+    if (groupDescriptorFields.size() > Long.SIZE) {
+      return null;
+    }
+
+    Field[] fields = new Field[groupDescriptorFields.size()];
+    for (int i = 0; i < fields.length; ++i) {
+      Field field = groupDescriptorFields.get(i).getField().orElse(null);
+      if (field == null) {
+        return null;
+      }
+      fields[i] = field;
+    }
+    return fields;
   }
 
   public T build(EventedExecutionContext executionContext) throws MuleException {
@@ -86,6 +119,10 @@ public class ParameterGroupObjectBuilder<T> {
 
   private T doBuild(Predicate<String> hasParameter, Function<String, Object> parameters, ValueResolvingContext context)
       throws MuleException {
+    if (fields != null) {
+      return doBuildWithInjector(hasParameter, parameters, context);
+    }
+
     T object = createInstance(prototypeClass);
 
     for (FieldElement field : groupDescriptorFields) {
@@ -100,4 +137,46 @@ public class ParameterGroupObjectBuilder<T> {
 
     return object;
   }
+
+  private T doBuildWithInjector(Predicate<String> hasParameter, Function<String, Object> parameters,
+                                ValueResolvingContext context)
+      throws MuleException {
+    Object[] values = new Object[fields.length];
+    long presentFields = 0;
+    int presentCount = 0;
+
+    for (int i = 0; i < fields.length; ++i) {
+      String name = groupDescriptorFields.get(i).getName();
+      if (hasParameter.test(name)) {
+        Object resolvedValue = resolveValue(new StaticValueResolver<>(parameters.apply(name)), context);
+        values[presentCount++] = context == null || context.resolveCursors() ? resolveCursorAsUnclosable(resolvedValue)
+            : typedValueAsUnclosable(resolvedValue);
+        presentFields |= 1L << i;
+      }
+    }
+
+    ObjectInjector<T> injector = getInjector(presentFields);
+    T object = injector.newInstance();
+    injector.inject(object, values);
+
+    return object;
+  }
+
+  private ObjectInjector<T> getInjector(long presentFields) {
+    ObjectInjector<T> injector = injectorsByPresentFields.get(presentFields);
+    // This pre-check is made in order to avoid the synchronized block in the implementation of ConcurrentHashMap
+    // (https://bugs.openjdk.java.net/browse/JDK-8161372)
+    if (injector == null) {
+      injector = injectorsByPresentFields.computeIfAbsent(presentFields, mask -> {
+        List<Field> presentFieldsList = new ArrayList<>(Long.bitCount(mask));
+        for (int i = 0; i < fields.length; ++i) {
+          if ((mask & (1L << i)) != 0) {
+            presentFieldsList.add(fields[i]);
+          }
+        }
+        return reflectionCache.getObjectInjector(prototypeClass, presentFieldsList);
+      });
+    }
+    return injector;
+  }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static org.mule.runtime.core.api.util.ExceptionUtils.extractConnectionException;
+
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.extension.api.runtime.operation.CompletableComponentExecutor.ExecutorCallback;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A composable {@link ExecutorCallback} that reports the outcome of an operation execution to the {@link CircuitBreaker} which
+ * permitted it. The outcome is reported once, even if the execution both notifies the callback and throws.
+ *
+ * @since 4.6
+ */
+class CircuitBreakerExecutorCallback implements ExecutorCallback {
+
+  private final CircuitBreaker circuitBreaker;
+  private final long permit;
+  private final ExecutorCallback delegate;
+  private final AtomicBoolean reported = new AtomicBoolean();
+
+  CircuitBreakerExecutorCallback(CircuitBreaker circuitBreaker, long permit, ExecutorCallback delegate) {
+    this.circuitBreaker = circuitBreaker;
+    this.permit = permit;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void complete(Object value) {
+    if (reported.compareAndSet(false, true)) {
+      circuitBreaker.onSuccess(permit);
+    }
+    delegate.complete(value);
+  }
+
+  @Override
+  public void error(Throwable e) {
+    if (reported.compareAndSet(false, true)) {
+      // Only connectivity problems mean that the remote system is down, other errors are legit responses from it
+      if (extractConnectionException(e).isPresent()) {
+        circuitBreaker.onFailure(permit);
+      } else {
+        circuitBreaker.onSuccess(permit);
+      }
+    }
+    delegate.error(e);
+  }
+
+  /**
+   * Reports a failure if the execution threw before notifying this callback.
+   */
+  void thrown() {
+    if (reported.compareAndSet(false, true)) {
+      circuitBreaker.onFailure(permit);
+    }
+  }
+}
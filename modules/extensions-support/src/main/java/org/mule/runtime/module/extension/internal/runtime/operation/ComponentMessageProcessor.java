@@ -28,6 +28,8 @@ import static org.mule.runtime.core.internal.policy.DefaultPolicyManager.noPolic
 import static org.mule.runtime.core.internal.policy.PolicyNextActionMessageProcessor.POLICY_IS_PROPAGATE_MESSAGE_TRANSFORMATIONS;
 import static org.mule.runtime.core.internal.policy.PolicyNextActionMessageProcessor.POLICY_NEXT_OPERATION;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.PROCESSOR_SCHEDULER_CONTEXT_KEY;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.NOT_PERMITTED;
+import static org.mule.runtime.core.internal.retry.CircuitBreakerConfig.CIRCUIT_BREAKER_IDENTIFIER;
 import static org.mule.runtime.core.internal.util.rx.ImmediateScheduler.IMMEDIATE_SCHEDULER;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.createRoundRobinFluxSupplier;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.propagateCompletion;
@@ -54,6 +56,7 @@ import static org.mule.runtime.tracer.customization.api.InternalSpanNames.VALUE_
 
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.stream.Collectors.toList;
@@ -77,6 +80,7 @@ import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.nested.NestedComponentModel;
 import org.mule.runtime.api.meta.model.nested.NestedRouteModel;
 import org.mule.runtime.api.profiling.ProfilingService;
+import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
@@ -97,6 +101,9 @@ import org.mule.runtime.core.internal.policy.OperationPolicy;
 import org.mule.runtime.core.internal.policy.PolicyManager;
 import org.mule.runtime.core.internal.interception.ParametersResolverProcessor;
 import org.mule.runtime.core.internal.processor.strategy.ComponentInnerProcessor;
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.CircuitBreakerConfig;
+import org.mule.runtime.core.internal.retry.CircuitBreakerOpenException;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.internal.util.rx.FluxSinkSupplier;
 import org.mule.runtime.core.internal.util.rx.RxUtils;
@@ -142,6 +149,7 @@ import org.mule.runtime.tracer.customization.api.InitialSpanInfoProvider;
 import org.mule.sdk.api.tx.OperationTransactionalAction;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -233,6 +241,9 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
   private FeatureFlaggingService featureFlaggingService;
 
   private Function<Optional<ConfigurationInstance>, RetryPolicyTemplate> retryPolicyResolver;
+  // Resolved on the first execution, once every global element of the artifact has been created
+  private final LazyValue<Map<String, CircuitBreakerConfig>> circuitBreakerConfigs =
+      new LazyValue<>(this::resolveCircuitBreakerConfigs);
   private String resolvedProcessorRepresentation;
   private boolean initialised = false;
 
@@ -563,7 +574,53 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
   }
 
   protected void executeOperation(ExecutionContextAdapter<T> operationContext, ExecutorCallback callback) {
-    executionMediator.execute(componentExecutor, operationContext, callback);
+    final CircuitBreaker circuitBreaker = getCircuitBreaker(operationContext);
+    if (circuitBreaker == null) {
+      executionMediator.execute(componentExecutor, operationContext, callback);
+      return;
+    }
+
+    final long permit = circuitBreaker.tryAcquire();
+    if (permit == NOT_PERMITTED) {
+      callback.error(new CircuitBreakerOpenException(circuitBreaker));
+      return;
+    }
+
+    final CircuitBreakerExecutorCallback circuitBreakerCallback =
+        new CircuitBreakerExecutorCallback(circuitBreaker, permit, callback);
+    try {
+      executionMediator.execute(componentExecutor, operationContext, circuitBreakerCallback);
+    } catch (Throwable t) {
+      // Otherwise the permit would never be given back, which leaves a half-open breaker without trial calls
+      circuitBreakerCallback.thrown();
+      throw t;
+    }
+  }
+
+  private CircuitBreaker getCircuitBreaker(ExecutionContextAdapter<T> operationContext) {
+    final Map<String, CircuitBreakerConfig> configs = circuitBreakerConfigs.get();
+    if (configs.isEmpty()) {
+      return null;
+    }
+
+    return operationContext.getConfiguration()
+        .map(configuration -> configs.get(configuration.getName()))
+        .map(config -> config.getCircuitBreaker(componentModel.getName()))
+        .orElse(null);
+  }
+
+  private Map<String, CircuitBreakerConfig> resolveCircuitBreakerConfigs() {
+    if (componentLocator == null) {
+      return emptyMap();
+    }
+
+    final Map<String, CircuitBreakerConfig> configs = new HashMap<>();
+    for (Component component : componentLocator.find(CIRCUIT_BREAKER_IDENTIFIER)) {
+      if (component instanceof CircuitBreakerConfig && ((CircuitBreakerConfig) component).getConfigName() != null) {
+        configs.putIfAbsent(((CircuitBreakerConfig) component).getConfigName(), (CircuitBreakerConfig) component);
+      }
+    }
+    return configs.isEmpty() ? emptyMap() : configs;
   }
 
   private ExecutionContextAdapter<T> createExecutionContext(Optional<ConfigurationInstance> configuration,
@@ -12,6 +12,7 @@ import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.meta.model.EnrichableModel;
 import org.mule.runtime.api.meta.model.parameter.ParameterizedModel;
+import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.module.extension.internal.loader.ParameterGroupDescriptor;
 import org.mule.runtime.module.extension.internal.loader.java.property.ParameterGroupModelProperty;
@@ -58,10 +59,9 @@ public final class GroupValueSetter implements ValueSetter {
     return setters.build();
   }
 
-  private final ParameterGroupDescriptor groupDescriptor;
   private final Field container;
-  private final Supplier<ReflectionCache> reflectionCache;
-  private final Supplier<ExpressionManager> expressionManager;
+  // Built on first use, since the reflection cache and expression manager may not be available yet when this is created
+  private final LazyValue<ParameterGroupObjectBuilder<?>> parameterGroupObjectBuilder;
 
   /**
    * Creates a new instance that can set values defined in the given {@code group}
@@ -73,20 +73,16 @@ public final class GroupValueSetter implements ValueSetter {
   public GroupValueSetter(ParameterGroupDescriptor groupDescriptor,
                           Supplier<ReflectionCache> reflectionCache,
                           Supplier<ExpressionManager> expressionManager) {
-    this.groupDescriptor = groupDescriptor;
     checkArgument(groupDescriptor.getContainer() instanceof Field, "Only field contained parameter groups are allowed");
     container = (Field) groupDescriptor.getContainer();
-    this.reflectionCache = reflectionCache;
-    this.expressionManager = expressionManager;
+    container.setAccessible(true);
+    parameterGroupObjectBuilder = new LazyValue<>(() -> new ParameterGroupObjectBuilder<>(groupDescriptor, reflectionCache.get(),
+                                                                                          expressionManager.get()));
   }
 
   @Override
   public void set(Object target, ResolverSetResult result) throws MuleException {
-    container.setAccessible(true);
-    ParameterGroupObjectBuilder<?> parameterGroupObjectBuilder = new ParameterGroupObjectBuilder<>(groupDescriptor,
-                                                                                                   reflectionCache.get(),
-                                                                                                   expressionManager.get());
-    Object value = parameterGroupObjectBuilder.build(result);
+    Object value = parameterGroupObjectBuilder.get().build(result);
     try {
       container.set(target, value);
     } catch (IllegalAccessException ex) {
@@ -15,6 +15,8 @@ import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.extension.api.exception.IllegalModelDefinitionException;
 import org.mule.runtime.module.extension.api.loader.java.type.FieldElement;
 import org.mule.runtime.module.extension.internal.loader.ParameterGroupDescriptor;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectInjector;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectInjectorGenerator;
 
 import org.reflections.ReflectionUtils;
 
@@ -22,6 +24,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -38,6 +41,8 @@ public class ReflectionCache {
       new ConcurrentHashMap<>(3, 0.9f);
   private final ConcurrentMap<Class<?>, List<Field>> fieldsByClass = new ConcurrentHashMap<>();
   private final ConcurrentMap<Class<?>, Boolean> hasDefaultConstructorsByClass = new ConcurrentHashMap<>();
+  private final ConcurrentMap<InjectorKey, ObjectInjector<?>> objectInjectors = new ConcurrentHashMap<>();
+  private final ObjectInjectorGenerator objectInjectorGenerator = new ObjectInjectorGenerator();
 
   public List<FieldElement> fieldElementsFor(ParameterGroupDescriptor groupDescriptor) {
     Class<?> clazz = groupDescriptor.getType().getDeclaringClass().get();
@@ -114,4 +119,53 @@ public class ReflectionCache {
     return value;
   }
 
+  /**
+   * Returns an {@link ObjectInjector} which creates instances of {@code clazz} and writes the given {@code fields}. Injectors are
+   * generated once per combination of type and fields.
+   *
+   * @param clazz  the type of the instances
+   * @param fields the fields to write, in the order their values will be given
+   * @return an {@link ObjectInjector}
+   * @since 4.6
+   */
+  public <T> ObjectInjector<T> getObjectInjector(Class<T> clazz, List<Field> fields) {
+    InjectorKey key = new InjectorKey(clazz, fields);
+    ObjectInjector<?> injector = objectInjectors.get(key);
+    // This pre-check is made in order to avoid the synchronized block in the implementation of ConcurrentHashMap
+    // (https://bugs.openjdk.java.net/browse/JDK-8161372)
+    if (injector == null) {
+      injector = objectInjectors.computeIfAbsent(key, k -> objectInjectorGenerator.generate(clazz, new ArrayList<>(fields)));
+    }
+    return (ObjectInjector<T>) injector;
+  }
+
+  private static final class InjectorKey {
+
+    private final Class<?> clazz;
+    private final List<Field> fields;
+    private final int hashCode;
+
+    private InjectorKey(Class<?> clazz, List<Field> fields) {
+      this.clazz = clazz;
+      this.fields = fields;
+      this.hashCode = Objects.hash(clazz, fields);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof InjectorKey)) {
+        return false;
+      }
+      InjectorKey other = (InjectorKey) obj;
+      return clazz.equals(other.clazz) && fields.equals(other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.objectbuilder;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.mule.runtime.module.extension.internal.util.ReflectionCache;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ObjectInjectorGeneratorTestCase extends AbstractMuleTestCase {
+
+  private final ObjectInjectorGenerator generator = new ObjectInjectorGenerator();
+
+  private Field name;
+  private Field age;
+  private Field secret;
+
+  @Before
+  public void before() throws Exception {
+    name = PublicPojo.class.getField("name");
+    age = PublicPojo.class.getField("age");
+    secret = PublicPojo.class.getDeclaredField("secret");
+  }
+
+  @Test
+  public void publicMembersAreGenerated() {
+    ObjectInjector<PublicPojo> injector = generator.generate(PublicPojo.class, asList(name));
+    assertThat(injector.isGenerated(), is(true));
+
+    PublicPojo pojo = injector.newInstance();
+    injector.inject(pojo, new Object[] {"Walter"});
+
+    assertThat(pojo.name, is("Walter"));
+  }
+
+  @Test
+  public void primitiveAndPrivateFieldsAreWrittenThroughSetters() {
+    ObjectInjector<PublicPojo> injector = generator.generate(PublicPojo.class, asList(name, age, secret));
+
+    PublicPojo pojo = injector.newInstance();
+    injector.inject(pojo, new Object[] {"Walter", 50, "Heisenberg"});
+
+    assertThat(pojo.name, is("Walter"));
+    assertThat(pojo.age, is(50));
+    assertThat(pojo.getSecret(), is("Heisenberg"));
+  }
+
+  @Test
+  public void primitiveValuesAreWidened() throws Exception {
+    Field total = PublicPojo.class.getDeclaredField("total");
+    ObjectInjector<PublicPojo> injector = generator.generate(PublicPojo.class, asList(total));
+
+    PublicPojo pojo = injector.newInstance();
+    injector.inject(pojo, new Object[] {50});
+
+    assertThat(pojo.total, is(50L));
+  }
+
+  @Test
+  public void absentValuesAreWrittenAsNull() {
+    ObjectInjector<PublicPojo> injector = generator.generate(PublicPojo.class, asList(name, secret));
+
+    PublicPojo pojo = injector.newInstance();
+    pojo.name = "Walter";
+    injector.inject(pojo, new Object[] {null, null});
+
+    assertThat(pojo.name, is(nullValue()));
+    assertThat(pojo.getSecret(), is(nullValue()));
+  }
+
+  @Test
+  public void packagePrivateTypeFallsBackToReflection() throws Exception {
+    Field value = PrivatePojo.class.getDeclaredField("value");
+    ObjectInjector<PrivatePojo> injector = generator.generate(PrivatePojo.class, asList(value));
+    assertThat(injector.isGenerated(), is(false));
+
+    PrivatePojo pojo = injector.newInstance();
+    injector.inject(pojo, new Object[] {"Jesse"});
+
+    assertThat(pojo.value, is("Jesse"));
+  }
+
+  @Test
+  public void injectorsAreCachedByTypeAndFields() {
+    ReflectionCache reflectionCache = new ReflectionCache();
+    List<Field> fields = asList(name, age);
+
+    ObjectInjector<PublicPojo> injector = reflectionCache.getObjectInjector(PublicPojo.class, fields);
+    assertThat(reflectionCache.getObjectInjector(PublicPojo.class, asList(name, age)), is(sameInstance(injector)));
+    assertThat(reflectionCache.getObjectInjector(PublicPojo.class, asList(age, name)) == injector, is(false));
+  }
+
+  public static class PublicPojo {
+
+    public String name;
+    public int age;
+    private long total;
+    private String secret;
+
+    public String getSecret() {
+      return secret;
+    }
+  }
+
+  static class PrivatePojo {
+
+    String value;
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.module.extension.internal.runtime.operation;
 import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.of;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -18,6 +19,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +27,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -39,9 +42,13 @@ import static org.mule.runtime.api.metadata.MediaType.ANY;
 import static org.mule.runtime.api.util.collection.SmallMap.of;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.util.ExceptionUtils.containsType;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
 import static org.mule.runtime.core.internal.event.EventQuickCopy.quickCopy;
 import static org.mule.runtime.core.internal.interception.DefaultInterceptionEvent.INTERCEPTION_RESOLVED_CONTEXT;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.CircuitBreaker.State.OPEN;
+import static org.mule.runtime.core.internal.retry.CircuitBreakerConfig.CIRCUIT_BREAKER_IDENTIFIER;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.runtime.operation.Result.builder;
@@ -49,11 +56,13 @@ import static org.mule.runtime.module.extension.internal.ExtensionProperties.ENC
 import static org.mule.runtime.module.extension.internal.ExtensionProperties.MIME_TYPE_PARAMETER_NAME;
 import static org.mule.runtime.module.extension.internal.runtime.operation.OperationMessageProcessor.INVALID_TARGET_MESSAGE;
 import static org.mule.tck.MuleTestUtils.stubComponentExecutor;
+import static org.mule.tck.MuleTestUtils.stubFailingComponentExecutor;
 import static org.mule.tck.junit4.matcher.DataTypeMatcher.like;
 import static org.mule.tck.util.MuleContextUtils.registerIntoMockContext;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.toMetadataType;
 
 import org.mule.metadata.api.model.MetadataType;
+import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.el.DefaultExpressionLanguageFactoryService;
 import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.api.exception.MuleException;
@@ -81,6 +90,9 @@ import org.mule.runtime.core.internal.exception.EnrichedErrorMapping;
 import org.mule.runtime.core.internal.policy.OperationExecutionFunction;
 import org.mule.runtime.core.internal.policy.OperationParametersProcessor;
 import org.mule.runtime.core.internal.policy.PolicyManager;
+import org.mule.runtime.core.internal.retry.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.CircuitBreakerConfig;
+import org.mule.runtime.core.internal.retry.CircuitBreakerOpenException;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.extension.api.declaration.type.DefaultExtensionsTypeLoaderFactory;
 import org.mule.runtime.extension.api.model.ImmutableOutputModel;
@@ -512,6 +524,75 @@ public class OperationMessageProcessorTestCase extends AbstractOperationMessageP
     verify(streamingManager).manage(eq(provider), any(EventContext.class));
   }
 
+  @Test
+  public void connectivityErrorsOpenCircuitBreaker() throws Exception {
+    CircuitBreaker circuitBreaker = setUpCircuitBreaker();
+    stubFailingComponentExecutor(operationExecutor, new ConnectionException("Connection refused"));
+
+    assertThat(containsType(processFailing(), CircuitBreakerOpenException.class), is(false));
+    assertThat(circuitBreaker.getState(), is(OPEN));
+
+    assertThat(containsType(processFailing(), CircuitBreakerOpenException.class), is(true));
+    verify(operationExecutor, times(1)).execute(any(), any());
+    assertThat(circuitBreaker.getRejectedCalls(), is(1L));
+  }
+
+  @Test
+  public void otherErrorsDoNotOpenCircuitBreaker() throws Exception {
+    CircuitBreaker circuitBreaker = setUpCircuitBreaker();
+    stubFailingComponentExecutor(operationExecutor, new IllegalArgumentException("Invalid request"));
+
+    processFailing();
+    processFailing();
+
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    assertThat(circuitBreaker.getFailureRate(), is(0f));
+    verify(operationExecutor, times(2)).execute(any(), any());
+  }
+
+  @Test
+  public void executionThrowingIsReportedToCircuitBreaker() throws Exception {
+    CircuitBreaker circuitBreaker = setUpCircuitBreaker();
+    messageProcessor.executionMediator = mock(ExecutionMediator.class);
+    doThrow(new IllegalStateException("Expected")).when(messageProcessor.executionMediator).execute(any(), any(), any());
+    ExecutionContextAdapter<OperationModel> operationContext = mock(ExecutionContextAdapter.class);
+    when(operationContext.getConfiguration()).thenReturn(of(configurationInstance));
+
+    try {
+      messageProcessor.executeOperation(operationContext, executorCallback);
+      fail("The execution was expected to throw");
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+
+    assertThat(circuitBreaker.getState(), is(OPEN));
+    assertThat(circuitBreaker.getFailedCalls(), is(1L));
+    verify(executorCallback, never()).error(any());
+  }
+
+  private CircuitBreaker setUpCircuitBreaker() throws Exception {
+    CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    circuitBreakerConfig.setName("backend");
+    circuitBreakerConfig.setConfigName(CONFIG_NAME);
+    circuitBreakerConfig.setSlidingWindowSize(1);
+    circuitBreakerConfig.setMinimumCalls(1);
+    circuitBreakerConfig.setFailureRateThreshold(100);
+    circuitBreakerConfig.setOpenDuration(60000);
+    circuitBreakerConfig.initialise();
+    when(componentLocator.find(CIRCUIT_BREAKER_IDENTIFIER)).thenReturn(singletonList(circuitBreakerConfig));
+
+    return circuitBreakerConfig.getCircuitBreaker();
+  }
+
+  private Throwable processFailing() {
+    try {
+      messageProcessor.process(event);
+    } catch (Exception e) {
+      return e;
+    }
+    throw new AssertionError("The operation was expected to fail");
+  }
+
   private void assertProcessingType(ExecutionType executionType, ProcessingType expectedProcessingType) {
     when(operationModel.getExecutionType()).thenReturn(executionType);
     assertThat(messageProcessor.getInnerProcessingType(), is(expectedProcessingType));
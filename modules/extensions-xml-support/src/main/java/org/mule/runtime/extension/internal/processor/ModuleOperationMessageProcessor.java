@@ -15,6 +15,7 @@ import static org.mule.runtime.api.notification.EnrichedNotificationInfo.createI
 import static org.mule.runtime.api.util.MuleSystemProperties.ENABLE_DYNAMIC_CONFIG_REF_PROPERTY;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
 import static org.mule.runtime.core.internal.message.InternalMessage.builder;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.KEY_ON_NEXT_ERROR_STRATEGY;
@@ -38,6 +39,7 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
 
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 
@@ -46,7 +48,6 @@ import org.mule.metadata.api.utils.MetadataTypeUtils;
 import org.mule.runtime.api.component.Component;
 import org.mule.runtime.api.component.ComponentIdentifier;
 import org.mule.runtime.api.component.location.ComponentLocation;
-import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.el.CompiledExpression;
 import org.mule.runtime.api.el.ExpressionLanguageSession;
 import org.mule.runtime.api.event.EventContext;
@@ -64,13 +65,16 @@ import org.mule.runtime.api.notification.EnrichedNotificationInfo;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.core.api.context.notification.FlowStackElement;
 import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.exception.BaseExceptionHandler;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
 import org.mule.runtime.core.api.extension.ExtensionManager;
 import org.mule.runtime.core.api.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
 import org.mule.runtime.core.internal.exception.EnrichedErrorMapping;
 import org.mule.runtime.core.internal.exception.ErrorMappingsAware;
@@ -91,9 +95,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 
@@ -124,6 +131,10 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
   private static final Logger LOGGER = getLogger(ModuleOperationMessageProcessor.class);
 
   private static final String ORIGINAL_EVENT_KEY = "mule.xmlSdk.originalEvent";
+  // Expressions made only of a string (without interpolation), number or boolean literal, which do not depend on the event.
+  private static final Pattern CONSTANT_EXPRESSION =
+      Pattern.compile("#\\[\\s*('[^'\\\\$]*'|\"[^\"\\\\$]*\"|-?\\d+(\\.\\d+)?|true|false)\\s*\\]");
+  private static final int MAX_COMPILED_CONFIGS = 256;
 
   @Inject
   private ExpressionManager expressionManager;
@@ -131,6 +142,9 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
   @Inject
   private Collection<ExceptionContextProvider> exceptionContextProviders;
 
+  @Inject
+  private StreamingManager streamingManager;
+
   private final ExtensionManager extensionManager;
   private final OperationModel operationModel;
 
@@ -148,6 +162,13 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
   private CompiledExpression targetValueExpression;
   private final boolean isDynamicConfigRefEnabled = getBoolean(ENABLE_DYNAMIC_CONFIG_REF_PROPERTY);
 
+  private ComponentLocation headLocation;
+  private List<OperationParameter> compiledProperties;
+  private List<OperationParameter> compiledParameters;
+  // Properties of the configs which are only known when processing an event, compiled the first time each config is used.
+  private final Cache<String, List<OperationParameter>> compiledConfigProperties =
+      newBuilder().maximumSize(MAX_COMPILED_CONFIGS).build();
+
   public ModuleOperationMessageProcessor(Map<String, Object> parameters,
                                          List<EnrichedErrorMapping> errorMappings,
                                          ExtensionManager extensionManager, ExtensionModel extensionModel,
@@ -199,12 +220,12 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
   }
 
   /**
-   * To properly feed the {@link ExpressionManager#evaluate(String, DataType, BindingContext, CoreEvent)} we need to store the
-   * {@link MetadataType} per parameter, so that the {@link DataType} can be generated.
+   * To properly compile the expressions of the parameters we need to store the {@link MetadataType} per parameter, so that the
+   * expected {@link DataType} can be generated.
    *
    * @param parameters      list of parameters taken from the XML
    * @param parameterModels collection of elements taken from the matching {@link ExtensionModel}
-   * @return a collection of parameters to be later consumed in {@link #getEvaluatedValue(CoreEvent, String, MetadataType)}
+   * @return a collection of parameters to be later compiled by {@link #compileParameters(Map)}
    */
   private Map<String, Pair<Object, MetadataType>> parseParameters(Map<String, ?> parameters,
                                                                   List<ParameterModel> parameterModels) {
@@ -379,7 +400,7 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
     builder.message(builder().nullValue().build());
 
     // The properties may not have been resolved yet if the config-ref was an expression, so we resolve them now
-    Map<String, Pair<Object, MetadataType>> resolvedProperties = getResolvedProperties(event);
+    List<OperationParameter> resolvedProperties = getResolvedProperties(event);
 
     // If this operation is called from an outer operation, we need to obtain the config from the previous caller in order to
     // populate the event variables as expected.
@@ -388,12 +409,16 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
       builder.addVariable(MODULE_OPERATION_CONFIG_REF, configRef.getValue());
 
       if (properties.isEmpty()) {
-        resolvedProperties = parseParameters(createPropertiesFromConfigName((String) configRef.getValue()), allProperties);
+        final String configName = (String) configRef.getValue();
+        resolvedProperties = getCompiledConfigProperties(configName, () -> createPropertiesFromConfigName(configName));
       }
     }
 
-    addVariables(event, builder, resolvedProperties);
-    addVariables(event, builder, parameters);
+    // All the expressions are evaluated within the same session, so the bindings for the event are only created once.
+    try (ExpressionManagerSession session = expressionManager.openSession(headLocation, event, NULL_BINDING_CONTEXT)) {
+      addVariables(event, session, builder, resolvedProperties);
+      addVariables(event, session, builder, compiledParameters);
+    }
 
     builder.internalParameters(((InternalEvent) event).getInternalParameters());
     builder.addInternalParameter(getParameterId(ORIGINAL_EVENT_KEY, event), event);
@@ -407,9 +432,10 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
    *
    * @param event A {@link CoreEvent} to resolve expression from.
    * @return The resolved properties for the processing of the given event. Note that if the config reference was not an
-   *         expression, then the properties will not need any resolution at this point, we just return {@link #properties}.
+   *         expression, then the properties will not need any resolution at this point, we just return
+   *         {@link #compiledProperties}.
    */
-  private Map<String, Pair<Object, MetadataType>> getResolvedProperties(CoreEvent event) {
+  private List<OperationParameter> getResolvedProperties(CoreEvent event) {
     if (configurationProviderResolver.isPresent()) {
       // Resolves the configuration provider and validates it
       ConfigurationProvider cp = resolveConfigurationProvider(event);
@@ -417,12 +443,18 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
 
       // Gets the properties from the configuration provider
       if (cp instanceof XmlSdkConfigurationProvider) {
-        return parseParameters(((XmlSdkConfigurationProvider) cp).getParameters(), allProperties);
+        return getCompiledConfigProperties(cp.getName(), () -> ((XmlSdkConfigurationProvider) cp).getParameters());
       }
     }
 
     // No runtime resolution needed, we just return the properties resolved at the instantiation
-    return properties;
+    return compiledProperties;
+  }
+
+  private List<OperationParameter> getCompiledConfigProperties(String configName,
+                                                               Supplier<Map<String, String>> configParametersSupplier) {
+    return compiledConfigProperties.get(configName,
+                                        k -> compileParameters(parseParameters(configParametersSupplier.get(), allProperties)));
   }
 
   /**
@@ -468,41 +500,80 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
     }
   }
 
-  private void addVariables(CoreEvent event, CoreEvent.Builder builder,
-                            Map<String, Pair<Object, MetadataType>> unevaluatedMap) {
-    unevaluatedMap.entrySet().stream()
-        .forEach(entry -> {
-          final boolean isExpression = expressionManager.isExpression(entry.getValue().getFirst().toString());
-          if (isExpression) {
-            final TypedValue<?> evaluatedValue =
-                getEvaluatedValue(event, entry.getValue().getFirst().toString(), entry.getValue().getSecond());
-            builder.addVariable(entry.getKey(), evaluatedValue);
-          } else {
-            builder.addVariable(entry.getKey(), entry.getValue().getFirst());
-          }
-        });
+  private void addVariables(CoreEvent event, ExpressionManagerSession session, CoreEvent.Builder builder,
+                            List<OperationParameter> operationParameters) {
+    for (OperationParameter operationParameter : operationParameters) {
+      if (operationParameter.expression == null) {
+        builder.addVariable(operationParameter.name, operationParameter.literal);
+      } else {
+        builder.addVariable(operationParameter.name, getEvaluatedValue(event, session, operationParameter));
+      }
+    }
   }
 
-  private TypedValue<?> getEvaluatedValue(CoreEvent event, String value, MetadataType metadataType) {
-    ComponentLocation headLocation;
-    final Processor head = nestedChain.getMessageProcessors().get(0);
-    headLocation = ((Component) head).getLocation();
+  private TypedValue<?> getEvaluatedValue(CoreEvent event, ExpressionManagerSession session,
+                                          OperationParameter operationParameter) {
+    final TypedValue<?> evaluatedResult = operationParameter.expectedOutputType == null
+        ? session.evaluate(operationParameter.expression)
+        : session.evaluate(operationParameter.expression, operationParameter.expectedOutputType);
+    return updateTypedValueForStreaming(evaluatedResult, event, streamingManager);
+  }
 
-    TypedValue<?> evaluatedResult;
-    if (JAVA.equals(metadataType.getMetadataFormat())) {
-      evaluatedResult = expressionManager.evaluate(value, event, headLocation);
-    } else {
-      final String mediaType = metadataType.getMetadataFormat().getValidMimeTypes().iterator().next();
-      final DataType expectedOutputType =
-          DataType.builder()
+  /**
+   * Classifies each of the given parameters as either a literal or an expression, compiling the expressions and creating the
+   * {@link DataType} to coerce their result to, so that only the evaluation is left to be done for each event. Expressions that
+   * are just a literal value are evaluated here once and kept as a literal.
+   *
+   * @param unevaluatedMap the parameters as returned by {@link #parseParameters(Map, List)}
+   * @return the compiled parameters.
+   */
+  private List<OperationParameter> compileParameters(Map<String, Pair<Object, MetadataType>> unevaluatedMap) {
+    final List<OperationParameter> result = new ArrayList<>(unevaluatedMap.size());
+    for (Map.Entry<String, Pair<Object, MetadataType>> entry : unevaluatedMap.entrySet()) {
+      final Object value = entry.getValue().getFirst();
+      final MetadataType metadataType = entry.getValue().getSecond();
+
+      if (expressionManager.isExpression(value.toString())) {
+        DataType expectedOutputType = null;
+        if (!JAVA.equals(metadataType.getMetadataFormat())) {
+          final String mediaType = metadataType.getMetadataFormat().getValidMimeTypes().iterator().next();
+          expectedOutputType = DataType.builder()
               .type(String.class)
               .mediaType(mediaType)
               .charset(UTF_8)
               .build();
-      evaluatedResult = expressionManager
-          .evaluate(value, expectedOutputType, NULL_BINDING_CONTEXT, event, headLocation, false);
+        }
+        TypedValue<?> constant = evaluateConstant(value.toString(), expectedOutputType);
+        if (constant != null) {
+          result.add(new OperationParameter(entry.getKey(), constant, null, null));
+        } else {
+          result.add(new OperationParameter(entry.getKey(), null, compile(value.toString(), expressionManager),
+                                            expectedOutputType));
+        }
+      } else {
+        result.add(new OperationParameter(entry.getKey(), value, null, null));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the result of the given expression if it does not depend on the event, or {@code null} if it has to be evaluated for
+   *         each event.
+   */
+  private TypedValue<?> evaluateConstant(String expression, DataType expectedOutputType) {
+    if (!CONSTANT_EXPRESSION.matcher(expression).matches()) {
+      return null;
+    }
+    try {
+      return expectedOutputType == null
+          ? expressionManager.evaluate(expression)
+          : expressionManager.evaluate(expression, expectedOutputType);
+    } catch (ExpressionRuntimeException e) {
+      // Leave the failure to be reported when processing an event, as if it were not a constant
+      LOGGER.debug("Could not pre-evaluate constant expression '{}'", expression, e);
+      return null;
     }
-    return evaluatedResult;
   }
 
   /**
@@ -526,6 +597,9 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
     if (targetValue != null) {
       targetValueExpression = compile(targetValue, expressionManager);
     }
+    headLocation = ((Component) nestedChain.getMessageProcessors().get(0)).getLocation();
+    compiledProperties = compileParameters(properties);
+    compiledParameters = compileParameters(parameters);
     initialiseIfNeeded(configurationProviderResolver, muleContext);
   }
 
@@ -557,4 +631,23 @@ public class ModuleOperationMessageProcessor extends AbstractMessageProcessorOwn
   public List<EnrichedErrorMapping> getErrorMappings() {
     return errorMappings;
   }
+
+  /**
+   * A parameter or property of the operation, which is either a literal value or a compiled expression.
+   */
+  private static final class OperationParameter {
+
+    private final String name;
+    private final Object literal;
+    private final CompiledExpression expression;
+    // null if the result of the expression is not to be coerced
+    private final DataType expectedOutputType;
+
+    private OperationParameter(String name, Object literal, CompiledExpression expression, DataType expectedOutputType) {
+      this.name = name;
+      this.literal = literal;
+      this.expression = expression;
+      this.expectedOutputType = expectedOutputType;
+    }
+  }
 }
@@ -67,6 +67,14 @@ public class ExpressionsOnConfigRefTestCase extends AbstractCeXmlExtensionMuleAr
     assertThat(response.getMessage().getPayload().getValue(), is("some other config-value-parameter"));
   }
 
+  @Test
+  @Description("When the expression resolves to different configurations, each event gets the properties of its configuration")
+  public void setPayloadWithExpressionSwitchingConfigurations() throws Exception {
+    assertThat(runWithConfig("some", "a"), is("a some config-value-parameter"));
+    assertThat(runWithConfig("some-other", "b"), is("b some other config-value-parameter"));
+    assertThat(runWithConfig("some", "c"), is("c some config-value-parameter"));
+  }
+
   @Test
   @Description("When using an expression resolving to a global element that is not a config it fails (in runtime) with a proper error message")
   public void setPayloadWithExpressionResolvingToNonConfigFails() throws Exception {
@@ -94,4 +102,11 @@ public class ExpressionsOnConfigRefTestCase extends AbstractCeXmlExtensionMuleAr
     flowRunner("setPayloadWithExpressionResolvingToEmptyString")
         .runExpectingException(allOf(instanceOf(IllegalArgumentException.class), hasMessage(expectedMessage)));
   }
+
+  private Object runWithConfig(String configName, String value) throws Exception {
+    return flowRunner("addParamAndPropertyValuesWithExpression")
+        .withVariable("configName", configName)
+        .withVariable("value", value)
+        .run().getMessage().getPayload().getValue();
+  }
 }
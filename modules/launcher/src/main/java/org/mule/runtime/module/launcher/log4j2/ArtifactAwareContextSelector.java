@@ -57,6 +57,7 @@ class ArtifactAwareContextSelector implements ContextSelector, Disposable {
 
   static final StatusLogger LOGGER = StatusLogger.getLogger();
   private static final ClassLoader SYSTEM_CLASSLOADER = getSystemClassLoader();
+  private static final ClassLoader CONTAINER_CLASSLOADER = ArtifactAwareContextSelector.class.getClassLoader();
 
   private final MuleLoggerContextFactory loggerContextFactory = new MuleLoggerContextFactory();
 
@@ -65,6 +66,7 @@ class ArtifactAwareContextSelector implements ContextSelector, Disposable {
       .weakKeys()
       .weakValues()
       .build(key -> getLoggerClassLoader(key));
+  private static final ClassLoader CONTAINER_LOGGER_CONTEXT_CLASSLOADER = getLoggerClassLoader(CONTAINER_CLASSLOADER);
 
   ArtifactAwareContextSelector() {}
 
@@ -107,7 +109,17 @@ class ArtifactAwareContextSelector implements ContextSelector, Disposable {
    * @return the {@link ClassLoader} owner of the logger context
    */
   static ClassLoader resolveLoggerContextClassLoader(ClassLoader classLoader) {
-    return classLoaderLoggerCache.get(classLoader == null ? resolveTcclOrSystemCl() : classLoader);
+    if (classLoader == null) {
+      classLoader = resolveTcclOrSystemCl();
+    }
+
+    // The container and system classloaders are resolved on most logging calls, so avoid the cache lookup for them
+    if (classLoader == CONTAINER_CLASSLOADER) {
+      return CONTAINER_LOGGER_CONTEXT_CLASSLOADER;
+    } else if (classLoader == SYSTEM_CLASSLOADER) {
+      return SYSTEM_CLASSLOADER;
+    }
+    return classLoaderLoggerCache.get(classLoader);
   }
 
   protected static ClassLoader resolveTcclOrSystemCl() {
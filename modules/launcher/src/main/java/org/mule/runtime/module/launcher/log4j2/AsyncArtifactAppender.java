@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.System.getProperty;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+import static org.apache.logging.log4j.Level.INFO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.config.Property;
+
+/**
+ * Appender which queues the events of an artifact in a {@link LogEventRingBuffer}, for the shared {@link AsyncLogWriter} thread
+ * to write them through the {@code delegate} file appender.
+ * <p>
+ * Logging threads never wait for the disk unless the buffer is full, in which case the configured {@link OverflowPolicy} applies.
+ * The delegate is flushed once per written batch instead of once per event.
+ *
+ * @since 4.6
+ */
+final class AsyncArtifactAppender extends AbstractAppender {
+
+  /**
+   * Whether the default file appender of each artifact is asynchronous. {@code false} by default.
+   */
+  static final String MULE_LOG_ASYNC_DEFAULT_APPENDER = "mule.log.async.defaultAppender";
+
+  /**
+   * The amount of events each artifact may have queued. 8192 by default.
+   */
+  static final String MULE_LOG_ASYNC_BUFFER_SIZE = "mule.log.async.defaultAppender.bufferSize";
+
+  /**
+   * The {@link OverflowPolicy} to apply when the buffer of an artifact is full. {@code BLOCK} by default.
+   */
+  static final String MULE_LOG_ASYNC_OVERFLOW_POLICY = "mule.log.async.defaultAppender.overflowPolicy";
+
+  /**
+   * For {@link OverflowPolicy#SAMPLE}, one every how many events are kept when the buffer is full. 10 by default.
+   */
+  static final String MULE_LOG_ASYNC_SAMPLE_RATE = "mule.log.async.defaultAppender.sampleRate";
+
+  private static final long OVERFLOW_PARK_NANOS = 100_000;
+
+  /**
+   * What to do with an event when the buffer is full.
+   */
+  enum OverflowPolicy {
+    /**
+     * Wait for the event to fit in the buffer.
+     */
+    BLOCK,
+    /**
+     * Discard {@code INFO}, {@code DEBUG} and {@code TRACE} events. More severe events wait to fit in the buffer.
+     */
+    DISCARD_INFO,
+    /**
+     * Keep one every {@link #MULE_LOG_ASYNC_SAMPLE_RATE} {@code INFO}, {@code DEBUG} and {@code TRACE} events, waiting for
+     * them to fit in the buffer, and discard the rest. More severe events wait to fit in the buffer.
+     */
+    SAMPLE
+  }
+
+  private final AbstractOutputStreamAppender<?> delegate;
+  private final LogEventRingBuffer buffer;
+  private final OverflowPolicy overflowPolicy;
+  private final int sampleRate;
+  private final AsyncLogWriter writer;
+
+  private final Consumer<LogEvent> delegateAppend;
+  private final Object drainLock = new Object();
+  // Guarded by drainLock
+  private boolean draining;
+
+  private final AtomicLong overflowedEvents = new AtomicLong();
+  private final AtomicLong discardedEvents = new AtomicLong();
+
+  /**
+   * Creates an appender configured through system properties.
+   *
+   * @param name     the name of the appender
+   * @param delegate the appender to write events with. Must not flush on every event.
+   */
+  static AsyncArtifactAppender create(String name, AbstractOutputStreamAppender<?> delegate) {
+    return new AsyncArtifactAppender(name, delegate, getInteger(MULE_LOG_ASYNC_BUFFER_SIZE, 8192),
+                                     OverflowPolicy.valueOf(getProperty(MULE_LOG_ASYNC_OVERFLOW_POLICY, "BLOCK").toUpperCase()),
+                                     max(1, getInteger(MULE_LOG_ASYNC_SAMPLE_RATE, 10)), AsyncLogWriter.getInstance());
+  }
+
+  AsyncArtifactAppender(String name, AbstractOutputStreamAppender<?> delegate, int bufferSize, OverflowPolicy overflowPolicy,
+                        int sampleRate, AsyncLogWriter writer) {
+    super(name, null, delegate.getLayout(), true, Property.EMPTY_ARRAY);
+    this.delegate = delegate;
+    this.buffer = new LogEventRingBuffer(bufferSize);
+    this.overflowPolicy = overflowPolicy;
+    this.sampleRate = sampleRate;
+    this.writer = writer;
+    this.delegateAppend = delegate::append;
+  }
+
+  @Override
+  public void append(LogEvent event) {
+    if (!isStarted()) {
+      appendNow(event);
+      return;
+    }
+
+    if (!buffer.tryPublish(event)) {
+      handleOverflow(event);
+    }
+    writer.signal();
+  }
+
+  private void handleOverflow(LogEvent event) {
+    long overflowCount = overflowedEvents.incrementAndGet();
+    if (overflowPolicy != OverflowPolicy.BLOCK && event.getLevel().isLessSpecificThan(INFO)
+        && (overflowPolicy == OverflowPolicy.DISCARD_INFO || overflowCount % sampleRate != 0)) {
+      discardedEvents.incrementAndGet();
+      return;
+    }
+
+    while (!buffer.tryPublish(event)) {
+      if (writer.isWriterThread() || !isStarted()) {
+        // Waiting here would never end, write the event right away instead
+        appendNow(event);
+        return;
+      }
+      writer.signal();
+      parkNanos(this, OVERFLOW_PARK_NANOS);
+    }
+  }
+
+  private void appendNow(LogEvent event) {
+    synchronized (drainLock) {
+      // Write the queued events first, so that this one doesn't get ahead of them. When logged while writing a queued event, the
+      // events after it can't be written first, since the buffer only allows one consumer at a time.
+      if (!draining) {
+        buffer.drain(delegateAppend, Integer.MAX_VALUE);
+      }
+      delegate.append(event);
+      delegate.getManager().flush();
+    }
+  }
+
+  /**
+   * Writes up to {@code maxEvents} queued events and flushes the delegate if any was written.
+   *
+   * @return the amount of events written
+   */
+  int drain(int maxEvents) {
+    synchronized (drainLock) {
+      int drained;
+      draining = true;
+      try {
+        drained = buffer.drain(delegateAppend, maxEvents);
+      } finally {
+        draining = false;
+      }
+      if (drained > 0) {
+        delegate.getManager().flush();
+      }
+      return drained;
+    }
+  }
+
+  @Override
+  public void start() {
+    if (!delegate.isStarted()) {
+      delegate.start();
+    }
+    writer.register(this);
+    super.start();
+  }
+
+  @Override
+  public boolean stop(long timeout, TimeUnit timeUnit) {
+    setStopping();
+    writer.unregister(this);
+    boolean stopped = delegate.stop(timeout, timeUnit);
+    setStopped();
+    return stopped;
+  }
+
+  /**
+   * @return the appender the events are written with
+   */
+  AbstractOutputStreamAppender<?> getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * @return the amount of events waiting to be written
+   */
+  int getQueueDepth() {
+    return buffer.size();
+  }
+
+  /**
+   * @return the amount of events the buffer can hold
+   */
+  int getQueueCapacity() {
+    return buffer.capacity();
+  }
+
+  /**
+   * @return the amount of events which didn't fit in the buffer when they were logged, either discarded or waited for
+   */
+  long getOverflowedEvents() {
+    return overflowedEvents.get();
+  }
+
+  /**
+   * @return the amount of events discarded by the {@link OverflowPolicy}
+   */
+  long getDiscardedEvents() {
+    return discardedEvents.get();
+  }
+}
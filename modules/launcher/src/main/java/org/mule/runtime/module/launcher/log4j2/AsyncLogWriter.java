@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Single thread, shared by all the artifacts, which writes the events queued by every {@link AsyncArtifactAppender}.
+ * <p>
+ * The thread goes through the registered appenders writing a batch of events from each, and parks when all of them are empty
+ * until an appender {@link #signal() signals} that new events are available. It is started when the first appender is
+ * registered, and ends once the last one is unregistered when stopped.
+ *
+ * @since 4.6
+ */
+final class AsyncLogWriter implements Runnable {
+
+  static final String THREAD_NAME = "mule.log.writer";
+
+  private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+  private static final int BATCH_SIZE = 256;
+  private static final long MAX_PARK_NANOS = MILLISECONDS.toNanos(100);
+
+  private static final AsyncLogWriter INSTANCE = new AsyncLogWriter();
+
+  private final List<AsyncArtifactAppender> appenders = new CopyOnWriteArrayList<>();
+  // Changed while holding the monitor of this writer. A thread that is no longer the current one ends.
+  private volatile Thread thread;
+  private volatile boolean parked;
+
+  AsyncLogWriter() {}
+
+  static AsyncLogWriter getInstance() {
+    return INSTANCE;
+  }
+
+  synchronized void register(AsyncArtifactAppender appender) {
+    appenders.add(appender);
+    if (thread == null) {
+      thread = new Thread(this, THREAD_NAME);
+      thread.setDaemon(true);
+      // Avoid the writer thread to hold a reference to an artifact classloader
+      thread.setContextClassLoader(AsyncLogWriter.class.getClassLoader());
+      thread.start();
+    }
+  }
+
+  /**
+   * Stops writing events for the given appender, and ends the writer thread if it was the last one. Any event still queued by
+   * it is written by the calling thread before returning.
+   */
+  void unregister(AsyncArtifactAppender appender) {
+    synchronized (this) {
+      appenders.remove(appender);
+      if (appenders.isEmpty() && thread != null) {
+        Thread stopped = thread;
+        thread = null;
+        unpark(stopped);
+      }
+    }
+    while (appender.drain(BATCH_SIZE) > 0) {
+      // Keep draining until the appender is empty
+    }
+  }
+
+  /**
+   * Wakes up the writer thread if it is waiting for events.
+   */
+  void signal() {
+    Thread current = thread;
+    if (parked && current != null) {
+      unpark(current);
+    }
+  }
+
+  boolean isWriterThread() {
+    return Thread.currentThread() == thread;
+  }
+
+  @Override
+  public void run() {
+    while (Thread.currentThread() == thread) {
+      int drained = 0;
+      for (AsyncArtifactAppender appender : appenders) {
+        try {
+          drained += appender.drain(BATCH_SIZE);
+        } catch (Throwable t) {
+          LOGGER.error("Error writing log events of appender " + appender.getName(), t);
+        }
+      }
+
+      if (drained == 0) {
+        parked = true;
+        if (!hasQueuedEvents() && Thread.currentThread() == thread) {
+          parkNanos(this, MAX_PARK_NANOS);
+        }
+        parked = false;
+      }
+    }
+  }
+
+  private boolean hasQueuedEvents() {
+    for (AsyncArtifactAppender appender : appenders) {
+      if (appender.getQueueDepth() > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -16,6 +16,7 @@ import static org.reflections.ReflectionUtils.withParameters;
 
 import org.mule.runtime.api.util.Reference;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Iterator;
@@ -49,6 +50,10 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
  * Because this class is a fix for issues in static loggers, it must not hold any reference to any {@link ClassLoader} since
  * otherwise that class loader would be GC unreachable. For that reason, it uses {@link #ownerClassLoaderHash} instead of the real
  * reference
+ * <p/>
+ * The logger resolved for the last seen context classloader is remembered through weak references, so consecutive calls from
+ * the same context classloader, which is the common case, are dispatched after an identity check without going through the
+ * caches.
  *
  * @since 3.6.0
  */
@@ -62,6 +67,8 @@ abstract class DispatchingLogger extends Logger {
       .weakValues()
       .build(key -> new Reference<>());
 
+  private volatile LastResolvedLogger lastResolvedLogger;
+
   private Method updateConfigurationMethod = null;
 
   DispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext, ContextSelector contextSelector,
@@ -73,10 +80,35 @@ abstract class DispatchingLogger extends Logger {
   }
 
   private Logger getLogger() {
-    return getLogger(resolveLoggerContextClassLoader(currentThread().getContextClassLoader()));
+    ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+
+    LastResolvedLogger lastResolved = lastResolvedLogger;
+    if (lastResolved != null && contextClassLoader != null && lastResolved.get() == contextClassLoader) {
+      Logger logger = lastResolved.getLogger();
+      if (logger != null) {
+        return logger;
+      }
+    }
+
+    Logger logger = doGetLogger(resolveLoggerContextClassLoader(contextClassLoader));
+    if (logger == null) {
+      return getFallbackLogger();
+    }
+
+    lastResolvedLogger = new LastResolvedLogger(contextClassLoader, logger);
+    return logger;
   }
 
   private Logger getLogger(final ClassLoader resolvedCtxClassLoader) {
+    Logger logger = doGetLogger(resolvedCtxClassLoader);
+    return logger != null ? logger : getFallbackLogger();
+  }
+
+  /**
+   * @param resolvedCtxClassLoader classloader owning the logger context to use
+   * @return the logger for the given classloader, or {@code null} if its logger context is still being created
+   */
+  private Logger doGetLogger(final ClassLoader resolvedCtxClassLoader) {
     if (useThisLoggerContextClassLoader(resolvedCtxClassLoader)) {
       return originalLogger;
     }
@@ -103,15 +135,8 @@ abstract class DispatchingLogger extends Logger {
           try {
             logger = resolveLogger(resolvedCtxClassLoader);
           } catch (RecursiveLoggerContextInstantiationException rle) {
-            // The required Logger is already under construction by a previous resolveLogger call. Falling back to container
-            // classloader.
-            try {
-              return resolveLogger(this.getClass().getClassLoader());
-            } catch (RecursiveLoggerContextInstantiationException e) {
-              // TODO: W-12337087 - this shouldn't happen, we have to check why the container logger is still in the process of
-              // being created.
-              return originalLogger;
-            }
+            // The required Logger is already under construction by a previous resolveLogger call.
+            return null;
           }
           loggerReference.set(logger);
         }
@@ -120,6 +145,17 @@ abstract class DispatchingLogger extends Logger {
     return logger;
   }
 
+  private Logger getFallbackLogger() {
+    // Falling back to container classloader.
+    try {
+      return resolveLogger(this.getClass().getClassLoader());
+    } catch (RecursiveLoggerContextInstantiationException e) {
+      // TODO: W-12337087 - this shouldn't happen, we have to check why the container logger is still in the process of
+      // being created.
+      return originalLogger;
+    }
+  }
+
   private Logger resolveLogger(ClassLoader resolvedCtxClassLoader) {
     Logger logger;
     // trick - this is probably a logger declared in a static field
@@ -1000,4 +1036,22 @@ abstract class DispatchingLogger extends Logger {
   public void warn(String message, Throwable t) {
     getLogger().warn(message, t);
   }
+
+  /**
+   * Pair of a context classloader and the logger resolved for it, neither of them strongly referenced so that neither the
+   * classloader nor the logger context of an undeployed artifact are retained by a logger of the container.
+   */
+  private static final class LastResolvedLogger extends WeakReference<ClassLoader> {
+
+    private final WeakReference<Logger> logger;
+
+    LastResolvedLogger(ClassLoader contextClassLoader, Logger logger) {
+      super(contextClassLoader);
+      this.logger = new WeakReference<>(logger);
+    }
+
+    Logger getLogger() {
+      return logger.get();
+    }
+  }
 }
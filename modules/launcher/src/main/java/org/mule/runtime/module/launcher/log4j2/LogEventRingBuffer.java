@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+
+/**
+ * Bounded lock-free queue of {@link LogEvent}s for many producers and a single consumer.
+ * <p>
+ * Slots are preallocated {@link MutableLogEvent}s which published events are copied into, so that publishing doesn't allocate.
+ * Each slot has a sequence number telling whether it is free for the producer claiming a given position or ready for the
+ * consumer.
+ *
+ * @since 4.6
+ */
+final class LogEventRingBuffer {
+
+  private final MutableLogEvent[] slots;
+  private final AtomicLongArray sequences;
+  private final int mask;
+
+  private final AtomicLong tail = new AtomicLong();
+  private volatile long head;
+
+  /**
+   * @param requestedCapacity the minimum amount of events the buffer can hold. Rounded up to a power of two, and to at least 2.
+   */
+  LogEventRingBuffer(int requestedCapacity) {
+    checkArgument(requestedCapacity > 0 && requestedCapacity <= 1 << 30, "requestedCapacity must be between 1 and 2^30");
+    // With a single slot, a published event would have the sequence number which frees the slot for the next position
+    int capacity = max(2, highestOneBit(requestedCapacity) == requestedCapacity ? requestedCapacity
+        : highestOneBit(requestedCapacity) << 1);
+
+    slots = new MutableLogEvent[capacity];
+    sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; ++i) {
+      slots[i] = new MutableLogEvent();
+      sequences.set(i, i);
+    }
+    mask = capacity - 1;
+  }
+
+  /**
+   * Copies the given event into a free slot.
+   *
+   * @param event the event to publish
+   * @return {@code false} if the buffer is full
+   */
+  boolean tryPublish(LogEvent event) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) position & mask;
+      long available = sequences.get(index) - position;
+
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots[index].initFrom(event);
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (available < 0) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Passes the published events to the given consumer, in publication order, and frees their slots. Must only be called by one
+   * thread at a time.
+   *
+   * @param consumer  receives each event. The event is only valid during the call.
+   * @param maxEvents the maximum amount of events to consume
+   * @return the amount of events consumed
+   */
+  int drain(Consumer<LogEvent> consumer, int maxEvents) {
+    long position = head;
+    int drained = 0;
+    try {
+      while (drained < maxEvents) {
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+          break;
+        }
+
+        MutableLogEvent event = slots[index];
+        try {
+          consumer.accept(event);
+        } finally {
+          event.clear();
+          sequences.set(index, position + slots.length);
+          ++position;
+          ++drained;
+        }
+      }
+    } finally {
+      head = position;
+    }
+    return drained;
+  }
+
+  /**
+   * @return the amount of events claimed by producers and not yet consumed
+   */
+  int size() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  /**
+   * @return the amount of events the buffer can hold
+   */
+  int capacity() {
+    return slots.length;
+  }
+}
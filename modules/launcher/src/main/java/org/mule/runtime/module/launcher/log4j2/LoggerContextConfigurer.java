@@ -15,6 +15,7 @@ import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_DEFAULT_S
 import static org.mule.runtime.core.internal.util.MuleContainerUtils.getMuleBase;
 import static org.mule.runtime.core.internal.util.MuleContainerUtils.getMuleConfDir;
 import static org.mule.runtime.core.privileged.event.PrivilegedEvent.CORRELATION_ID_MDC_KEY;
+import static org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.MULE_LOG_ASYNC_DEFAULT_APPENDER;
 
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.getInteger;
@@ -68,7 +69,7 @@ import org.apache.logging.log4j.core.util.FileWatcher;
  * classloader leak.</li>
  * <li>When using a default configuration (one which doesn't come from a config file), the console appender is removed</li>
  * <li>if the classloader is an {@link ArtifactClassLoader}, then it adds a rolling file appender to collect the artifact's
- * logs</li>
+ * logs, written asynchronously through an {@link AsyncArtifactAppender} if enabled</li>
  * <li>if the configuration did not include a monitorInterval, then one is set to a default value of 60</li>
  * <li>if the context is standalone, then it adds a rolling file appender associated to the artifact</li>
  * <li>if the context is not standalone, then it just logs to a file named mule-main.log</li>
@@ -166,9 +167,16 @@ final class LoggerContextConfigurer {
   }
 
   private void addDefaultAppender(MuleLoggerContext context, String logFilePath) {
-    RollingFileAppender appender =
-        createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}", PER_APP_FILE_APPENDER_NAME, context.getConfiguration());
-    doAddAppender(context, appender);
+    if (parseBoolean(getProperty(MULE_LOG_ASYNC_DEFAULT_APPENDER, "false"))) {
+      RollingFileAppender fileAppender = createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}",
+                                                                   PER_APP_FILE_APPENDER_NAME + "-file",
+                                                                   context.getConfiguration(), false);
+      doAddAppender(context, AsyncArtifactAppender.create(PER_APP_FILE_APPENDER_NAME, fileAppender));
+    } else {
+      RollingFileAppender appender =
+          createRollingFileAppender(logFilePath, ".%d{yyyy-MM-dd}", PER_APP_FILE_APPENDER_NAME, context.getConfiguration(), true);
+      doAddAppender(context, appender);
+    }
   }
 
   private void forceConsoleAppender(MuleLoggerContext context) {
@@ -185,12 +193,13 @@ final class LoggerContextConfigurer {
   }
 
   private RollingFileAppender createRollingFileAppender(String logFilePath, String filePattern, String appenderName,
-                                                        Configuration configuration) {
+                                                        Configuration configuration, boolean immediateFlush) {
     return RollingFileAppender.newBuilder()
         .withFileName(logFilePath)
         .withFilePattern(logFilePath + filePattern)
         .withAppend(true)
         .withName(appenderName).withBufferedIo(true)
+        .withImmediateFlush(immediateFlush)
         .withPolicy(TimeBasedTriggeringPolicy.newBuilder()
             .withInterval(getInteger(MULE_LOG_DEFAULT_POLICY_INTERVAL, 1))
             .withModulate(true)
@@ -262,7 +271,8 @@ final class LoggerContextConfigurer {
   }
 
   private boolean hasFileAppender(LoggerContext context) {
-    return hasAppender(context, FileAppender.class, RollingFileAppender.class, RandomAccessFileAppender.class);
+    return hasAppender(context, FileAppender.class, RollingFileAppender.class, RandomAccessFileAppender.class,
+                       AsyncArtifactAppender.class);
   }
 
   private boolean hasAppender(LoggerContext context, Class<? extends Appender>... appenderTypes) {
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.OverflowPolicy.BLOCK;
+import static org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.OverflowPolicy.DISCARD_INFO;
+import static org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.OverflowPolicy.SAMPLE;
+import static org.mule.test.allure.AllureConstants.Logging.LOGGING;
+
+import static org.apache.logging.log4j.Level.ERROR;
+import static org.apache.logging.log4j.Level.INFO;
+import static org.apache.logging.log4j.Level.WARN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.OverflowPolicy;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.appender.OutputStreamManager;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(LOGGING)
+public class AsyncArtifactAppenderTestCase extends AbstractMuleTestCase {
+
+  private AbstractOutputStreamAppender<?> delegate;
+  private OutputStreamManager manager;
+  private AsyncLogWriter writer;
+  private final List<String> written = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void before() {
+    delegate = mock(AbstractOutputStreamAppender.class);
+    manager = mock(OutputStreamManager.class);
+    doReturn(manager).when(delegate).getManager();
+    when(delegate.isStarted()).thenReturn(true);
+    doAnswer(invocation -> written.add(((LogEvent) invocation.getArgument(0)).getMessage().getFormattedMessage()))
+        .when(delegate).append(any(LogEvent.class));
+    writer = mock(AsyncLogWriter.class);
+  }
+
+  @Test
+  public void eventsAreWrittenInBatches() {
+    AsyncArtifactAppender appender = createAppender(4, BLOCK, 1);
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+    appender.append(event(INFO, "3"));
+
+    assertThat(written, is(empty()));
+    assertThat(appender.getQueueDepth(), is(3));
+    verify(writer, times(3)).signal();
+
+    assertThat(appender.drain(2), is(2));
+    assertThat(appender.drain(2), is(1));
+    assertThat(appender.drain(2), is(0));
+
+    assertThat(written, contains("1", "2", "3"));
+    assertThat(appender.getQueueDepth(), is(0));
+    verify(manager, times(2)).flush();
+  }
+
+  @Test
+  public void discardInfoWhenFull() {
+    AsyncArtifactAppender appender = createAppender(2, DISCARD_INFO, 1);
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+    appender.append(event(INFO, "3"));
+
+    assertThat(appender.getOverflowedEvents(), is(1L));
+    assertThat(appender.getDiscardedEvents(), is(1L));
+
+    appender.drain(10);
+    assertThat(written, contains("1", "2"));
+  }
+
+  @Test
+  public void sampleWhenFull() throws Exception {
+    AsyncArtifactAppender appender = createAppender(2, SAMPLE, 2);
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+    appender.append(event(INFO, "discarded"));
+    assertThat(appender.getDiscardedEvents(), is(1L));
+
+    assertBlockedUntilDrained(appender, event(INFO, "sampled"));
+    assertThat(written, contains("1", "2", "sampled"));
+    assertThat(appender.getDiscardedEvents(), is(1L));
+  }
+
+  @Test
+  public void severeEventsAreNotDiscarded() throws Exception {
+    AsyncArtifactAppender appender = createAppender(2, DISCARD_INFO, 1);
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+
+    assertBlockedUntilDrained(appender, event(ERROR, "error"));
+    assertThat(written, contains("1", "2", "error"));
+    assertThat(appender.getDiscardedEvents(), is(0L));
+  }
+
+  @Test
+  public void stoppedAppenderWritesRightAway() {
+    AsyncArtifactAppender appender = createAppender(2, BLOCK, 1);
+    appender.stop();
+
+    verify(writer).unregister(appender);
+    appender.append(event(INFO, "1"));
+    assertThat(written, contains("1"));
+    assertThat(appender.getQueueDepth(), is(0));
+  }
+
+  @Test
+  public void eventsWrittenRightAwayDoNotGetAheadOfQueuedOnes() {
+    AsyncArtifactAppender appender = createAppender(2, BLOCK, 1);
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+    when(writer.isWriterThread()).thenReturn(true);
+
+    appender.append(event(INFO, "3"));
+    assertThat(written, contains("1", "2", "3"));
+
+    appender.append(event(INFO, "4"));
+    appender.stop();
+    appender.append(event(INFO, "5"));
+    assertThat(written, contains("1", "2", "3", "4", "5"));
+  }
+
+  @Test
+  public void eventsLoggedWhileWritingAreWrittenRightAway() {
+    AsyncArtifactAppender appender = createAppender(2, BLOCK, 1);
+    when(writer.isWriterThread()).thenReturn(true);
+    doAnswer(invocation -> {
+      String message = ((LogEvent) invocation.getArgument(0)).getMessage().getFormattedMessage();
+      written.add(message);
+      if (message.equals("1")) {
+        // The slot of the event being written is not free yet, so this one doesn't fit in the full buffer
+        appender.append(event(WARN, "logged while writing"));
+      }
+      return null;
+    }).when(delegate).append(any(LogEvent.class));
+    appender.append(event(INFO, "1"));
+    appender.append(event(INFO, "2"));
+
+    assertThat(appender.drain(10), is(2));
+    assertThat(written, contains("1", "logged while writing", "2"));
+    assertThat(appender.getQueueDepth(), is(0));
+  }
+
+  private void assertBlockedUntilDrained(AsyncArtifactAppender appender, LogEvent event) throws InterruptedException {
+    Thread producer = new Thread(() -> appender.append(event));
+    producer.start();
+
+    assertThat(appender.drain(1), is(1));
+    producer.join(5000);
+    assertThat(producer.isAlive(), is(false));
+    assertThat(appender.drain(10), is(2));
+  }
+
+  private AsyncArtifactAppender createAppender(int bufferSize, OverflowPolicy overflowPolicy, int sampleRate) {
+    AsyncArtifactAppender appender = new AsyncArtifactAppender("test", delegate, bufferSize, overflowPolicy, sampleRate, writer);
+    appender.start();
+    verify(writer).register(appender);
+    return appender;
+  }
+
+  private LogEvent event(Level level, String message) {
+    return Log4jLogEvent.newBuilder()
+        .setLoggerName(AsyncArtifactAppenderTestCase.class.getName())
+        .setLevel(level)
+        .setMessage(new SimpleMessage(message))
+        .build();
+  }
+}
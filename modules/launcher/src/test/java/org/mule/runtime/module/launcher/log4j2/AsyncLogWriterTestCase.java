@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static org.mule.runtime.module.launcher.log4j2.AsyncLogWriter.THREAD_NAME;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.test.allure.AllureConstants.Logging.LOGGING;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(LOGGING)
+public class AsyncLogWriterTestCase extends AbstractMuleTestCase {
+
+  private final AsyncLogWriter writer = new AsyncLogWriter();
+
+  @Test
+  public void threadEndsWhenLastAppenderIsUnregistered() {
+    AtomicReference<Thread> writerThread = new AtomicReference<>();
+    AsyncArtifactAppender first = appender(writerThread);
+    AsyncArtifactAppender second = appender(writerThread);
+
+    writer.register(first);
+    writer.register(second);
+    probe(() -> writerThread.get() != null);
+    Thread thread = writerThread.get();
+    assertThat(thread.getName(), is(THREAD_NAME));
+
+    writer.unregister(first);
+    assertThat(thread.isAlive(), is(true));
+
+    writer.unregister(second);
+    probe(() -> !thread.isAlive());
+  }
+
+  @Test
+  public void threadIsStartedAgainWhenAnAppenderIsRegistered() {
+    AtomicReference<Thread> writerThread = new AtomicReference<>();
+    AsyncArtifactAppender appender = appender(writerThread);
+
+    writer.register(appender);
+    probe(() -> writerThread.get() != null);
+    Thread stopped = writerThread.get();
+    writer.unregister(appender);
+    probe(() -> !stopped.isAlive());
+
+    writerThread.set(null);
+    writer.register(appender);
+    probe(() -> writerThread.get() != null);
+    assertThat(writerThread.get(), is(not(stopped)));
+    writer.unregister(appender);
+  }
+
+  private AsyncArtifactAppender appender(AtomicReference<Thread> writerThread) {
+    AsyncArtifactAppender appender = mock(AsyncArtifactAppender.class);
+    when(appender.drain(anyInt())).thenAnswer(invocation -> {
+      if (writer.isWriterThread()) {
+        writerThread.set(Thread.currentThread());
+      }
+      return 0;
+    });
+    return appender;
+  }
+}
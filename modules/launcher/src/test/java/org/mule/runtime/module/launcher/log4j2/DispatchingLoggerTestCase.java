@@ -11,6 +11,7 @@ import static org.mule.test.allure.AllureConstants.Logging.LOGGING;
 import static org.mule.test.allure.AllureConstants.Logging.LoggingStory.CONTEXT_FACTORY;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -117,6 +118,22 @@ public class DispatchingLoggerTestCase extends AbstractMuleTestCase {
     });
   }
 
+  @Test
+  public void alternatingContextClassLoadersAreDispatchedToTheirLoggers() {
+    Logger regionClassLoaderLogger = mock(Logger.class);
+    when(contextSelector.getContext(anyString(), any(ClassLoader.class), anyBoolean()))
+        .thenReturn(regionClassLoaderLoggerContext);
+    when(regionClassLoaderLoggerContext.getLogger(anyString(), any(MessageFactory.class))).thenReturn(regionClassLoaderLogger);
+
+    withContextClassLoader(regionClassLoader, () -> logger.info(MESSAGE));
+    logger.info(MESSAGE);
+    withContextClassLoader(regionClassLoader, () -> logger.info(MESSAGE));
+
+    verify(regionClassLoaderLogger, times(2)).info(MESSAGE);
+    verify(originalLogger).info(MESSAGE);
+    verify(contextSelector).getContext(anyString(), any(ClassLoader.class), anyBoolean());
+  }
+
   @Test
   public void whenRecursiveLoggerContextInstantiationExceptionExpectFallbackUsingContainerClassLoader() {
     // Expected Loggers
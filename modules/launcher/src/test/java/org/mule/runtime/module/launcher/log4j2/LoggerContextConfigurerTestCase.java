@@ -8,8 +8,10 @@ package org.mule.runtime.module.launcher.log4j2;
 
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_FORCE_CONSOLE_LOG;
 import static org.mule.runtime.core.api.config.MuleDeploymentProperties.MULE_MUTE_APP_LOGS_DEPLOYMENT_PROPERTY;
+import static org.mule.runtime.module.launcher.log4j2.AsyncArtifactAppender.MULE_LOG_ASYNC_DEFAULT_APPENDER;
 import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.FORCED_CONSOLE_APPENDER_NAME;
 import static org.mule.runtime.module.launcher.log4j2.LoggerContextConfigurer.PER_APP_FILE_APPENDER_NAME;
+import static org.mule.tck.MuleTestUtils.testWithSystemProperty;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Optional.empty;
@@ -161,14 +163,40 @@ public class LoggerContextConfigurerTestCase extends AbstractMuleTestCase {
     assertThat(perAppAppender, notNullValue());
     assertThat(perAppAppender.getName(), equalTo(PER_APP_FILE_APPENDER_NAME));
     assertThat(perAppAppender.isStarted(), is(true));
+    assertFilePattern(perAppAppender);
 
+    LoggerConfig rootLogger = context.getConfiguration().getRootLogger();
+    verify(rootLogger).addAppender(perAppAppender, Level.ALL, null);
+  }
+
+  @Test
+  public void perAppDefaultAsynchronousAppender() throws Exception {
+    testWithSystemProperty(MULE_LOG_ASYNC_DEFAULT_APPENDER, "true", () -> {
+      when(context.isArtifactClassloader()).thenReturn(true);
+      when(context.getArtifactDescriptor().getDeploymentProperties()).thenReturn(empty());
+      contextConfigurer.update(context);
+      ArgumentCaptor<AsyncArtifactAppender> appenderCaptor = ArgumentCaptor.forClass(AsyncArtifactAppender.class);
+      verify(context.getConfiguration()).addAppender(appenderCaptor.capture());
+
+      AsyncArtifactAppender perAppAppender = appenderCaptor.getValue();
+
+      assertThat(perAppAppender, notNullValue());
+      assertThat(perAppAppender.getName(), equalTo(PER_APP_FILE_APPENDER_NAME));
+      assertThat(perAppAppender.isStarted(), is(true));
+      assertThat(perAppAppender.getDelegate().isStarted(), is(true));
+      assertFilePattern((RollingFileAppender) perAppAppender.getDelegate());
+
+      LoggerConfig rootLogger = context.getConfiguration().getRootLogger();
+      verify(rootLogger).addAppender(perAppAppender, Level.ALL, null);
+      perAppAppender.stop();
+    });
+  }
+
+  private void assertFilePattern(RollingFileAppender perAppAppender) {
     String filePattern = perAppAppender.getFilePattern();
     String filePatternTemplate = filePattern.substring(filePattern.lastIndexOf('/') + 1);
     String filePatternTemplateDateSuffix = filePatternTemplate.substring(filePatternTemplate.lastIndexOf('.') + 1);
     assertThat(filePatternTemplateDateSuffix, equalTo(FILE_PATTERN_TEMPLATE_DATE_SECTION));
-
-    LoggerConfig rootLogger = context.getConfiguration().getRootLogger();
-    verify(rootLogger).addAppender(perAppAppender, Level.ALL, null);
   }
 
   @Test
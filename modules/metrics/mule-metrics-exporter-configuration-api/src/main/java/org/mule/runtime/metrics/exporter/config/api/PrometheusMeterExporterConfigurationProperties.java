@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.metrics.exporter.config.api;
+
+/**
+ * Configuration properties for the meter exporter that serves metrics to be scraped by Prometheus.
+ *
+ * @since 4.6.0
+ */
+public class PrometheusMeterExporterConfigurationProperties {
+
+  private static final String MULE_PROMETHEUS_METER_EXPORTER = "mule.prometheus.meter.exporter";
+
+  private PrometheusMeterExporterConfigurationProperties() {}
+
+  public static final String MULE_PROMETHEUS_METER_EXPORTER_HOST = MULE_PROMETHEUS_METER_EXPORTER + ".host";
+
+  public static final String MULE_PROMETHEUS_METER_EXPORTER_PORT = MULE_PROMETHEUS_METER_EXPORTER + ".port";
+
+  public static final String MULE_PROMETHEUS_METER_EXPORTER_PATH = MULE_PROMETHEUS_METER_EXPORTER + ".path";
+
+  public static final String DEFAULT_PROMETHEUS_METER_EXPORTER_HOST = "localhost";
+
+  public static final int DEFAULT_PROMETHEUS_METER_EXPORTER_PORT = 9464;
+
+  public static final String DEFAULT_PROMETHEUS_METER_EXPORTER_PATH = "/metrics";
+}
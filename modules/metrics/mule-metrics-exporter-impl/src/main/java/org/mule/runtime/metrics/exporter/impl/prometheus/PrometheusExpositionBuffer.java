@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.exporter.impl.prometheus;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A growable byte buffer meant to be reused across scrapes, which writes numbers as ASCII digits without creating intermediate
+ * strings.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 4.6.0
+ */
+final class PrometheusExpositionBuffer {
+
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+  private final byte[] digits = new byte[20];
+  private byte[] bytes = new byte[4096];
+  private int count;
+
+  void reset() {
+    count = 0;
+  }
+
+  int size() {
+    return count;
+  }
+
+  void write(int b) {
+    ensureCapacity(1);
+    bytes[count++] = (byte) b;
+  }
+
+  void write(byte[] b) {
+    ensureCapacity(b.length);
+    System.arraycopy(b, 0, bytes, count, b.length);
+    count += b.length;
+  }
+
+  void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      write(MIN_LONG);
+      return;
+    }
+    if (value < 0) {
+      write('-');
+      value = -value;
+    }
+
+    int position = digits.length;
+    do {
+      digits[--position] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value != 0);
+
+    int length = digits.length - position;
+    ensureCapacity(length);
+    System.arraycopy(digits, position, bytes, count, length);
+    count += length;
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    out.write(bytes, 0, count);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (count + extra > bytes.length) {
+      bytes = copyOf(bytes, max(bytes.length << 1, count + extra));
+    }
+  }
+}
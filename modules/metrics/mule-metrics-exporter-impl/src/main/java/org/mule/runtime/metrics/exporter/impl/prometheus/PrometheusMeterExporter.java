@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.exporter.impl.prometheus;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+import org.mule.runtime.metrics.api.instrument.Instrument;
+import org.mule.runtime.metrics.api.instrument.LongCounter;
+import org.mule.runtime.metrics.api.instrument.LongUpDownCounter;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongSupplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A {@link MeterExporter} that serves the values of the exported instruments in the Prometheus text exposition format, to be
+ * scraped by a Prometheus server.
+ * <p>
+ * Nothing is done between scrapes: the instruments already hold their current values, so this exporter just keeps a reference to
+ * them and reads them when a scrape request arrives. The fixed part of each sample is rendered once when the instrument is
+ * enabled, and scrape responses are written to a reused buffer by the single thread that serves the requests.
+ *
+ * @since 4.6.0
+ */
+public class PrometheusMeterExporter implements MeterExporter {
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final String COUNTER_TYPE = "counter";
+  private static final String GAUGE_TYPE = "gauge";
+  private static final String TOTAL_SUFFIX = "_total";
+
+  private final Set<String> registeredMeters = ConcurrentHashMap.newKeySet();
+  private final Set<String> exportedNames = new HashSet<>();
+  private volatile PrometheusSeries[] series = new PrometheusSeries[0];
+
+  private final PrometheusExpositionBuffer buffer = new PrometheusExpositionBuffer();
+  private final ExecutorService scrapeExecutor;
+  private final HttpServer server;
+
+  /**
+   * Creates the exporter and starts serving scrape requests.
+   *
+   * @param host the host to bind to.
+   * @param port the port to listen on. {@code 0} picks any free port, see {@link #getPort()}.
+   * @param path the path on which the metrics are served.
+   */
+  public PrometheusMeterExporter(String host, int port, String path) {
+    try {
+      server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(format("Could not bind the Prometheus meter exporter to %s:%d", host, port), e);
+    }
+
+    // Requests are served by a single thread, which is what allows the response buffer to be reused without locking.
+    scrapeExecutor = newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "prometheus-meter-exporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(scrapeExecutor);
+    server.createContext(path, this::handleScrape);
+    server.start();
+  }
+
+  @Override
+  public void registerMeterToExport(Meter meter) {
+    registeredMeters.add(meter.getName());
+  }
+
+  @Override
+  public void enableExport(LongCounter longCounter) {
+    addSeries(longCounter, longCounter.getMeterName(), COUNTER_TYPE, longCounter::getValue);
+  }
+
+  @Override
+  public void enableExport(LongUpDownCounter upDownCounter) {
+    addSeries(upDownCounter, upDownCounter.getMeterName(), GAUGE_TYPE, upDownCounter::getValue);
+  }
+
+  /**
+   * @return the port on which scrape requests are being served.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops serving scrape requests.
+   */
+  public void dispose() {
+    server.stop(0);
+    scrapeExecutor.shutdownNow();
+  }
+
+  private synchronized void addSeries(Instrument instrument, String meterName, String type, LongSupplier valueSupplier) {
+    if (!registeredMeters.contains(meterName)) {
+      throw new IllegalArgumentException(format("Meter '%s' of instrument '%s' was not registered to be exported",
+                                                meterName, instrument.getName()));
+    }
+
+    String name = sanitize(meterName + "_" + instrument.getName());
+    if (COUNTER_TYPE.equals(type) && !name.endsWith(TOTAL_SUFFIX)) {
+      name = name + TOTAL_SUFFIX;
+    }
+    if (!exportedNames.add(name)) {
+      return;
+    }
+
+    // The series array is copied on write so that scrapes can iterate it without locking.
+    PrometheusSeries[] newSeries = copyOf(series, series.length + 1);
+    newSeries[series.length] = new PrometheusSeries(header(name, type, instrument.getDescription()), valueSupplier);
+    series = newSeries;
+  }
+
+  private void handleScrape(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      if (!"GET".equals(method) && !"HEAD".equals(method)) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      buffer.reset();
+      for (PrometheusSeries current : series) {
+        buffer.write(current.header);
+        buffer.writeLong(current.valueSupplier.getAsLong());
+        buffer.write('\n');
+      }
+
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if ("HEAD".equals(method) || buffer.size() == 0) {
+        exchange.sendResponseHeaders(200, -1);
+      } else {
+        exchange.sendResponseHeaders(200, buffer.size());
+        buffer.writeTo(exchange.getResponseBody());
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static byte[] header(String name, String type, String description) {
+    StringBuilder header = new StringBuilder();
+    if (description != null && !description.isEmpty()) {
+      header.append("# HELP ").append(name).append(' ');
+      for (int i = 0; i < description.length(); ++i) {
+        char c = description.charAt(i);
+        if (c == '\\') {
+          header.append("\\\\");
+        } else if (c == '\n') {
+          header.append("\\n");
+        } else {
+          header.append(c);
+        }
+      }
+      header.append('\n');
+    }
+    header.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    header.append(name).append(' ');
+    return header.toString().getBytes(UTF_8);
+  }
+
+  /**
+   * Replaces the characters not allowed in Prometheus metric names with underscores.
+   */
+  static String sanitize(String name) {
+    StringBuilder sanitized = new StringBuilder(name.length() + 1);
+    if (name.isEmpty() || (name.charAt(0) >= '0' && name.charAt(0) <= '9')) {
+      sanitized.append('_');
+    }
+    for (int i = 0; i < name.length(); ++i) {
+      char c = name.charAt(i);
+      boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == ':';
+      sanitized.append(valid ? c : '_');
+    }
+    return sanitized.toString();
+  }
+
+  private static final class PrometheusSeries {
+
+    private final byte[] header;
+    private final LongSupplier valueSupplier;
+
+    private PrometheusSeries(byte[] header, LongSupplier valueSupplier) {
+      this.header = header;
+      this.valueSupplier = valueSupplier;
+    }
+  }
+}
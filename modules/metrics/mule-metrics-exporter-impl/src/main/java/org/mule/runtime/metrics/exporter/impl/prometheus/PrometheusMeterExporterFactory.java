@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.exporter.impl.prometheus;
+
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.DEFAULT_PROMETHEUS_METER_EXPORTER_HOST;
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.DEFAULT_PROMETHEUS_METER_EXPORTER_PATH;
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.DEFAULT_PROMETHEUS_METER_EXPORTER_PORT;
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.MULE_PROMETHEUS_METER_EXPORTER_HOST;
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.MULE_PROMETHEUS_METER_EXPORTER_PATH;
+import static org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties.MULE_PROMETHEUS_METER_EXPORTER_PORT;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+
+import org.mule.runtime.metrics.exporter.api.DummyConfiguration;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+import org.mule.runtime.metrics.exporter.api.MeterExporterFactory;
+
+/**
+ * An implementation of {@link MeterExporterFactory} which creates a {@link PrometheusMeterExporter}, that serves the internal
+ * metrics to be scraped by Prometheus instead of pushing them.
+ * <p>
+ * The host, port and path to serve the metrics on are taken from the properties in
+ * {@link org.mule.runtime.metrics.exporter.config.api.PrometheusMeterExporterConfigurationProperties}. The exporting interval of
+ * the configuration does not apply, since the metrics are only read when scraped.
+ *
+ * @since 4.6.0
+ */
+public class PrometheusMeterExporterFactory implements MeterExporterFactory {
+
+  @Override
+  public MeterExporter getMeterExporter(DummyConfiguration configuration) {
+    return new PrometheusMeterExporter(getProperty(MULE_PROMETHEUS_METER_EXPORTER_HOST, DEFAULT_PROMETHEUS_METER_EXPORTER_HOST),
+                                       getInteger(MULE_PROMETHEUS_METER_EXPORTER_PORT, DEFAULT_PROMETHEUS_METER_EXPORTER_PORT),
+                                       getProperty(MULE_PROMETHEUS_METER_EXPORTER_PATH, DEFAULT_PROMETHEUS_METER_EXPORTER_PATH));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.exporter.impl.prometheus;
+
+import static org.mule.runtime.metrics.exporter.impl.prometheus.PrometheusMeterExporter.CONTENT_TYPE;
+import static org.mule.test.allure.AllureConstants.Profiling.PROFILING;
+import static org.mule.test.allure.AllureConstants.Profiling.ProfilingServiceStory.METRICS_EXPORTER;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.metrics.api.instrument.LongCounter;
+import org.mule.runtime.metrics.api.instrument.LongUpDownCounter;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.impl.meter.DefaultMeter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@Feature(PROFILING)
+@Story(METRICS_EXPORTER)
+public class PrometheusMeterExporterTestCase {
+
+  private PrometheusMeterExporter exporter;
+  private Meter meter;
+
+  @Before
+  public void setUp() {
+    exporter = new PrometheusMeterExporter("localhost", 0, "/metrics");
+    meter = DefaultMeter.builder("test.meter").build();
+    exporter.registerMeterToExport(meter);
+  }
+
+  @After
+  public void tearDown() {
+    exporter.dispose();
+  }
+
+  @Test
+  public void exporterShouldServeLongCounter() throws IOException {
+    LongCounter longCounter = meter.counterBuilder("long-counter-test").withDescription("Long Counter test")
+        .withUnit("test-unit").build();
+    exporter.enableExport(longCounter);
+    longCounter.add(4);
+
+    String scraped = scrape();
+    assertThat(scraped, containsString("# HELP test_meter_long_counter_test_total Long Counter test\n"));
+    assertThat(scraped, containsString("# TYPE test_meter_long_counter_test_total counter\n"));
+    assertThat(scraped, containsString("\ntest_meter_long_counter_test_total 4\n"));
+
+    longCounter.add(3);
+    assertThat(scrape(), containsString("\ntest_meter_long_counter_test_total 7\n"));
+  }
+
+  @Test
+  public void exporterShouldServeUpDownCounterAsGauge() throws IOException {
+    LongUpDownCounter longUpDownCounter = meter.upDownCounterBuilder("long-up-down-counter-test")
+        .withDescription("Long UpDownCounter test").withUnit("test-unit").withInitialValue(2L).build();
+    exporter.enableExport(longUpDownCounter);
+    longUpDownCounter.add(-5);
+
+    String scraped = scrape();
+    assertThat(scraped, containsString("# TYPE test_meter_long_up_down_counter_test gauge\n"));
+    assertThat(scraped, containsString("\ntest_meter_long_up_down_counter_test -3\n"));
+  }
+
+  @Test
+  public void instrumentEnabledTwiceIsServedOnce() throws IOException {
+    LongCounter longCounter = meter.counterBuilder("twice").build();
+    exporter.enableExport(longCounter);
+    exporter.enableExport(longCounter);
+
+    String scraped = scrape();
+    assertThat(scraped, not(containsString("# HELP")));
+    assertThat(scraped.indexOf("# TYPE"), equalTo(scraped.lastIndexOf("# TYPE")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void instrumentOfNotRegisteredMeterFails() {
+    exporter.enableExport(DefaultMeter.builder("other").build().counterBuilder("counter").build());
+  }
+
+  @Test
+  public void sanitizeName() {
+    assertThat(PrometheusMeterExporter.sanitize("mule.app-1:requests"), equalTo("mule_app_1:requests"));
+    assertThat(PrometheusMeterExporter.sanitize("1st"), equalTo("_1st"));
+  }
+
+  private String scrape() throws IOException {
+    HttpURLConnection connection =
+        (HttpURLConnection) new URL("http://localhost:" + exporter.getPort() + "/metrics").openConnection();
+    try {
+      assertThat(connection.getResponseCode(), equalTo(200));
+      assertThat(connection.getContentType(), equalTo(CONTENT_TYPE));
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8))) {
+        return reader.lines().collect(joining("\n", "", "\n"));
+      }
+    } finally {
+      connection.disconnect();
+    }
+  }
+}
@@ -97,6 +97,7 @@ import org.mule.runtime.config.internal.registry.SpringRegistryBootstrap;
 import org.mule.runtime.core.api.config.DefaultMuleConfiguration;
 import org.mule.runtime.core.api.config.bootstrap.ArtifactType;
 import org.mule.runtime.core.api.event.EventContextService;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics;
 import org.mule.runtime.core.api.streaming.DefaultStreamingManager;
 import org.mule.runtime.core.internal.cluster.DefaultClusterService;
 import org.mule.runtime.core.internal.config.CustomService;
@@ -115,6 +116,7 @@ import org.mule.runtime.core.internal.exception.MessagingExceptionLocationProvid
 import org.mule.runtime.core.internal.execution.MuleMessageProcessingManager;
 import org.mule.runtime.core.internal.lock.MuleLockFactory;
 import org.mule.runtime.core.internal.lock.SingleServerLockProvider;
+import org.mule.runtime.core.internal.management.stats.DefaultComponentLatencyStatistics;
 import org.mule.runtime.core.internal.management.stats.DefaultProcessingTimeWatcher;
 import org.mule.runtime.core.internal.policy.DefaultPolicyManager;
 import org.mule.runtime.core.internal.processor.interceptor.DefaultProcessorInterceptorManager;
@@ -179,6 +181,7 @@ public class SpringMuleContextServiceConfigurator extends AbstractSpringMuleCont
       .add(OBJECT_POLICY_MANAGER)
       .add(OBJECT_EXCEPTION_LOCATION_PROVIDER)
       .add(OBJECT_MESSAGE_PROCESSING_FLOW_TRACE_MANAGER)
+      .add(ComponentLatencyStatistics.REGISTRY_KEY)
       .build();
 
   private static final ImmutableMap<String, String> OBJECT_STORE_NAME_TO_LOCAL_OBJECT_STORE_NAME =
@@ -201,6 +204,7 @@ public class SpringMuleContextServiceConfigurator extends AbstractSpringMuleCont
       .put(OBJECT_NOTIFICATION_DISPATCHER, getBeanDefinition(DefaultNotificationDispatcher.class))
       .put(NotificationListenerRegistry.REGISTRY_KEY, getBeanDefinition(DefaultNotificationListenerRegistry.class))
       .put(EventContextService.REGISTRY_KEY, getBeanDefinition(DefaultEventContextService.class))
+      .put(ComponentLatencyStatistics.REGISTRY_KEY, getBeanDefinition(DefaultComponentLatencyStatistics.class))
       .put(BASE_IN_MEMORY_OBJECT_STORE_KEY,
            getBeanDefinitionBuilder(ConstantFactoryBean.class).addConstructorArgReference(OBJECT_LOCAL_STORE_IN_MEMORY)
                .getBeanDefinition())
@@ -120,14 +120,18 @@ import org.mule.runtime.core.internal.exception.EnrichedErrorMapping;
 import org.mule.runtime.core.internal.exception.ErrorHandler;
 import org.mule.runtime.core.internal.exception.OnErrorContinueHandler;
 import org.mule.runtime.core.internal.exception.OnErrorPropagateHandler;
+import org.mule.runtime.core.internal.processor.AggregatorScope;
 import org.mule.runtime.core.internal.processor.AsyncDelegateMessageProcessor;
+import org.mule.runtime.core.internal.processor.CacheScope;
 import org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy;
 import org.mule.runtime.core.internal.processor.LoggerMessageProcessor;
+import org.mule.runtime.core.internal.processor.ThrottleScope;
 import org.mule.runtime.core.internal.processor.TryScope;
 import org.mule.runtime.core.internal.processor.simple.AddFlowVariableProcessor;
 import org.mule.runtime.core.internal.processor.simple.ParseTemplateProcessor;
 import org.mule.runtime.core.internal.processor.simple.RemoveFlowVariableProcessor;
 import org.mule.runtime.core.internal.processor.simple.SetPayloadMessageProcessor;
+import org.mule.runtime.core.internal.retry.CircuitBreakerConfig;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 import org.mule.runtime.core.internal.routing.ChoiceRouter;
 import org.mule.runtime.core.internal.routing.FirstSuccessful;
@@ -193,6 +197,10 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
   private static final String ASYNC = "async";
   private static final String TRY = "try";
   private static final String UNTIL_SUCCESSFUL = "until-successful";
+  private static final String CACHE = "cache";
+  private static final String AGGREGATOR = "aggregator";
+  private static final String THROTTLE = "throttle";
+  private static final String CIRCUIT_BREAKER = "circuit-breaker";
   private static final String FOREACH = "foreach";
   private static final String FIRST_SUCCESSFUL = "first-successful";
   private static final String ROUND_ROBIN = "round-robin";
@@ -350,6 +358,11 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
             .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
             .withSetterParameterDefinition(NAME, fromSimpleParameter(NAME).build())
             .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+            .withSetterParameterDefinition("maxInMemoryEvents", fromSimpleParameter("maxInMemoryEvents").build())
+            .withSetterParameterDefinition("maxSpillSize",
+                                           fromSimpleParameter("maxSpillSize").withDefaultValue("104857600").build())
+            .withSetterParameterDefinition("discardSpilledOnStart",
+                                           fromSimpleParameter("discardSpilledOnStart").withDefaultValue("false").build())
             .build());
     // TODO MULE-12726 Remove TryProcessorFactoryBean
     componentBuildingDefinitions
@@ -368,8 +381,50 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
             .withSetterParameterDefinition("maxRetries", fromSimpleParameter("maxRetries").withDefaultValue("5").build())
             .withSetterParameterDefinition("millisBetweenRetries",
                                            fromSimpleParameter("millisBetweenRetries").withDefaultValue("60000").build())
+            .withSetterParameterDefinition("circuitBreaker", fromSimpleReferenceParameter("circuitBreaker").build())
             .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
             .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(CACHE).withTypeDefinition(fromType(CacheScope.class))
+        .withSetterParameterDefinition("keyExpression", fromSimpleParameter("keyExpression").build())
+        .withSetterParameterDefinition("objectStore", fromSimpleReferenceParameter("objectStore").build())
+        .withSetterParameterDefinition("persistent", fromSimpleParameter("persistent").build())
+        .withSetterParameterDefinition("entryTtl", fromSimpleParameter("entryTtl").build())
+        .withSetterParameterDefinition("entryTtlUnit",
+                                       fromSimpleParameter("entryTtlUnit", value -> TimeUnit.valueOf((String) value)).build())
+        .withSetterParameterDefinition("maxEntries", fromSimpleParameter("maxEntries").build())
+        .withSetterParameterDefinition("maxEntrySize", fromSimpleParameter("maxEntrySize").build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(AGGREGATOR).withTypeDefinition(fromType(AggregatorScope.class))
+        .withSetterParameterDefinition("groupExpression", fromSimpleParameter("groupExpression").build())
+        .withSetterParameterDefinition("maxSize", fromSimpleParameter("maxSize").withDefaultValue("100").build())
+        .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").withDefaultValue("1000").build())
+        .withSetterParameterDefinition("splitResult", fromSimpleParameter("splitResult").withDefaultValue("false").build())
+        .withSetterParameterDefinition("objectStore", fromSimpleReferenceParameter("objectStore").build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(THROTTLE).withTypeDefinition(fromType(ThrottleScope.class))
+        .withSetterParameterDefinition("keyExpression", fromSimpleParameter("keyExpression").build())
+        .withSetterParameterDefinition("maxRate", fromSimpleParameter("maxRate").withDefaultValue("0").build())
+        .withSetterParameterDefinition("burst", fromSimpleParameter("burst").build())
+        .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").withDefaultValue("0").build())
+        .withSetterParameterDefinition("maxWait", fromSimpleParameter("maxWait").withDefaultValue("-1").build())
+        .withSetterParameterDefinition("rejectionErrorType", fromSimpleParameter("rejectionErrorType").build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .build());
+    componentBuildingDefinitions
+        .add(baseDefinition.withIdentifier(CIRCUIT_BREAKER).withTypeDefinition(fromType(CircuitBreakerConfig.class))
+            .withSetterParameterDefinition(NAME, fromSimpleParameter(NAME).build())
+            .withSetterParameterDefinition("failureRateThreshold",
+                                           fromSimpleParameter("failureRateThreshold").withDefaultValue("50").build())
+            .withSetterParameterDefinition("slidingWindowSize",
+                                           fromSimpleParameter("slidingWindowSize").withDefaultValue("20").build())
+            .withSetterParameterDefinition("minimumCalls", fromSimpleParameter("minimumCalls").withDefaultValue("10").build())
+            .withSetterParameterDefinition("openDuration", fromSimpleParameter("openDuration").withDefaultValue("30000").build())
+            .withSetterParameterDefinition("halfOpenCalls", fromSimpleParameter("halfOpenCalls").withDefaultValue("3").build())
+            .withSetterParameterDefinition("configName", fromSimpleParameter("configName").build())
+            .withSetterParameterDefinition("perOperation", fromSimpleParameter("perOperation").withDefaultValue("false").build())
+            .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(FOREACH).withTypeDefinition(fromType(Foreach.class))
         .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
         .withSetterParameterDefinition("batchSize", fromSimpleParameter("batchSize").build())
@@ -380,6 +435,9 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(FIRST_SUCCESSFUL)
         .withTypeDefinition(fromType(FirstSuccessful.class))
         .withSetterParameterDefinition("routes", fromChildCollectionConfiguration(MessageProcessorChain.class).build())
+        .withSetterParameterDefinition("hedgeDelay", fromSimpleParameter("hedgeDelay").build())
+        .withSetterParameterDefinition("hedgeDelayPercentile", fromSimpleParameter("hedgeDelayPercentile").build())
+        .withSetterParameterDefinition("hedgeBudget", fromSimpleParameter("hedgeBudget").withDefaultValue("10").build())
         .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(ROUND_ROBIN)
         .withTypeDefinition(fromType(RoundRobin.class))
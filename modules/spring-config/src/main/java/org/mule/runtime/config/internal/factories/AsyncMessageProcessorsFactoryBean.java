@@ -27,6 +27,9 @@ public class AsyncMessageProcessorsFactoryBean extends AbstractComponent
   protected List messageProcessors;
   protected String name;
   protected Integer maxConcurrency;
+  protected Integer maxInMemoryEvents;
+  protected long maxSpillSize;
+  protected boolean discardSpilledOnStart;
 
   @Override
   public Class getObjectType() {
@@ -56,6 +59,11 @@ public class AsyncMessageProcessorsFactoryBean extends AbstractComponent
     if (getMaxConcurrency() != null) {
       delegate.setMaxConcurrency(getMaxConcurrency());
     }
+    if (maxInMemoryEvents != null) {
+      delegate.setMaxInMemoryEvents(maxInMemoryEvents);
+      delegate.setMaxSpillSize(maxSpillSize);
+      delegate.setDiscardSpilledOnStart(discardSpilledOnStart);
+    }
     return delegate;
   }
 
@@ -86,4 +94,16 @@ public class AsyncMessageProcessorsFactoryBean extends AbstractComponent
   public void setMaxConcurrency(Integer maxConcurrency) {
     this.maxConcurrency = maxConcurrency;
   }
+
+  public void setMaxInMemoryEvents(Integer maxInMemoryEvents) {
+    this.maxInMemoryEvents = maxInMemoryEvents;
+  }
+
+  public void setMaxSpillSize(long maxSpillSize) {
+    this.maxSpillSize = maxSpillSize;
+  }
+
+  public void setDiscardSpilledOnStart(boolean discardSpilledOnStart) {
+    this.discardSpilledOnStart = discardSpilledOnStart;
+  }
 }
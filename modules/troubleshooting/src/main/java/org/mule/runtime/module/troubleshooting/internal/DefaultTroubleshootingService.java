@@ -15,7 +15,9 @@ import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationCallb
 import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationDefinition;
 import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationException;
 import org.mule.runtime.module.troubleshooting.api.TroubleshootingService;
+import org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation;
 import org.mule.runtime.module.troubleshooting.internal.operations.EventDumpOperation;
+import org.mule.runtime.module.troubleshooting.internal.operations.MemoryCensusOperation;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -29,6 +31,8 @@ public class DefaultTroubleshootingService implements TroubleshootingService {
 
   public DefaultTroubleshootingService(DeploymentService deploymentService) {
     registerOperation(new EventDumpOperation(deploymentService));
+    registerOperation(new ComponentLatencyOperation(deploymentService));
+    registerOperation(new MemoryCensusOperation(deploymentService));
   }
 
   @Override
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.troubleshooting.internal.operations;
+
+import static java.lang.String.format;
+
+import org.json.JSONObject;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics.ComponentLatencySnapshot;
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.module.deployment.api.DeploymentService;
+import org.mule.runtime.module.troubleshooting.api.ArgumentDefinition;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperation;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationCallback;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationDefinition;
+import org.mule.runtime.module.troubleshooting.internal.DefaultArgumentDefinition;
+import org.mule.runtime.module.troubleshooting.internal.DefaultTroubleshootingOperationDefinition;
+
+/**
+ * Operation used to collect, in JSON format, the invocations, errors, in-flight executions and latency percentiles of each
+ * component over a rolling window.
+ * <p>
+ * Only applications are reported. Domains have no flows of their own, so the executions of the components they share are
+ * reported by the applications whose flows they dispatch to.
+ * <p>
+ * The name of the operation is "componentLatency".
+ * <p>
+ * Arguments:
+ * <ul>
+ * <li>application (Optional): The application to collect the statistics from</li>
+ * <li>recording (Optional): "enable" or "disable", to start or stop recording the statistics before collecting them</li>
+ * </ul>
+ */
+public class ComponentLatencyOperation implements TroubleshootingOperation {
+
+  public static final String COMPONENT_LATENCY_OPERATION_NAME = "componentLatency";
+  public static final String COMPONENT_LATENCY_OPERATION_DESCRIPTION =
+      "Collects the latency and throughput of each component in JSON format";
+
+  public static final String APPLICATION_ARGUMENT_NAME = "application";
+  public static final String APPLICATION_ARGUMENT_DESCRIPTION = "Application to collect the statistics from";
+
+  public static final String RECORDING_ARGUMENT_NAME = "recording";
+  public static final String RECORDING_ARGUMENT_DESCRIPTION =
+      "'enable' or 'disable', to start or stop recording the statistics before collecting them";
+
+  public static final String ENABLE_RECORDING = "enable";
+  public static final String DISABLE_RECORDING = "disable";
+
+  private static final TroubleshootingOperationDefinition definition = createOperationDefinition();
+
+  private final DeploymentService deploymentService;
+
+  public ComponentLatencyOperation(DeploymentService deploymentService) {
+    this.deploymentService = deploymentService;
+  }
+
+  @Override
+  public TroubleshootingOperationDefinition getDefinition() {
+    return definition;
+  }
+
+  @Override
+  public TroubleshootingOperationCallback getCallback() {
+    return arguments -> {
+      final String recording = arguments.get(RECORDING_ARGUMENT_NAME);
+      if (recording != null && !ENABLE_RECORDING.equals(recording) && !DISABLE_RECORDING.equals(recording)) {
+        throw new IllegalArgumentException(format("Invalid value '%s' for argument '%s'. Expected '%s' or '%s'.",
+                                                  recording, RECORDING_ARGUMENT_NAME, ENABLE_RECORDING, DISABLE_RECORDING));
+      }
+
+      JSONObject statistics = new JSONObject();
+      final String applicationName = arguments.get(APPLICATION_ARGUMENT_NAME);
+      if (applicationName == null) {
+        for (Application application : deploymentService.getApplications()) {
+          addStatisticsFor(application, recording, statistics);
+        }
+      } else {
+        addStatisticsFor(deploymentService.findApplication(applicationName), recording, statistics);
+      }
+      return statistics.toString(2);
+    };
+  }
+
+  private static void addStatisticsFor(Application application, String recording, JSONObject statistics) {
+    ComponentLatencyStatistics latencyStatistics = getComponentLatencyStatistics(application);
+    if (ENABLE_RECORDING.equals(recording)) {
+      latencyStatistics.enable();
+    } else if (DISABLE_RECORDING.equals(recording)) {
+      latencyStatistics.disable();
+    }
+    statistics.put(application.getArtifactName(), statisticsToJSON(latencyStatistics));
+  }
+
+  private static ComponentLatencyStatistics getComponentLatencyStatistics(Application application) {
+    return application
+        .getArtifactContext()
+        .getRegistry()
+        .lookupByName(ComponentLatencyStatistics.REGISTRY_KEY)
+        .map(ComponentLatencyStatistics.class::cast)
+        .orElseThrow(() -> new IllegalArgumentException(format("Could not get ComponentLatencyStatistics for application %s.",
+                                                               application.getArtifactName())));
+  }
+
+  private static JSONObject statisticsToJSON(ComponentLatencyStatistics latencyStatistics) {
+    JSONObject statisticsAsJSON = new JSONObject();
+    statisticsAsJSON.put("recording", latencyStatistics.isEnabled());
+    statisticsAsJSON.put("windowMillis", latencyStatistics.getWindowMillis());
+    // Right after recording is enabled, only part of the window has data
+    long recordedMillis = latencyStatistics.getRecordedMillis();
+    statisticsAsJSON.put("recordedMillis", recordedMillis);
+
+    JSONObject components = new JSONObject();
+    for (ComponentLatencySnapshot snapshot : latencyStatistics.getSnapshots()) {
+      components.put(snapshot.getLocation(), snapshotToJSON(snapshot, recordedMillis));
+    }
+    statisticsAsJSON.put("components", components);
+    return statisticsAsJSON;
+  }
+
+  private static JSONObject snapshotToJSON(ComponentLatencySnapshot snapshot, long recordedMillis) {
+    JSONObject snapshotAsJSON = new JSONObject();
+    snapshotAsJSON.put("invocations", snapshot.getInvocations());
+    snapshotAsJSON.put("errors", snapshot.getErrors());
+    snapshotAsJSON.put("inFlight", snapshot.getInFlight());
+    snapshotAsJSON.put("throughputPerSecond", recordedMillis == 0 ? 0 : snapshot.getInvocations() * 1000.0 / recordedMillis);
+    snapshotAsJSON.put("p50Millis", toMillis(snapshot.getLatencyNanos(50)));
+    snapshotAsJSON.put("p90Millis", toMillis(snapshot.getLatencyNanos(90)));
+    snapshotAsJSON.put("p99Millis", toMillis(snapshot.getLatencyNanos(99)));
+    return snapshotAsJSON;
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static TroubleshootingOperationDefinition createOperationDefinition() {
+    return new DefaultTroubleshootingOperationDefinition(COMPONENT_LATENCY_OPERATION_NAME,
+                                                         COMPONENT_LATENCY_OPERATION_DESCRIPTION,
+                                                         createApplicationArgumentDefinition(),
+                                                         createRecordingArgumentDefinition());
+  }
+
+  private static ArgumentDefinition createApplicationArgumentDefinition() {
+    return new DefaultArgumentDefinition(APPLICATION_ARGUMENT_NAME, APPLICATION_ARGUMENT_DESCRIPTION, false);
+  }
+
+  private static ArgumentDefinition createRecordingArgumentDefinition() {
+    return new DefaultArgumentDefinition(RECORDING_ARGUMENT_NAME, RECORDING_ARGUMENT_DESCRIPTION, false);
+  }
+}
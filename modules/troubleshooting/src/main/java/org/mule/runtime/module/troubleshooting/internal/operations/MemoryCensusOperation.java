@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.troubleshooting.internal.operations;
+
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STREAMING_MANAGER;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.mule.runtime.api.artifact.Registry;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.StreamingStatistics;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.store.PartitionStatistics;
+import org.mule.runtime.core.internal.streaming.NullStreamingStatistics;
+import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
+import org.mule.runtime.core.internal.streaming.bytes.MemoryBoundByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.BufferPoolOccupancy;
+import org.mule.runtime.core.internal.util.store.MuleObjectStoreManager;
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.module.deployment.api.DeploymentService;
+import org.mule.runtime.module.troubleshooting.api.ArgumentDefinition;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperation;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationCallback;
+import org.mule.runtime.module.troubleshooting.api.TroubleshootingOperationDefinition;
+import org.mule.runtime.module.troubleshooting.internal.DefaultArgumentDefinition;
+import org.mule.runtime.module.troubleshooting.internal.DefaultTroubleshootingOperationDefinition;
+
+import java.util.Map;
+
+/**
+ * Operation used to collect, in JSON format, the memory held by the streaming buffers and the in memory object stores of each
+ * application.
+ * <p>
+ * The name of the operation is "memoryCensus".
+ * <p>
+ * The open cursor providers and cursors are only counted when streaming statistics are enabled through the
+ * {@code MuleSystemProperties#MULE_ENABLE_STREAMING_STATISTICS} system property. The bytes held by cursor providers are the
+ * bytes allocated by the buffer manager minus the ones idle in its pools. Object store sizes are estimations kept up to date as
+ * entries are stored and removed, so collecting them doesn't go through the stored values.
+ * <p>
+ * Arguments:
+ * <ul>
+ * <li>application (Optional): The application to collect the census from</li>
+ * </ul>
+ */
+public class MemoryCensusOperation implements TroubleshootingOperation {
+
+  public static final String MEMORY_CENSUS_OPERATION_NAME = "memoryCensus";
+  public static final String MEMORY_CENSUS_OPERATION_DESCRIPTION =
+      "Collects the memory held by streaming buffers and in memory object stores in JSON format";
+
+  public static final String APPLICATION_ARGUMENT_NAME = "application";
+  public static final String APPLICATION_ARGUMENT_DESCRIPTION = "Application to collect the census from";
+
+  private static final TroubleshootingOperationDefinition definition = createOperationDefinition();
+
+  private final DeploymentService deploymentService;
+
+  public MemoryCensusOperation(DeploymentService deploymentService) {
+    this.deploymentService = deploymentService;
+  }
+
+  @Override
+  public TroubleshootingOperationDefinition getDefinition() {
+    return definition;
+  }
+
+  @Override
+  public TroubleshootingOperationCallback getCallback() {
+    return arguments -> {
+      JSONObject census = new JSONObject();
+      final String applicationName = arguments.get(APPLICATION_ARGUMENT_NAME);
+      if (applicationName == null) {
+        for (Application application : deploymentService.getApplications()) {
+          census.put(application.getArtifactName(), censusFor(application));
+        }
+      } else {
+        Application application = deploymentService.findApplication(applicationName);
+        census.put(application.getArtifactName(), censusFor(application));
+      }
+      return census.toString(2);
+    };
+  }
+
+  private static JSONObject censusFor(Application application) {
+    Registry registry = application.getArtifactContext().getRegistry();
+
+    JSONObject censusAsJSON = new JSONObject();
+    registry.lookupByName(OBJECT_STREAMING_MANAGER)
+        .map(StreamingManager.class::cast)
+        .ifPresent(streamingManager -> censusAsJSON.put("streaming", streamingToJSON(streamingManager)));
+    registry.lookupByName(OBJECT_STORE_MANAGER)
+        .filter(MuleObjectStoreManager.class::isInstance)
+        .map(MuleObjectStoreManager.class::cast)
+        .ifPresent(objectStoreManager -> censusAsJSON.put("objectStores", objectStoresToJSON(objectStoreManager)));
+    return censusAsJSON;
+  }
+
+  private static JSONObject streamingToJSON(StreamingManager streamingManager) {
+    JSONObject streamingAsJSON = new JSONObject();
+
+    StreamingStatistics statistics = streamingManager.getStreamingStatistics();
+    streamingAsJSON.put("statisticsEnabled", !(statistics instanceof NullStreamingStatistics));
+    streamingAsJSON.put("openCursorProviders", statistics.getOpenCursorProvidersCount());
+    streamingAsJSON.put("openCursors", statistics.getOpenCursorsCount());
+
+    if (streamingManager.forBytes() instanceof DefaultByteStreamingManager) {
+      ByteBufferManager bufferManager = ((DefaultByteStreamingManager) streamingManager.forBytes()).getBufferManager();
+      if (bufferManager instanceof MemoryBoundByteBufferManager) {
+        bufferMemoryToJSON((MemoryBoundByteBufferManager) bufferManager, streamingAsJSON);
+      }
+    }
+    return streamingAsJSON;
+  }
+
+  private static void bufferMemoryToJSON(MemoryBoundByteBufferManager bufferManager, JSONObject streamingAsJSON) {
+    long usedBytes = bufferManager.getStreamingMemory();
+    long idlePooledBytes = 0;
+
+    if (bufferManager instanceof PoolingByteBufferManager) {
+      JSONArray poolsAsJSON = new JSONArray();
+      for (BufferPoolOccupancy occupancy : ((PoolingByteBufferManager) bufferManager).getPoolsOccupancy()) {
+        JSONObject poolAsJSON = new JSONObject();
+        poolAsJSON.put("bufferCapacity", occupancy.getBufferCapacity());
+        poolAsJSON.put("taken", occupancy.getTaken());
+        poolAsJSON.put("idle", occupancy.getIdle());
+        poolAsJSON.put("maxSize", occupancy.getMaxSize());
+        poolsAsJSON.put(poolAsJSON);
+        idlePooledBytes += (long) occupancy.getIdle() * occupancy.getBufferCapacity();
+      }
+      streamingAsJSON.put("bufferPools", poolsAsJSON);
+    }
+
+    JSONObject memoryAsJSON = new JSONObject();
+    memoryAsJSON.put("usedBytes", usedBytes);
+    memoryAsJSON.put("maxBytes", bufferManager.getMaxStreamingMemory());
+    memoryAsJSON.put("idlePooledBytes", idlePooledBytes);
+    memoryAsJSON.put("heldByCursorProvidersBytes", Math.max(0, usedBytes - idlePooledBytes));
+    streamingAsJSON.put("bufferMemory", memoryAsJSON);
+  }
+
+  private static JSONObject objectStoresToJSON(MuleObjectStoreManager objectStoreManager) {
+    JSONObject objectStoresAsJSON = new JSONObject();
+    for (Map.Entry<String, PartitionStatistics> entry : objectStoreManager.getTransientPartitionsStatistics().entrySet()) {
+      JSONObject partitionAsJSON = new JSONObject();
+      partitionAsJSON.put("entries", entry.getValue().getEntries());
+      partitionAsJSON.put("estimatedBytes", entry.getValue().getEstimatedBytes());
+      partitionAsJSON.put("unsizedEntries", entry.getValue().getUnsizedEntries());
+      objectStoresAsJSON.put(entry.getKey(), partitionAsJSON);
+    }
+    return objectStoresAsJSON;
+  }
+
+  private static TroubleshootingOperationDefinition createOperationDefinition() {
+    return new DefaultTroubleshootingOperationDefinition(MEMORY_CENSUS_OPERATION_NAME, MEMORY_CENSUS_OPERATION_DESCRIPTION,
+                                                         createApplicationArgumentDefinition());
+  }
+
+  private static ArgumentDefinition createApplicationArgumentDefinition() {
+    return new DefaultArgumentDefinition(APPLICATION_ARGUMENT_NAME, APPLICATION_ARGUMENT_DESCRIPTION, false);
+  }
+}
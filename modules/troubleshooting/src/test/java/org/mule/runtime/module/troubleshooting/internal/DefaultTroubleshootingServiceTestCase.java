@@ -15,7 +15,9 @@ import static org.mule.runtime.module.troubleshooting.internal.TestTroubleshooti
 import static org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils.mockApplication;
 import static org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils.mockDeploymentService;
 import static org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils.mockFlowStackEntry;
+import static org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation.COMPONENT_LATENCY_OPERATION_NAME;
 import static org.mule.runtime.module.troubleshooting.internal.operations.EventDumpOperation.EVENT_DUMP_OPERATION_NAME;
+import static org.mule.runtime.module.troubleshooting.internal.operations.MemoryCensusOperation.MEMORY_CENSUS_OPERATION_NAME;
 
 import org.junit.After;
 import org.junit.Before;
@@ -52,10 +54,11 @@ public class DefaultTroubleshootingServiceTestCase {
   @Test
   public void checkOperations() {
     List<TroubleshootingOperationDefinition> availableOperations = troubleshootingService.getAvailableOperations();
-    assertThat(availableOperations.size(), is(2));
+    assertThat(availableOperations.size(), is(4));
 
     List<String> operationNames = availableOperations.stream().map(TroubleshootingOperationDefinition::getName).collect(toList());
-    assertThat(operationNames, containsInAnyOrder(EVENT_DUMP_OPERATION_NAME, TEST_OPERATION_NAME));
+    assertThat(operationNames, containsInAnyOrder(EVENT_DUMP_OPERATION_NAME, COMPONENT_LATENCY_OPERATION_NAME,
+                                                  MEMORY_CENSUS_OPERATION_NAME, TEST_OPERATION_NAME));
   }
 
   @Test(expected = TroubleshootingOperationException.class)
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.troubleshooting.internal.operations;
+
+import static com.google.gson.JsonParser.parseString;
+import static java.util.Arrays.asList;
+import static java.util.Optional.of;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils.mockDeploymentService;
+import static org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation.APPLICATION_ARGUMENT_NAME;
+import static org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation.COMPONENT_LATENCY_OPERATION_DESCRIPTION;
+import static org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation.COMPONENT_LATENCY_OPERATION_NAME;
+import static org.mule.runtime.module.troubleshooting.internal.operations.ComponentLatencyOperation.RECORDING_ARGUMENT_NAME;
+
+import com.google.gson.JsonElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics;
+import org.mule.runtime.core.api.management.stats.ComponentLatencyStatistics.ComponentLatencySnapshot;
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ComponentLatencyOperationTestCase {
+
+  private ComponentLatencyStatistics app1Statistics;
+  private ComponentLatencyStatistics app2Statistics;
+  private ComponentLatencyOperation componentLatencyOperation;
+
+  @Before
+  public void setup() {
+    ComponentLatencySnapshot snapshot = mock(ComponentLatencySnapshot.class);
+    when(snapshot.getLocation()).thenReturn("flow/processors/0");
+    when(snapshot.getInvocations()).thenReturn(120L);
+    when(snapshot.getErrors()).thenReturn(3L);
+    when(snapshot.getInFlight()).thenReturn(2L);
+    when(snapshot.getLatencyNanos(50)).thenReturn(1_500_000L);
+    when(snapshot.getLatencyNanos(90)).thenReturn(4_000_000L);
+    when(snapshot.getLatencyNanos(99)).thenReturn(12_000_000L);
+
+    app1Statistics = mockStatistics(snapshot);
+    app2Statistics = mockStatistics();
+    componentLatencyOperation = new ComponentLatencyOperation(mockDeploymentService(mockApplication("app1", app1Statistics),
+                                                                                    mockApplication("app2", app2Statistics)));
+  }
+
+  @Test
+  public void definitionHasCorrectNameDescriptionAndNumberOfArguments() {
+    assertThat(componentLatencyOperation.getDefinition().getName(), is(COMPONENT_LATENCY_OPERATION_NAME));
+    assertThat(componentLatencyOperation.getDefinition().getDescription(), is(COMPONENT_LATENCY_OPERATION_DESCRIPTION));
+    assertThat(componentLatencyOperation.getDefinition().getArgumentDefinitions().size(), is(2));
+  }
+
+  @Test
+  public void whenNoApplicationIsPassedItReturnsAllApplications() {
+    Object result = componentLatencyOperation.getCallback().execute(new HashMap<>());
+
+    JsonElement expectedJson =
+        parseString("{\"app1\":{\"recording\":true,\"windowMillis\":60000,\"recordedMillis\":60000,"
+            + "\"components\":{\"flow/processors/0\":"
+            + "{\"invocations\":120,\"errors\":3,\"inFlight\":2,\"throughputPerSecond\":2.0,"
+            + "\"p50Millis\":1.5,\"p90Millis\":4.0,\"p99Millis\":12.0}}},"
+            + "\"app2\":{\"recording\":true,\"windowMillis\":60000,\"recordedMillis\":60000,\"components\":{}}}");
+    assertThat(parseString((String) result), is(equalTo(expectedJson)));
+  }
+
+  @Test
+  public void recordingIsEnabledOnlyForThePassedApplication() {
+    Map<String, String> arguments = new HashMap<>();
+    arguments.put(APPLICATION_ARGUMENT_NAME, "app2");
+    arguments.put(RECORDING_ARGUMENT_NAME, "enable");
+    Object result = componentLatencyOperation.getCallback().execute(arguments);
+
+    verify(app2Statistics).enable();
+    verify(app1Statistics, never()).enable();
+    JsonElement expectedJson =
+        parseString("{\"app2\":{\"recording\":true,\"windowMillis\":60000,\"recordedMillis\":60000,\"components\":{}}}");
+    assertThat(parseString((String) result), is(equalTo(expectedJson)));
+  }
+
+  @Test
+  public void throughputIsComputedOverTheRecordedPartOfTheWindow() {
+    when(app1Statistics.getRecordedMillis()).thenReturn(30000L);
+    Map<String, String> arguments = new HashMap<>();
+    arguments.put(APPLICATION_ARGUMENT_NAME, "app1");
+    Object result = componentLatencyOperation.getCallback().execute(arguments);
+
+    JsonElement component = parseString((String) result).getAsJsonObject().getAsJsonObject("app1")
+        .getAsJsonObject("components").getAsJsonObject("flow/processors/0");
+    assertThat(component.getAsJsonObject().get("throughputPerSecond").getAsDouble(), is(4.0));
+  }
+
+  @Test
+  public void recordingIsDisabled() {
+    Map<String, String> arguments = new HashMap<>();
+    arguments.put(RECORDING_ARGUMENT_NAME, "disable");
+    componentLatencyOperation.getCallback().execute(arguments);
+
+    verify(app1Statistics).disable();
+    verify(app2Statistics).disable();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidRecordingValue() {
+    Map<String, String> arguments = new HashMap<>();
+    arguments.put(RECORDING_ARGUMENT_NAME, "start");
+    componentLatencyOperation.getCallback().execute(arguments);
+  }
+
+  private static ComponentLatencyStatistics mockStatistics(ComponentLatencySnapshot... snapshots) {
+    ComponentLatencyStatistics statistics = mock(ComponentLatencyStatistics.class);
+    when(statistics.isEnabled()).thenReturn(true);
+    when(statistics.getWindowMillis()).thenReturn(60000L);
+    when(statistics.getRecordedMillis()).thenReturn(60000L);
+    when(statistics.getSnapshots()).thenReturn(asList(snapshots));
+    return statistics;
+  }
+
+  private static Application mockApplication(String appName, ComponentLatencyStatistics statistics) {
+    Application application = TroubleshootingTestUtils.mockApplication(appName);
+    when(application.getArtifactContext().getRegistry().lookupByName(ComponentLatencyStatistics.REGISTRY_KEY))
+        .thenReturn(of(statistics));
+    return application;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.troubleshooting.internal.operations;
+
+import static com.google.gson.JsonParser.parseString;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static java.util.Optional.of;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STREAMING_MANAGER;
+import static org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils.mockDeploymentService;
+import static org.mule.runtime.module.troubleshooting.internal.operations.MemoryCensusOperation.APPLICATION_ARGUMENT_NAME;
+import static org.mule.runtime.module.troubleshooting.internal.operations.MemoryCensusOperation.MEMORY_CENSUS_OPERATION_DESCRIPTION;
+import static org.mule.runtime.module.troubleshooting.internal.operations.MemoryCensusOperation.MEMORY_CENSUS_OPERATION_NAME;
+
+import com.google.gson.JsonElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.StreamingStatistics;
+import org.mule.runtime.core.internal.store.PartitionStatistics;
+import org.mule.runtime.core.internal.streaming.NullStreamingStatistics;
+import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.BufferPoolOccupancy;
+import org.mule.runtime.core.internal.util.store.MuleObjectStoreManager;
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.module.troubleshooting.internal.TroubleshootingTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class MemoryCensusOperationTestCase {
+
+  private MemoryCensusOperation memoryCensusOperation;
+
+  @Before
+  public void setup() {
+    StreamingStatistics statistics = mock(StreamingStatistics.class);
+    when(statistics.getOpenCursorProvidersCount()).thenReturn(3);
+    when(statistics.getOpenCursorsCount()).thenReturn(5);
+
+    PoolingByteBufferManager bufferManager = mock(PoolingByteBufferManager.class);
+    when(bufferManager.getStreamingMemory()).thenReturn(4096L);
+    when(bufferManager.getMaxStreamingMemory()).thenReturn(65536L);
+    when(bufferManager.getPoolsOccupancy()).thenReturn(asList(new BufferPoolOccupancy(1024, 2, 1, 8)));
+
+    MuleObjectStoreManager objectStoreManager = mock(MuleObjectStoreManager.class);
+    when(objectStoreManager.getTransientPartitionsStatistics())
+        .thenReturn(singletonMap("store", new PartitionStatistics(10, 2000, 1)));
+
+    Application app1 = mockApplication("app1", mockStreamingManager(statistics, bufferManager), objectStoreManager);
+    Application app2 = mockApplication("app2", mockStreamingManager(new NullStreamingStatistics(), bufferManager),
+                                       mock(MuleObjectStoreManager.class));
+    memoryCensusOperation = new MemoryCensusOperation(mockDeploymentService(app1, app2));
+  }
+
+  @Test
+  public void definitionHasCorrectNameDescriptionAndNumberOfArguments() {
+    assertThat(memoryCensusOperation.getDefinition().getName(), is(MEMORY_CENSUS_OPERATION_NAME));
+    assertThat(memoryCensusOperation.getDefinition().getDescription(), is(MEMORY_CENSUS_OPERATION_DESCRIPTION));
+    assertThat(memoryCensusOperation.getDefinition().getArgumentDefinitions().size(), is(1));
+  }
+
+  @Test
+  public void censusOfThePassedApplication() {
+    Map<String, String> arguments = new HashMap<>();
+    arguments.put(APPLICATION_ARGUMENT_NAME, "app1");
+    Object result = memoryCensusOperation.getCallback().execute(arguments);
+
+    JsonElement expectedJson =
+        parseString("{\"app1\":{\"streaming\":{\"statisticsEnabled\":true,\"openCursorProviders\":3,\"openCursors\":5,"
+            + "\"bufferPools\":[{\"bufferCapacity\":1024,\"taken\":2,\"idle\":1,\"maxSize\":8}],"
+            + "\"bufferMemory\":{\"usedBytes\":4096,\"maxBytes\":65536,\"idlePooledBytes\":1024,"
+            + "\"heldByCursorProvidersBytes\":3072}},"
+            + "\"objectStores\":{\"store\":{\"entries\":10,\"estimatedBytes\":2000,\"unsizedEntries\":1}}}}");
+    assertThat(parseString((String) result), is(equalTo(expectedJson)));
+  }
+
+  @Test
+  public void whenNoApplicationIsPassedItReturnsAllApplications() {
+    Object result = memoryCensusOperation.getCallback().execute(new HashMap<>());
+
+    JsonElement app2Json = parseString((String) result).getAsJsonObject().get("app2");
+    JsonElement expectedJson =
+        parseString("{\"streaming\":{\"statisticsEnabled\":false,\"openCursorProviders\":0,\"openCursors\":0,"
+            + "\"bufferPools\":[{\"bufferCapacity\":1024,\"taken\":2,\"idle\":1,\"maxSize\":8}],"
+            + "\"bufferMemory\":{\"usedBytes\":4096,\"maxBytes\":65536,\"idlePooledBytes\":1024,"
+            + "\"heldByCursorProvidersBytes\":3072}},"
+            + "\"objectStores\":{}}");
+    assertThat(app2Json, is(equalTo(expectedJson)));
+  }
+
+  private static StreamingManager mockStreamingManager(StreamingStatistics statistics,
+                                                       PoolingByteBufferManager bufferManager) {
+    DefaultByteStreamingManager byteStreamingManager = mock(DefaultByteStreamingManager.class);
+    when(byteStreamingManager.getBufferManager()).thenReturn(bufferManager);
+    StreamingManager streamingManager = mock(StreamingManager.class);
+    when(streamingManager.getStreamingStatistics()).thenReturn(statistics);
+    when(streamingManager.forBytes()).thenReturn(byteStreamingManager);
+    return streamingManager;
+  }
+
+  private static Application mockApplication(String appName, StreamingManager streamingManager,
+                                             MuleObjectStoreManager objectStoreManager) {
+    Application application = TroubleshootingTestUtils.mockApplication(appName);
+    when(application.getArtifactContext().getRegistry().lookupByName(OBJECT_STREAMING_MANAGER))
+        .thenReturn(of(streamingManager));
+    when(application.getArtifactContext().getRegistry().lookupByName(OBJECT_STORE_MANAGER))
+        .thenReturn(of(objectStoreManager));
+    return application;
+  }
+}
@@ -11,6 +11,7 @@ import static java.util.Collections.singleton;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.core.api.error.Errors.CORE_NAMESPACE_NAME;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.ANY;
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CIRCUIT_BREAKER_OPEN;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CLIENT_SECURITY;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.COMPOSITE_ROUTING;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CONNECTIVITY;
@@ -110,7 +111,8 @@ public final class MuleCoreErrorTypeRepository implements ErrorTypeRepository {
     doAddErrorType(DUPLICATE_MESSAGE, validationErrorType);
     doAddErrorType(REDELIVERY_EXHAUSTED, getAnyErrorType());
     final ErrorType connectivityErrorType = doAddErrorType(CONNECTIVITY, getAnyErrorType());
-    doAddErrorType(RETRY_EXHAUSTED, connectivityErrorType);
+    final ErrorType retryExhaustedErrorType = doAddErrorType(RETRY_EXHAUSTED, connectivityErrorType);
+    doAddErrorType(CIRCUIT_BREAKER_OPEN, retryExhaustedErrorType);
     doAddErrorType(ROUTING, getAnyErrorType());
     doAddErrorType(SECURITY, getAnyErrorType());
     doAddErrorType(CLIENT_SECURITY, getErrorType(SECURITY).get());
@@ -8,6 +8,7 @@ package org.mule.runtime.core.api.error;
 
 import static org.mule.runtime.api.component.ComponentIdentifier.builder;
 import static org.mule.runtime.core.api.error.Errors.Identifiers.ANY_IDENTIFIER;
+import static org.mule.runtime.core.api.error.Errors.Identifiers.CIRCUIT_BREAKER_OPEN_ERROR_IDENTIFIER;
 import static org.mule.runtime.core.api.error.Errors.Identifiers.CLIENT_SECURITY_ERROR_IDENTIFIER;
 import static org.mule.runtime.core.api.error.Errors.Identifiers.COMPOSITE_ROUTING_ERROR;
 import static org.mule.runtime.core.api.error.Errors.Identifiers.CONNECTIVITY_ERROR_IDENTIFIER;
@@ -90,6 +91,11 @@ public abstract class Errors {
      */
     public static final String RETRY_EXHAUSTED_ERROR_IDENTIFIER = "RETRY_EXHAUSTED";
 
+    /**
+     * Indicates that an execution was not attempted because the circuit breaker guarding it is open
+     */
+    public static final String CIRCUIT_BREAKER_OPEN_ERROR_IDENTIFIER = "CIRCUIT_BREAKER_OPEN";
+
     /**
      * Indicates that a problem occurred when routing a message
      */
@@ -216,6 +222,8 @@ public abstract class Errors {
           .namespace(CORE_NAMESPACE_NAME).name(REDELIVERY_EXHAUSTED_ERROR_IDENTIFIER).build();
       public static final ComponentIdentifier RETRY_EXHAUSTED = builder()
           .namespace(CORE_NAMESPACE_NAME).name(RETRY_EXHAUSTED_ERROR_IDENTIFIER).build();
+      public static final ComponentIdentifier CIRCUIT_BREAKER_OPEN = builder()
+          .namespace(CORE_NAMESPACE_NAME).name(CIRCUIT_BREAKER_OPEN_ERROR_IDENTIFIER).build();
       public static final ComponentIdentifier ROUTING =
           builder().namespace(CORE_NAMESPACE_NAME).name(ROUTING_ERROR_IDENTIFIER).build();
       public static final ComponentIdentifier CONNECTIVITY =
@@ -20,6 +20,7 @@ import static org.mule.runtime.api.meta.model.parameter.ParameterRole.PRIMARY_CO
 import static org.mule.runtime.api.meta.model.stereotype.StereotypeModelBuilder.newStereotype;
 import static org.mule.runtime.api.util.MuleSystemProperties.REVERT_SUPPORT_EXPRESSIONS_IN_VARIABLE_NAME_IN_SET_VARIABLE_PROPERTY;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.ANY;
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CIRCUIT_BREAKER_OPEN;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CLIENT_SECURITY;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.COMPOSITE_ROUTING;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CONNECTIVITY;
@@ -112,6 +113,7 @@ import org.mule.runtime.api.meta.model.display.DisplayModel;
 import org.mule.runtime.api.meta.model.display.LayoutModel;
 import org.mule.runtime.api.meta.model.display.PathModel;
 import org.mule.runtime.api.meta.model.error.ErrorModel;
+import org.mule.runtime.api.meta.model.stereotype.StereotypeModel;
 import org.mule.runtime.api.notification.NotificationListener;
 import org.mule.runtime.api.scheduler.SchedulingStrategy;
 import org.mule.runtime.core.api.source.scheduler.CronScheduler;
@@ -130,6 +132,7 @@ import org.mule.runtime.extension.internal.property.NoErrorMappingModelProperty;
 import org.mule.runtime.extension.internal.property.TargetModelProperty;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import com.google.gson.reflect.TypeToken;
 
@@ -141,6 +144,8 @@ import com.google.gson.reflect.TypeToken;
 class MuleExtensionModelDeclarer {
 
   static final String DEFAULT_LOG_LEVEL = "INFO";
+  private static final StereotypeModel CIRCUIT_BREAKER =
+      newStereotype("CIRCUIT_BREAKER", "MULE").withParent(APP_CONFIG).build();
   private static final ClassValueModel NOTIFICATION_CLASS_VALUE_MODEL =
       new ClassValueModel(singletonList(NotificationListener.class.getName()));
 
@@ -185,6 +190,10 @@ class MuleExtensionModelDeclarer {
     declareAsync(extensionDeclarer);
     declareForEach(extensionDeclarer, TYPE_LOADER);
     declareUntilSuccessful(extensionDeclarer);
+    declareCache(extensionDeclarer);
+    declareAggregator(extensionDeclarer);
+    declareThrottle(extensionDeclarer);
+    declareCircuitBreaker(extensionDeclarer);
     declareSecurityFilter(extensionDeclarer);
 
     // operations
@@ -386,6 +395,27 @@ class MuleExtensionModelDeclarer {
         .withOptionalParameter("maxConcurrency")
         .describedAs("The maximum concurrency. This value determines the maximum level of parallelism that this async router can use to optimize its performance when processing messages.")
         .ofType(INTEGER_TYPE);
+
+    async.onDefaultParameterGroup()
+        .withOptionalParameter("maxInMemoryEvents")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of events waiting to be dispatched to keep in memory. "
+            + "When set, the events beyond it are spilled to disk and read back in order.");
+
+    async.onDefaultParameterGroup()
+        .withOptionalParameter("maxSpillSize")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(104857600)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum size in bytes of the spill file. Once reached, the events are kept in memory.");
+
+    async.onDefaultParameterGroup()
+        .withOptionalParameter("discardSpilledOnStart")
+        .ofType(BOOLEAN_TYPE)
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the events spilled before a restart are discarded instead of dispatched.");
   }
 
   private void declareFlowRef(ExtensionDeclarer extensionDeclarer) {
@@ -640,6 +670,236 @@ class MuleExtensionModelDeclarer {
         .describedAs("Specifies the minimum time interval between two process retries in milliseconds.\n" +
             " The actual time interval depends on the previous execution but should not exceed twice this number.\n" +
             " Default value is 60000 (one minute)");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("circuitBreaker")
+        .ofType(STRING_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .withAllowedStereotypes(singletonList(CIRCUIT_BREAKER))
+        .describedAs("Reference to a global circuit breaker. While it is open, the inner chain is not executed and a "
+            + "MULE:CIRCUIT_BREAKER_OPEN error is raised right away instead of going through the retries.");
+  }
+
+  private void declareCache(ExtensionDeclarer extensionDeclarer) {
+    ConstructDeclarer cache = extensionDeclarer.withConstruct("cache")
+        .describedAs("Caches the message resulting from its inner chain, keyed by the value of an expression. " +
+            "Events with the same key arriving while the inner chain is executing wait for its result " +
+            "instead of executing it again.");
+
+    cache.withChain().withModelProperty(NoWrapperModelProperty.INSTANCE);
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("keyExpression")
+        .ofType(STRING_TYPE)
+        .withDsl(ParameterDslConfiguration.builder().allowsReferences(false).build())
+        .describedAs("The expression to use to calculate the key of the cached message. "
+            + "If not set, a SHA-256 hash of the payload is used.");
+
+    cache.onDefaultParameterGroup().withOptionalParameter("objectStore")
+        .withDsl(ParameterDslConfiguration.builder()
+            .allowsInlineDefinition(true)
+            .allowsReferences(true).build())
+        .ofType(OBJECT_STORE_TYPE).withExpressionSupport(NOT_SUPPORTED)
+        .withAllowedStereotypes(singletonList(OBJECT_STORE))
+        .describedAs("The object store where the cached messages are stored. If not set, one is created using the "
+            + "'persistent', 'entryTtl', 'entryTtlUnit' and 'maxEntries' parameters.");
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("persistent")
+        .ofType(BOOLEAN_TYPE)
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the created object store is persistent.");
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("entryTtl")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The time a cached message is kept in the created object store. If not set, messages don't expire.");
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("entryTtlUnit")
+        .ofType(TYPE_LOADER.load(TimeUnit.class))
+        .defaultingTo("SECONDS")
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The time unit of 'entryTtl'.");
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("maxEntries")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum amount of messages kept in the created object store. If not set, there is no limit.");
+
+    cache.onDefaultParameterGroup()
+        .withOptionalParameter("maxEntrySize")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(1048576)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum size in bytes of a cached message once serialized. Bigger messages are not cached.");
+  }
+
+  private void declareAggregator(ExtensionDeclarer extensionDeclarer) {
+    ConstructDeclarer aggregator = extensionDeclarer.withConstruct("aggregator")
+        .describedAs("Groups the events it receives by the value of an expression and executes its inner chain once per group, " +
+            "with the list of the payloads of the events in the group as payload. A group is released when it reaches " +
+            "'maxSize' events or 'timeout' milliseconds after its first event arrived, whichever happens first.");
+
+    aggregator.withChain().withModelProperty(NoWrapperModelProperty.INSTANCE);
+
+    aggregator.onDefaultParameterGroup()
+        .withOptionalParameter("groupExpression")
+        .ofType(STRING_TYPE)
+        .withDsl(ParameterDslConfiguration.builder().allowsReferences(false).build())
+        .describedAs("The expression to evaluate on each event to get the group it belongs to. "
+            + "If not set, all the events belong to the same group.");
+
+    aggregator.onDefaultParameterGroup()
+        .withOptionalParameter("maxSize")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(100)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of events which causes a group to be released.");
+
+    aggregator.onDefaultParameterGroup()
+        .withOptionalParameter("timeout")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(1000)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The milliseconds after which a group is released even if it has not reached 'maxSize' events.");
+
+    aggregator.onDefaultParameterGroup()
+        .withOptionalParameter("splitResult")
+        .ofType(BOOLEAN_TYPE)
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the inner chain returns a list with one item per event of the group, each event continuing with "
+            + "the item in its position as payload. If false, every event continues with the message returned by the chain.");
+
+    aggregator.onDefaultParameterGroup().withOptionalParameter("objectStore")
+        .withDsl(ParameterDslConfiguration.builder()
+            .allowsInlineDefinition(true)
+            .allowsReferences(true).build())
+        .ofType(OBJECT_STORE_TYPE).withExpressionSupport(NOT_SUPPORTED)
+        .withAllowedStereotypes(singletonList(OBJECT_STORE))
+        .describedAs("The object store where the payloads of the pending groups are kept, so that they are processed after an "
+            + "abrupt restart. If not set, pending groups are only kept in memory.");
+  }
+
+  private void declareThrottle(ExtensionDeclarer extensionDeclarer) {
+    ConstructDeclarer throttle = extensionDeclarer.withConstruct("throttle")
+        .describedAs("Limits the rate and the concurrency at which events execute its inner chain, separately for each " +
+            "value of a key expression. Events for which there is no permit available are delayed without blocking a thread.");
+
+    throttle.withChain().withModelProperty(NoWrapperModelProperty.INSTANCE);
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("keyExpression")
+        .ofType(STRING_TYPE)
+        .withDsl(ParameterDslConfiguration.builder().allowsReferences(false).build())
+        .describedAs("The expression to evaluate on each event to get the bucket it takes permits from. "
+            + "If not set, all the events take permits from the same bucket.");
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("maxRate")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(0)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Permits per second for each bucket. 0 for no rate limit.");
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("burst")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of permits that may be taken at once from a bucket without waiting. Defaults to 'maxRate'.");
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("maxConcurrency")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(0)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of events of each bucket which may execute the inner chain at the same time. "
+            + "0 for no concurrency limit.");
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("maxWait")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(-1)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum milliseconds an event may wait for a permit before being rejected. "
+            + "A negative value to wait indefinitely.");
+
+    throttle.onDefaultParameterGroup()
+        .withOptionalParameter("rejectionErrorType")
+        .ofType(STRING_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The type of the error raised for rejected events. 'MULE:TIMEOUT' by default.");
+  }
+
+  private void declareCircuitBreaker(ExtensionDeclarer extensionDeclarer) {
+    ConstructDeclarer circuitBreaker = extensionDeclarer.withConstruct("circuitBreaker")
+        .allowingTopLevelDefinition()
+        .withStereotype(CIRCUIT_BREAKER)
+        .describedAs("Stops executions against a failing resource for a while once their failure rate reaches a threshold, "
+            + "so that they fail right away with a MULE:CIRCUIT_BREAKER_OPEN error. It can be referenced from until-successful "
+            + "scopes, and guards the operations of the extension configuration set in 'configName'.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withRequiredParameter("name")
+        .asComponentId()
+        .ofType(STRING_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Name to use to reference this circuit breaker.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("failureRateThreshold")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(50)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The percentage of failed executions in the sliding window which opens the breaker.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("slidingWindowSize")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(20)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of most recent executions the failure rate is computed over.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("minimumCalls")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(10)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of executions the sliding window must have before the failure rate is considered.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("openDuration")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(30000)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The milliseconds the breaker stays open before permitting trial executions, and the time trial executions "
+            + "have to complete before new ones are permitted.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("halfOpenCalls")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(3)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The amount of trial executions permitted once the open duration elapses. "
+            + "The breaker closes if all of them succeed and opens again if any of them fails.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("configName")
+        .ofType(STRING_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The name of an extension configuration whose operations are guarded by this breaker. "
+            + "Only connectivity errors count as failures for those operations.");
+
+    circuitBreaker.onDefaultParameterGroup()
+        .withOptionalParameter("perOperation")
+        .ofType(BOOLEAN_TYPE)
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether each operation of the guarded configuration gets its own breaker.");
   }
 
   private void declareChoice(ExtensionDeclarer extensionDeclarer) {
@@ -707,6 +967,27 @@ class MuleExtensionModelDeclarer {
     firstSuccessful.withRoute("route")
         .withChain()
         .withModelProperty(NoWrapperModelProperty.INSTANCE);
+
+    firstSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("hedgeDelay")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The milliseconds to wait for a route before also sending the message to the next one, taking the first "
+            + "successful result. If not set, the next route is only tried after the previous one fails.");
+
+    firstSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("hedgeDelayPercentile")
+        .ofType(INTEGER_TYPE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Percentile (1 to 99) of the latencies of recent successful executions to use as the hedge delay. "
+            + "'hedgeDelay' is used until enough executions have been recorded.");
+
+    firstSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("hedgeBudget")
+        .ofType(INTEGER_TYPE)
+        .defaultingTo(10)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The percentage of messages that may be sent to an additional route because of the hedge delay.");
   }
 
   private void declareRoundRobin(ExtensionDeclarer extensionDeclarer) {
@@ -961,13 +1242,15 @@ class MuleExtensionModelDeclarer {
     final ErrorModel sourceError = newError(SOURCE).withParent(anyError).build();
     final ErrorModel sourceResponseError = newError(SOURCE_RESPONSE).withParent(anyError).build();
     final ErrorModel serverSecurityError = newError(SERVER_SECURITY).withParent(securityError).build();
+    final ErrorModel retryExhaustedError = newError(RETRY_EXHAUSTED).withParent(anyError).build();
 
     extensionDeclarer.withErrorModel(anyError);
 
     extensionDeclarer.withErrorModel(newError(EXPRESSION).withParent(anyError).build());
     extensionDeclarer.withErrorModel(newError(TRANSFORMATION).withParent(anyError).build());
     extensionDeclarer.withErrorModel(newError(CONNECTIVITY).withParent(anyError).build());
-    extensionDeclarer.withErrorModel(newError(RETRY_EXHAUSTED).withParent(anyError).build());
+    extensionDeclarer.withErrorModel(retryExhaustedError);
+    extensionDeclarer.withErrorModel(newError(CIRCUIT_BREAKER_OPEN).withParent(retryExhaustedError).build());
     extensionDeclarer.withErrorModel(newError(REDELIVERY_EXHAUSTED).withParent(anyError).build());
     extensionDeclarer.withErrorModel(newError(STREAM_MAXIMUM_SIZE_EXCEEDED).withParent(anyError).build());
     extensionDeclarer.withErrorModel(newError(TIMEOUT).withParent(anyError).build());
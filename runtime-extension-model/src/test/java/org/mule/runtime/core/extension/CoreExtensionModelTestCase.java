@@ -24,6 +24,8 @@ import static org.mule.runtime.api.meta.ExpressionSupport.SUPPORTED;
 import static org.mule.runtime.api.meta.model.error.ErrorModelBuilder.newError;
 import static org.mule.runtime.api.meta.model.operation.ExecutionType.CPU_LITE;
 import static org.mule.runtime.api.meta.model.parameter.ParameterGroupModel.OUTPUT;
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.CIRCUIT_BREAKER_OPEN;
+import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.RETRY_EXHAUSTED;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.TRANSFORMATION;
 import static org.mule.runtime.core.api.extension.provider.MuleExtensionModelProvider.ANY_TYPE;
 import static org.mule.runtime.core.api.extension.provider.MuleExtensionModelProvider.BOOLEAN_TYPE;
@@ -35,6 +37,7 @@ import static org.mule.runtime.core.api.extension.provider.MuleExtensionModelPro
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.error.ErrorConstants.ERROR;
+import static org.mule.runtime.extension.api.stereotype.MuleStereotypes.APP_CONFIG;
 import static org.mule.runtime.extension.api.stereotype.MuleStereotypes.ERROR_HANDLER;
 import static org.mule.runtime.extension.api.stereotype.MuleStereotypes.FLOW;
 import static org.mule.runtime.extension.api.stereotype.MuleStereotypes.OBJECT_STORE;
@@ -150,12 +153,15 @@ public class CoreExtensionModelTestCase {
     assertThat(coreExtensionModel.getImportedTypes(), empty());
     assertThat(coreExtensionModel.getConfigurationModels(), empty());
     assertThat(coreExtensionModel.getOperationModels(), hasSize(8));
-    assertThat(coreExtensionModel.getConstructModels(), hasSize(22));
+    assertThat(coreExtensionModel.getConstructModels(), hasSize(26));
     assertThat(coreExtensionModel.getConnectionProviders(), empty());
     assertThat(coreExtensionModel.getSourceModels(), hasSize(1));
 
     assertThat(coreExtensionModel.getErrorModels(),
                hasItem(newError(TRANSFORMATION).withParent(errorMuleAny).build()));
+    assertThat(coreExtensionModel.getErrorModels(),
+               hasItem(newError(CIRCUIT_BREAKER_OPEN)
+                   .withParent(newError(RETRY_EXHAUSTED).withParent(errorMuleAny).build()).build()));
 
     assertThat(coreExtensionModel.getTypes(), hasSize(6));
   }
@@ -592,7 +598,7 @@ public class CoreExtensionModelTestCase {
     assertThat(processors, instanceOf(NestedChainModel.class));
     assertThat(processors.isRequired(), is(true));
 
-    assertThat(asyncModel.getAllParameterModels(), hasSize(2));
+    assertThat(asyncModel.getAllParameterModels(), hasSize(5));
     assertThat(asyncModel.getAllParameterModels().get(0).getName(), is("name"));
     assertThat(asyncModel.getAllParameterModels().get(0).getExpressionSupport(), is(NOT_SUPPORTED));
     assertThat(asyncModel.getAllParameterModels().get(0).getType(), instanceOf(DefaultStringType.class));
@@ -601,6 +607,19 @@ public class CoreExtensionModelTestCase {
     assertThat(asyncModel.getAllParameterModels().get(1).getName(), is("maxConcurrency"));
     assertThat(asyncModel.getAllParameterModels().get(1).getType(), instanceOf(DefaultNumberType.class));
     assertThat(asyncModel.getAllParameterModels().get(1).isRequired(), is(false));
+
+    assertThat(asyncModel.getAllParameterModels().get(2).getName(), is("maxInMemoryEvents"));
+    assertThat(asyncModel.getAllParameterModels().get(2).getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(asyncModel.getAllParameterModels().get(2).getType(), instanceOf(DefaultNumberType.class));
+    assertThat(asyncModel.getAllParameterModels().get(2).isRequired(), is(false));
+
+    assertThat(asyncModel.getAllParameterModels().get(3).getName(), is("maxSpillSize"));
+    assertThat(asyncModel.getAllParameterModels().get(3).getType(), instanceOf(DefaultNumberType.class));
+    assertThat(asyncModel.getAllParameterModels().get(3).getDefaultValue(), is(104857600));
+
+    assertThat(asyncModel.getAllParameterModels().get(4).getName(), is("discardSpilledOnStart"));
+    assertThat(asyncModel.getAllParameterModels().get(4).getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(asyncModel.getAllParameterModels().get(4).getDefaultValue(), is(false));
   }
 
   @Test
@@ -628,7 +647,7 @@ public class CoreExtensionModelTestCase {
     final ConstructModel untilSuccessful = coreExtensionModel.getConstructModel("untilSuccessful").get();
 
     List<ParameterModel> allParameterModels = untilSuccessful.getAllParameterModels();
-    assertThat(allParameterModels, hasSize(2));
+    assertThat(allParameterModels, hasSize(3));
 
     ParameterModel action = allParameterModels.get(0);
     assertThat(action.getName(), is("maxRetries"));
@@ -643,6 +662,155 @@ public class CoreExtensionModelTestCase {
     assertThat(type.getExpressionSupport(), is(SUPPORTED));
     assertThat(type.getDefaultValue(), is(60000));
     assertThat(type.isRequired(), is(false));
+
+    ParameterModel circuitBreaker = allParameterModels.get(2);
+    assertThat(circuitBreaker.getName(), is("circuitBreaker"));
+    assertThat(circuitBreaker.getType(), is(instanceOf(DefaultStringType.class)));
+    assertThat(circuitBreaker.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(circuitBreaker.isRequired(), is(false));
+    assertSteretorype(circuitBreaker.getAllowedStereotypes().get(0), "CIRCUIT_BREAKER", APP_CONFIG);
+  }
+
+  @Test
+  public void cache() {
+    final ConstructModel cache = coreExtensionModel.getConstructModel("cache").get();
+
+    List<ParameterModel> allParameterModels = cache.getAllParameterModels();
+    assertThat(allParameterModels, hasSize(7));
+
+    ParameterModel keyExpression = allParameterModels.get(0);
+    assertThat(keyExpression.getName(), is("keyExpression"));
+    assertThat(keyExpression.getType(), is(instanceOf(DefaultStringType.class)));
+    assertThat(keyExpression.isRequired(), is(false));
+
+    ParameterModel objectStore = allParameterModels.get(1);
+    assertThat(objectStore.getName(), is("objectStore"));
+    assertThat(objectStore.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(objectStore.getAllowedStereotypes(), hasItem(OBJECT_STORE));
+    assertThat(objectStore.isRequired(), is(false));
+
+    ParameterModel persistent = allParameterModels.get(2);
+    assertThat(persistent.getName(), is("persistent"));
+    assertThat(persistent.getType(), is(instanceOf(DefaultBooleanType.class)));
+    assertThat(persistent.getDefaultValue(), is(false));
+
+    ParameterModel entryTtl = allParameterModels.get(3);
+    assertThat(entryTtl.getName(), is("entryTtl"));
+    assertThat(entryTtl.getType(), is(instanceOf(DefaultNumberType.class)));
+
+    ParameterModel entryTtlUnit = allParameterModels.get(4);
+    assertThat(entryTtlUnit.getName(), is("entryTtlUnit"));
+    assertThat(entryTtlUnit.getType().getAnnotation(EnumAnnotation.class).isPresent(), is(true));
+    assertThat(entryTtlUnit.getDefaultValue(), is("SECONDS"));
+
+    ParameterModel maxEntries = allParameterModels.get(5);
+    assertThat(maxEntries.getName(), is("maxEntries"));
+    assertThat(maxEntries.getType(), is(instanceOf(DefaultNumberType.class)));
+
+    ParameterModel maxEntrySize = allParameterModels.get(6);
+    assertThat(maxEntrySize.getName(), is("maxEntrySize"));
+    assertThat(maxEntrySize.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(maxEntrySize.getDefaultValue(), is(1048576));
+  }
+
+  @Test
+  public void aggregator() {
+    final ConstructModel aggregator = coreExtensionModel.getConstructModel("aggregator").get();
+
+    List<ParameterModel> allParameterModels = aggregator.getAllParameterModels();
+    assertThat(allParameterModels, hasSize(5));
+
+    ParameterModel groupExpression = allParameterModels.get(0);
+    assertThat(groupExpression.getName(), is("groupExpression"));
+    assertThat(groupExpression.getType(), is(instanceOf(DefaultStringType.class)));
+    assertThat(groupExpression.isRequired(), is(false));
+
+    ParameterModel maxSize = allParameterModels.get(1);
+    assertThat(maxSize.getName(), is("maxSize"));
+    assertThat(maxSize.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(maxSize.getDefaultValue(), is(100));
+
+    ParameterModel timeout = allParameterModels.get(2);
+    assertThat(timeout.getName(), is("timeout"));
+    assertThat(timeout.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(timeout.getDefaultValue(), is(1000));
+
+    ParameterModel splitResult = allParameterModels.get(3);
+    assertThat(splitResult.getName(), is("splitResult"));
+    assertThat(splitResult.getType(), is(instanceOf(DefaultBooleanType.class)));
+    assertThat(splitResult.getDefaultValue(), is(false));
+
+    ParameterModel objectStore = allParameterModels.get(4);
+    assertThat(objectStore.getName(), is("objectStore"));
+    assertThat(objectStore.getAllowedStereotypes(), hasItem(OBJECT_STORE));
+    assertThat(objectStore.isRequired(), is(false));
+  }
+
+  @Test
+  public void throttle() {
+    final ConstructModel throttle = coreExtensionModel.getConstructModel("throttle").get();
+
+    List<ParameterModel> allParameterModels = throttle.getAllParameterModels();
+    assertThat(allParameterModels, hasSize(6));
+
+    assertThat(allParameterModels.get(0).getName(), is("keyExpression"));
+    assertThat(allParameterModels.get(0).getType(), is(instanceOf(DefaultStringType.class)));
+
+    ParameterModel maxRate = allParameterModels.get(1);
+    assertThat(maxRate.getName(), is("maxRate"));
+    assertThat(maxRate.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(maxRate.getDefaultValue(), is(0));
+
+    assertThat(allParameterModels.get(2).getName(), is("burst"));
+    assertThat(allParameterModels.get(2).getDefaultValue(), is(nullValue()));
+
+    ParameterModel maxConcurrency = allParameterModels.get(3);
+    assertThat(maxConcurrency.getName(), is("maxConcurrency"));
+    assertThat(maxConcurrency.getDefaultValue(), is(0));
+
+    ParameterModel maxWait = allParameterModels.get(4);
+    assertThat(maxWait.getName(), is("maxWait"));
+    assertThat(maxWait.getDefaultValue(), is(-1));
+
+    ParameterModel rejectionErrorType = allParameterModels.get(5);
+    assertThat(rejectionErrorType.getName(), is("rejectionErrorType"));
+    assertThat(rejectionErrorType.getExpressionSupport(), is(NOT_SUPPORTED));
+  }
+
+  @Test
+  public void circuitBreaker() {
+    final ConstructModel circuitBreaker = coreExtensionModel.getConstructModel("circuitBreaker").get();
+
+    assertSteretorype(circuitBreaker.getStereotype(), "CIRCUIT_BREAKER", APP_CONFIG);
+    assertThat(circuitBreaker.allowsTopLevelDeclaration(), is(true));
+
+    List<ParameterModel> allParameterModels = circuitBreaker.getAllParameterModels();
+    assertThat(allParameterModels, hasSize(8));
+
+    ParameterModel name = allParameterModels.get(0);
+    assertThat(name.getName(), is("name"));
+    assertThat(name.isComponentId(), is(true));
+    assertThat(name.isRequired(), is(true));
+
+    assertThat(allParameterModels.get(1).getName(), is("failureRateThreshold"));
+    assertThat(allParameterModels.get(1).getDefaultValue(), is(50));
+    assertThat(allParameterModels.get(2).getName(), is("slidingWindowSize"));
+    assertThat(allParameterModels.get(2).getDefaultValue(), is(20));
+    assertThat(allParameterModels.get(3).getName(), is("minimumCalls"));
+    assertThat(allParameterModels.get(3).getDefaultValue(), is(10));
+    assertThat(allParameterModels.get(4).getName(), is("openDuration"));
+    assertThat(allParameterModels.get(4).getDefaultValue(), is(30000));
+    assertThat(allParameterModels.get(5).getName(), is("halfOpenCalls"));
+    assertThat(allParameterModels.get(5).getDefaultValue(), is(3));
+
+    ParameterModel configName = allParameterModels.get(6);
+    assertThat(configName.getName(), is("configName"));
+    assertThat(configName.getType(), is(instanceOf(DefaultStringType.class)));
+    assertThat(configName.isRequired(), is(false));
+
+    ParameterModel perOperation = allParameterModels.get(7);
+    assertThat(perOperation.getName(), is("perOperation"));
+    assertThat(perOperation.getDefaultValue(), is(false));
   }
 
   @Test
@@ -650,7 +818,20 @@ public class CoreExtensionModelTestCase {
     final ConstructModel firstSuccessful = coreExtensionModel.getConstructModel("firstSuccessful").get();
 
     List<ParameterModel> allParameterModels = firstSuccessful.getAllParameterModels();
-    assertThat(allParameterModels, hasSize(0));
+    assertThat(allParameterModels, hasSize(3));
+
+    ParameterModel hedgeDelay = allParameterModels.get(0);
+    assertThat(hedgeDelay.getName(), is("hedgeDelay"));
+    assertThat(hedgeDelay.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(hedgeDelay.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(hedgeDelay.getDefaultValue(), is(nullValue()));
+
+    assertThat(allParameterModels.get(1).getName(), is("hedgeDelayPercentile"));
+    assertThat(allParameterModels.get(1).getDefaultValue(), is(nullValue()));
+
+    ParameterModel hedgeBudget = allParameterModels.get(2);
+    assertThat(hedgeBudget.getName(), is("hedgeBudget"));
+    assertThat(hedgeBudget.getDefaultValue(), is(10));
   }
 
   @Test
@@ -425,6 +425,11 @@ public interface AllureConstants {
 
       String RETRY_TEMPLATE = "Blocking";
     }
+
+    interface CircuitBreakerStory {
+
+      String CIRCUIT_BREAKER = "Circuit Breaker";
+    }
   }
 
   interface ProcessingStrategiesFeature {
@@ -734,6 +739,21 @@ public interface AllureConstants {
       String UNTIL_SUCCESSFUL = "Until Successful";
     }
 
+    interface CacheStory {
+
+      String CACHE = "Cache";
+    }
+
+    interface AggregatorStory {
+
+      String AGGREGATOR = "Aggregator";
+    }
+
+    interface ThrottleStory {
+
+      String THROTTLE = "Throttle";
+    }
+
     interface AsyncStory {
 
       String ASYNC = "Async";
@@ -10,6 +10,7 @@ import static java.util.Collections.singletonMap;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
 import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.config.bootstrap.ArtifactType.APP;
 import static org.mule.runtime.core.api.construct.Flow.builder;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
 import static org.mule.runtime.core.api.util.IOUtils.getResourceAsString;
@@ -21,13 +22,16 @@ import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.config.ConfigurationBuilder;
+import org.mule.runtime.core.api.config.DefaultMuleConfiguration;
 import org.mule.runtime.core.api.config.builders.SimpleConfigurationBuilder;
 import org.mule.runtime.core.api.construct.Flow;
 import org.mule.runtime.core.api.context.DefaultMuleContextFactory;
+import org.mule.runtime.core.api.context.MuleContextBuilder;
 import org.mule.runtime.core.api.context.MuleContextFactory;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.internal.config.builders.MinimalConfigurationBuilder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -68,12 +72,29 @@ public class AbstractBenchmark {
   }
 
   protected MuleContext createMuleContextWithServices() throws MuleException {
+    return createMuleContextWithServices(MuleContextBuilder.builder(APP));
+  }
+
+  /**
+   * Creates a {@link MuleContext} whose persistent object stores and queues are kept in the given directory.
+   *
+   * @param workingDirectory the working directory of the context.
+   */
+  protected MuleContext createMuleContextWithServices(File workingDirectory) throws MuleException {
+    DefaultMuleConfiguration configuration = new DefaultMuleConfiguration();
+    configuration.setWorkingDirectory(workingDirectory.getAbsolutePath());
+    MuleContextBuilder contextBuilder = MuleContextBuilder.builder(APP);
+    contextBuilder.setMuleConfiguration(configuration);
+    return createMuleContextWithServices(contextBuilder);
+  }
+
+  private MuleContext createMuleContextWithServices(MuleContextBuilder contextBuilder) throws MuleException {
     MuleContextFactory muleContextFactory = new DefaultMuleContextFactory();
     List<ConfigurationBuilder> builderList = new ArrayList<>();
     builderList.add(new SimpleConfigurationBuilder(getStartUpRegistryObjects()));
     builderList.add(new BasicRuntimeServicesConfigurationBuilder());
     builderList.add(new MinimalConfigurationBuilder());
-    return muleContextFactory.createMuleContext(builderList.toArray(new ConfigurationBuilder[] {}));
+    return muleContextFactory.createMuleContext(builderList, contextBuilder);
   }
 
   protected Flow createFlow(MuleContext muleContext) {
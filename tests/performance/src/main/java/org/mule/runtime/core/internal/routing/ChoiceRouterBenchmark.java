@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.profiling.DummyInitialSpanInfoProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares routing through a {@link ChoiceRouter} with many {@code vars.type == 'X'} routes when routes are looked up by the
+ * value of the discriminator and when each route expression is evaluated in order.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class ChoiceRouterBenchmark extends AbstractBenchmark {
+
+  private static final int ROUTES = 40;
+
+  @Param({"true", "false"})
+  public boolean indexed;
+
+  private MuleContext muleContext;
+  private ChoiceRouter router;
+  private CoreEvent firstRouteEvent;
+  private CoreEvent lastRouteEvent;
+
+  @Setup
+  public void setup() throws MuleException {
+    muleContext = createMuleContextWithServices();
+
+    router = new ChoiceRouter(new DummyInitialSpanInfoProvider());
+    router.setAnnotations(singletonMap(LOCATION_KEY, CONNECTOR_LOCATION));
+    router.setMuleContext(muleContext);
+    router.setExpressionManager(muleContext.getExpressionManager());
+    for (int i = 0; i < ROUTES; ++i) {
+      // Wrapping the comparison in parentheses keeps the semantics but prevents the routes from being indexed
+      router.addRoute(format(indexed ? "vars.type == 'type%d'" : "(vars.type == 'type%d')", i), event -> event);
+    }
+    router.initialise();
+    router.start();
+
+    firstRouteEvent = CoreEvent.builder(create(createFlow(muleContext), CONNECTOR_LOCATION))
+        .message(of(PAYLOAD)).addVariable("type", "type0").build();
+    lastRouteEvent = CoreEvent.builder(firstRouteEvent).addVariable("type", "type" + (ROUTES - 1)).build();
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    router.stop();
+    router.dispose();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public CoreEvent firstRoute() throws MuleException {
+    return router.process(firstRouteEvent);
+  }
+
+  @Benchmark
+  public CoreEvent lastRoute() throws MuleException {
+    return router.process(lastRouteEvent);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.serialization.JavaObjectSerializer.COMPACT_PROTOCOL;
+import static org.mule.runtime.core.internal.serialization.JavaObjectSerializer.JAVA_PROTOCOL;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares throughput and serialized size of the available internal serialization protocols. Sizes are logged on setup.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class SerializationProtocolBenchmark extends AbstractBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SerializationProtocolBenchmark.class);
+
+  @Param({JAVA_PROTOCOL, COMPACT_PROTOCOL})
+  public String protocol;
+
+  @Param({"10"})
+  public int variablesCount;
+
+  private MuleContext muleContext;
+  private SerializationProtocol serializationProtocol;
+  private Message message;
+  private CoreEvent event;
+  private byte[] serializedMessage;
+  private byte[] serializedEvent;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    Flow flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow);
+
+    JavaObjectSerializer serializer = new JavaObjectSerializer(protocol);
+    serializer.setMuleContext(muleContext);
+    serializationProtocol = serializer.getInternalProtocol();
+
+    message = Message.builder().value(PAYLOAD).mediaType(APPLICATION_JSON).attributesValue(VALUE).build();
+    CoreEvent.Builder eventBuilder = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(message);
+    for (int i = 0; i < variablesCount; ++i) {
+      eventBuilder.addVariable(KEY + i, VALUE + i);
+    }
+    event = eventBuilder.build();
+
+    serializedMessage = serializationProtocol.serialize(message);
+    serializedEvent = serializationProtocol.serialize(event);
+    LOGGER.info("Protocol '{}': serialized message is {} bytes, serialized event is {} bytes", protocol,
+                serializedMessage.length, serializedEvent.length);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public byte[] serializeMessage() {
+    return serializationProtocol.serialize(message);
+  }
+
+  @Benchmark
+  public Object deserializeMessage() {
+    return serializationProtocol.deserialize(serializedMessage);
+  }
+
+  @Benchmark
+  public byte[] serializeEvent() {
+    return serializationProtocol.serialize(event);
+  }
+
+  @Benchmark
+  public Object deserializeEvent() {
+    return serializationProtocol.deserialize(serializedEvent);
+  }
+}
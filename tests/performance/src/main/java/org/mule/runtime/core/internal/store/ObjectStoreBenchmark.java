@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the operations behind idempotency and watermarking on the partitions the {@code MuleObjectStoreManager} creates over
+ * the {@link PartitionedInMemoryObjectStore} and the {@link PartitionedPersistentObjectStore}. Each partition holds
+ * {@code keyCount / partitionCount} entries. Run with several threads to measure the contention on the partitions.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class ObjectStoreBenchmark extends AbstractBenchmark {
+
+  private static final String PARTITION = "partition";
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"1000"})
+  public int keyCount;
+
+  @Param({"128", "8192"})
+  public int valueSize;
+
+  @Param({"1", "8"})
+  public int partitionCount;
+
+  private File workingDirectory;
+  private MuleContext muleContext;
+  private final List<ObjectStore<Serializable>> partitions = new ArrayList<>();
+  private byte[] value;
+  private final AtomicLong nextKey = new AtomicLong();
+
+  @Setup
+  public void setup() throws Exception {
+    workingDirectory = createTempDirectory("object-store-benchmark").toFile();
+    muleContext = createMuleContextWithServices(workingDirectory);
+    muleContext.start();
+
+    value = new byte[valueSize];
+    new Random(0).nextBytes(value);
+
+    ObjectStoreSettings settings = ObjectStoreSettings.builder().persistent(persistent).build();
+    for (int i = 0; i < partitionCount; ++i) {
+      partitions.add(muleContext.getObjectStoreManager().createObjectStore(PARTITION + i, settings));
+    }
+    for (int i = 0; i < keyCount; ++i) {
+      partitionFor(i).store(KEY + i, value);
+    }
+    nextKey.set(keyCount);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+    deleteTree(workingDirectory);
+  }
+
+  @Benchmark
+  public Serializable retrieve() throws ObjectStoreException {
+    int key = ThreadLocalRandom.current().nextInt(keyCount);
+    return partitionFor(key).retrieve(KEY + key);
+  }
+
+  @Benchmark
+  public boolean contains() throws ObjectStoreException {
+    int key = ThreadLocalRandom.current().nextInt(keyCount);
+    return partitionFor(key).contains(KEY + key);
+  }
+
+  @Benchmark
+  public Serializable storeAndRemove() throws ObjectStoreException {
+    long key = nextKey.getAndIncrement();
+    ObjectStore<Serializable> partition = partitionFor(key);
+    partition.store(KEY + key, value);
+    return partition.remove(KEY + key);
+  }
+
+  private ObjectStore<Serializable> partitionFor(long key) {
+    return partitions.get((int) (key % partitionCount));
+  }
+}
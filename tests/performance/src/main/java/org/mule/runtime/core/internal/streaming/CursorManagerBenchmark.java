@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.core.internal.event.DefaultEventContext;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the per-event cost of tracking streaming resources through {@link CursorManager#manage}. Run with {@code -prof gc}
+ * to see the allocations per event.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class CursorManagerBenchmark extends AbstractBenchmark {
+
+  @Param({"1", "2", "8"})
+  public int providersCount;
+
+  private CursorManager cursorManager;
+  private CursorProvider[] providers;
+
+  @Setup
+  public void setup() {
+    cursorManager = new CursorManager(new NullStreamingStatistics(), new StreamingGhostBuster());
+    providers = new CursorProvider[providersCount];
+    for (int i = 0; i < providersCount; ++i) {
+      providers[i] = new ByteArrayCursorStreamProvider(PAYLOAD.getBytes());
+    }
+  }
+
+  @Benchmark
+  public CursorProvider manage() {
+    DefaultEventContext context = new DefaultEventContext("id", "server", CONNECTOR_LOCATION, "", empty());
+    CursorProvider managed = null;
+    for (CursorProvider provider : providers) {
+      managed = cursorManager.manage(provider, context);
+    }
+    return managed;
+  }
+
+  @Benchmark
+  public CursorProvider manageSameProviderTwice() {
+    DefaultEventContext context = new DefaultEventContext("id", "server", CONNECTOR_LOCATION, "", empty());
+    cursorManager.manage(providers[0], context);
+    return cursorManager.manage(providers[0], context);
+  }
+}
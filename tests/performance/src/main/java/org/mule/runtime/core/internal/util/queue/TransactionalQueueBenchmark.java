@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_QUEUE_MANAGER;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
+import org.mule.runtime.core.api.util.queue.Queue;
+import org.mule.runtime.core.api.util.queue.QueueManager;
+import org.mule.runtime.core.api.util.queue.QueueSession;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the {@link TransactionalQueueManager} queues behind the VM connector. Persistent queues are backed by a
+ * {@link DualRandomAccessFileQueueStoreDelegate}, and the transactional benchmarks also write to the local transaction journal.
+ * Each operation goes to one of {@code queueCount} queues.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class TransactionalQueueBenchmark extends AbstractBenchmark {
+
+  private static final String QUEUE = "queue";
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"128", "8192"})
+  public int valueSize;
+
+  @Param({"1", "8"})
+  public int queueCount;
+
+  private File workingDirectory;
+  private MuleContext muleContext;
+  private QueueManager queueManager;
+  private byte[] value;
+
+  @Setup
+  public void setup() throws Exception {
+    workingDirectory = createTempDirectory("queue-benchmark").toFile();
+    muleContext = createMuleContextWithServices(workingDirectory);
+    muleContext.start();
+
+    value = new byte[valueSize];
+    new Random(0).nextBytes(value);
+
+    queueManager = lookupObject(muleContext, OBJECT_QUEUE_MANAGER);
+    for (int i = 0; i < queueCount; ++i) {
+      queueManager.setQueueConfiguration(QUEUE + i, new DefaultQueueConfiguration(0, persistent));
+    }
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+    deleteTree(workingDirectory);
+  }
+
+  @Benchmark
+  public Serializable offerAndPoll() throws InterruptedException {
+    Queue queue = queueManager.getQueueSession().getQueue(QUEUE + ThreadLocalRandom.current().nextInt(queueCount));
+    queue.offer(value, 0);
+    return queue.poll(0);
+  }
+
+  @Benchmark
+  public Serializable offerAndPollInTransaction() throws Exception {
+    QueueSession session = queueManager.getQueueSession();
+    Queue queue = session.getQueue(QUEUE + ThreadLocalRandom.current().nextInt(queueCount));
+
+    session.begin();
+    queue.offer(value, 0);
+    session.commit();
+
+    session.begin();
+    Serializable polled = queue.poll(0);
+    session.commit();
+    return polled;
+  }
+}
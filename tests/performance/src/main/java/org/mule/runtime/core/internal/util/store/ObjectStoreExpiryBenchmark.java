@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.mule.runtime.api.store.ObjectStoreManager.BASE_IN_MEMORY_OBJECT_STORE_KEY;
+import static org.mule.runtime.api.store.ObjectStoreManager.BASE_PERSISTENT_OBJECT_STORE_KEY;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import static org.openjdk.jmh.annotations.Level.Invocation;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the expiry pass the {@link MuleObjectStoreManager} runs on each partition with a max entries or entry TTL setting. The
+ * partitions are filled with {@code keyCount} entries before each invocation, and the pass trims each one to half of them.
+ */
+@OutputTimeUnit(MICROSECONDS)
+public class ObjectStoreExpiryBenchmark extends AbstractBenchmark {
+
+  private static final String PARTITION = "partition";
+  private static final long ENTRY_TTL = 60000;
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"1000"})
+  public int keyCount;
+
+  @Param({"1", "8"})
+  public int partitionCount;
+
+  private File workingDirectory;
+  private MuleContext muleContext;
+  private final List<ObjectStore<Serializable>> partitions = new ArrayList<>();
+  private final List<Runnable> monitors = new ArrayList<>();
+
+  @Setup
+  public void setup() throws Exception {
+    workingDirectory = createTempDirectory("object-store-expiry-benchmark").toFile();
+    muleContext = createMuleContextWithServices(workingDirectory);
+    muleContext.start();
+
+    MuleObjectStoreManager objectStoreManager = (MuleObjectStoreManager) muleContext.getObjectStoreManager();
+    PartitionableExpirableObjectStore<Serializable> baseStore =
+        lookupObject(muleContext, persistent ? BASE_PERSISTENT_OBJECT_STORE_KEY : BASE_IN_MEMORY_OBJECT_STORE_KEY);
+
+    // No expiration settings, so that the expiry pass is only run by the benchmark and not by the manager's scheduler
+    ObjectStoreSettings settings = ObjectStoreSettings.builder().persistent(persistent).build();
+    for (int i = 0; i < partitionCount; ++i) {
+      partitions.add(objectStoreManager.createObjectStore(PARTITION + i, settings));
+      monitors.add(objectStoreManager.new Monitor(PARTITION + i, baseStore, ENTRY_TTL, keyCount / 2));
+    }
+  }
+
+  @Setup(Invocation)
+  public void fill() throws ObjectStoreException {
+    for (ObjectStore<Serializable> partition : partitions) {
+      partition.clear();
+      for (int i = 0; i < keyCount; ++i) {
+        partition.store(KEY + i, VALUE + i);
+      }
+    }
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    muleContext.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+    deleteTree(workingDirectory);
+  }
+
+  @Benchmark
+  public void expire() {
+    for (Runnable monitor : monitors) {
+      monitor.run();
+    }
+  }
+}
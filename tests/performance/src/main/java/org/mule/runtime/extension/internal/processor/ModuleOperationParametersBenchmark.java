@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.extension.internal.processor;
+
+import static org.mule.metadata.api.model.MetadataFormat.JSON;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.tck.junit4.AbstractMuleContextTestCase.getAppleFlowComponentLocationAnnotations;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.AbstractBenchmark;
+import org.mule.metadata.api.builder.BaseTypeBuilder;
+import org.mule.metadata.api.model.MetadataType;
+import org.mule.runtime.api.component.AbstractComponent;
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.api.meta.model.operation.OperationModel;
+import org.mule.runtime.api.meta.model.parameter.ParameterModel;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.el.ExpressionManagerSession;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.extension.ExtensionManager;
+import org.mule.runtime.core.api.processor.Processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+
+/**
+ * Runs a 10-parameter XML SDK operation, half literals and half expressions, through {@link ModuleOperationMessageProcessor}.
+ * <p>
+ * The resolution of its parameters is also measured on its own, the way the processor used to do it (classifying and evaluating
+ * each raw value on every invocation) against evaluating expressions compiled beforehand in a single session.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class ModuleOperationParametersBenchmark extends AbstractBenchmark {
+
+  private static final String[] PARAMETER_VALUES = {
+      "literal0", "#[vars.foo]",
+      "literal1", "#[payload]",
+      "literal2", "#[vars.foo ++ '-suffix']",
+      "literal3", "#[correlationId]",
+      "literal4", "#[sizeOf(vars.foo)]"};
+
+  private static final Logger LOGGER = getLogger(ModuleOperationParametersBenchmark.class);
+
+  private static final MetadataType STRING_TYPE = BaseTypeBuilder.create(JSON).stringType().build();
+
+  private MuleContext muleContext;
+  private ExpressionManager expressionManager;
+  private CoreEvent event;
+
+  private boolean[] isExpression;
+  private CompiledExpression[] compiledExpressions;
+  private DataType expectedOutputType;
+  private ModuleOperationMessageProcessor operation;
+
+  @Setup
+  public void setup() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    expressionManager = muleContext.getExpressionManager();
+    EventContext context = create(createFlow(muleContext), CONNECTOR_LOCATION);
+    event = CoreEvent.builder(context).message(of(PAYLOAD)).addVariable("foo", "bar").build();
+
+    isExpression = new boolean[PARAMETER_VALUES.length];
+    compiledExpressions = new CompiledExpression[PARAMETER_VALUES.length];
+    for (int i = 0; i < PARAMETER_VALUES.length; ++i) {
+      isExpression[i] = expressionManager.isExpression(PARAMETER_VALUES[i]);
+      if (isExpression[i]) {
+        compiledExpressions[i] = compile(PARAMETER_VALUES[i], expressionManager);
+      }
+    }
+    expectedOutputType = newExpectedOutputType();
+
+    operation = createOperation();
+    initialiseIfNeeded(operation, true, muleContext);
+    startIfNeeded(operation);
+  }
+
+  private ModuleOperationMessageProcessor createOperation() {
+    List<ParameterModel> parameterModels = new ArrayList<>();
+    Map<String, Object> parameters = new HashMap<>();
+    for (int i = 0; i < PARAMETER_VALUES.length; ++i) {
+      ParameterModel parameterModel = mock(ParameterModel.class);
+      when(parameterModel.getName()).thenReturn("param" + i);
+      when(parameterModel.getType()).thenReturn(STRING_TYPE);
+      parameterModels.add(parameterModel);
+      parameters.put("param" + i, PARAMETER_VALUES[i]);
+    }
+
+    OperationModel operationModel = mock(OperationModel.class, RETURNS_DEEP_STUBS);
+    when(operationModel.getAllParameterModels()).thenReturn(parameterModels);
+    when(operationModel.getOutput().getType()).thenReturn(STRING_TYPE);
+
+    ModuleOperationMessageProcessor processor =
+        new ModuleOperationMessageProcessor(parameters, emptyList(), mock(ExtensionManager.class), mock(ExtensionModel.class),
+                                            operationModel);
+    processor.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    processor.setMessageProcessors(singletonList(new BodyProcessor()));
+    return processor;
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    stopIfNeeded(operation);
+    disposeIfNeeded(operation, LOGGER);
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public CoreEvent processOperation() throws MuleException {
+    return operation.process(event);
+  }
+
+  @Benchmark
+  public CoreEvent evaluatePerParameter() {
+    CoreEvent.Builder builder = CoreEvent.builder(event.getContext());
+    for (int i = 0; i < PARAMETER_VALUES.length; ++i) {
+      if (expressionManager.isExpression(PARAMETER_VALUES[i])) {
+        builder.addVariable("param" + i, expressionManager.evaluate(PARAMETER_VALUES[i], newExpectedOutputType(),
+                                                                    NULL_BINDING_CONTEXT, event, CONNECTOR_LOCATION, false));
+      } else {
+        builder.addVariable("param" + i, PARAMETER_VALUES[i]);
+      }
+    }
+    return builder.message(event.getMessage()).build();
+  }
+
+  @Benchmark
+  public CoreEvent evaluateCompiledInSession() {
+    CoreEvent.Builder builder = CoreEvent.builder(event.getContext());
+    try (ExpressionManagerSession session = expressionManager.openSession(CONNECTOR_LOCATION, event, NULL_BINDING_CONTEXT)) {
+      for (int i = 0; i < PARAMETER_VALUES.length; ++i) {
+        if (isExpression[i]) {
+          builder.addVariable("param" + i, session.evaluate(compiledExpressions[i], expectedOutputType));
+        } else {
+          builder.addVariable("param" + i, PARAMETER_VALUES[i]);
+        }
+      }
+    }
+    return builder.message(event.getMessage()).build();
+  }
+
+  private static DataType newExpectedOutputType() {
+    return DataType.builder().type(String.class).mediaType(APPLICATION_JSON).charset(UTF_8).build();
+  }
+
+  /**
+   * The body of the operation, which leaves the event with the resolved parameters as is.
+   */
+  private static final class BodyProcessor extends AbstractComponent implements Processor {
+
+    BodyProcessor() {
+      setAnnotations(getAppleFlowComponentLocationAnnotations());
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) {
+      return event;
+    }
+  }
+}
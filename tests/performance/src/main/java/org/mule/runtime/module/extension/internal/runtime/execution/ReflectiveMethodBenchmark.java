@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
+import static java.util.Arrays.asList;
+
 import org.mule.AbstractBenchmark;
 import org.mule.runtime.api.meta.model.ComponentModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
@@ -13,10 +15,15 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutor;
 import org.mule.runtime.module.extension.internal.runtime.execution.executor.MethodExecutorGenerator;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectInjector;
+import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectInjectorGenerator;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ArgumentResolver;
+import org.mule.runtime.module.extension.internal.util.FieldSetter;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -36,8 +43,42 @@ public class ReflectiveMethodBenchmark extends AbstractBenchmark {
     }
   }
 
+  public static class Pojo {
+
+    public String field0;
+    public String field1;
+    public String field2;
+    public String field3;
+    public String field4;
+    public String field5;
+    public String field6;
+    public String field7;
+    public String field8;
+    public String field9;
+  }
+
+  public static class PrivatePojo {
+
+    private String field0;
+    private String field1;
+    private String field2;
+    private String field3;
+    private String field4;
+    private String field5;
+    private String field6;
+    private String field7;
+    private String field8;
+    private String field9;
+  }
+
+  private final Object[] fieldValues = new Object[] {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+
   private Target target;
   private Method method;
+  private FieldSetter<Object, Object>[] fieldSetters;
+  private ObjectInjector<Pojo> objectInjector;
+  private FieldSetter<Object, Object>[] privateFieldSetters;
+  private ObjectInjector<PrivatePojo> privateObjectInjector;
 
   @Setup
   public void setUp() throws NoSuchMethodException, SecurityException {
@@ -45,6 +86,52 @@ public class ReflectiveMethodBenchmark extends AbstractBenchmark {
     method =
         target.getClass().getDeclaredMethod("doIt", new Class[] {int.class, int.class, int.class, int.class, int.class, int.class,
             int.class, int.class, int.class, int.class});
+
+    List<Field> fields = asList(Pojo.class.getFields());
+    fieldSetters = new FieldSetter[fields.size()];
+    for (int i = 0; i < fieldSetters.length; ++i) {
+      fieldSetters[i] = new FieldSetter<>(fields.get(i));
+    }
+    objectInjector = new ObjectInjectorGenerator().generate(Pojo.class, fields);
+
+    List<Field> privateFields = asList(PrivatePojo.class.getDeclaredFields());
+    privateFieldSetters = new FieldSetter[privateFields.size()];
+    for (int i = 0; i < privateFieldSetters.length; ++i) {
+      privateFieldSetters[i] = new FieldSetter<>(privateFields.get(i));
+    }
+    privateObjectInjector = new ObjectInjectorGenerator().generate(PrivatePojo.class, privateFields);
+  }
+
+  @Benchmark
+  public Object reflectionObjectBuild() throws Exception {
+    Object pojo = Pojo.class.newInstance();
+    for (int i = 0; i < fieldSetters.length; ++i) {
+      fieldSetters[i].set(pojo, fieldValues[i]);
+    }
+    return pojo;
+  }
+
+  @Benchmark
+  public Object generatedObjectBuild() {
+    Pojo pojo = objectInjector.newInstance();
+    objectInjector.inject(pojo, fieldValues);
+    return pojo;
+  }
+
+  @Benchmark
+  public Object reflectionPrivateObjectBuild() throws Exception {
+    Object pojo = PrivatePojo.class.newInstance();
+    for (int i = 0; i < privateFieldSetters.length; ++i) {
+      privateFieldSetters[i].set(pojo, fieldValues[i]);
+    }
+    return pojo;
+  }
+
+  @Benchmark
+  public Object generatedPrivateObjectBuild() {
+    PrivatePojo pojo = privateObjectInjector.newInstance();
+    privateObjectInjector.inject(pojo, fieldValues);
+    return pojo;
   }
 
   @Benchmark
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+
+import java.net.URI;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.selector.ContextSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the overhead of {@link DispatchingLogger} for disabled log levels, both when the context classloader owns the logger
+ * and when the call has to be dispatched to the logger of another context.
+ */
+@OutputTimeUnit(NANOSECONDS)
+@Threads(3)
+public class DispatchingLoggerBenchmark extends AbstractBenchmark {
+
+  private static final String LOGGER_NAME = DispatchingLoggerBenchmark.class.getName();
+
+  @Param({"owner", "dispatched"})
+  public String contextClassLoader;
+
+  private LoggerContext ownerContext;
+  private LoggerContext dispatchedContext;
+  private Logger logger;
+
+  @Setup
+  public void setup() {
+    ownerContext = new LoggerContext("owner");
+    dispatchedContext = new LoggerContext("dispatched");
+    Logger originalLogger = ownerContext.getLogger(LOGGER_NAME);
+
+    ClassLoader resolvedClassLoader =
+        ArtifactAwareContextSelector.resolveLoggerContextClassLoader(currentThread().getContextClassLoader());
+    int ownerClassLoaderHash = contextClassLoader.equals("owner") ? resolvedClassLoader.hashCode()
+        : resolvedClassLoader.hashCode() + 1;
+
+    logger = new DispatchingLogger(originalLogger, ownerClassLoaderHash, ownerContext, new SingleContextSelector(),
+                                   originalLogger.getMessageFactory()) {
+
+      @Override
+      public String getName() {
+        return LOGGER_NAME;
+      }
+    };
+  }
+
+  @TearDown
+  public void teardown() {
+    ownerContext.stop();
+    dispatchedContext.stop();
+  }
+
+  @Benchmark
+  public boolean isDebugEnabled() {
+    return logger.isDebugEnabled();
+  }
+
+  @Benchmark
+  public Logger debugWithParameter() {
+    logger.debug("Disabled message with parameter {}", LOGGER_NAME);
+    return logger;
+  }
+
+  private final class SingleContextSelector implements ContextSelector {
+
+    @Override
+    public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext) {
+      return dispatchedContext;
+    }
+
+    @Override
+    public LoggerContext getContext(String fqcn, ClassLoader loader, boolean currentContext, URI configLocation) {
+      return dispatchedContext;
+    }
+
+    @Override
+    public List<LoggerContext> getLoggerContexts() {
+      return singletonList(dispatchedContext);
+    }
+
+    @Override
+    public void removeContext(LoggerContext context) {
+      // Nothing to do
+    }
+  }
+}
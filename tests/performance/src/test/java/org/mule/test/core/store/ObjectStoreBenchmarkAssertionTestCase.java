@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.store;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.store.ObjectStoreBenchmark;
+import org.mule.runtime.core.internal.util.store.ObjectStoreExpiryBenchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ObjectStoreBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  private static final int THREADS = 4;
+
+  @Test
+  public void inMemoryRetrieve() {
+    assertAverageTime(ObjectStoreBenchmark.class, "retrieve", storeParams(false), 5);
+  }
+
+  @Test
+  public void inMemoryContains() {
+    assertAverageTime(ObjectStoreBenchmark.class, "contains", storeParams(false), 5);
+  }
+
+  @Test
+  public void inMemoryStoreAndRemove() {
+    assertAverageTime(ObjectStoreBenchmark.class, "storeAndRemove", storeParams(false), 100);
+  }
+
+  @Test
+  public void persistentRetrieve() {
+    assertAverageTime(ObjectStoreBenchmark.class, "retrieve", storeParams(true), 500);
+  }
+
+  @Test
+  public void persistentContains() {
+    assertAverageTime(ObjectStoreBenchmark.class, "contains", storeParams(true), 10);
+  }
+
+  @Test
+  public void persistentStoreAndRemove() {
+    assertAverageTime(ObjectStoreBenchmark.class, "storeAndRemove", storeParams(true), 5000);
+  }
+
+  @Test
+  public void inMemoryExpire() {
+    assertAverageTime(ObjectStoreExpiryBenchmark.class, "expire", expiryParams(false), 2000);
+  }
+
+  @Test
+  public void persistentExpire() {
+    assertAverageTime(ObjectStoreExpiryBenchmark.class, "expire", expiryParams(true), 200000);
+  }
+
+  private void assertAverageTime(Class benchmark, String testName, Map<String, String[]> params, double expectedResult) {
+    runAndAssertBenchmark(benchmark, testName, THREADS, params, MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(), lessThanOrEqualTo(expectedResult)));
+  }
+
+  private Map<String, String[]> storeParams(boolean persistent) {
+    Map<String, String[]> params = new HashMap<>();
+    params.put("persistent", new String[] {String.valueOf(persistent)});
+    params.put("keyCount", new String[] {"1000"});
+    params.put("valueSize", new String[] {"128"});
+    params.put("partitionCount", new String[] {"8"});
+    return params;
+  }
+
+  private Map<String, String[]> expiryParams(boolean persistent) {
+    Map<String, String[]> params = new HashMap<>();
+    params.put("persistent", new String[] {String.valueOf(persistent)});
+    params.put("keyCount", new String[] {"1000"});
+    params.put("partitionCount", new String[] {"1"});
+    return params;
+  }
+}
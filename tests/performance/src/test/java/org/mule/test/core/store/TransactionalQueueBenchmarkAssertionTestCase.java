@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.store;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.util.queue.TransactionalQueueBenchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TransactionalQueueBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  private static final int THREADS = 4;
+
+  @Test
+  public void transientOfferAndPoll() {
+    assertAverageTime("offerAndPoll", false, 20);
+  }
+
+  @Test
+  public void persistentOfferAndPoll() {
+    assertAverageTime("offerAndPoll", true, 5000);
+  }
+
+  @Test
+  public void transientOfferAndPollInTransaction() {
+    assertAverageTime("offerAndPollInTransaction", false, 50);
+  }
+
+  @Test
+  public void persistentOfferAndPollInTransaction() {
+    assertAverageTime("offerAndPollInTransaction", true, 10000);
+  }
+
+  private void assertAverageTime(String testName, boolean persistent, double expectedResult) {
+    Map<String, String[]> params = new HashMap<>();
+    params.put("persistent", new String[] {String.valueOf(persistent)});
+    params.put("valueSize", new String[] {"128"});
+    params.put("queueCount", new String[] {"8"});
+
+    runAndAssertBenchmark(TransactionalQueueBenchmark.class, testName, THREADS, params, MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(), lessThanOrEqualTo(expectedResult)));
+  }
+}